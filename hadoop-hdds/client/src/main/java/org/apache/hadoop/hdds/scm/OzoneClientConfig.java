@@ -84,6 +84,27 @@ public class OzoneClientConfig {
       tags = ConfigTag.CLIENT)
   private long streamBufferMaxSize = 32 * 1024 * 1024;
 
+  @Config(key = "stream.commit.watch.async",
+      defaultValue = "false",
+      description = "If true, the client starts watching for the commit of "
+          + "each partial flush on all servers as soon as the flush is "
+          + "acknowledged, and releases the buffers of committed data while "
+          + "the key is being written. Writes then only block if all of "
+          + "ozone.client.stream.buffer.max.size is in use, until the oldest "
+          + "partial flush is committed. If false, the commit is only "
+          + "watched when the buffers are full.",
+      tags = {ConfigTag.CLIENT, ConfigTag.PERFORMANCE})
+  private boolean streamCommitWatchAsync = false;
+
+  @Config(key = "stream.commit.watch.threads",
+      defaultValue = "8",
+      description = "Number of threads used by the client to watch for the "
+          + "commit of partial flushes, shared by all keys written through "
+          + "the client. Only used if ozone.client.stream.commit.watch.async "
+          + "is true.",
+      tags = ConfigTag.CLIENT)
+  private int streamCommitWatchThreads = 8;
+
   @Config(key = "max.retries",
       defaultValue = "5",
       description = "Maximum number of retries by Ozone Client on "
@@ -124,6 +145,23 @@ public class OzoneClientConfig {
       tags = ConfigTag.CLIENT)
   private boolean checksumVerify = true;
 
+  @Config(key = "read.ahead.chunks",
+      defaultValue = "0",
+      description = "Number of chunks following the current read position "
+          + "that are read asynchronously, possibly from the next blocks of "
+          + "the key, while a key is read sequentially. At most this many "
+          + "chunks are buffered for each open key. Zero disables read-ahead.",
+      tags = ConfigTag.CLIENT)
+  private int readAheadChunks = 0;
+
+  @Config(key = "read.ahead.threads",
+      defaultValue = "8",
+      description = "Number of threads used by the client to read chunks "
+          + "ahead, shared by all keys read through the client. Only used if "
+          + "ozone.client.read.ahead.chunks is positive.",
+      tags = ConfigTag.CLIENT)
+  private int readAheadThreads = 8;
+
   @PostConstruct
   private void validate() {
     Preconditions.checkState(streamBufferSize > 0);
@@ -139,6 +177,12 @@ private void validate() {
     Preconditions.checkState(streamBufferFlushSize % streamBufferSize == 0,
         "expected flush size (%s) to be a multiple of buffer size (%s)",
         streamBufferFlushSize, streamBufferSize);
+    Preconditions.checkArgument(readAheadChunks >= 0,
+        "Read-ahead chunks should not be negative");
+    Preconditions.checkArgument(readAheadThreads > 0,
+        "Read-ahead threads should be positive");
+    Preconditions.checkArgument(streamCommitWatchThreads > 0,
+        "Commit watch threads should be positive");
 
     if (bytesPerChecksum <
         OzoneConfigKeys.OZONE_CLIENT_BYTES_PER_CHECKSUM_MIN_SIZE) {
@@ -184,6 +228,22 @@ public void setStreamBufferMaxSize(long streamBufferMaxSize) {
     this.streamBufferMaxSize = streamBufferMaxSize;
   }
 
+  public boolean isStreamCommitWatchAsync() {
+    return streamCommitWatchAsync;
+  }
+
+  public void setStreamCommitWatchAsync(boolean streamCommitWatchAsync) {
+    this.streamCommitWatchAsync = streamCommitWatchAsync;
+  }
+
+  public int getStreamCommitWatchThreads() {
+    return streamCommitWatchThreads;
+  }
+
+  public void setStreamCommitWatchThreads(int streamCommitWatchThreads) {
+    this.streamCommitWatchThreads = streamCommitWatchThreads;
+  }
+
   public int getMaxRetryCount() {
     return maxRetryCount;
   }
@@ -227,4 +287,20 @@ public void setChecksumVerify(boolean checksumVerify) {
   public int getBufferIncrement() {
     return bufferIncrement;
   }
+
+  public int getReadAheadChunks() {
+    return readAheadChunks;
+  }
+
+  public void setReadAheadChunks(int readAheadChunks) {
+    this.readAheadChunks = readAheadChunks;
+  }
+
+  public int getReadAheadThreads() {
+    return readAheadThreads;
+  }
+
+  public void setReadAheadThreads(int readAheadThreads) {
+    this.readAheadThreads = readAheadThreads;
+  }
 }
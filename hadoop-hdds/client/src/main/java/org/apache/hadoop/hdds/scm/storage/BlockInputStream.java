@@ -105,10 +105,22 @@ public class BlockInputStream extends InputStream
 
   private final Function<BlockID, Pipeline> refreshPipelineFunction;
 
+  // Pool reading chunks ahead, null if read-ahead is disabled.
+  private final ReadAheadPool readAheadPool;
+
   public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
       Token<OzoneBlockTokenIdentifier> token, boolean verifyChecksum,
       XceiverClientFactory xceiverClientFactory,
       Function<BlockID, Pipeline> refreshPipelineFunction) {
+    this(blockId, blockLen, pipeline, token, verifyChecksum,
+        xceiverClientFactory, refreshPipelineFunction, null);
+  }
+
+  public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
+      Token<OzoneBlockTokenIdentifier> token, boolean verifyChecksum,
+      XceiverClientFactory xceiverClientFactory,
+      Function<BlockID, Pipeline> refreshPipelineFunction,
+      ReadAheadPool readAheadPool) {
     this.blockID = blockId;
     this.length = blockLen;
     this.pipeline = pipeline;
@@ -116,6 +128,7 @@ public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
     this.verifyChecksum = verifyChecksum;
     this.xceiverClientFactory = xceiverClientFactory;
     this.refreshPipelineFunction = refreshPipelineFunction;
+    this.readAheadPool = readAheadPool;
   }
 
   public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
@@ -238,7 +251,8 @@ protected synchronized void addStream(ChunkInfo chunkInfo) {
 
   protected ChunkInputStream createChunkInputStream(ChunkInfo chunkInfo) {
     return new ChunkInputStream(chunkInfo, blockID,
-        xceiverClientFactory, () -> pipeline, verifyChecksum, token);
+        xceiverClientFactory, () -> pipeline, verifyChecksum, token,
+        readAheadPool);
   }
 
   public synchronized long getRemaining() {
@@ -320,9 +334,50 @@ public synchronized int read(byte[] b, int off, int len) throws IOException {
         chunkIndex += 1;
       }
     }
+    if (readAheadPool != null) {
+      // The current chunk is read ahead as well, if it has not been read yet.
+      readAhead(chunkIndex, readAheadPool.getWindow() + 1);
+    }
     return totalReadLen;
   }
 
+  /**
+   * Start reading the chunks from the current position ahead, for example
+   * while the previous block is being read.
+   * @param numChunks maximum number of chunks to read ahead
+   * @return number of chunks from the current position to the end of the
+   * block
+   */
+  public synchronized int readAhead(int numChunks) throws IOException {
+    checkOpen();
+    if (!initialized) {
+      initialize();
+    }
+    if (chunkStreams == null) {
+      return 0;
+    }
+    readAhead(chunkIndex, numChunks);
+    return chunkStreams.size() - chunkIndex;
+  }
+
+  private void readAhead(int fromIndex, int numChunks) {
+    int toIndex = Math.min(fromIndex + numChunks, chunkStreams.size());
+    for (int i = fromIndex; i < toIndex; i++) {
+      chunkStreams.get(i).readAhead();
+    }
+  }
+
+  /**
+   * @return number of chunks following the current chunk in this block, zero
+   * if the block has not been read yet.
+   */
+  public synchronized int getChunksAhead() {
+    if (!initialized) {
+      return 0;
+    }
+    return chunkStreams.size() - chunkIndex - 1;
+  }
+
   /**
    * Seeks the BlockInputStream to the specified position. If the stream is
    * not initialized, save the seeked position via blockPosition. Otherwise,
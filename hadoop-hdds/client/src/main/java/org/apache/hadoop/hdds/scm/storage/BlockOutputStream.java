@@ -20,6 +20,7 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -48,6 +49,7 @@
 import org.apache.hadoop.ozone.common.OzoneChecksumException;
 import org.apache.hadoop.security.token.Token;
 import org.apache.hadoop.security.token.TokenIdentifier;
+import org.apache.hadoop.util.Time;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -140,6 +142,29 @@ public BlockOutputStream(
       BufferPool bufferPool,
       OzoneClientConfig config,
       Token<? extends TokenIdentifier> token
+  ) throws IOException {
+    this(blockID, xceiverClientManager, pipeline, bufferPool, config, token,
+        null);
+  }
+
+  /**
+   * Creates a new BlockOutputStream.
+   *
+   * @param blockID              block ID
+   * @param xceiverClientManager client manager that controls client
+   * @param pipeline             pipeline where block will be written
+   * @param bufferPool           pool of buffers
+   * @param commitWatchPool      threads of the client watching the commit,
+   *                             if it is watched asynchronously
+   */
+  public BlockOutputStream(
+      BlockID blockID,
+      XceiverClientFactory xceiverClientManager,
+      Pipeline pipeline,
+      BufferPool bufferPool,
+      OzoneClientConfig config,
+      Token<? extends TokenIdentifier> token,
+      CommitWatchPool commitWatchPool
   ) throws IOException {
     this.xceiverClientFactory = xceiverClientManager;
     this.config = config;
@@ -165,7 +190,8 @@ public BlockOutputStream(
 
     // A single thread executor handle the responses of async requests
     responseExecutor = Executors.newSingleThreadExecutor();
-    commitWatcher = new CommitWatcher(bufferPool, xceiverClient);
+    commitWatcher = new CommitWatcher(bufferPool, xceiverClient,
+        config.isStreamCommitWatchAsync() ? commitWatchPool : null);
     bufferList = null;
     totalDataFlushedLength = 0;
     writtenDataLength = 0;
@@ -193,6 +219,22 @@ public long getWrittenDataLength() {
     return writtenDataLength;
   }
 
+  /**
+   * @return length of the data written to the stream, which is not yet
+   * known to be committed by all datanodes, and still kept in the buffers
+   */
+  public long getInflightDataLength() {
+    return writtenDataLength - getTotalAckDataLength();
+  }
+
+  /**
+   * @return number of partial flushes acknowledged by the datanodes, which
+   * are not yet known to be committed by all of them
+   */
+  public int getCommitLag() {
+    return commitWatcher.getCommitLag();
+  }
+
   public List<DatanodeDetails> getFailedServers() {
     return failedServers;
   }
@@ -271,6 +313,9 @@ private void doFlushOrWatchIfNeeded() throws IOException {
         updateFlushLength();
         executePutBlock(false, false);
       }
+      if (commitWatcher.isWatchAsync()) {
+        releaseCommittedBuffers();
+      }
       // Data in the bufferPool can not exceed streamBufferMaxSize
       if (bufferPool.getNumberOfUsedBuffers() == bufferPool.getCapacity()) {
         handleFullBuffer();
@@ -278,6 +323,17 @@ private void doFlushOrWatchIfNeeded() throws IOException {
     }
   }
 
+  /**
+   * Releases the buffers of the data already committed, without waiting for
+   * the commit of any more data.
+   */
+  private void releaseCommittedBuffers() {
+    for (XceiverClientReply reply : commitWatcher.releaseCommittedBuffers()) {
+      addFailedServers(reply);
+    }
+    refreshCurrentBuffer(bufferPool);
+  }
+
   private void allocateNewBufferIfNeeded() {
     if (currentBufferRemaining == 0) {
       currentBuffer = bufferPool.allocateBuffer(config.getBufferIncrement());
@@ -343,10 +399,16 @@ public void writeOnRetry(long len) throws IOException {
    * @throws IOException
    */
   private void handleFullBuffer() throws IOException {
+    long start = Time.monotonicNow();
     try {
       checkOpen();
       if (!commitWatcher.getFutureMap().isEmpty()) {
-        waitOnFlushFutures();
+        if (commitWatcher.isWatchAsync()) {
+          // only the first flush has to be committed to free up buffers
+          waitOnFirstFlushFuture();
+        } else {
+          waitOnFlushFutures();
+        }
       }
     } catch (ExecutionException e) {
       handleExecutionException(e);
@@ -355,6 +417,10 @@ private void handleFullBuffer() throws IOException {
       handleInterruptedException(ex, true);
     }
     watchForCommit(true);
+    if (commitWatcher.isWatchAsync()) {
+      CommitWatcher.getMetrics().addBufferFullWait(
+          Time.monotonicNow() - start);
+    }
   }
 
 
@@ -380,14 +446,7 @@ private void watchForCommit(boolean bufferFull) throws IOException {
       XceiverClientReply reply = bufferFull ?
           commitWatcher.watchOnFirstIndex() : commitWatcher.watchOnLastIndex();
       if (reply != null) {
-        List<DatanodeDetails> dnList = reply.getDatanodes();
-        if (!dnList.isEmpty()) {
-          Pipeline pipe = xceiverClient.getPipeline();
-
-          LOG.warn("Failed to commit BlockId {} on {}. Failed nodes: {}",
-              blockID, pipe, dnList);
-          failedServers.addAll(dnList);
-        }
+        addFailedServers(reply);
       }
     } catch (IOException ioe) {
       setIoException(ioe);
@@ -397,6 +456,17 @@ private void watchForCommit(boolean bufferFull) throws IOException {
 
   }
 
+  private void addFailedServers(XceiverClientReply reply) {
+    List<DatanodeDetails> dnList = reply.getDatanodes();
+    if (!dnList.isEmpty()) {
+      Pipeline pipe = xceiverClient.getPipeline();
+
+      LOG.warn("Failed to commit BlockId {} on {}. Failed nodes: {}",
+          blockID, pipe, dnList);
+      failedServers.addAll(dnList);
+    }
+  }
+
   /**
    * @param close whether putBlock is happening as part of closing the stream
    * @param force true if no data was written since most recent putBlock and
@@ -561,6 +631,18 @@ public void close() throws IOException {
     }
   }
 
+  private void waitOnFirstFlushFuture()
+      throws InterruptedException, ExecutionException {
+    Map<Long, CompletableFuture<ContainerProtos.ContainerCommandResponseProto>>
+        futureMap = commitWatcher.getFutureMap();
+    long first = Collections.min(futureMap.keySet());
+    CompletableFuture<ContainerProtos.ContainerCommandResponseProto> future =
+        futureMap.get(first);
+    if (future != null) {
+      future.get();
+    }
+  }
+
   private void waitOnFlushFutures()
       throws InterruptedException, ExecutionException {
     CompletableFuture<Void> combinedFuture = CompletableFuture.allOf(
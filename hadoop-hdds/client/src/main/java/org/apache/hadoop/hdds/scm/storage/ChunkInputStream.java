@@ -44,9 +44,17 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -102,12 +110,28 @@ public class ChunkInputStream extends InputStream
 
   private final Token<? extends TokenIdentifier> token;
 
+  // Pool reading the chunk ahead, null if read-ahead is disabled.
+  private final ReadAheadPool readAheadPool;
+  // Data of the whole chunk being read ahead, until it is used or discarded.
+  private Future<ByteBuffer[]> readAheadData;
+  // Task reading the chunk ahead, set together with readAheadData.
+  private ReadAheadTask readAheadTask;
+
   private static final int EOF = -1;
 
   ChunkInputStream(ChunkInfo chunkInfo, BlockID blockId,
       XceiverClientFactory xceiverClientFactory,
       Supplier<Pipeline> pipelineSupplier,
       boolean verifyChecksum, Token<? extends TokenIdentifier> token) {
+    this(chunkInfo, blockId, xceiverClientFactory, pipelineSupplier,
+        verifyChecksum, token, null);
+  }
+
+  ChunkInputStream(ChunkInfo chunkInfo, BlockID blockId,
+      XceiverClientFactory xceiverClientFactory,
+      Supplier<Pipeline> pipelineSupplier,
+      boolean verifyChecksum, Token<? extends TokenIdentifier> token,
+      ReadAheadPool readAheadPool) {
     this.chunkInfo = chunkInfo;
     this.length = chunkInfo.getLen();
     this.blockID = blockId;
@@ -115,6 +139,7 @@ public class ChunkInputStream extends InputStream
     this.pipelineSupplier = pipelineSupplier;
     this.verifyChecksum = verifyChecksum;
     this.token = token;
+    this.readAheadPool = readAheadPool;
   }
 
   public synchronized long getRemaining() {
@@ -246,10 +271,13 @@ public boolean seekToNewSource(long targetPos) throws IOException {
 
   @Override
   public synchronized void close() {
+    discardReadAhead();
     releaseClient();
   }
 
   protected synchronized void releaseClient() {
+    // the client must not be released while the chunk is being read ahead
+    discardReadAhead();
     if (xceiverClientFactory != null && xceiverClient != null) {
       xceiverClientFactory.releaseClient(xceiverClient, false);
       xceiverClient = null;
@@ -329,6 +357,19 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
     // successful read in adjustBufferPosition()
     storePosition();
 
+    ByteBuffer[] readAheadBuffers = getReadAheadData();
+    if (readAheadBuffers != null) {
+      // Data of the whole chunk has been read ahead, checksums were verified
+      // for the whole chunk, too.
+      setBuffers(readAheadBuffers, length);
+      bufferOffsetWrtChunkData = 0;
+      adjustBufferPosition(startByteIndex);
+      return;
+    }
+    if (readAheadPool != null) {
+      ReadAheadPool.getMetrics().incrMisses();
+    }
+
     long adjustedBuffersOffset, adjustedBuffersLen;
     if (verifyChecksum) {
       // Adjust the chunk offset and length to include required checksum
@@ -365,8 +406,12 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
 
   private void readChunkDataIntoBuffers(ChunkInfo readChunkInfo)
       throws IOException {
-    buffers = readChunk(readChunkInfo);
-    buffersSize = readChunkInfo.getLen();
+    setBuffers(readChunk(readChunkInfo), readChunkInfo.getLen());
+  }
+
+  private void setBuffers(ByteBuffer[] data, long dataSize) {
+    buffers = data;
+    buffersSize = dataSize;
 
     bufferOffsets = new long[buffers.length];
     int tempOffset = 0;
@@ -380,12 +425,137 @@ private void readChunkDataIntoBuffers(ChunkInfo readChunkInfo)
     allocated = true;
   }
 
+  /**
+   * Start reading the whole chunk asynchronously, if the chunk has not been
+   * read yet, and it is not being read ahead already. The data is used by
+   * the next read from the chunk which needs data from the container.
+   */
+  synchronized void readAhead() {
+    if (readAheadPool == null || readAheadData != null || allocated
+        || chunkPosition > 0 || length == 0) {
+      return;
+    }
+    try {
+      acquireClient();
+      final ReadAheadTask task = new ReadAheadTask(xceiverClient);
+      readAheadData = readAheadPool.submit(task);
+      readAheadTask = task;
+      ReadAheadPool.getMetrics().incrScheduled();
+    } catch (IOException | RejectedExecutionException e) {
+      LOG.debug("Failed to read ahead chunk {} of block {}",
+          chunkInfo.getChunkName(), blockID, e);
+    }
+  }
+
+  /**
+   * Wait for the data read ahead, if any.
+   * @return data of the whole chunk, or null if the chunk was not read ahead
+   * or reading it failed.
+   */
+  private ByteBuffer[] getReadAheadData() throws IOException {
+    final Future<ByteBuffer[]> future = readAheadData;
+    if (future == null) {
+      return null;
+    }
+    readAheadData = null;
+    readAheadTask = null;
+    ReadAheadMetrics metrics = ReadAheadPool.getMetrics();
+    boolean done = future.isDone();
+    try {
+      ByteBuffer[] data = future.get();
+      if (done) {
+        metrics.incrHits();
+      } else {
+        metrics.incrWaits();
+      }
+      return data;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading chunk "
+          + chunkInfo.getChunkName());
+    } catch (ExecutionException | CancellationException e) {
+      // Read the chunk again, errors are handled the same way as without
+      // read-ahead.
+      LOG.debug("Read-ahead of chunk {} of block {} failed",
+          chunkInfo.getChunkName(), blockID, e);
+      metrics.incrFailures();
+      return null;
+    }
+  }
+
+  /**
+   * Cancel the read-ahead, if any.  If the read is already running, wait for
+   * it to complete, since it uses the current client.
+   */
+  private synchronized void discardReadAhead() {
+    final Future<ByteBuffer[]> future = readAheadData;
+    final ReadAheadTask task = readAheadTask;
+    if (future == null) {
+      return;
+    }
+    readAheadData = null;
+    readAheadTask = null;
+    ReadAheadPool.getMetrics().incrDiscarded();
+    future.cancel(false);
+    try {
+      task.cancelOrAwait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Reads the whole chunk with the client acquired when it was scheduled.
+   * Once started, the task runs to completion even if the read-ahead is
+   * cancelled, so that the client is not released while in use.
+   */
+  private final class ReadAheadTask implements Callable<ByteBuffer[]> {
+    private final XceiverClientSpi client;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private ReadAheadTask(XceiverClientSpi client) {
+      this.client = client;
+    }
+
+    @Override
+    public ByteBuffer[] call() throws IOException {
+      if (!started.compareAndSet(false, true)) {
+        throw new CancellationException();
+      }
+      try {
+        return readChunk(client, chunkInfo);
+      } finally {
+        completed.countDown();
+      }
+    }
+
+    /**
+     * Prevents the task from starting, or waits for it to complete if it
+     * is already running.
+     */
+    private void cancelOrAwait() throws InterruptedException {
+      if (!started.compareAndSet(false, true)) {
+        completed.await();
+      }
+    }
+  }
+
   /**
    * Send RPC call to get the chunk from the container.
    */
   @VisibleForTesting
   protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo)
       throws IOException {
+    return readChunk(xceiverClient, readChunkInfo);
+  }
+
+  /**
+   * Send RPC call to get the chunk from the container using the given client.
+   */
+  @VisibleForTesting
+  protected ByteBuffer[] readChunk(XceiverClientSpi client,
+      ChunkInfo readChunkInfo) throws IOException {
     ReadChunkResponseProto readChunkResponse;
 
     try {
@@ -393,7 +563,7 @@ protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo)
           ContainerProtocolCalls.getValidatorList();
       validators.add(validator);
 
-      readChunkResponse = ContainerProtocolCalls.readChunk(xceiverClient,
+      readChunkResponse = ContainerProtocolCalls.readChunk(client,
           readChunkInfo, blockID, validators, token);
 
     } catch (IOException e) {
@@ -709,6 +879,7 @@ protected long getChunkPosition() {
   @Override
   public synchronized void unbuffer() {
     storePosition();
+    discardReadAhead();
     releaseBuffers();
     releaseClient();
   }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Threads watching for the commit of the partial flushes of the output
+ * streams of a client, if the commit is watched asynchronously.
+ *
+ * Watches of a stream may complete out of order on different threads, the
+ * {@link CommitWatcher} of the stream still releases the buffers in the
+ * order of the log indexes.
+ */
+public class CommitWatchPool implements Closeable {
+
+  private final ThreadPoolExecutor executor;
+
+  public CommitWatchPool(int threads) {
+    Preconditions.checkArgument(threads > 0);
+    this.executor = new ThreadPoolExecutor(threads, threads,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("CommitWatcher-%d").build());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(supplier, executor);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
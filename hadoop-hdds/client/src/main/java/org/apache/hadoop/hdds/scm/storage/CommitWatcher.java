@@ -25,12 +25,16 @@
 package org.apache.hadoop.hdds.scm.storage;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
@@ -50,12 +54,20 @@
 /**
  * This class executes watchForCommit on ratis pipeline and releases
  * buffers once data successfully gets replicated.
+ *
+ * If the commit is watched asynchronously, watchForCommit is called for each
+ * log index as soon as it is added, on a thread of the {@link CommitWatchPool}
+ * of the client. Buffers are still only released by the writer, in the order
+ * of the log indexes, either without blocking for the indexes already
+ * committed, or by waiting for the watch of an index.
  */
 public class CommitWatcher {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(CommitWatcher.class);
 
+  private static CommitWatcherMetrics metrics;
+
   // A reference to the pool of buffers holding the data
   private BufferPool bufferPool;
 
@@ -70,6 +82,16 @@ public class CommitWatcher {
       CompletableFuture<ContainerProtos.ContainerCommandResponseProto>>
       futureMap;
 
+  // watchForCommit calls started for the log indexes, if the commit is
+  // watched asynchronously
+  private final ConcurrentNavigableMap<Long,
+      CompletableFuture<XceiverClientReply>> watchFutures =
+      new ConcurrentSkipListMap<>();
+
+  // threads of the client watching the commit, null if the commit is
+  // watched synchronously
+  private final CommitWatchPool watchPool;
+
   private XceiverClientSpi xceiverClient;
 
   // total data which has been successfully flushed and acknowledged
@@ -77,11 +99,34 @@ public class CommitWatcher {
   private long totalAckDataLength;
 
   public CommitWatcher(BufferPool bufferPool, XceiverClientSpi xceiverClient) {
+    this(bufferPool, xceiverClient, null);
+  }
+
+  public CommitWatcher(BufferPool bufferPool, XceiverClientSpi xceiverClient,
+      CommitWatchPool watchPool) {
     this.bufferPool = bufferPool;
     this.xceiverClient = xceiverClient;
     commitIndex2flushedDataMap = new ConcurrentSkipListMap<>();
     totalAckDataLength = 0;
     futureMap = new ConcurrentHashMap<>();
+    this.watchPool = watchPool;
+    if (watchPool != null) {
+      getMetrics();
+    }
+  }
+
+  /**
+   * Get commit watch metrics, shared by all watchers of the process.
+   */
+  public static synchronized CommitWatcherMetrics getMetrics() {
+    if (metrics == null) {
+      metrics = CommitWatcherMetrics.create();
+    }
+    return metrics;
+  }
+
+  public boolean isWatchAsync() {
+    return watchPool != null;
   }
 
   /**
@@ -116,12 +161,69 @@ private long releaseBuffers(List<Long> indexes) {
   public void updateCommitInfoMap(long index, List<ChunkBuffer> buffers) {
     commitIndex2flushedDataMap.computeIfAbsent(index, k -> new LinkedList<>())
         .addAll(buffers);
+    if (watchPool != null) {
+      watchAsync(index);
+    }
+  }
+
+  private void watchAsync(long index) {
+    try {
+      watchFutures.put(index, watchPool.supplyAsync(() -> {
+        try {
+          return xceiverClient.watchForCommit(index);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new CompletionException(e);
+        } catch (Exception e) {
+          throw new CompletionException(e);
+        }
+      }));
+      metrics.incrAsyncWatches();
+    } catch (RuntimeException e) {
+      // the stream is being closed, the writer watches synchronously
+      LOG.debug("Unable to watch index {} asynchronously", index, e);
+    }
+  }
+
+  /**
+   * Releases the buffers of the log indexes which have been committed
+   * according to the watches already completed, without blocking.
+   * @return replies of the completed watches
+   */
+  public List<XceiverClientReply> releaseCommittedBuffers() {
+    List<XceiverClientReply> replies = new ArrayList<>();
+    Iterator<CompletableFuture<XceiverClientReply>> iterator =
+        watchFutures.values().iterator();
+    while (iterator.hasNext()) {
+      CompletableFuture<XceiverClientReply> future = iterator.next();
+      if (!future.isDone() || future.isCompletedExceptionally()) {
+        // failed watches are retried by the writer when it waits
+        break;
+      }
+      XceiverClientReply reply = future.join();
+      iterator.remove();
+      if (reply != null) {
+        replies.add(reply);
+      }
+      // same as in watchForCommit, no reply means log index 0
+      adjustBuffers(reply == null ? 0 : reply.getLogIndex());
+      metrics.incrAsyncReleases();
+    }
+    return replies;
   }
 
   int getCommitInfoMapSize() {
     return commitIndex2flushedDataMap.size();
   }
 
+  /**
+   * @return number of flushes acknowledged by the datanodes, which are not
+   * yet known to be committed by all of them
+   */
+  public int getCommitLag() {
+    return commitIndex2flushedDataMap.size();
+  }
+
   /**
    * Calls watch for commit for the first index in commitIndex2flushedDataMap to
    * the Ratis client.
@@ -175,6 +277,7 @@ private void adjustBuffers(long commitIndex) {
     if (!keyList.isEmpty()) {
       releaseBuffers(keyList);
     }
+    watchFutures.headMap(commitIndex, true).clear();
   }
 
   // It may happen that once the exception is encountered , we still might
@@ -195,8 +298,21 @@ public XceiverClientReply watchForCommit(long commitIndex)
       throws IOException {
     long index;
     try {
-      XceiverClientReply reply =
-          xceiverClient.watchForCommit(commitIndex);
+      CompletableFuture<XceiverClientReply> future =
+          watchFutures.remove(commitIndex);
+      XceiverClientReply reply = null;
+      if (future != null) {
+        try {
+          reply = future.get();
+        } catch (ExecutionException e) {
+          LOG.debug("Asynchronous watch for index {} failed, retrying",
+              commitIndex, e);
+          future = null;
+        }
+      }
+      if (future == null) {
+        reply = xceiverClient.watchForCommit(commitIndex);
+      }
       if (reply == null) {
         index = 0;
       } else {
@@ -238,6 +354,12 @@ public long getTotalAckDataLength() {
   }
 
   public void cleanup() {
+    // watches not started yet are skipped, the pool is shared by the client
+    for (CompletableFuture<XceiverClientReply> future
+        : watchFutures.values()) {
+      future.cancel(false);
+    }
+    watchFutures.clear();
     if (commitIndex2flushedDataMap != null) {
       commitIndex2flushedDataMap.clear();
     }
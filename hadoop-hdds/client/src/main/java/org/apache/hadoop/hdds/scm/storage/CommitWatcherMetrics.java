@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableRate;
+
+/**
+ * Client metrics of watching for the commit of written block data, shared by
+ * all {@link CommitWatcher} instances of the client.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Block Commit Watch Metrics", context = "dfs")
+public class CommitWatcherMetrics {
+  public static final String SOURCE_NAME =
+      CommitWatcherMetrics.class.getSimpleName();
+
+  private @Metric MutableCounterLong numAsyncWatches;
+  private @Metric MutableCounterLong numAsyncReleases;
+  private @Metric MutableCounterLong numBufferFullWaits;
+  private @Metric MutableRate bufferFullWaitTime;
+
+  public static CommitWatcherMetrics create() {
+    DefaultMetricsSystem.initialize(SOURCE_NAME);
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "Block Commit Watch Metrics",
+        new CommitWatcherMetrics());
+  }
+
+  /**
+   * Commit of a partial flush was watched as soon as it was acknowledged.
+   */
+  void incrAsyncWatches() {
+    numAsyncWatches.incr();
+  }
+
+  /**
+   * Buffers of a partial flush were released without blocking the writer.
+   */
+  void incrAsyncReleases() {
+    numAsyncReleases.incr();
+  }
+
+  /**
+   * The writer was blocked as all buffers of the stream were in use.
+   */
+  void addBufferFullWait(long millis) {
+    numBufferFullWaits.incr();
+    bufferFullWaitTime.add(millis);
+  }
+
+  public long getAsyncWatches() {
+    return numAsyncWatches.value();
+  }
+
+  public long getAsyncReleases() {
+    return numAsyncReleases.value();
+  }
+
+  public long getBufferFullWaits() {
+    return numBufferFullWaits.value();
+  }
+
+  public void unRegister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+
+/**
+ * Client metrics of chunk read-ahead. A chunk read is a hit if the data was
+ * read ahead by {@link ReadAheadPool}, and a miss if it had to be read
+ * from the datanode when the data was needed.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Chunk Read-Ahead Metrics", context = "dfs")
+public class ReadAheadMetrics {
+  public static final String SOURCE_NAME =
+      ReadAheadMetrics.class.getSimpleName();
+
+  private @Metric MutableCounterLong numReadAheadScheduled;
+  private @Metric MutableCounterLong numReadAheadHits;
+  private @Metric MutableCounterLong numReadAheadWaits;
+  private @Metric MutableCounterLong numReadAheadMisses;
+  private @Metric MutableCounterLong numReadAheadFailures;
+  private @Metric MutableCounterLong numReadAheadDiscarded;
+
+  public static ReadAheadMetrics create() {
+    DefaultMetricsSystem.initialize(SOURCE_NAME);
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "Chunk Read-Ahead Metrics",
+        new ReadAheadMetrics());
+  }
+
+  void incrScheduled() {
+    numReadAheadScheduled.incr();
+  }
+
+  /**
+   * Chunk data was read ahead, and it was available when the data was needed.
+   */
+  void incrHits() {
+    numReadAheadHits.incr();
+  }
+
+  /**
+   * Chunk data was read ahead, but the reader had to wait for it.
+   */
+  void incrWaits() {
+    numReadAheadWaits.incr();
+  }
+
+  void incrMisses() {
+    numReadAheadMisses.incr();
+  }
+
+  void incrFailures() {
+    numReadAheadFailures.incr();
+  }
+
+  /**
+   * Chunk data was read ahead, but the stream was closed or unbuffered
+   * before it was used.
+   */
+  void incrDiscarded() {
+    numReadAheadDiscarded.incr();
+  }
+
+  public long getScheduled() {
+    return numReadAheadScheduled.value();
+  }
+
+  public long getHits() {
+    return numReadAheadHits.value();
+  }
+
+  public long getWaits() {
+    return numReadAheadWaits.value();
+  }
+
+  public long getMisses() {
+    return numReadAheadMisses.value();
+  }
+
+  public long getFailures() {
+    return numReadAheadFailures.value();
+  }
+
+  public long getDiscarded() {
+    return numReadAheadDiscarded.value();
+  }
+
+  public void unRegister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import java.io.Closeable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Threads reading chunks ahead of the current position of the input streams
+ * of a client.
+ *
+ * The window is the number of chunks following the chunk being read which
+ * are read ahead, including chunks of the next blocks of a key. Data which
+ * has been read ahead is kept by the {@link ChunkInputStream} until it is
+ * read, so the memory used by each stream is bounded by the window.
+ */
+public class ReadAheadPool implements Closeable {
+
+  private static ReadAheadMetrics metrics;
+
+  private final int window;
+  private final ThreadPoolExecutor executor;
+  private final UnaryOperator<Runnable> taskContext;
+
+  public ReadAheadPool(int window, int threads) {
+    this(window, threads, UnaryOperator.identity());
+  }
+
+  /**
+   * @param taskContext called on the thread submitting a task, returns the
+   *                    task to run in the context of that thread, for
+   *                    example with its credentials for the OM requests
+   *                    refreshing the pipeline of a block.
+   */
+  public ReadAheadPool(int window, int threads,
+      UnaryOperator<Runnable> taskContext) {
+    Preconditions.checkArgument(window > 0);
+    Preconditions.checkArgument(threads > 0);
+    this.window = window;
+    this.taskContext = taskContext;
+    this.executor = new ThreadPoolExecutor(threads, threads,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("ChunkReadAhead-%d").build());
+    executor.allowCoreThreadTimeOut(true);
+    getMetrics();
+  }
+
+  /**
+   * @return number of chunks to read ahead of the current chunk.
+   */
+  public int getWindow() {
+    return window;
+  }
+
+  <T> Future<T> submit(Callable<T> task) {
+    FutureTask<T> future = new FutureTask<>(task);
+    executor.execute(taskContext.apply(future));
+    return future;
+  }
+
+  public void execute(Runnable task) {
+    executor.execute(taskContext.apply(task));
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Get read-ahead metrics, shared by all pools of the process.
+   */
+  public static synchronized ReadAheadMetrics getMetrics() {
+    if (metrics == null) {
+      metrics = ReadAheadMetrics.create();
+    }
+    return metrics;
+  }
+}
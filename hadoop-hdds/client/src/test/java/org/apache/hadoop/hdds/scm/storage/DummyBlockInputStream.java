@@ -38,6 +38,8 @@ class DummyBlockInputStream extends BlockInputStream {
 
   private final Map<String, byte[]> chunkDataMap;
 
+  private final ReadAheadPool readAheadPool;
+
   @SuppressWarnings("parameternumber")
   DummyBlockInputStream(
       BlockID blockId,
@@ -49,11 +51,27 @@ class DummyBlockInputStream extends BlockInputStream {
       Function<BlockID, Pipeline> refreshFunction,
       List<ChunkInfo> chunkList,
       Map<String, byte[]> chunks) {
+    this(blockId, blockLen, pipeline, token, verifyChecksum,
+        xceiverClientManager, refreshFunction, chunkList, chunks, null);
+  }
+
+  @SuppressWarnings("parameternumber")
+  DummyBlockInputStream(
+      BlockID blockId,
+      long blockLen,
+      Pipeline pipeline,
+      Token<OzoneBlockTokenIdentifier> token,
+      boolean verifyChecksum,
+      XceiverClientFactory xceiverClientManager,
+      Function<BlockID, Pipeline> refreshFunction,
+      List<ChunkInfo> chunkList,
+      Map<String, byte[]> chunks,
+      ReadAheadPool readAheadPool) {
     super(blockId, blockLen, pipeline, token, verifyChecksum,
-        xceiverClientManager, refreshFunction);
+        xceiverClientManager, refreshFunction, readAheadPool);
     this.chunkDataMap = chunks;
     this.chunks = chunkList;
-
+    this.readAheadPool = readAheadPool;
   }
 
   @Override
@@ -65,7 +83,8 @@ protected List<ChunkInfo> getChunkInfos() throws IOException {
   protected ChunkInputStream createChunkInputStream(ChunkInfo chunkInfo) {
     return new DummyChunkInputStream(
         chunkInfo, null, null, false,
-        chunkDataMap.get(chunkInfo.getChunkName()).clone(), null);
+        chunkDataMap.get(chunkInfo.getChunkName()).clone(), null,
+        readAheadPool);
   }
 
   @Override
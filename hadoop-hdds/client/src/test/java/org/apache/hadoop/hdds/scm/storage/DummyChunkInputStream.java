@@ -24,6 +24,7 @@
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.XceiverClientSpi;
 
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.ozone.common.utils.BufferUtils;
@@ -44,13 +45,23 @@ public DummyChunkInputStream(ChunkInfo chunkInfo,
       XceiverClientFactory xceiverClientFactory,
       boolean verifyChecksum,
       byte[] data, Pipeline pipeline) {
+    this(chunkInfo, blockId, xceiverClientFactory, verifyChecksum, data,
+        pipeline, null);
+  }
+
+  public DummyChunkInputStream(ChunkInfo chunkInfo,
+      BlockID blockId,
+      XceiverClientFactory xceiverClientFactory,
+      boolean verifyChecksum,
+      byte[] data, Pipeline pipeline, ReadAheadPool readAheadPool) {
     super(chunkInfo, blockId, xceiverClientFactory, () -> pipeline,
-        verifyChecksum, null);
+        verifyChecksum, null, readAheadPool);
     this.chunkData = data.clone();
   }
 
   @Override
-  protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo) {
+  protected ByteBuffer[] readChunk(XceiverClientSpi client,
+      ChunkInfo readChunkInfo) {
     int offset = (int) readChunkInfo.getOffset();
     int remainingToRead = (int) readChunkInfo.getLen();
 
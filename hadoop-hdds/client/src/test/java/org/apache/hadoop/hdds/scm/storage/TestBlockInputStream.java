@@ -221,6 +221,36 @@ public void testSeekAndRead() throws Exception {
     matchWithInputData(b2, 150, 100);
   }
 
+  @Test
+  public void testReadAhead() throws Exception {
+    ReadAheadMetrics metrics = ReadAheadPool.getMetrics();
+    long scheduled = metrics.getScheduled();
+    long hits = metrics.getHits() + metrics.getWaits();
+    long misses = metrics.getMisses();
+
+    try (ReadAheadPool pool = new ReadAheadPool(2, 2)) {
+      BlockID blockID = new BlockID(new ContainerBlockID(1, 1));
+      blockStream = new DummyBlockInputStream(blockID, blockSize, null, null,
+          false, null, refreshPipeline, chunks, chunkDataMap, pool);
+
+      // Read the block chunk by chunk.
+      byte[] b = new byte[blockSize];
+      for (int off = 0; off < blockSize; off += CHUNK_SIZE) {
+        int len = Math.min(CHUNK_SIZE, blockSize - off);
+        Assert.assertEquals(len, blockStream.read(b, off, len));
+      }
+      matchWithInputData(b, 0, blockSize);
+    }
+
+    // Only the first chunk is read when it is needed, the following chunks
+    // are read ahead.
+    Assert.assertEquals(misses + 1, metrics.getMisses());
+    Assert.assertEquals(scheduled + chunks.size() - 1,
+        metrics.getScheduled());
+    Assert.assertEquals(hits + chunks.size() - 1,
+        metrics.getHits() + metrics.getWaits());
+  }
+
   @Test
   public void testRefreshPipelineFunction() throws Exception {
     BlockID blockID = new BlockID(new ContainerBlockID(1, 1));
@@ -61,12 +61,32 @@ public class TestBlockOutputStreamCorrectness {
 
   @Test
   public void test() throws IOException {
+    writeBlocks(10, false);
+  }
+
+  @Test
+  public void testAsyncCommitWatch() throws IOException {
+    CommitWatcherMetrics metrics = CommitWatcher.getMetrics();
+    long asyncWatches = metrics.getAsyncWatches();
+    long asyncReleases = metrics.getAsyncReleases();
+
+    writeBlocks(2, true);
+
+    Assert.assertTrue(metrics.getAsyncWatches() > asyncWatches);
+    Assert.assertTrue(metrics.getAsyncReleases() > asyncReleases);
+  }
+
+  private void writeBlocks(int blocks, boolean watchAsync)
+      throws IOException {
 
     final BufferPool bufferPool = new BufferPool(4 * 1024 * 1024, 32 / 4);
+    // shared by the streams, as by the streams of a client
+    final CommitWatchPool watchPool =
+        watchAsync ? new CommitWatchPool(2) : null;
 
-    for (int block = 0; block < 10; block++) {
+    for (int block = 0; block < blocks; block++) {
       BlockOutputStream outputStream =
-          createBlockOutputStream(bufferPool);
+          createBlockOutputStream(bufferPool, watchPool);
 
       Random random = new Random(SEED);
 
@@ -84,11 +104,15 @@ public void test() throws IOException {
         }
       }
       outputStream.close();
+      Assert.assertEquals(0, outputStream.getInflightDataLength());
+    }
+    if (watchPool != null) {
+      watchPool.close();
     }
   }
 
-  private BlockOutputStream createBlockOutputStream(BufferPool bufferPool)
-      throws IOException {
+  private BlockOutputStream createBlockOutputStream(BufferPool bufferPool,
+      CommitWatchPool watchPool) throws IOException {
 
     final Pipeline pipeline = MockPipeline.createRatisPipeline();
 
@@ -103,6 +127,7 @@ private BlockOutputStream createBlockOutputStream(BufferPool bufferPool)
     config.setStreamBufferFlushSize(16 * 1024 * 1024);
     config.setChecksumType(ChecksumType.NONE);
     config.setBytesPerChecksum(256 * 1024);
+    config.setStreamCommitWatchAsync(watchPool != null);
 
     BlockOutputStream outputStream = new BlockOutputStream(
         new BlockID(1L, 1L),
@@ -110,7 +135,8 @@ private BlockOutputStream createBlockOutputStream(BufferPool bufferPool)
         pipeline,
         bufferPool,
         config,
-        null);
+        null,
+        watchPool);
     return outputStream;
   }
 
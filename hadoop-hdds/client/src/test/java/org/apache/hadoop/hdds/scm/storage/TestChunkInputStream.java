@@ -19,9 +19,14 @@
 package org.apache.hadoop.hdds.scm.storage;
 
 import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
@@ -39,6 +44,7 @@
 import org.junit.Test;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -224,6 +230,128 @@ public void testUnbuffer() throws Exception {
     matchWithInputData(b2, 20, 20);
   }
 
+  @Test
+  public void testReadAhead() throws Exception {
+    ReadAheadMetrics metrics = ReadAheadPool.getMetrics();
+    long hits = metrics.getHits() + metrics.getWaits();
+    long discarded = metrics.getDiscarded();
+
+    try (ReadAheadPool pool = new ReadAheadPool(1, 1)) {
+      chunkStream = new DummyChunkInputStream(chunkInfo, null, null, true,
+          chunkData, null, pool);
+      chunkStream.readAhead();
+
+      // The data read ahead covers the whole chunk, so it is used for reads
+      // at any position.
+      seekAndVerify(50);
+      byte[] b = new byte[20];
+      chunkStream.read(b, 0, 20);
+      matchWithInputData(b, 50, 20);
+      matchWithInputData(chunkStream.getReadByteBuffers(), 0, CHUNK_SIZE);
+      Assert.assertEquals(hits + 1, metrics.getHits() + metrics.getWaits());
+
+      // Chunk is not read ahead again after it has been read.
+      chunkStream.unbuffer();
+      chunkStream.readAhead();
+      chunkStream.read(b, 0, 20);
+      matchWithInputData(b, 70, 20);
+      Assert.assertEquals(hits + 1, metrics.getHits() + metrics.getWaits());
+
+      // Data read ahead is discarded on unbuffer.
+      chunkStream = new DummyChunkInputStream(chunkInfo, null, null, true,
+          chunkData, null, pool);
+      chunkStream.readAhead();
+      chunkStream.unbuffer();
+      Assert.assertEquals(discarded + 1, metrics.getDiscarded());
+    }
+  }
+
+  @Test
+  public void testReadAheadInContextOfCaller() throws Exception {
+    Pipeline pipeline = MockPipeline.createSingleNodePipeline();
+    XceiverClientFactory clientFactory = mock(XceiverClientFactory.class);
+    when(clientFactory.acquireClientForReadData(pipeline))
+        .thenReturn(mock(XceiverClientSpi.class));
+    ThreadLocal<String> context = new ThreadLocal<>();
+    CompletableFuture<String> readContext = new CompletableFuture<>();
+
+    try (ReadAheadPool pool = new ReadAheadPool(1, 1, task -> {
+      String caller = context.get();
+      return () -> {
+        context.set(caller);
+        try {
+          task.run();
+        } finally {
+          context.remove();
+        }
+      };
+    })) {
+      ChunkInputStream subject = new ChunkInputStream(chunkInfo, null,
+          clientFactory, () -> pipeline, false, null, pool) {
+        @Override
+        protected ByteBuffer[] readChunk(XceiverClientSpi readClient,
+            ChunkInfo readChunkInfo) {
+          readContext.complete(context.get());
+          return ByteString.copyFrom(chunkData).asReadOnlyByteBufferList()
+              .toArray(new ByteBuffer[0]);
+        }
+      };
+
+      context.set("caller");
+      try {
+        subject.readAhead();
+      } finally {
+        context.remove();
+      }
+      Assert.assertEquals("caller", readContext.get(10, TimeUnit.SECONDS));
+      subject.close();
+    }
+  }
+
+  @Test
+  public void testClientNotReleasedDuringReadAhead() throws Exception {
+    Pipeline pipeline = MockPipeline.createSingleNodePipeline();
+    XceiverClientFactory clientFactory = mock(XceiverClientFactory.class);
+    XceiverClientSpi client = mock(XceiverClientSpi.class);
+    when(clientFactory.acquireClientForReadData(pipeline))
+        .thenReturn(client);
+    CountDownLatch readStarted = new CountDownLatch(1);
+    CountDownLatch readAllowed = new CountDownLatch(1);
+
+    try (ReadAheadPool pool = new ReadAheadPool(1, 1)) {
+      ChunkInputStream subject = new ChunkInputStream(chunkInfo, null,
+          clientFactory, () -> pipeline, false, null, pool) {
+        @Override
+        protected ByteBuffer[] readChunk(XceiverClientSpi readClient,
+            ChunkInfo readChunkInfo) throws IOException {
+          Assert.assertSame(client, readClient);
+          readStarted.countDown();
+          try {
+            readAllowed.await();
+          } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+          }
+          return ByteString.copyFrom(chunkData).asReadOnlyByteBufferList()
+              .toArray(new ByteBuffer[0]);
+        }
+      };
+
+      subject.readAhead();
+      Assert.assertTrue(readStarted.await(10, TimeUnit.SECONDS));
+      CompletableFuture<Void> unbuffer =
+          CompletableFuture.runAsync(subject::unbuffer);
+
+      // client is kept until the running read-ahead completes
+      Thread.sleep(100);
+      Assert.assertFalse(unbuffer.isDone());
+      verify(clientFactory, never()).releaseClient(client, false);
+
+      readAllowed.countDown();
+      unbuffer.get(10, TimeUnit.SECONDS);
+      verify(clientFactory).releaseClient(client, false);
+    }
+  }
+
   @Test
   public void connectsToNewPipeline() throws Exception {
     // GIVEN
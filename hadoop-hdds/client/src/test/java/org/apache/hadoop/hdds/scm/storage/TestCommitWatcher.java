@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.scm.XceiverClientReply;
+import org.apache.hadoop.hdds.scm.XceiverClientSpi;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.test.GenericTestUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests watching for the commit asynchronously with {@link CommitWatcher}.
+ */
+public class TestCommitWatcher {
+
+  private static final int BUFFER_SIZE = 16;
+  private static final int FLUSHES = 3;
+
+  private final Map<Long, CompletableFuture<Void>> commits =
+      new ConcurrentHashMap<>();
+  private final Map<Long, String> watchThreads = new ConcurrentHashMap<>();
+  private XceiverClientSpi client;
+  private CommitWatchPool watchPool;
+  private CommitWatcher watcher;
+
+  @Before
+  public void setup() throws Exception {
+    client = mock(XceiverClientSpi.class);
+    when(client.watchForCommit(anyLong())).thenAnswer(invocation -> {
+      long index = invocation.getArgument(0);
+      watchThreads.put(index, Thread.currentThread().getName());
+      commits.get(index).get();
+      XceiverClientReply reply = new XceiverClientReply(null);
+      reply.setLogIndex(index);
+      return reply;
+    });
+    watchPool = new CommitWatchPool(2);
+    BufferPool bufferPool = new BufferPool(BUFFER_SIZE, FLUSHES);
+    watcher = new CommitWatcher(bufferPool, client, watchPool);
+
+    for (long index = 1; index <= FLUSHES; index++) {
+      commits.put(index, new CompletableFuture<>());
+      ChunkBuffer buffer = bufferPool.allocateBuffer(0);
+      buffer.put(new byte[BUFFER_SIZE]);
+      watcher.getFutureMap().put(index * BUFFER_SIZE,
+          CompletableFuture.completedFuture(null));
+      watcher.updateCommitInfoMap(index, Collections.singletonList(buffer));
+    }
+    Assert.assertTrue(watcher.isWatchAsync());
+  }
+
+  @After
+  public void cleanup() {
+    watcher.cleanup();
+    watchPool.close();
+  }
+
+  @Test
+  public void testWatchAsync() throws Exception {
+    // the writer is not blocked by the watches, which run in the pool
+    verify(client, timeout(10000)).watchForCommit(1);
+    verify(client, timeout(10000)).watchForCommit(2);
+    Assert.assertTrue(watcher.releaseCommittedBuffers().isEmpty());
+    Assert.assertEquals(FLUSHES, watcher.getCommitLag());
+    for (String thread : watchThreads.values()) {
+      Assert.assertTrue(thread, thread.startsWith("CommitWatcher-"));
+    }
+
+    commits.get(1L).complete(null);
+    GenericTestUtils.waitFor(() -> {
+      watcher.releaseCommittedBuffers();
+      return watcher.getTotalAckDataLength() == BUFFER_SIZE;
+    }, 10, 10000);
+    Assert.assertEquals(FLUSHES - 1, watcher.getCommitLag());
+  }
+
+  @Test
+  public void testBuffersReleasedInOrder() throws Exception {
+    // a later watch completing first does not release its buffers
+    commits.get(2L).complete(null);
+    verify(client, timeout(10000)).watchForCommit(2);
+    TimeUnit.MILLISECONDS.sleep(100);
+    Assert.assertTrue(watcher.releaseCommittedBuffers().isEmpty());
+    Assert.assertEquals(0, watcher.getTotalAckDataLength());
+    Assert.assertEquals(FLUSHES, watcher.getCommitLag());
+
+    commits.get(1L).complete(null);
+    GenericTestUtils.waitFor(() -> {
+      watcher.releaseCommittedBuffers();
+      return watcher.getTotalAckDataLength() == 2 * BUFFER_SIZE;
+    }, 10, 10000);
+    Assert.assertEquals(FLUSHES - 2, watcher.getCommitLag());
+
+    commits.get(3L).complete(null);
+    XceiverClientReply reply = watcher.watchOnLastIndex();
+    Assert.assertEquals(3, reply.getLogIndex());
+    Assert.assertEquals(FLUSHES * BUFFER_SIZE,
+        watcher.getTotalAckDataLength());
+    Assert.assertEquals(0, watcher.getCommitLag());
+    Assert.assertTrue(watcher.getFutureMap().isEmpty());
+  }
+}
@@ -34,6 +34,9 @@ public final class HddsConfigKeys {
       "hdds.container.report.interval";
   public static final String HDDS_CONTAINER_REPORT_INTERVAL_DEFAULT =
       "60s";
+  public static final String HDDS_CONTAINER_REPORT_MAX_DELTAS =
+      "hdds.container.report.max.deltas";
+  public static final int HDDS_CONTAINER_REPORT_MAX_DELTAS_DEFAULT = 10;
   public static final String HDDS_PIPELINE_REPORT_INTERVAL =
           "hdds.pipeline.report.interval";
   public static final String HDDS_PIPELINE_REPORT_INTERVAL_DEFAULT =
@@ -242,6 +242,14 @@ public final class ScmConfigKeys {
   public static final String OZONE_SCM_HEARTBEAT_PROCESS_INTERVAL_DEFAULT =
       "3s";
 
+  public static final String OZONE_SCM_EVENT_REPORT_EXEC_THREADS =
+      "ozone.scm.event.report.exec.threads";
+  public static final int OZONE_SCM_EVENT_REPORT_EXEC_THREADS_DEFAULT = 4;
+
+  public static final String OZONE_SCM_EVENT_REPORT_QUEUE_SIZE =
+      "ozone.scm.event.report.queue.size";
+  public static final int OZONE_SCM_EVENT_REPORT_QUEUE_SIZE_DEFAULT = 10000;
+
   public static final String OZONE_SCM_STALENODE_INTERVAL =
       "ozone.scm.stale.node.interval";
   public static final String OZONE_SCM_STALENODE_INTERVAL_DEFAULT =
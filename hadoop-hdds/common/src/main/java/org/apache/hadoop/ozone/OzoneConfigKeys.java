@@ -403,6 +403,12 @@ public final class OzoneConfigKeys {
   public static final String OZONE_MANAGER_FAIR_LOCK = "ozone.om.lock.fair";
   public static final boolean OZONE_MANAGER_FAIR_LOCK_DEFAULT = false;
 
+  public static final String OZONE_LOCK_STRIPED_ENABLED =
+      "ozone.lock.striped.enabled";
+  public static final boolean OZONE_LOCK_STRIPED_ENABLED_DEFAULT = false;
+  public static final String OZONE_LOCK_STRIPES = "ozone.lock.stripes";
+  public static final int OZONE_LOCK_STRIPES_DEFAULT = 1024;
+
   public static final String OZONE_CLIENT_LIST_TRASH_KEYS_MAX =
       "ozone.client.list.trash.keys.max";
   public static final int OZONE_CLIENT_LIST_TRASH_KEYS_MAX_DEFAULT = 1000;
@@ -19,6 +19,7 @@
 
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +31,11 @@
  * Manages the locks on a given resource. A new lock is created for each
  * and every unique resource. Uniqueness of resource depends on the
  * {@code equals} implementation of it.
+ *
+ * If {@link OzoneConfigKeys#OZONE_LOCK_STRIPED_ENABLED} is set, a fixed
+ * number of locks is created upfront and each resource is mapped to one of
+ * them based on its {@code hashCode}. Lock and unlock then do not allocate
+ * or track anything, but different resources can share the same lock.
  */
 public class LockManager<R> {
 
@@ -37,6 +43,8 @@
 
   private final Map<R, ActiveLock> activeLocks = new ConcurrentHashMap<>();
   private final GenericObjectPool<ActiveLock> lockPool;
+  // Locks used when striped locking is enabled, null otherwise.
+  private final ActiveLock[] stripes;
 
   /**
    * Creates new LockManager instance with the given Configuration.and uses
@@ -56,9 +64,29 @@ public LockManager(final ConfigurationSource conf) {
    * @param fair - true to use fair lock ordering, else non-fair lock ordering.
    */
   public LockManager(final ConfigurationSource conf, boolean fair) {
-    lockPool =
-        new GenericObjectPool<>(new PooledLockFactory(fair));
-    lockPool.setMaxTotal(-1);
+    if (conf.getBoolean(OzoneConfigKeys.OZONE_LOCK_STRIPED_ENABLED,
+        OzoneConfigKeys.OZONE_LOCK_STRIPED_ENABLED_DEFAULT)) {
+      int stripeCount = conf.getInt(OzoneConfigKeys.OZONE_LOCK_STRIPES,
+          OzoneConfigKeys.OZONE_LOCK_STRIPES_DEFAULT);
+      if (stripeCount <= 0) {
+        throw new IllegalArgumentException(
+            OzoneConfigKeys.OZONE_LOCK_STRIPES + " should be greater than " +
+                "zero, but was " + stripeCount);
+      }
+      // Round up to a power of two, so that the stripe can be selected by
+      // masking the hash.
+      stripes = new ActiveLock[
+          Integer.highestOneBit(Math.min(stripeCount, 1 << 30) * 2 - 1)];
+      for (int i = 0; i < stripes.length; i++) {
+        stripes[i] = ActiveLock.newInstance(fair);
+      }
+      lockPool = null;
+    } else {
+      stripes = null;
+      lockPool =
+          new GenericObjectPool<>(new PooledLockFactory(fair));
+      lockPool.setMaxTotal(-1);
+    }
   }
 
   /**
@@ -144,6 +172,35 @@ public void writeUnlock(final R resource)
     release(resource, ActiveLock::writeUnlock);
   }
 
+  /**
+   * Compares the order in which the locks on the given resources have to be
+   * acquired, when a caller holds both of them at the same time.
+   *
+   * <p>With striped locking, locks have to be acquired in stripe order, as
+   * resources with different order of their own can still share stripes.
+   * Returns 0 if the resources share the same lock, or if striped locking is
+   * disabled. In both cases caller can use any consistent order of its own.
+   *
+   * @param first resource
+   * @param second resource
+   * @return negative if the lock of first resource has to be acquired first,
+   * positive if the lock of second resource has to be acquired first,
+   * otherwise 0
+   */
+  public int compareLockOrder(final R first, final R second) {
+    if (stripes == null) {
+      return 0;
+    }
+    return Integer.compare(getStripeIndex(first), getStripeIndex(second));
+  }
+
+  /**
+   * Returns true if striped locking is enabled.
+   */
+  public boolean isStriped() {
+    return stripes != null;
+  }
+
   /**
    * Acquires the lock on given resource using the provided lock function.
    *
@@ -151,6 +208,10 @@ public void writeUnlock(final R resource)
    * @param lockFn function to acquire the lock
    */
   private void acquire(final R resource, final Consumer<ActiveLock> lockFn) {
+    if (stripes != null) {
+      lockFn.accept(stripes[getStripeIndex(resource)]);
+      return;
+    }
     lockFn.accept(getLockForLocking(resource));
   }
 
@@ -161,11 +222,29 @@ private void acquire(final R resource, final Consumer<ActiveLock> lockFn) {
    * @param releaseFn function to release the lock
    */
   private void release(final R resource, final Consumer<ActiveLock> releaseFn) {
+    if (stripes != null) {
+      // Lock throws IllegalMonitorStateException if it is not held by the
+      // current thread.
+      releaseFn.accept(stripes[getStripeIndex(resource)]);
+      return;
+    }
     final ActiveLock lock = getLockForReleasing(resource);
     releaseFn.accept(lock);
     decrementActiveLockCount(resource);
   }
 
+  /**
+   * Returns the index of the stripe which guards the given resource.
+   *
+   * @param resource resource to be locked
+   * @return index in stripes
+   */
+  private int getStripeIndex(final R resource) {
+    final int hash = resource.hashCode();
+    // Spread the higher bits, as only the lower bits select the stripe.
+    return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+  }
+
   /**
    * Returns {@link ActiveLock} instance for the given resource,
    * on which the lock can be acquired.
@@ -18,6 +18,7 @@
 package org.apache.hadoop.ozone.lock;
 
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.test.GenericTestUtils;
 import org.apache.hadoop.util.Daemon;
 import org.junit.Assert;
@@ -200,4 +201,69 @@ public void testConcurrentWriteLockWithDifferentResource() throws Exception {
         10 * count * sleep);
     Assert.assertEquals(count, done.get());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testStripedLockWithSameResource() throws Exception {
+    final LockManager<String> manager =
+        new LockManager<>(newStripedConfiguration(16));
+    Assert.assertTrue(manager.isStriped());
+    final AtomicBoolean gotLock = new AtomicBoolean(false);
+    manager.readLock("/resourceOne");
+    new Thread(() -> {
+      manager.writeLock("/resourceOne");
+      gotLock.set(true);
+      manager.writeUnlock("/resourceOne");
+    }).start();
+    // Let's give some time for the other thread to run
+    Thread.sleep(100);
+    // Since the other thread is trying to get write lock on same object,
+    // it will wait.
+    Assert.assertFalse(gotLock.get());
+    manager.readUnlock("/resourceOne");
+    GenericTestUtils.waitFor(gotLock::get, 10, 1000);
+  }
+
+  @Test(timeout = 1000)
+  public void testStripedLockReleaseWithoutAcquire() {
+    final LockManager<String> manager =
+        new LockManager<>(newStripedConfiguration(16));
+    try {
+      manager.writeUnlock("/resourceOne");
+      Assert.fail("Releasing lock without acquiring it should fail");
+    } catch (IllegalMonitorStateException ex) {
+      // Expected.
+    }
+  }
+
+  @Test(timeout = 1000)
+  public void testStripedLockOrder() {
+    // With a single stripe, all resources share the same lock.
+    final LockManager<Integer> singleStripe =
+        new LockManager<>(newStripedConfiguration(1));
+    Assert.assertEquals(0, singleStripe.compareLockOrder(1, 2));
+    singleStripe.writeLock(1);
+    // Same thread can acquire lock on another resource of the same stripe.
+    singleStripe.writeLock(2);
+    singleStripe.writeUnlock(2);
+    singleStripe.writeUnlock(1);
+
+    // Stripe count is rounded up to 4, small integers map to own stripes.
+    final LockManager<Integer> manager =
+        new LockManager<>(newStripedConfiguration(3));
+    Assert.assertTrue(manager.compareLockOrder(1, 2) < 0);
+    Assert.assertTrue(manager.compareLockOrder(3, 2) > 0);
+    Assert.assertEquals(0, manager.compareLockOrder(1, 5));
+
+    // Order is not defined without striping.
+    Assert.assertEquals(0,
+        new LockManager<Integer>(new OzoneConfiguration())
+            .compareLockOrder(1, 2));
+  }
+
+  private static OzoneConfiguration newStripedConfiguration(int stripes) {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_LOCK_STRIPED_ENABLED, true);
+    conf.setInt(OzoneConfigKeys.OZONE_LOCK_STRIPES, stripes);
+    return conf;
+  }
+}
@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.common.statemachine;
+
+import java.util.List;
+
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
+
+import com.google.protobuf.GeneratedMessage;
+
+/**
+ * Tracks the container report last received by an SCM endpoint, so that
+ * the following reports are sent to it as deltas, which only have the
+ * containers changed since then.
+ * <p>
+ * A full report is sent if the endpoint has not received any report since
+ * it registered, after a heartbeat failed, or after maxDeltas consecutive
+ * deltas, to resync the containers of the datanode in SCM.
+ * <p>
+ * The delta is computed by merging the replicas of the received report and
+ * of the latest one, which are sorted by container ID as they are listed
+ * from the container set, so no map of the replicas is kept per endpoint.
+ * The latest report is still built in full by the datanode for each report
+ * interval.
+ */
+final class ContainerReportTracker {
+
+  private final int maxDeltas;
+
+  // Last report received by the endpoint.
+  private ContainerReportsProto acknowledged;
+  // Number of deltas received by the endpoint since the last full report.
+  private int deltas;
+
+  // Report sent to the endpoint, which is not yet acknowledged.
+  private ContainerReportsProto pending;
+  private boolean pendingDelta;
+
+  ContainerReportTracker(int maxDeltas) {
+    this.maxDeltas = maxDeltas;
+  }
+
+  /**
+   * Returns the report to send to the endpoint for the latest container
+   * report, or null if the endpoint has already received it.
+   *
+   * @param latest latest container report of the datanode
+   * @return full or delta container report
+   */
+  synchronized GeneratedMessage getReport(GeneratedMessage latest) {
+    pending = null;
+    if (!(latest instanceof ContainerReportsProto)) {
+      return latest;
+    }
+    ContainerReportsProto report = (ContainerReportsProto) latest;
+    if (report == acknowledged) {
+      return null;
+    }
+    pending = report;
+    pendingDelta = acknowledged != null && deltas < maxDeltas;
+    if (!pendingDelta) {
+      return report;
+    }
+    ContainerReportsProto delta = getDelta(acknowledged.getReportsList(),
+        report.getReportsList());
+    if (delta == null) {
+      pendingDelta = false;
+      return report;
+    }
+    return delta;
+  }
+
+  /**
+   * Merges the replicas of two reports sorted by container ID.
+   *
+   * @return the replicas added or changed in current and the IDs of the
+   * containers removed from it, or null if a report is not sorted
+   */
+  private static ContainerReportsProto getDelta(
+      List<ContainerReplicaProto> previous,
+      List<ContainerReplicaProto> current) {
+    ContainerReportsProto.Builder delta = ContainerReportsProto.newBuilder()
+        .setDelta(true);
+    long previousID = -1;
+    long currentID = -1;
+    int i = 0;
+    int j = 0;
+    while (i < previous.size() || j < current.size()) {
+      ContainerReplicaProto previousReplica =
+          i < previous.size() ? previous.get(i) : null;
+      ContainerReplicaProto currentReplica =
+          j < current.size() ? current.get(j) : null;
+      int cmp;
+      if (previousReplica == null) {
+        cmp = 1;
+      } else if (currentReplica == null) {
+        cmp = -1;
+      } else {
+        cmp = Long.compare(previousReplica.getContainerID(),
+            currentReplica.getContainerID());
+      }
+      if (cmp <= 0) {
+        if (previousReplica.getContainerID() <= previousID) {
+          return null;
+        }
+        previousID = previousReplica.getContainerID();
+        i++;
+      }
+      if (cmp >= 0) {
+        if (currentReplica.getContainerID() <= currentID) {
+          return null;
+        }
+        currentID = currentReplica.getContainerID();
+        j++;
+      }
+      if (cmp < 0) {
+        delta.addRemovedContainerIDs(previousID);
+      } else if (cmp > 0 || !previousReplica.equals(currentReplica)) {
+        delta.addReports(currentReplica);
+      }
+    }
+    return delta.build();
+  }
+
+  /**
+   * Marks the report returned by the last {@link #getReport} call as
+   * received by the endpoint.
+   */
+  synchronized void acknowledge() {
+    if (pending == null) {
+      return;
+    }
+    acknowledged = pending;
+    deltas = pendingDelta ? deltas + 1 : 0;
+    pending = null;
+  }
+
+  /**
+   * Forgets the reports received by the endpoint, so the next report is
+   * sent in full.
+   */
+  synchronized void reset() {
+    acknowledged = null;
+    deltas = 0;
+    pending = null;
+  }
+}
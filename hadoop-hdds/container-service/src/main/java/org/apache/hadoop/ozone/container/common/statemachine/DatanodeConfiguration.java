@@ -41,6 +41,8 @@ public class DatanodeConfiguration {
       "hdds.datanode.replication.streams.limit";
   static final String CONTAINER_DELETE_THREADS_MAX_KEY =
       "hdds.datanode.container.delete.threads.max";
+  static final String CHUNK_READ_CHANNEL_CACHE_SIZE_KEY =
+      "hdds.datanode.chunk.read.channel.cache.size";
 
   static final int REPLICATION_MAX_STREAMS_DEFAULT = 10;
 
@@ -85,6 +87,52 @@ public class DatanodeConfiguration {
   )
   private long blockDeletionInterval = Duration.ofSeconds(60).toMillis();
 
+  static final int CHUNK_READ_CHANNEL_CACHE_SIZE_DEFAULT = 1024;
+
+  /**
+   * The maximum number of block files kept open for reading, when using the
+   * FILE_PER_BLOCK chunk layout.
+   */
+  @Config(key = "chunk.read.channel.cache.size",
+      type = ConfigType.INT,
+      defaultValue = "1024",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "The maximum number of block files kept open for reading" +
+          " chunks of FILE_PER_BLOCK containers. Open files are reused " +
+          "by subsequent reads of the same block. Set to 0 to open the file " +
+          "for each read."
+  )
+  private int chunkReadChannelCacheSize = CHUNK_READ_CHANNEL_CACHE_SIZE_DEFAULT;
+
+  /**
+   * Whether chunks of closed containers are read by memory mapping the chunk
+   * file, instead of copying data to heap buffers.
+   */
+  @Config(key = "chunk.read.mmap.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "false",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "If enabled, chunks of closed containers are read by " +
+          "memory mapping the chunk file. Mapped data is sent to the client " +
+          "without copying it to heap buffers."
+  )
+  private boolean chunkReadMmapEnabled = false;
+
+  /**
+   * Whether new containers keep their metadata in the RocksDB shared by all
+   * containers of the volume, instead of a RocksDB of their own.
+   */
+  @Config(key = "container.db.per.volume.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "false",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "If enabled, new containers are created with schema " +
+          "version 3, where the block data and metadata of all containers " +
+          "on a volume are kept in one RocksDB, with keys prefixed by the " +
+          "container ID. Existing containers keep their own RocksDB."
+  )
+  private boolean containerDbPerVolumeEnabled = false;
+
   public Duration getBlockDeletionInterval() {
     return Duration.ofMillis(blockDeletionInterval);
   }
@@ -108,6 +156,13 @@ public void validate() {
           containerDeleteThreads, CONTAINER_DELETE_THREADS_DEFAULT);
       containerDeleteThreads = CONTAINER_DELETE_THREADS_DEFAULT;
     }
+
+    if (chunkReadChannelCacheSize < 0) {
+      LOG.warn(CHUNK_READ_CHANNEL_CACHE_SIZE_KEY + " must not be negative" +
+              " and was set to {}. Defaulting to {}",
+          chunkReadChannelCacheSize, CHUNK_READ_CHANNEL_CACHE_SIZE_DEFAULT);
+      chunkReadChannelCacheSize = CHUNK_READ_CHANNEL_CACHE_SIZE_DEFAULT;
+    }
   }
 
   public void setReplicationMaxStreams(int replicationMaxStreams) {
@@ -126,4 +181,29 @@ public int getContainerDeleteThreads() {
     return containerDeleteThreads;
   }
 
+  public int getChunkReadChannelCacheSize() {
+    return chunkReadChannelCacheSize;
+  }
+
+  public void setChunkReadChannelCacheSize(int chunkReadChannelCacheSize) {
+    this.chunkReadChannelCacheSize = chunkReadChannelCacheSize;
+  }
+
+  public boolean isChunkReadMmapEnabled() {
+    return chunkReadMmapEnabled;
+  }
+
+  public void setChunkReadMmapEnabled(boolean chunkReadMmapEnabled) {
+    this.chunkReadMmapEnabled = chunkReadMmapEnabled;
+  }
+
+  public boolean isContainerDbPerVolumeEnabled() {
+    return containerDbPerVolumeEnabled;
+  }
+
+  public void setContainerDbPerVolumeEnabled(
+      boolean containerDbPerVolumeEnabled) {
+    this.containerDbPerVolumeEnabled = containerDbPerVolumeEnabled;
+  }
+
 }
@@ -42,6 +42,7 @@
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import com.google.protobuf.Descriptors.Descriptor;
+import org.apache.hadoop.hdds.HddsConfigKeys;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.CommandStatus.Status;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.CommandStatusReportsProto;
@@ -105,6 +106,8 @@ public class StateContext {
   private final Set<InetSocketAddress> endpoints;
   // Only the latest full report of each type is kept
   private final AtomicReference<GeneratedMessage> containerReports;
+  private final Map<InetSocketAddress, ContainerReportTracker>
+      containerReportTrackers;
   private final AtomicReference<GeneratedMessage> nodeReport;
   private final AtomicReference<GeneratedMessage> pipelineReports;
   // Incremental reports are queued in the map below
@@ -153,6 +156,7 @@ public StateContext(ConfigurationSource conf,
     cmdStatusMap = new ConcurrentHashMap<>();
     incrementalReportsQueue = new HashMap<>();
     containerReports = new AtomicReference<>();
+    containerReportTrackers = new ConcurrentHashMap<>();
     nodeReport = new AtomicReference<>();
     pipelineReports = new AtomicReference<>();
     endpoints = new HashSet<>();
@@ -332,9 +336,14 @@ List<GeneratedMessage> getIncrementalReports(
     return reportsToReturn;
   }
 
-  List<GeneratedMessage> getNonIncrementalReports() {
+  List<GeneratedMessage> getNonIncrementalReports(
+      InetSocketAddress endpoint) {
     List<GeneratedMessage> nonIncrementalReports = new LinkedList<>();
     GeneratedMessage report = containerReports.get();
+    ContainerReportTracker tracker = containerReportTrackers.get(endpoint);
+    if (report != null && tracker != null) {
+      report = tracker.getReport(report);
+    }
     if (report != null) {
       nonIncrementalReports.add(report);
     }
@@ -360,7 +369,7 @@ public List<GeneratedMessage> getReports(InetSocketAddress endpoint,
     if (maxLimit < 0) {
       throw new IllegalArgumentException("Illegal maxLimit value: " + maxLimit);
     }
-    List<GeneratedMessage> reports = getNonIncrementalReports();
+    List<GeneratedMessage> reports = getNonIncrementalReports(endpoint);
     if (maxLimit <= reports.size()) {
       return reports.subList(0, maxLimit);
     } else {
@@ -371,6 +380,32 @@ public List<GeneratedMessage> getReports(InetSocketAddress endpoint,
   }
 
 
+  /**
+   * Marks the container report last returned for the endpoint as received
+   * by it, so the next container report is sent as a delta to it.
+   *
+   * @param endpoint SCM endpoint
+   */
+  public void acknowledgeContainerReport(InetSocketAddress endpoint) {
+    ContainerReportTracker tracker = containerReportTrackers.get(endpoint);
+    if (tracker != null) {
+      tracker.acknowledge();
+    }
+  }
+
+  /**
+   * Makes the next container report sent to the endpoint a full report,
+   * after it registers or a report may not have been received by it.
+   *
+   * @param endpoint SCM endpoint
+   */
+  public void resetContainerReport(InetSocketAddress endpoint) {
+    ContainerReportTracker tracker = containerReportTrackers.get(endpoint);
+    if (tracker != null) {
+      tracker.reset();
+    }
+  }
+
   /**
    * Adds the ContainerAction to ContainerAction queue.
    *
@@ -788,6 +823,9 @@ public void addEndpoint(InetSocketAddress endpoint) {
       this.containerActions.put(endpoint, new LinkedList<>());
       this.pipelineActions.put(endpoint, new LinkedList<>());
       this.incrementalReportsQueue.put(endpoint, new LinkedList<>());
+      this.containerReportTrackers.put(endpoint, new ContainerReportTracker(
+          conf.getInt(HddsConfigKeys.HDDS_CONTAINER_REPORT_MAX_DELTAS,
+              HddsConfigKeys.HDDS_CONTAINER_REPORT_MAX_DELTAS_DEFAULT)));
     }
   }
 
@@ -43,7 +43,7 @@
     .SCMConnectionManager;
 import org.apache.hadoop.ozone.container.common.statemachine.StateContext;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStore;
-import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaTwoImpl;
+import org.apache.hadoop.ozone.container.metadata.DeleteTransactionStore;
 import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
 import org.apache.hadoop.ozone.protocol.commands.CommandStatus;
 import org.apache.hadoop.ozone.protocol.commands.DeleteBlockCommandStatus;
@@ -63,6 +63,7 @@
     .Result.CONTAINER_NOT_FOUND;
 import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_V1;
 import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_V2;
+import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_V3;
 
 /**
  * Handle block deletion commands.
@@ -136,13 +137,13 @@ public void handle(SCMCommand command, OzoneContainer container,
             try {
               if (containerData.getSchemaVersion().equals(SCHEMA_V1)) {
                 markBlocksForDeletionSchemaV1(containerData, entry);
-              } else if (containerData.getSchemaVersion().equals(SCHEMA_V2)) {
+              } else if (containerData.getSchemaVersion().equals(SCHEMA_V2)
+                  || containerData.getSchemaVersion().equals(SCHEMA_V3)) {
                 markBlocksForDeletionSchemaV2(containerData, entry,
                     newDeletionBlocks, entry.getTxID());
               } else {
                 throw new UnsupportedOperationException(
-                    "Only schema version 1 and schema version 2 are "
-                        + "supported.");
+                    "Only schema versions 1, 2 and 3 are supported.");
               }
             } finally {
               cont.writeUnlock();
@@ -212,10 +213,9 @@ private void markBlocksForDeletionSchemaV2(
     try (ReferenceCountedDB containerDB = BlockUtils
         .getDB(containerData, conf)) {
       DatanodeStore ds = containerDB.getStore();
-      DatanodeStoreSchemaTwoImpl dnStoreTwoImpl =
-          (DatanodeStoreSchemaTwoImpl) ds;
+      DeleteTransactionStore deleteTxnStore = (DeleteTransactionStore) ds;
       Table<Long, DeletedBlocksTransaction> delTxTable =
-          dnStoreTwoImpl.getDeleteTransactionTable();
+          deleteTxnStore.getDeleteTransactionTable();
       try (BatchOperation batch = containerDB.getStore().getBatchHandler()
           .initBatchOperation()) {
         delTxTable.putWithBatch(batch, txnID, delTX);
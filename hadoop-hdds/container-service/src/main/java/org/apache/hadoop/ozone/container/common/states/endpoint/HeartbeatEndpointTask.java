@@ -144,6 +144,7 @@ public EndpointStateMachine.EndPointStates call() throws Exception {
       }
       SCMHeartbeatResponseProto response = rpcEndpoint.getEndPoint()
           .sendHeartbeat(request);
+      context.acknowledgeContainerReport(rpcEndpoint.getAddress());
       processResponse(response, datanodeDetailsProto);
       rpcEndpoint.setLastSuccessfulHeartbeat(ZonedDateTime.now());
       rpcEndpoint.zeroMissedCount();
@@ -151,6 +152,9 @@ public EndpointStateMachine.EndPointStates call() throws Exception {
       Preconditions.checkState(requestBuilder != null);
       // put back the reports which failed to be sent
       putBackReports(requestBuilder);
+      // SCM may or may not have received the container report, so the next
+      // one is sent in full.
+      context.resetContainerReport(rpcEndpoint.getAddress());
       rpcEndpoint.logIfNeeded(ex);
     } finally {
       rpcEndpoint.unlock();
@@ -139,6 +139,7 @@ public EndpointStateMachine.EndPointStates call() throws Exception {
         rpcEndPoint.setState(nextState);
         rpcEndPoint.zeroMissedCount();
         this.stateContext.configureHeartbeatFrequency();
+        this.stateContext.resetContainerReport(rpcEndPoint.getAddress());
       }
     } catch (IOException ex) {
       rpcEndPoint.logIfNeeded(ex);
@@ -19,6 +19,8 @@
 package org.apache.hadoop.ozone.container.common.utils;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -38,6 +40,12 @@
 
 /**
  * container cache is a LRUMap that maintains the DB handles.
+ *
+ * The cache lock only guards the map itself. DB handles are opened and closed
+ * outside of it, under the stripe lock of the container DB path, so that
+ * opening or closing the DB of one container does not block lookups of other
+ * containers. Evicted handles are kept aside until they are closed, and are
+ * reused if their container is looked up again in the meantime.
  */
 public final class ContainerCache extends LRUMap {
   private static final Logger LOG =
@@ -46,6 +54,11 @@ public final class ContainerCache extends LRUMap {
   private static ContainerCache cache;
   private static final float LOAD_FACTOR = 0.75f;
   private final Striped<Lock> rocksDBLock;
+  /**
+   * Handles evicted from the cache which are not closed yet, by DB path.
+   */
+  private final Map<String, ReferenceCountedDB> evictedDBs =
+      new ConcurrentHashMap<>();
   private static ContainerCacheMetrics metrics;
   /**
    * Constructs a cache that holds DBHandle references.
@@ -101,20 +114,43 @@ public void shutdownCache() {
     } finally {
       lock.unlock();
     }
+    closeEvictedDBs();
   }
 
   /**
    * {@inheritDoc}
+   *
+   * Called with the cache lock held, so the handle is only marked for close
+   * here. References are only taken under the cache lock, hence a handle
+   * without references can not get new ones once it is evicted.
    */
   @Override
   protected boolean removeLRU(LinkEntry entry) {
     ReferenceCountedDB db = (ReferenceCountedDB) entry.getValue();
-    lock.lock();
-    try {
-      metrics.incNumCacheEvictions();
-      return cleanupDb(db);
-    } finally {
-      lock.unlock();
+    if (db.getReferenceCount() > 0) {
+      return false;
+    }
+    metrics.incNumCacheEvictions();
+    evictedDBs.put((String) entry.getKey(), db);
+    return true;
+  }
+
+  /**
+   * Closes the handles evicted from the cache. Each handle is closed under
+   * the stripe lock of its DB path, so it is not opened again while it is
+   * being closed. Must not be called with any of the locks held.
+   */
+  private void closeEvictedDBs() {
+    for (Map.Entry<String, ReferenceCountedDB> entry : evictedDBs.entrySet()) {
+      Lock containerLock = rocksDBLock.get(entry.getKey());
+      containerLock.lock();
+      try {
+        if (evictedDBs.remove(entry.getKey(), entry.getValue())) {
+          cleanupDb(entry.getValue());
+        }
+      } finally {
+        containerLock.unlock();
+      }
     }
   }
 
@@ -154,16 +190,22 @@ public ReferenceCountedDB getDB(long containerID, String containerDBType,
         lock.unlock();
       }
 
-      try {
-        long start = Time.monotonicNow();
-        DatanodeStore store = BlockUtils.getUncachedDatanodeStore(containerID,
-            containerDBPath, schemaVersion, conf, false);
-        db = new ReferenceCountedDB(store, containerDBPath);
-        metrics.incDbOpenLatency(Time.monotonicNow() - start);
-      } catch (Exception e) {
-        LOG.error("Error opening DB. Container:{} ContainerPath:{}",
-            containerID, containerDBPath, e);
-        throw e;
+      db = evictedDBs.remove(containerDBPath);
+      if (db != null) {
+        // evicted, but not closed yet, no need to open it again
+        metrics.incNumEvictedDbReuses();
+      } else {
+        try {
+          long start = Time.monotonicNow();
+          DatanodeStore store = BlockUtils.getUncachedDatanodeStore(
+              containerID, containerDBPath, schemaVersion, conf, false);
+          db = new ReferenceCountedDB(store, containerDBPath);
+          metrics.incDbOpenLatency(Time.monotonicNow() - start);
+        } catch (Exception e) {
+          LOG.error("Error opening DB. Container:{} ContainerPath:{}",
+              containerID, containerDBPath, e);
+          throw e;
+        }
       }
 
       lock.lock();
@@ -175,12 +217,11 @@ public ReferenceCountedDB getDB(long containerID, String containerDBType,
           currentDB.incrementReference();
           // clean the db created in previous step
           cleanupDb(db);
-          return currentDB;
+          db = currentDB;
         } else {
           this.put(containerDBPath, db);
           // increment the reference before returning the object
           db.incrementReference();
-          return db;
         }
       } finally {
         lock.unlock();
@@ -188,6 +229,8 @@ public ReferenceCountedDB getDB(long containerID, String containerDBType,
     } finally {
       containerLock.unlock();
     }
+    closeEvictedDBs();
+    return db;
   }
 
   /**
@@ -196,16 +239,30 @@ public ReferenceCountedDB getDB(long containerID, String containerDBType,
    * @param containerDBPath - path of the container db file.
    */
   public void removeDB(String containerDBPath) {
-    lock.lock();
+    Lock containerLock = rocksDBLock.get(containerDBPath);
+    containerLock.lock();
     try {
-      ReferenceCountedDB db = (ReferenceCountedDB)this.get(containerDBPath);
+      ReferenceCountedDB db;
+      lock.lock();
+      try {
+        db = (ReferenceCountedDB) this.get(containerDBPath);
+        if (db != null) {
+          Preconditions.checkArgument(db.getReferenceCount() == 0,
+              "refCount:", db.getReferenceCount());
+        }
+        this.remove(containerDBPath);
+      } finally {
+        lock.unlock();
+      }
+      if (db == null) {
+        db = evictedDBs.remove(containerDBPath);
+      }
       if (db != null) {
         Preconditions.checkArgument(cleanupDb(db), "refCount:",
             db.getReferenceCount());
       }
-      this.remove(containerDBPath);
     } finally {
-      lock.unlock();
+      containerLock.unlock();
     }
   }
 
@@ -231,5 +288,6 @@ public void addDB(String containerDBPath, ReferenceCountedDB db) {
     } finally {
       lock.unlock();
     }
+    closeEvictedDBs();
   }
 }
@@ -52,6 +52,9 @@ public final class ContainerCacheMetrics {
   @Metric("Number of Container Cache Evictions")
   private MutableCounterLong numCacheEvictions;
 
+  @Metric("Number of evicted DBs reused before they were closed")
+  private MutableCounterLong numEvictedDbReuses;
+
   private ContainerCacheMetrics(String name, MetricsSystem ms) {
     this.name = name;
     this.ms = ms;
@@ -84,6 +87,10 @@ public void incNumCacheEvictions() {
     numCacheEvictions.incr();
   }
 
+  public void incNumEvictedDbReuses() {
+    numEvictedDbReuses.incr();
+  }
+
   public void incDbCloseLatency(long millis) {
     dbCloseLatency.add(millis);
   }
@@ -111,4 +118,8 @@ public long getNumCacheHits() {
   public long getNumCacheEvictions() {
     return numCacheEvictions.value();
   }
+
+  public long getNumEvictedDbReuses() {
+    return numEvictedDbReuses.value();
+  }
 }
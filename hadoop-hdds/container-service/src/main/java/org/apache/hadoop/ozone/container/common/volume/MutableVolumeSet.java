@@ -41,6 +41,7 @@
 import org.apache.hadoop.ozone.container.common.impl.StorageLocationReport;
 import org.apache.hadoop.ozone.container.common.utils.HddsVolumeUtil;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume.VolumeState;
+import org.apache.hadoop.ozone.container.metadata.DatanodeVolumeStore;
 import org.apache.hadoop.util.DiskChecker;
 import org.apache.hadoop.util.DiskChecker.DiskOutOfSpaceException;
 import org.apache.hadoop.util.ShutdownHookManager;
@@ -400,6 +401,7 @@ public void failVolume(String dataDir) {
       if (volumeMap.containsKey(hddsRoot)) {
         HddsVolume hddsVolume = volumeMap.get(hddsRoot);
         hddsVolume.failVolume();
+        DatanodeVolumeStore.closeVolume(hddsVolume.getHddsRootDir());
 
         volumeMap.remove(hddsRoot);
         volumeStateMap.get(hddsVolume.getStorageType()).remove(hddsVolume);
@@ -425,6 +427,7 @@ public void removeVolume(String dataDir) throws IOException {
       if (volumeMap.containsKey(hddsRoot)) {
         HddsVolume hddsVolume = volumeMap.get(hddsRoot);
         hddsVolume.shutdown();
+        DatanodeVolumeStore.closeVolume(hddsVolume.getHddsRootDir());
 
         volumeMap.remove(hddsRoot);
         volumeStateMap.get(hddsVolume.getStorageType()).remove(hddsVolume);
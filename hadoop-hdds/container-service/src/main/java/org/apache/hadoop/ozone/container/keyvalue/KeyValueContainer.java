@@ -45,12 +45,14 @@
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerPacker;
 import org.apache.hadoop.ozone.container.common.interfaces.VolumeChoosingPolicy;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.utils.ReferenceCountedDB;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.BlockUtils;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerLocationUtil;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
+import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaThreeImpl;
 import org.apache.hadoop.util.DiskChecker.DiskOutOfSpaceException;
 
 import com.google.common.base.Preconditions;
@@ -124,12 +126,18 @@ public void create(VolumeSet volumeSet, VolumeChoosingPolicy
       // Check if it is new Container.
       ContainerUtils.verifyIsNewContainer(containerMetaDataPath);
 
+      // This method is only called when creating new containers.
+      // Therefore, always use the newest schema version, or the schema
+      // sharing the DB of the volume if it is enabled.
+      if (config.getObject(DatanodeConfiguration.class)
+          .isContainerDbPerVolumeEnabled()) {
+        containerData.setSchemaVersion(OzoneConsts.SCHEMA_V3);
+      } else {
+        containerData.setSchemaVersion(OzoneConsts.SCHEMA_LATEST);
+      }
+
       //Create Metadata path chunks path and metadata db
       File dbFile = getContainerDBFile();
-
-      // This method is only called when creating new containers.
-      // Therefore, always use the newest schema version.
-      containerData.setSchemaVersion(OzoneConsts.SCHEMA_LATEST);
       KeyValueContainerUtil.createContainerMetaData(containerID,
               containerMetaDataPath, chunksPath, dbFile,
               containerData.getSchemaVersion(), config);
@@ -188,7 +196,7 @@ public void populatePathFields(String clusterId,
     File chunksPath = KeyValueContainerLocationUtil.getChunksLocationPath(
         hddsVolumeDir, clusterId, containerId);
     File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(
-        containerMetaDataPath, containerId);
+        containerMetaDataPath, containerId, containerData.getSchemaVersion());
 
     //Set containerData for the KeyValueContainer.
     containerData.setMetadataPath(containerMetaDataPath.getPath());
@@ -490,6 +498,20 @@ public void importContainerData(InputStream input,
           .setContainerDBType(originalContainerData.getContainerDBType());
       containerData.setSchemaVersion(originalContainerData.getSchemaVersion());
 
+      if (BlockUtils.isVolumeDB(containerData)) {
+        // The container was packed with a DB of its own, which was unpacked
+        // before the schema version was known. Add its rows to the DB of the
+        // volume.
+        containerData.setDbFile(getContainerDBFile());
+        File packedDBFile = KeyValueContainerUtil.getPackedDBFile(
+            containerData);
+        try (ReferenceCountedDB db = BlockUtils.getDB(containerData, config)) {
+          ((DatanodeStoreSchemaThreeImpl) db.getStore()).importContainerData(
+              config, packedDBFile.getAbsolutePath());
+        }
+        FileUtils.deleteDirectory(packedDBFile);
+      }
+
       //rewriting the yaml file with new checksum calculation.
       update(originalContainerData.getMetadata(), true);
 
@@ -537,17 +559,35 @@ public void exportContainerData(OutputStream destination,
                 " is in state " + state);
       }
 
+      File packedDBFile = KeyValueContainerUtil.getPackedDBFile(containerData);
+      boolean isVolumeDB = BlockUtils.isVolumeDB(containerData);
       try {
         compactDB();
         // Close DB (and remove from cache) to avoid concurrent modification
         // while packing it.
         BlockUtils.removeDB(containerData, config);
+        if (isVolumeDB) {
+          // The rows of the container are packed with a DB of their own,
+          // which is deleted before the read lock is released.
+          FileUtils.deleteDirectory(packedDBFile);
+          try (ReferenceCountedDB db = BlockUtils.getDB(containerData,
+              config)) {
+            ((DatanodeStoreSchemaThreeImpl) db.getStore())
+                .exportContainerData(config, packedDBFile.getAbsolutePath());
+          }
+        }
       } finally {
         readLock();
         writeUnlock();
       }
 
-      packer.pack(this, destination);
+      try {
+        packer.pack(this, destination);
+      } finally {
+        if (isVolumeDB) {
+          FileUtils.deleteDirectory(packedDBFile);
+        }
+      }
     } finally {
       if (lock.isWriteLockedByCurrentThread()) {
         writeUnlock();
@@ -715,8 +755,9 @@ private ContainerReplicaProto.State getHddsState()
    * @return
    */
   public File getContainerDBFile() {
-    return new File(containerData.getMetadataPath(), containerData
-        .getContainerID() + OzoneConsts.DN_CONTAINER_DB);
+    return KeyValueContainerLocationUtil.getContainerDBFile(
+        new File(containerData.getMetadataPath()),
+        containerData.getContainerID(), containerData.getSchemaVersion());
   }
 
   @Override
@@ -216,8 +216,8 @@ private void scanData(DataTransferThrottler throttler, Canceler canceler)
         "invoke loadContainerData prior to calling this function");
 
     File metaDir = new File(metadataPath);
-    File dbFile = KeyValueContainerLocationUtil
-        .getContainerDBFile(metaDir, containerID);
+    File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(metaDir,
+        containerID, onDiskContainerData.getSchemaVersion());
 
     if (!dbFile.exists() || !dbFile.canRead()) {
       String dbFileErrorMsg = "Unable to access DB File [" + dbFile.toString()
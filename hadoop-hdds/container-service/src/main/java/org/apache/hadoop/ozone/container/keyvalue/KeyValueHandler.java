@@ -97,6 +97,7 @@
 import static org.apache.hadoop.hdds.scm.utils.ClientCommandsUtils.getReadChunkVersion;
 
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -124,7 +125,8 @@ public KeyValueHandler(ConfigurationSource config, String datanodeId,
     super(config, datanodeId, contSet, volSet, metrics, icrSender);
     containerType = ContainerType.KeyValueContainer;
     blockManager = new BlockManagerImpl(config);
-    chunkManager = ChunkManagerFactory.createChunkManager(config, blockManager);
+    chunkManager = ChunkManagerFactory.createChunkManager(config, blockManager,
+        datanodeId);
     try {
       volumeChoosingPolicy = conf.getClass(
           HDDS_DATANODE_VOLUME_CHOOSING_POLICY, RoundRobinVolumeChoosingPolicy
@@ -144,9 +146,23 @@ public KeyValueHandler(ConfigurationSource config, String datanodeId,
             OzoneConfigKeys.OZONE_UNSAFEBYTEOPERATIONS_ENABLED,
             OzoneConfigKeys.OZONE_UNSAFEBYTEOPERATIONS_ENABLED_DEFAULT);
 
-    byteBufferToByteString =
+    byteBufferToByteString = wrapDirectBuffers(
         ByteStringConversion
-            .createByteBufferConversion(isUnsafeByteBufferConversionEnabled);
+            .createByteBufferConversion(isUnsafeByteBufferConversionEnabled));
+  }
+
+  /**
+   * Data read by the chunk manager is returned in buffers which are owned by
+   * the response and never reused. Direct buffers, i.e. memory mapped regions
+   * of chunk files, are wrapped without copying, so that the data is written
+   * to the gRPC response straight from the page cache instead of going
+   * through a heap copy.
+   */
+  private static Function<ByteBuffer, ByteString> wrapDirectBuffers(
+      Function<ByteBuffer, ByteString> conversion) {
+    return buffer -> buffer.isDirect()
+        ? UnsafeByteOperations.unsafeWrap(buffer)
+        : conversion.apply(buffer);
   }
 
   @VisibleForTesting
@@ -1086,6 +1102,7 @@ private void deleteInternal(Container container, boolean force)
       container.writeUnlock();
     }
     // Avoid holding write locks for disk operations
+    chunkManager.closeContainerFiles(container);
     container.delete();
     container.getContainerData().setState(State.DELETED);
     sendICR(container);
@@ -32,7 +32,9 @@
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStore;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaOneImpl;
+import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaThreeImpl;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaTwoImpl;
+import org.apache.hadoop.ozone.container.metadata.DatanodeVolumeStore;
 
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.NO_SUCH_BLOCK;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNABLE_TO_READ_METADATA_DB;
@@ -70,6 +72,10 @@ public static DatanodeStore getUncachedDatanodeStore(long containerID,
     } else if (schemaVersion.equals(OzoneConsts.SCHEMA_V2)) {
       store = new DatanodeStoreSchemaTwoImpl(conf,
           containerID, containerDBPath, readOnly);
+    } else if (schemaVersion.equals(OzoneConsts.SCHEMA_V3)) {
+      // The DB of the volume is shared, so it is never opened read only.
+      store = new DatanodeStoreSchemaThreeImpl(conf,
+          containerID, containerDBPath);
     } else {
       throw new IllegalArgumentException(
           "Unrecognized database schema version: " + schemaVersion);
@@ -114,6 +120,15 @@ public static ReferenceCountedDB getDB(KeyValueContainerData containerData,
     Preconditions.checkNotNull(cache);
     Preconditions.checkNotNull(containerData.getDbFile());
     try {
+      if (isVolumeDB(containerData)) {
+        // The DB of the volume stays open, and the store of the container
+        // is only a view of it, so it is not cached.
+        ReferenceCountedDB db = new ReferenceCountedDB(
+            getUncachedDatanodeStore(containerData, conf, false),
+            containerData.getDbFile().getAbsolutePath());
+        db.incrementReference();
+        return db;
+      }
       return cache.getDB(containerData.getContainerID(), containerData
           .getContainerDBType(), containerData.getDbFile().getAbsolutePath(),
               containerData.getSchemaVersion(), conf);
@@ -135,9 +150,21 @@ public static void removeDB(KeyValueContainerData container,
     Preconditions.checkNotNull(container);
     ContainerCache cache = ContainerCache.getInstance(conf);
     Preconditions.checkNotNull(cache);
+    if (isVolumeDB(container)) {
+      // The DB of the volume is shared with other containers.
+      return;
+    }
     cache.removeDB(container.getDbFile().getAbsolutePath());
   }
 
+  /**
+   * Returns whether the container keeps its data in the DB shared by all
+   * containers of its volume.
+   */
+  public static boolean isVolumeDB(KeyValueContainerData containerData) {
+    return OzoneConsts.SCHEMA_V3.equals(containerData.getSchemaVersion());
+  }
+
   /**
    * Shutdown all DB Handles.
    *
@@ -145,6 +172,7 @@ public static void removeDB(KeyValueContainerData container,
    */
   public static void shutdownCache(ContainerCache cache)  {
     cache.shutdownCache();
+    DatanodeVolumeStore.closeAll();
   }
 
   /**
@@ -39,8 +39,10 @@
 
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.io.IOUtils;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.common.utils.BufferUtils;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
 import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
 import org.apache.hadoop.util.Time;
@@ -176,19 +178,43 @@ public static void readData(File file, ByteBuffer[] buffers,
       throws StorageContainerException {
 
     final Path path = file.toPath();
+    readData(buffers, file.getName(), offset, len, volumeIOStats,
+        b -> processFileExclusively(path, () -> {
+          try (FileChannel channel = open(path, READ_OPTIONS, NO_ATTRIBUTES);
+               FileLock ignored = channel.lock(offset, len, true)) {
+
+            return channel.position(offset).read(b);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }));
+  }
+
+  /**
+   * Reads data from an already open channel into a list of ByteBuffers.
+   * Positional reads are used, so the channel can be shared by concurrent
+   * readers.
+   *
+   * @param channel channel of the file where data lives
+   * @param filename name of the file, used for logging
+   */
+  public static void readData(FileChannel channel, String filename,
+      ByteBuffer[] buffers, long offset, long len,
+      VolumeIOStats volumeIOStats) throws StorageContainerException {
+
+    readData(buffers, filename, offset, len, volumeIOStats,
+        b -> readFromChannel(channel, b, offset));
+  }
+
+  private static void readData(ByteBuffer[] buffers, String filename,
+      long offset, long len, VolumeIOStats volumeIOStats,
+      ToLongFunction<ByteBuffer[]> reader) throws StorageContainerException {
+
     final long startTime = Time.monotonicNow();
     final long bytesRead;
 
     try {
-      bytesRead = processFileExclusively(path, () -> {
-        try (FileChannel channel = open(path, READ_OPTIONS, NO_ATTRIBUTES);
-             FileLock ignored = channel.lock(offset, len, true)) {
-
-          return channel.position(offset).read(buffers);
-        } catch (IOException e) {
-          throw new UncheckedIOException(e);
-        }
-      });
+      bytesRead = reader.applyAsLong(buffers);
     } catch (UncheckedIOException e) {
       throw wrapInStorageContainerException(e.getCause());
     }
@@ -200,7 +226,7 @@ public static void readData(File file, ByteBuffer[] buffers,
     volumeIOStats.incReadBytes(bytesRead);
 
     LOG.debug("Read {} bytes starting at offset {} from {}",
-        bytesRead, offset, file);
+        bytesRead, offset, filename);
 
     validateReadSize(len, bytesRead);
 
@@ -209,6 +235,98 @@ public static void readData(File file, ByteBuffer[] buffers,
     }
   }
 
+  private static long readFromChannel(FileChannel channel,
+      ByteBuffer[] buffers, long offset) {
+    long position = offset;
+    try {
+      for (ByteBuffer buffer : buffers) {
+        while (buffer.hasRemaining()) {
+          int read = channel.read(buffer, position);
+          if (read < 0) {
+            // End of file, size is validated by the caller.
+            return position - offset;
+          }
+          position += read;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return position - offset;
+  }
+
+  /**
+   * Maps the given range of a chunk file into memory. The mapping remains
+   * valid after the file is closed.
+   *
+   * @see #mapData(FileChannel, String, long, long, long, VolumeIOStats)
+   */
+  public static ByteBuffer[] mapData(File file, long offset, long len,
+      long bufferCapacity, VolumeIOStats volumeIOStats)
+      throws StorageContainerException {
+    final FileChannel channel;
+    try {
+      channel = open(file.toPath(), READ_OPTIONS, NO_ATTRIBUTES);
+    } catch (IOException e) {
+      throw wrapInStorageContainerException(e);
+    }
+    try {
+      return mapData(channel, file.getName(), offset, len, bufferCapacity,
+          volumeIOStats);
+    } finally {
+      IOUtils.cleanupWithLogger(LOG, channel);
+    }
+  }
+
+  /**
+   * Maps the given range of an already open chunk file into memory, and
+   * returns it as read-only buffers of at most bufferCapacity bytes each.
+   * Data is not copied, so this should be used only for files which are not
+   * modified any more, i.e. blocks of closed containers.
+   *
+   * @param channel channel of the file where data lives
+   * @param filename name of the file, used for logging
+   */
+  public static ByteBuffer[] mapData(FileChannel channel, String filename,
+      long offset, long len, long bufferCapacity, VolumeIOStats volumeIOStats)
+      throws StorageContainerException {
+
+    final long startTime = Time.monotonicNow();
+    final long fileSize;
+    final ByteBuffer mapped;
+    try {
+      fileSize = channel.size();
+    } catch (IOException e) {
+      throw wrapInStorageContainerException(e);
+    }
+    // Mapping beyond the end of file is not allowed in read-only mode.
+    validateReadSize(len, Math.max(0, Math.min(len, fileSize - offset)));
+    try {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, len);
+    } catch (IOException e) {
+      throw wrapInStorageContainerException(e);
+    }
+
+    final int bufferCount = Math.toIntExact(
+        BufferUtils.getNumberOfBins(len, bufferCapacity));
+    final ByteBuffer[] buffers = new ByteBuffer[bufferCount];
+    for (int i = 0; i < bufferCount; i++) {
+      int start = Math.toIntExact(i * bufferCapacity);
+      mapped.limit((int) Math.min(start + bufferCapacity, len));
+      mapped.position(start);
+      buffers[i] = mapped.slice();
+    }
+
+    volumeIOStats.incReadTime(Time.monotonicNow() - startTime);
+    volumeIOStats.incReadOpCount();
+    volumeIOStats.incReadBytes(len);
+
+    LOG.debug("Mapped {} bytes starting at offset {} from {}",
+        len, offset, filename);
+
+    return buffers;
+  }
+
   /**
    * Validates chunk data and returns a file object to Chunk File that we are
    * expected to write data to.
@@ -327,7 +445,7 @@ private static void checkSize(String of, long expected, long actual,
     }
   }
 
-  private static StorageContainerException wrapInStorageContainerException(
+  public static StorageContainerException wrapInStorageContainerException(
       IOException e) {
     ContainerProtos.Result result = translate(e);
     return new StorageContainerException(e, result);
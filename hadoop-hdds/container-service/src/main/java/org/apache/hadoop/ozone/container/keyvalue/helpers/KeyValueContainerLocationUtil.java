@@ -110,4 +110,20 @@ public static File getContainerDBFile(File containerMetaDataPath,
     return new File(containerMetaDataPath, containerID + OzoneConsts
         .DN_CONTAINER_DB);
   }
+
+  /**
+   * Return containerDB File of a container in the given schema version.
+   * Containers of schema version 3 share the DB of their volume, which is
+   * found relative to the metadata path of the container.
+   */
+  public static File getContainerDBFile(File containerMetaDataPath,
+      long containerID, String schemaVersion) {
+    if (OzoneConsts.SCHEMA_V3.equals(schemaVersion)) {
+      // metadata -> containerID -> containerDir -> current -> clusterId
+      File clusterDir = containerMetaDataPath.getAbsoluteFile()
+          .getParentFile().getParentFile().getParentFile().getParentFile();
+      return new File(clusterDir, OzoneConsts.DN_VOLUME_CONTAINER_DB);
+    }
+    return getContainerDBFile(containerMetaDataPath, containerID);
+  }
 }
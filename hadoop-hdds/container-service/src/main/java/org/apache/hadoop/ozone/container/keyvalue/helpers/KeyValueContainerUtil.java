@@ -39,6 +39,7 @@
 import org.apache.hadoop.ozone.container.common.utils.ReferenceCountedDB;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStore;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaOneImpl;
+import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaThreeImpl;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaTwoImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -110,6 +111,12 @@ public static void createContainerMetaData(long containerID,
     } else if (schemaVersion.equals(OzoneConsts.SCHEMA_V2)) {
       store = new DatanodeStoreSchemaTwoImpl(conf,
               containerID, dbFile.getAbsolutePath(), false);
+    } else if (schemaVersion.equals(OzoneConsts.SCHEMA_V3)) {
+      // Drop any rows left behind by a container with the same ID which was
+      // not deleted completely. Stores of the volume DB are not cached.
+      new DatanodeStoreSchemaThreeImpl(conf, containerID,
+          dbFile.getAbsolutePath()).deleteContainerData();
+      return;
     } else {
       throw new IllegalArgumentException(
               "Unrecognized schema version for container: " + schemaVersion);
@@ -144,6 +151,12 @@ public static void removeContainer(KeyValueContainerData containerData,
     // Close the DB connection and remove the DB handler from cache
     BlockUtils.removeDB(containerData, conf);
 
+    if (BlockUtils.isVolumeDB(containerData)) {
+      // Delete the rows of the container from the DB of the volume.
+      new DatanodeStoreSchemaThreeImpl(conf, containerData.getContainerID(),
+          containerData.getDbFile().getAbsolutePath()).deleteContainerData();
+    }
+
     // Delete the Container MetaData path.
     FileUtils.deleteDirectory(containerMetaDataPath);
 
@@ -154,6 +167,23 @@ public static void removeContainer(KeyValueContainerData containerData,
     FileUtils.deleteDirectory(containerMetaDataPath.getParentFile());
   }
 
+  /**
+   * Returns the DB packed with the container when it is exported. Containers
+   * which share the DB of their volume are packed with a schema version 2 DB
+   * of their rows, which is created at the location of the DB of a schema
+   * version 2 container.
+   *
+   * @param containerData - Data of the container.
+   */
+  public static File getPackedDBFile(KeyValueContainerData containerData) {
+    if (BlockUtils.isVolumeDB(containerData)) {
+      return KeyValueContainerLocationUtil.getContainerDBFile(
+          new File(containerData.getMetadataPath()),
+          containerData.getContainerID());
+    }
+    return containerData.getDbFile();
+  }
+
   /**
    * Parse KeyValueContainerData and verify checksum. Set block related
    * metadata like block commit sequence id, block count, bytes used and
@@ -171,8 +201,14 @@ public static void parseKVContainerData(KeyValueContainerData kvContainerData,
     // Verify Checksum
     ContainerUtils.verifyChecksum(kvContainerData);
 
+    if (kvContainerData.getSchemaVersion() == null) {
+      // If this container has not specified a schema version, it is in the old
+      // format with one default column family.
+      kvContainerData.setSchemaVersion(OzoneConsts.SCHEMA_V1);
+    }
+
     File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(
-        metadataPath, containerID);
+        metadataPath, containerID, kvContainerData.getSchemaVersion());
     if (!dbFile.exists()) {
       LOG.error("Container DB file is missing for ContainerID {}. " +
           "Skipping loading of this container.", containerID);
@@ -181,12 +217,6 @@ public static void parseKVContainerData(KeyValueContainerData kvContainerData,
     }
     kvContainerData.setDbFile(dbFile);
 
-    if (kvContainerData.getSchemaVersion() == null) {
-      // If this container has not specified a schema version, it is in the old
-      // format with one default column family.
-      kvContainerData.setSchemaVersion(OzoneConsts.SCHEMA_V1);
-    }
-
     boolean isBlockMetadataSet = false;
     ReferenceCountedDB cachedDB = null;
     DatanodeStore store = null;
@@ -26,6 +26,7 @@
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.common.impl.ChunkLayOutVersion;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
@@ -56,9 +57,12 @@ public class ChunkManagerDispatcher implements ChunkManager {
   private final Map<ChunkLayOutVersion, ChunkManager> handlers
       = new EnumMap<>(ChunkLayOutVersion.class);
 
-  ChunkManagerDispatcher(boolean sync, BlockManager manager) {
-    handlers.put(FILE_PER_CHUNK, new FilePerChunkStrategy(sync, manager));
-    handlers.put(FILE_PER_BLOCK, new FilePerBlockStrategy(sync, manager));
+  ChunkManagerDispatcher(boolean sync, BlockManager manager,
+      DatanodeConfiguration config, String datanodeId) {
+    handlers.put(FILE_PER_CHUNK,
+        new FilePerChunkStrategy(sync, manager, config));
+    handlers.put(FILE_PER_BLOCK,
+        new FilePerBlockStrategy(sync, manager, config, datanodeId));
   }
 
   @Override
@@ -116,6 +120,12 @@ public void deleteChunks(Container container, BlockData blockData)
             .mapToLong(ContainerProtos.ChunkInfo::getLen).sum());
   }
 
+  @Override
+  public void closeContainerFiles(Container container)
+      throws StorageContainerException {
+    selectHandler(container).closeContainerFiles(container);
+  }
+
   @Override
   public void shutdown() {
     handlers.values().forEach(ChunkManager::shutdown);
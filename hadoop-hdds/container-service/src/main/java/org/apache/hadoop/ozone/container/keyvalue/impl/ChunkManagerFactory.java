@@ -20,6 +20,7 @@
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerScrubberConfiguration;
@@ -49,6 +50,19 @@ private ChunkManagerFactory() {
    */
   public static ChunkManager createChunkManager(ConfigurationSource conf,
       BlockManager manager) {
+    return createChunkManager(conf, manager, null);
+  }
+
+  /**
+   * Create a chunk manager for a datanode.
+   * @param conf       Configuration
+   * @param manager    This parameter will be used only for read data of
+   *                   FILE_PER_CHUNK layout file. Can be null for other cases.
+   * @param datanodeId UUID of the datanode, used to name its metrics
+   * @return
+   */
+  public static ChunkManager createChunkManager(ConfigurationSource conf,
+      BlockManager manager, String datanodeId) {
     boolean sync =
         conf.getBoolean(OzoneConfigKeys.DFS_CONTAINER_CHUNK_WRITE_SYNC_KEY,
             OzoneConfigKeys.DFS_CONTAINER_CHUNK_WRITE_SYNC_DEFAULT);
@@ -75,6 +89,7 @@ public static ChunkManager createChunkManager(ConfigurationSource conf,
       return new ChunkManagerDummyImpl();
     }
 
-    return new ChunkManagerDispatcher(sync, manager);
+    return new ChunkManagerDispatcher(sync, manager,
+        conf.getObject(DatanodeConfiguration.class), datanodeId);
   }
 }
\ No newline at end of file
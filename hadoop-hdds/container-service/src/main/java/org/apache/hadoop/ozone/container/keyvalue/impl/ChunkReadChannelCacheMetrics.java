@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import com.google.common.cache.CacheStats;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+
+/**
+ * Metrics source to report statistics of the files kept open for reading by
+ * {@link FilePerBlockStrategy}.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Chunk Read Channel Cache Metrics", context = "dfs")
+public final class ChunkReadChannelCacheMetrics implements MetricsSource {
+
+  private static final String SOURCE_NAME =
+      ChunkReadChannelCacheMetrics.class.getSimpleName();
+
+  private final String name;
+  private final FilePerBlockStrategy strategy;
+
+  private ChunkReadChannelCacheMetrics(String name,
+      FilePerBlockStrategy strategy) {
+    this.name = name;
+    this.strategy = strategy;
+  }
+
+  /**
+   * Create and register metrics for the chunk manager of a datanode. Metrics
+   * of any previous instance of the same datanode are replaced.
+   *
+   * @param datanodeId UUID of the datanode, may be null outside a datanode
+   */
+  public static synchronized ChunkReadChannelCacheMetrics create(
+      String datanodeId, FilePerBlockStrategy strategy) {
+    String name = datanodeId == null ? SOURCE_NAME : SOURCE_NAME + datanodeId;
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(name);
+    return ms.register(name, "Chunk read channel cache metrics",
+        new ChunkReadChannelCacheMetrics(name, strategy));
+  }
+
+  /**
+   * Unregister the metrics instance, unless it was already replaced by the
+   * metrics of a newer instance.
+   */
+  public void unRegister() {
+    synchronized (ChunkReadChannelCacheMetrics.class) {
+      MetricsSystem ms = DefaultMetricsSystem.instance();
+      if (ms.getSource(name) == this) {
+        ms.unregisterSource(name);
+      }
+    }
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    CacheStats stats = strategy.getReadChannelCacheStats();
+    collector.addRecord(name)
+        .addGauge(Interns.info("OpenReadChannels",
+            "Number of block files open for reading"),
+            strategy.getOpenReadChannelCount())
+        .addCounter(Interns.info("ReadChannelCacheHits",
+            "Number of reads which reused an open file"),
+            stats.hitCount())
+        .addCounter(Interns.info("ReadChannelCacheMisses",
+            "Number of reads which had to open the file"),
+            stats.missCount())
+        .addCounter(Interns.info("ReadChannelCacheEvictions",
+            "Number of files closed due to size limit or expiry"),
+            stats.evictionCount());
+  }
+}
@@ -21,6 +21,7 @@
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.RemovalListener;
 import com.google.common.collect.Lists;
 
@@ -32,6 +33,7 @@
 import org.apache.hadoop.ozone.common.utils.BufferUtils;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
@@ -51,7 +53,9 @@
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.concurrent.ExecutionException;
 
@@ -72,11 +76,29 @@ public class FilePerBlockStrategy implements ChunkManager {
   private final boolean doSyncWrite;
   private final OpenFiles files = new OpenFiles();
   private final long defaultReadBufferCapacity;
+  private final ReadFiles readFiles;
+  private final boolean mmapReadEnabled;
+  private final ChunkReadChannelCacheMetrics readCacheMetrics;
 
   public FilePerBlockStrategy(boolean sync, BlockManager manager) {
+    this(sync, manager, new DatanodeConfiguration());
+  }
+
+  public FilePerBlockStrategy(boolean sync, BlockManager manager,
+      DatanodeConfiguration config) {
+    this(sync, manager, config, null);
+  }
+
+  public FilePerBlockStrategy(boolean sync, BlockManager manager,
+      DatanodeConfiguration config, String datanodeId) {
     doSyncWrite = sync;
     this.defaultReadBufferCapacity = manager == null ? 0 :
         manager.getDefaultReadBufferCapacity();
+    int readCacheSize = config.getChunkReadChannelCacheSize();
+    this.readFiles = readCacheSize > 0 ? new ReadFiles(readCacheSize) : null;
+    this.mmapReadEnabled = config.isChunkReadMmapEnabled();
+    this.readCacheMetrics = readFiles != null ?
+        ChunkReadChannelCacheMetrics.create(datanodeId, this) : null;
   }
 
   private static void checkLayoutVersion(Container container) {
@@ -155,14 +177,54 @@ public ChunkBuffer readChunk(Container container, BlockID blockID,
     long bufferCapacity =  ChunkManager.getBufferCapacityForChunkRead(info,
         defaultReadBufferCapacity);
 
-    ByteBuffer[] dataBuffers = BufferUtils.assignByteBuffers(len,
-        bufferCapacity);
+    // Blocks of closed containers are not modified any more, so they can be
+    // safely mapped into memory.
+    boolean mmap = mmapReadEnabled &&
+        (containerData.isClosed() || containerData.isQuasiClosed());
 
-    ChunkUtils.readData(chunkFile, dataBuffers, offset, len, volumeIOStats);
+    ByteBuffer[] dataBuffers;
+    if (readFiles != null) {
+      try {
+        dataBuffers = readData(readFiles.getChannel(chunkFile), chunkFile,
+            offset, len, bufferCapacity, mmap, volumeIOStats);
+      } catch (StorageContainerException e) {
+        if (!(e.getCause() instanceof ClosedChannelException)) {
+          throw e;
+        }
+        // Channel was closed due to concurrent eviction, retry with a new one.
+        LOG.debug("Retrying read of chunk {} from file {}", info, chunkFile);
+        dataBuffers = readData(readFiles.getChannel(chunkFile), chunkFile,
+            offset, len, bufferCapacity, mmap, volumeIOStats);
+      }
+    } else if (mmap) {
+      dataBuffers = ChunkUtils.mapData(chunkFile, offset, len, bufferCapacity,
+          volumeIOStats);
+    } else {
+      dataBuffers = BufferUtils.assignByteBuffers(len, bufferCapacity);
+      ChunkUtils.readData(chunkFile, dataBuffers, offset, len, volumeIOStats);
+    }
 
     return ChunkBuffer.wrap(Lists.newArrayList(dataBuffers));
   }
 
+  private static ByteBuffer[] readData(FileChannel channel, File chunkFile,
+      long offset, long len, long bufferCapacity, boolean mmap,
+      VolumeIOStats volumeIOStats) throws StorageContainerException {
+    if (mmap) {
+      return ChunkUtils.mapData(channel, chunkFile.getName(), offset, len,
+          bufferCapacity, volumeIOStats);
+    }
+    ByteBuffer[] dataBuffers = BufferUtils.assignByteBuffers(len,
+        bufferCapacity);
+    ChunkUtils.readData(channel, chunkFile.getName(), dataBuffers, offset, len,
+        volumeIOStats);
+    return dataBuffers;
+  }
+
+  private static FileChannel openForRead(File file) throws IOException {
+    return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+  }
+
   @Override
   public void deleteChunk(Container container, BlockID blockID, ChunkInfo info)
       throws StorageContainerException {
@@ -183,6 +245,40 @@ public void finishWriteChunks(KeyValueContainer container,
     verifyChunkFileExists(chunkFile);
   }
 
+  @Override
+  public void closeContainerFiles(Container container) {
+    checkLayoutVersion(container);
+    String chunksDir = new File(((KeyValueContainerData) container
+        .getContainerData()).getChunksPath()).getPath() + File.separator;
+    files.closeAll(chunksDir);
+    if (readFiles != null) {
+      readFiles.closeAll(chunksDir);
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    if (readFiles != null) {
+      readCacheMetrics.unRegister();
+      readFiles.closeAll();
+    }
+  }
+
+  /**
+   * Return hit, miss and eviction statistics of the cache of files open for
+   * reading, or null if the cache is disabled.
+   */
+  public CacheStats getReadChannelCacheStats() {
+    return readFiles != null ? readFiles.stats() : null;
+  }
+
+  /**
+   * Return the number of files open for reading.
+   */
+  public long getOpenReadChannelCount() {
+    return readFiles != null ? readFiles.size() : 0;
+  }
+
   private void deleteChunk(Container container, BlockID blockID,
       ChunkInfo info, boolean verifyLength)
       throws StorageContainerException {
@@ -206,6 +302,9 @@ private void deleteChunk(Container container, BlockID blockID,
       checkFullDelete(info, file);
     }
 
+    if (readFiles != null) {
+      readFiles.close(file);
+    }
     FileUtil.fullyDelete(file);
     LOG.info("Deleted block file: {}", file);
   }
@@ -266,6 +365,10 @@ public void close(File file) {
       }
     }
 
+    public void closeAll(String dirPrefix) {
+      files.asMap().keySet().removeIf(path -> path.startsWith(dirPrefix));
+    }
+
     private static void close(String filename, OpenFile openFile) {
       if (openFile != null) {
         if (LOG.isDebugEnabled()) {
@@ -280,6 +383,71 @@ private static void close(String filename, OpenFile openFile) {
     }
   }
 
+  /**
+   * Cache of block files open for reading. Channels are only used for
+   * positional reads, so a single channel can be shared by concurrent
+   * readers of the same block.
+   */
+  private static final class ReadFiles {
+
+    private final Cache<String, FileChannel> channels;
+
+    private ReadFiles(long maxSize) {
+      channels = CacheBuilder.newBuilder()
+          .maximumSize(maxSize)
+          .expireAfterAccess(Duration.ofMinutes(10))
+          .recordStats()
+          .removalListener((RemovalListener<String, FileChannel>)
+              event -> close(event.getKey(), event.getValue()))
+          .build();
+    }
+
+    public FileChannel getChannel(File file)
+        throws StorageContainerException {
+      try {
+        return channels.get(file.getPath(), () -> openForRead(file));
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw ChunkUtils.wrapInStorageContainerException(
+              (IOException) e.getCause());
+        }
+        throw new StorageContainerException(e.getCause(),
+            ContainerProtos.Result.CONTAINER_INTERNAL_ERROR);
+      }
+    }
+
+    public void close(File file) {
+      channels.invalidate(file.getPath());
+    }
+
+    public void closeAll() {
+      channels.invalidateAll();
+    }
+
+    public void closeAll(String dirPrefix) {
+      channels.asMap().keySet().removeIf(path -> path.startsWith(dirPrefix));
+    }
+
+    public CacheStats stats() {
+      return channels.stats();
+    }
+
+    public long size() {
+      return channels.size();
+    }
+
+    private static void close(String filename, FileChannel channel) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Closing file {} open for reading", filename);
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close file {}", filename, e);
+      }
+    }
+  }
+
   private static final class OpenFile {
 
     private final RandomAccessFile file;
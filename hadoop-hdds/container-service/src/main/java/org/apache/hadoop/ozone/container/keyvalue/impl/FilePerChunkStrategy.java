@@ -30,6 +30,7 @@
 import org.apache.hadoop.ozone.common.utils.BufferUtils;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
@@ -68,12 +69,19 @@ public class FilePerChunkStrategy implements ChunkManager {
   private final boolean doSyncWrite;
   private final BlockManager blockManager;
   private final long defaultReadBufferCapacity;
+  private final boolean mmapReadEnabled;
 
   public FilePerChunkStrategy(boolean sync, BlockManager manager) {
+    this(sync, manager, new DatanodeConfiguration());
+  }
+
+  public FilePerChunkStrategy(boolean sync, BlockManager manager,
+      DatanodeConfiguration config) {
     doSyncWrite = sync;
     blockManager = manager;
     this.defaultReadBufferCapacity = manager == null ? 0 :
         manager.getDefaultReadBufferCapacity();
+    this.mmapReadEnabled = config.isChunkReadMmapEnabled();
   }
 
   private static void checkLayoutVersion(Container container) {
@@ -230,8 +238,13 @@ public ChunkBuffer readChunk(Container container, BlockID blockID,
     long bufferCapacity = ChunkManager.getBufferCapacityForChunkRead(info,
         defaultReadBufferCapacity);
 
-    ByteBuffer[] dataBuffers = BufferUtils.assignByteBuffers(len,
-        bufferCapacity);
+    // Chunk files of closed containers are not modified any more, so they
+    // can be safely mapped into memory.
+    boolean mmap = mmapReadEnabled &&
+        (containerData.isClosed() || containerData.isQuasiClosed());
+
+    ByteBuffer[] dataBuffers = mmap ? null :
+        BufferUtils.assignByteBuffers(len, bufferCapacity);
 
     long chunkFileOffset = 0;
     if (info.getOffset() != 0) {
@@ -264,6 +277,10 @@ public ChunkBuffer readChunk(Container container, BlockID blockID,
         if (file.exists()) {
           long offset = info.getOffset() - chunkFileOffset;
           Preconditions.checkState(offset >= 0);
+          if (mmap) {
+            return ChunkBuffer.wrap(Lists.newArrayList(ChunkUtils.mapData(
+                file, offset, len, bufferCapacity, volumeIOStats)));
+          }
           ChunkUtils.readData(file, dataBuffers, offset, len, volumeIOStats);
           return ChunkBuffer.wrap(Lists.newArrayList(dataBuffers));
         }
@@ -273,7 +290,9 @@ public ChunkBuffer readChunk(Container container, BlockID blockID,
         if (ex.getResult() != UNABLE_TO_FIND_CHUNK) {
           throw ex;
         }
-        BufferUtils.clearBuffers(dataBuffers);
+        if (dataBuffers != null) {
+          BufferUtils.clearBuffers(dataBuffers);
+        }
       }
     }
     throw new StorageContainerException(
@@ -104,6 +104,17 @@ default void finishWriteChunks(KeyValueContainer kvContainer,
     // no-op
   }
 
+  /**
+   * Close the files of the container kept open by the chunkManager, before
+   * the container is deleted.
+   *
+   * @param container - Container to be deleted.
+   */
+  default void closeContainerFiles(Container container)
+      throws StorageContainerException {
+    // no-op
+  }
+
   static long getBufferCapacityForChunkRead(ChunkInfo chunkInfo,
       long defaultReadBufferCapacity) {
     long bufferCapacity = 0;
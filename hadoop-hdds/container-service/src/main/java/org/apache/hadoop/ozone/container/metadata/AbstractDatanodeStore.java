@@ -89,13 +89,7 @@ protected AbstractDatanodeStore(ConfigurationSource config, long containerID,
       AbstractDatanodeDBDefinition dbDef, boolean openReadOnly)
       throws IOException {
 
-    // The same config instance is used on each datanode, so we can share the
-    // corresponding column family options, providing a single shared cache
-    // for all containers on a datanode.
-    if (!OPTIONS_CACHE.containsKey(config)) {
-      OPTIONS_CACHE.put(config, buildColumnFamilyOptions(config));
-    }
-    cfOptions = OPTIONS_CACHE.get(config);
+    cfOptions = getColumnFamilyOptions(config);
 
     this.dbDef = dbDef;
     this.containerID = containerID;
@@ -107,22 +101,8 @@ protected AbstractDatanodeStore(ConfigurationSource config, long containerID,
   public void start(ConfigurationSource config)
       throws IOException {
     if (this.store == null) {
-      DBOptions options = DEFAULT_PROFILE.getDBOptions();
-      options.setCreateIfMissing(true);
-      options.setCreateMissingColumnFamilies(true);
-
-      String rocksDbStat = config.getTrimmed(
-              OZONE_METADATA_STORE_ROCKSDB_STATISTICS,
-              OZONE_METADATA_STORE_ROCKSDB_STATISTICS_DEFAULT);
-
-      if (!rocksDbStat.equals(OZONE_METADATA_STORE_ROCKSDB_STATISTICS_OFF)) {
-        Statistics statistics = new Statistics();
-        statistics.setStatsLevel(StatsLevel.valueOf(rocksDbStat));
-        options.setStatistics(statistics);
-      }
-
       this.store = DBStoreBuilder.newBuilder(config, dbDef)
-              .setDBOptions(options)
+              .setDBOptions(getDBOptions(config))
               .setDefaultCFOptions(cfOptions)
               .setOpenReadOnly(openReadOnly)
               .build();
@@ -216,7 +196,36 @@ public void compactDB() throws IOException {
     return Collections.unmodifiableMap(OPTIONS_CACHE);
   }
 
-  private static void checkTableStatus(Table<?, ?> table, String name)
+  /**
+   * Returns the column family options for the datanode DBs. The same config
+   * instance is used on each datanode, so we can share the corresponding
+   * column family options, providing a single shared cache for all containers
+   * on a datanode.
+   */
+  static ColumnFamilyOptions getColumnFamilyOptions(
+      ConfigurationSource config) {
+    return OPTIONS_CACHE.computeIfAbsent(config,
+        AbstractDatanodeStore::buildColumnFamilyOptions);
+  }
+
+  static DBOptions getDBOptions(ConfigurationSource config) {
+    DBOptions options = DEFAULT_PROFILE.getDBOptions();
+    options.setCreateIfMissing(true);
+    options.setCreateMissingColumnFamilies(true);
+
+    String rocksDbStat = config.getTrimmed(
+            OZONE_METADATA_STORE_ROCKSDB_STATISTICS,
+            OZONE_METADATA_STORE_ROCKSDB_STATISTICS_DEFAULT);
+
+    if (!rocksDbStat.equals(OZONE_METADATA_STORE_ROCKSDB_STATISTICS_OFF)) {
+      Statistics statistics = new Statistics();
+      statistics.setStatsLevel(StatsLevel.valueOf(rocksDbStat));
+      options.setStatistics(statistics);
+    }
+    return options;
+  }
+
+  static void checkTableStatus(Table<?, ?> table, String name)
           throws IOException {
     String logMessage = "Unable to get a reference to %s table. Cannot " +
             "continue.";
@@ -255,7 +264,7 @@ private static ColumnFamilyOptions buildColumnFamilyOptions(
    * {@link MetadataKeyFilters#getUnprefixedKeyFilter()}
    */
   @InterfaceAudience.Public
-  private static class KeyValueBlockIterator implements
+  static class KeyValueBlockIterator implements
           BlockIterator<BlockData>, Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(
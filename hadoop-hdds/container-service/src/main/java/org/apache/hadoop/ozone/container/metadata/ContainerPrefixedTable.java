@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.metadata;
+
+import org.apache.hadoop.hdds.StringUtils;
+import org.apache.hadoop.hdds.utils.MetadataKeyFilters;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * View of the rows of one container in a table shared by all containers of a
+ * volume, as in schema version 3. Keys of the container are stored with the
+ * container ID as prefix, which is added and stripped by this class, so that
+ * callers see the same keys as in a DB of the container's own.
+ *
+ * Iterators and range queries only return the rows of the container.
+ */
+public class ContainerPrefixedTable<KEY, VALUE> implements Table<KEY, VALUE> {
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * Character right after the separator, which bounds the keys of a
+   * container from above.
+   */
+  private static final char UPPER_BOUND_SEPARATOR =
+      (char) (SEPARATOR.charAt(0) + 1);
+
+  /**
+   * Width of the delete transaction IDs in the keys, so that the keys are
+   * sorted in the order of the IDs.
+   */
+  private static final String LONG_KEY_FORMAT = "%019d";
+
+  private final Table<String, VALUE> table;
+  private final String prefix;
+  private final String upperBound;
+  private final Function<KEY, String> keyEncoder;
+  private final Function<String, KEY> keyDecoder;
+
+  public ContainerPrefixedTable(Table<String, VALUE> table, long containerID,
+      Function<KEY, String> keyEncoder, Function<String, KEY> keyDecoder) {
+    this.table = table;
+    this.prefix = getContainerKeyPrefix(containerID);
+    this.upperBound = containerID + String.valueOf(UPPER_BOUND_SEPARATOR);
+    this.keyEncoder = keyEncoder;
+    this.keyDecoder = keyDecoder;
+  }
+
+  public static <VALUE> ContainerPrefixedTable<String, VALUE> withStringKeys(
+      Table<String, VALUE> table, long containerID) {
+    return new ContainerPrefixedTable<>(table, containerID,
+        Function.identity(), Function.identity());
+  }
+
+  public static <VALUE> ContainerPrefixedTable<Long, VALUE> withLongKeys(
+      Table<String, VALUE> table, long containerID) {
+    return new ContainerPrefixedTable<>(table, containerID,
+        key -> String.format(LONG_KEY_FORMAT, key), Long::parseLong);
+  }
+
+  /**
+   * Returns the prefix of the keys of the container. The separator makes
+   * sure that the prefix of a container is not a prefix of the keys of
+   * another container.
+   */
+  public static String getContainerKeyPrefix(long containerID) {
+    return containerID + SEPARATOR;
+  }
+
+  private String toDBKey(KEY key) {
+    return prefix + keyEncoder.apply(key);
+  }
+
+  private KEY fromDBKey(String dbKey) {
+    return keyDecoder.apply(dbKey.substring(prefix.length()));
+  }
+
+  private boolean isContainerKey(String dbKey) {
+    return dbKey != null && dbKey.startsWith(prefix);
+  }
+
+  @Override
+  public void put(KEY key, VALUE value) throws IOException {
+    table.put(toDBKey(key), value);
+  }
+
+  @Override
+  public void putWithBatch(BatchOperation batch, KEY key,
+      VALUE value) throws IOException {
+    table.putWithBatch(batch, toDBKey(key), value);
+  }
+
+  @Override
+  public boolean isEmpty() throws IOException {
+    try (PrefixedIterator iterator = iterator()) {
+      return !iterator.hasNext();
+    }
+  }
+
+  @Override
+  public void delete(KEY key) throws IOException {
+    table.delete(toDBKey(key));
+  }
+
+  @Override
+  public void deleteWithBatch(BatchOperation batch, KEY key)
+      throws IOException {
+    table.deleteWithBatch(batch, toDBKey(key));
+  }
+
+  /**
+   * Deletes all rows of the container in the batch.
+   */
+  public void deleteAllWithBatch(BatchOperation batch) throws IOException {
+    try (PrefixedIterator iterator = iterator()) {
+      while (iterator.hasNext()) {
+        table.deleteWithBatch(batch, iterator.nextDBKey());
+      }
+    }
+  }
+
+  @Override
+  public PrefixedIterator iterator() {
+    return new PrefixedIterator(table.iterator());
+  }
+
+  @Override
+  public String getName() throws IOException {
+    return table.getName();
+  }
+
+  /**
+   * Returns the exact number of rows of the container, as RocksDB only
+   * estimates the number of keys of the whole table.
+   */
+  @Override
+  public long getEstimatedKeyCount() throws IOException {
+    long count = 0;
+    try (PrefixedIterator iterator = iterator()) {
+      while (iterator.hasNext()) {
+        iterator.nextDBKey();
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isExist(KEY key) throws IOException {
+    return table.isExist(toDBKey(key));
+  }
+
+  @Override
+  public VALUE get(KEY key) throws IOException {
+    return table.get(toDBKey(key));
+  }
+
+  @Override
+  public VALUE getIfExist(KEY key) throws IOException {
+    return table.getIfExist(toDBKey(key));
+  }
+
+  @Override
+  public VALUE getReadCopy(KEY key) throws IOException {
+    return table.getReadCopy(toDBKey(key));
+  }
+
+  @Override
+  public List<? extends KeyValue<KEY, VALUE>> getRangeKVs(
+      KEY startKey, int count,
+      MetadataKeyFilters.MetadataKeyFilter... filters)
+      throws IOException, IllegalArgumentException {
+    return getRangeKVs(startKey, count, false, filters);
+  }
+
+  @Override
+  public List<? extends KeyValue<KEY, VALUE>> getSequentialRangeKVs(
+      KEY startKey, int count,
+      MetadataKeyFilters.MetadataKeyFilter... filters)
+      throws IOException, IllegalArgumentException {
+    return getRangeKVs(startKey, count, true, filters);
+  }
+
+  private List<KeyValue<KEY, VALUE>> getRangeKVs(KEY startKey, int count,
+      boolean sequential, MetadataKeyFilters.MetadataKeyFilter... filters)
+      throws IOException {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          "Invalid count given " + count + ", count must be greater than 0");
+    }
+    List<KeyValue<KEY, VALUE>> result = new ArrayList<>();
+    if (startKey != null && get(startKey) == null) {
+      // Key not found, return empty list
+      return result;
+    }
+
+    try (PrefixedIterator iterator = iterator()) {
+      if (startKey != null) {
+        iterator.seek(startKey);
+      }
+      byte[] prevKey = null;
+      while (iterator.hasNext() && result.size() < count) {
+        KeyValue<KEY, VALUE> current = iterator.next();
+        byte[] currentKey =
+            StringUtils.string2Bytes(keyEncoder.apply(current.getKey()));
+        KEY next = iterator.key();
+        byte[] nextKey = next == null ? null
+            : StringUtils.string2Bytes(keyEncoder.apply(next));
+
+        boolean matches = true;
+        if (filters != null) {
+          for (MetadataKeyFilters.MetadataKeyFilter filter : filters) {
+            if (!filter.filterKey(prevKey, currentKey, nextKey)) {
+              matches = false;
+              break;
+            }
+          }
+        }
+        if (matches) {
+          result.add(current);
+        } else if (!result.isEmpty() && sequential) {
+          // if the caller asks for a sequential range of results,
+          // and we met a dis-match, abort iteration from here.
+          break;
+        }
+        prevKey = currentKey;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void close() throws Exception {
+    // The table is shared with other containers, and closed with the DB.
+  }
+
+  /**
+   * Iterator over the rows of the container, positioned at the first row of
+   * the container when created.
+   */
+  public final class PrefixedIterator
+      implements TableIterator<KEY, KeyValue<KEY, VALUE>> {
+
+    private final TableIterator<String, ? extends KeyValue<String, VALUE>>
+        iterator;
+
+    private PrefixedIterator(
+        TableIterator<String, ? extends KeyValue<String, VALUE>> iterator) {
+      this.iterator = iterator;
+      seekToFirst();
+    }
+
+    @Override
+    public void seekToFirst() {
+      try {
+        iterator.seek(prefix);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Seeks to the last row of the container, which is the last key before
+     * the upper bound of the prefix. If the container has no rows, the
+     * iterator ends up on a key of another container and has no next row.
+     */
+    @Override
+    public void seekToLast() {
+      try {
+        iterator.seekForPrev(upperBound);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public KeyValue<KEY, VALUE> seek(KEY key) throws IOException {
+      KeyValue<String, VALUE> keyValue = iterator.seek(toDBKey(key));
+      if (keyValue == null || !isContainerKey(keyValue.getKey())) {
+        return null;
+      }
+      return new PrefixedKeyValue(keyValue);
+    }
+
+    @Override
+    public KEY key() throws IOException {
+      String dbKey = iterator.key();
+      return isContainerKey(dbKey) ? fromDBKey(dbKey) : null;
+    }
+
+    @Override
+    public KeyValue<KEY, VALUE> value() {
+      KeyValue<String, VALUE> keyValue = iterator.value();
+      try {
+        if (keyValue == null || !isContainerKey(keyValue.getKey())) {
+          return null;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return new PrefixedKeyValue(keyValue);
+    }
+
+    @Override
+    public void removeFromDB() throws IOException {
+      iterator.removeFromDB();
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        return iterator.hasNext() && isContainerKey(iterator.key());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public KeyValue<KEY, VALUE> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException(
+            "No more rows for key prefix " + prefix);
+      }
+      return new PrefixedKeyValue(iterator.next());
+    }
+
+    /**
+     * Returns the key of the next row as stored in the DB, with the prefix.
+     */
+    private String nextDBKey() throws IOException {
+      if (!hasNext()) {
+        throw new NoSuchElementException(
+            "No more rows for key prefix " + prefix);
+      }
+      return iterator.next().getKey();
+    }
+
+    @Override
+    public void close() throws IOException {
+      iterator.close();
+    }
+  }
+
+  /**
+   * Row of the container, with the prefix stripped from the key.
+   */
+  private final class PrefixedKeyValue implements KeyValue<KEY, VALUE> {
+
+    private final KeyValue<String, VALUE> keyValue;
+
+    private PrefixedKeyValue(KeyValue<String, VALUE> keyValue) {
+      this.keyValue = keyValue;
+    }
+
+    @Override
+    public KEY getKey() throws IOException {
+      return fromDBKey(keyValue.getKey());
+    }
+
+    @Override
+    public VALUE getValue() throws IOException {
+      return keyValue.getValue();
+    }
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.metadata;
+
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.proto.
+    StorageContainerDatanodeProtocolProtos.DeletedBlocksTransaction;
+import org.apache.hadoop.hdds.utils.MetadataKeyFilters.KeyPrefixFilter;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.BatchOperationHandler;
+import org.apache.hadoop.hdds.utils.db.DBStore;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.apache.hadoop.ozone.container.common.helpers.ChunkInfoList;
+import org.apache.hadoop.ozone.container.common.interfaces.BlockIterator;
+import org.apache.hadoop.ozone.container.metadata.AbstractDatanodeStore.KeyValueBlockIterator;
+
+import java.io.IOException;
+
+/**
+ * Constructs a datanode store in accordance with schema version 3, where all
+ * containers on a volume keep their data in one DB, see
+ * {@link DatanodeVolumeStore}. This store is a view of the rows of one
+ * container in the tables of that DB, which are the same as in schema
+ * version 2.
+ *
+ * Stopping the store does not close the shared DB.
+ */
+public class DatanodeStoreSchemaThreeImpl implements DeleteTransactionStore {
+
+  private final long containerID;
+  private final DatanodeVolumeStore volumeStore;
+  private final ContainerPrefixedTable<String, Long> metadataTable;
+  private final ContainerPrefixedTable<String, BlockData> blockDataTable;
+  private final ContainerPrefixedTable<String, ChunkInfoList>
+      deletedBlocksTable;
+  private final ContainerPrefixedTable<Long, DeletedBlocksTransaction>
+      deleteTransactionTable;
+
+  /**
+   * Constructs the datanode store, opening the DB of the volume if needed.
+   *
+   * @param config - Ozone Configuration.
+   * @param containerID - ID of the container.
+   * @param dbPath - The absolute path to the DB of the volume.
+   * @throws IOException - on Failure.
+   */
+  public DatanodeStoreSchemaThreeImpl(ConfigurationSource config,
+      long containerID, String dbPath) throws IOException {
+    this.containerID = containerID;
+    this.volumeStore = DatanodeVolumeStore.get(config, dbPath);
+    this.metadataTable = ContainerPrefixedTable.withStringKeys(
+        volumeStore.getMetadataTable(), containerID);
+    this.blockDataTable = ContainerPrefixedTable.withStringKeys(
+        volumeStore.getBlockDataTable(), containerID);
+    this.deletedBlocksTable = ContainerPrefixedTable.withStringKeys(
+        volumeStore.getDeletedBlocksTable(), containerID);
+    this.deleteTransactionTable = ContainerPrefixedTable.withLongKeys(
+        volumeStore.getDeleteTransactionTable(), containerID);
+  }
+
+  @Override
+  public void start(ConfigurationSource configuration) {
+    // The DB of the volume is opened when the store is constructed.
+  }
+
+  @Override
+  public void stop() {
+    // The DB of the volume is shared with other containers.
+  }
+
+  @Override
+  public DBStore getStore() {
+    return volumeStore.getStore();
+  }
+
+  @Override
+  public Table<String, BlockData> getBlockDataTable() {
+    // See DatanodeTable's Javadoc for why the iterator is disabled.
+    return new DatanodeTable<>(blockDataTable);
+  }
+
+  @Override
+  public Table<String, Long> getMetadataTable() {
+    return new DatanodeTable<>(metadataTable);
+  }
+
+  @Override
+  public Table<String, ChunkInfoList> getDeletedBlocksTable() {
+    return new DatanodeTable<>(deletedBlocksTable);
+  }
+
+  @Override
+  public Table<Long, DeletedBlocksTransaction> getDeleteTransactionTable() {
+    return deleteTransactionTable;
+  }
+
+  @Override
+  public BatchOperationHandler getBatchHandler() {
+    return volumeStore.getStore();
+  }
+
+  @Override
+  public void flushLog(boolean sync) throws IOException {
+    volumeStore.getStore().flushLog(sync);
+  }
+
+  /**
+   * Only syncs the WAL, which makes the writes of the container durable.
+   * Flushing the memtables would flush the rows of all containers of the
+   * volume, so it is left to RocksDB.
+   */
+  @Override
+  public void flushDB() throws IOException {
+    flushLog(true);
+  }
+
+  @Override
+  public void compactDB() {
+    // Compacting the DB of the whole volume for one container is too
+    // expensive, RocksDB compacts the DB in the background.
+  }
+
+  @Override
+  public BlockIterator<BlockData> getBlockIterator() {
+    return new KeyValueBlockIterator(containerID, blockDataTable.iterator());
+  }
+
+  @Override
+  public BlockIterator<BlockData> getBlockIterator(KeyPrefixFilter filter) {
+    return new KeyValueBlockIterator(containerID, blockDataTable.iterator(),
+        filter);
+  }
+
+  /**
+   * Writes the rows of the container to a new DB of schema version 2, which
+   * can be packed and imported like the DB of a schema version 2 container.
+   *
+   * @param config - Ozone Configuration.
+   * @param dbPath - The absolute path to the DB to create.
+   * @throws IOException - on Failure.
+   */
+  public void exportContainerData(ConfigurationSource config, String dbPath)
+      throws IOException {
+    DatanodeStoreSchemaTwoImpl target =
+        new DatanodeStoreSchemaTwoImpl(config, containerID, dbPath, false);
+    try {
+      DatanodeSchemaTwoDBDefinition dbDef =
+          new DatanodeSchemaTwoDBDefinition(dbPath);
+      DBStore targetStore = target.getStore();
+      try (BatchOperation batch = targetStore.initBatchOperation()) {
+        copy(metadataTable,
+            dbDef.getMetadataColumnFamily().getTable(targetStore), batch);
+        copy(blockDataTable,
+            dbDef.getBlockDataColumnFamily().getTable(targetStore), batch);
+        copy(deletedBlocksTable,
+            dbDef.getDeletedBlocksColumnFamily().getTable(targetStore), batch);
+        copy(deleteTransactionTable,
+            target.getDeleteTransactionTable(), batch);
+        targetStore.commitBatchOperation(batch);
+      }
+      targetStore.flushDB();
+    } finally {
+      closeStore(target);
+    }
+  }
+
+  /**
+   * Replaces the rows of this container by the rows of the DB of a schema
+   * version 2 container, to import a container packed by another datanode.
+   *
+   * @param config - Ozone Configuration.
+   * @param dbPath - The absolute path to the DB to read.
+   * @throws IOException - on Failure.
+   */
+  public void importContainerData(ConfigurationSource config, String dbPath)
+      throws IOException {
+    DatanodeStoreSchemaTwoImpl source =
+        new DatanodeStoreSchemaTwoImpl(config, containerID, dbPath, true);
+    try {
+      DatanodeSchemaTwoDBDefinition dbDef =
+          new DatanodeSchemaTwoDBDefinition(dbPath);
+      DBStore sourceStore = source.getStore();
+      try (BatchOperation batch = getBatchHandler().initBatchOperation()) {
+        deleteAllWithBatch(batch);
+        copy(dbDef.getMetadataColumnFamily().getTable(sourceStore),
+            metadataTable, batch);
+        copy(dbDef.getBlockDataColumnFamily().getTable(sourceStore),
+            blockDataTable, batch);
+        copy(dbDef.getDeletedBlocksColumnFamily().getTable(sourceStore),
+            deletedBlocksTable, batch);
+        copy(source.getDeleteTransactionTable(), deleteTransactionTable,
+            batch);
+        getBatchHandler().commitBatchOperation(batch);
+      }
+    } finally {
+      closeStore(source);
+    }
+  }
+
+  private static <KEY, VALUE> void copy(Table<KEY, VALUE> source,
+      Table<KEY, VALUE> target, BatchOperation batch) throws IOException {
+    try (TableIterator<KEY, ? extends Table.KeyValue<KEY, VALUE>> iterator =
+             source.iterator()) {
+      while (iterator.hasNext()) {
+        Table.KeyValue<KEY, VALUE> keyValue = iterator.next();
+        target.putWithBatch(batch, keyValue.getKey(), keyValue.getValue());
+      }
+    }
+  }
+
+  private static void closeStore(DatanodeStore store) throws IOException {
+    try {
+      store.stop();
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Unable to close the DB of container", e);
+    }
+  }
+
+  /**
+   * Deletes all rows of the container from the DB of the volume.
+   */
+  public void deleteContainerData() throws IOException {
+    try (BatchOperation batch = getBatchHandler().initBatchOperation()) {
+      deleteAllWithBatch(batch);
+      getBatchHandler().commitBatchOperation(batch);
+    }
+  }
+
+  private void deleteAllWithBatch(BatchOperation batch) throws IOException {
+    metadataTable.deleteAllWithBatch(batch);
+    blockDataTable.deleteAllWithBatch(batch);
+    deletedBlocksTable.deleteAllWithBatch(batch);
+    deleteTransactionTable.deleteAllWithBatch(batch);
+  }
+}
@@ -31,7 +31,8 @@
  * 2. A metadata table.
  * 3. A Delete Transaction Table.
  */
-public class DatanodeStoreSchemaTwoImpl extends AbstractDatanodeStore {
+public class DatanodeStoreSchemaTwoImpl extends AbstractDatanodeStore
+    implements DeleteTransactionStore {
 
   private final Table<Long, DeletedBlocksTransaction>
       deleteTransactionTable;
@@ -51,6 +52,7 @@ public DatanodeStoreSchemaTwoImpl(ConfigurationSource config,
         .getDeleteTransactionsColumnFamily().getTable(getStore());
   }
 
+  @Override
   public Table<Long, DeletedBlocksTransaction> getDeleteTransactionTable() {
     return deleteTransactionTable;
   }
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.metadata;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.proto.
+    StorageContainerDatanodeProtocolProtos.DeletedBlocksTransaction;
+import org.apache.hadoop.hdds.utils.db.DBStore;
+import org.apache.hadoop.hdds.utils.db.DBStoreBuilder;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.apache.hadoop.ozone.container.common.helpers.ChunkInfoList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.hadoop.ozone.container.metadata.AbstractDatanodeStore.checkTableStatus;
+import static org.apache.hadoop.ozone.container.metadata.AbstractDatanodeStore.getColumnFamilyOptions;
+import static org.apache.hadoop.ozone.container.metadata.AbstractDatanodeStore.getDBOptions;
+
+/**
+ * The RocksDB shared by all schema version 3 containers of a volume.
+ *
+ * Each DB is opened once, when a container of the volume first accesses it,
+ * and is kept open until the volume fails or is removed, or the datanode
+ * shuts down, so that opening and closing containers does not open and
+ * close RocksDB instances.
+ */
+public final class DatanodeVolumeStore {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DatanodeVolumeStore.class);
+
+  private static final Map<String, DatanodeVolumeStore> STORES =
+      new ConcurrentHashMap<>();
+
+  private final String dbPath;
+  private final DBStore store;
+  private final Table<String, Long> metadataTable;
+  private final Table<String, BlockData> blockDataTable;
+  private final Table<String, ChunkInfoList> deletedBlocksTable;
+  private final Table<String, DeletedBlocksTransaction>
+      deleteTransactionTable;
+
+  private DatanodeVolumeStore(ConfigurationSource config, String dbPath)
+      throws IOException {
+    this.dbPath = dbPath;
+    DatanodeSchemaThreeDBDefinition dbDef =
+        new DatanodeSchemaThreeDBDefinition(dbPath);
+    this.store = DBStoreBuilder.newBuilder(config, dbDef)
+        .setDBOptions(getDBOptions(config))
+        .setDefaultCFOptions(getColumnFamilyOptions(config))
+        .build();
+
+    metadataTable = dbDef.getMetadataColumnFamily().getTable(store);
+    checkTableStatus(metadataTable, metadataTable.getName());
+    blockDataTable = dbDef.getBlockDataColumnFamily().getTable(store);
+    checkTableStatus(blockDataTable, blockDataTable.getName());
+    deletedBlocksTable = dbDef.getDeletedBlocksColumnFamily().getTable(store);
+    checkTableStatus(deletedBlocksTable, deletedBlocksTable.getName());
+    deleteTransactionTable =
+        dbDef.getDeleteTransactionsColumnFamily().getTable(store);
+    checkTableStatus(deleteTransactionTable,
+        deleteTransactionTable.getName());
+  }
+
+  /**
+   * Returns the store of the DB at the given path, opening it if it is not
+   * open yet.
+   *
+   * @param config - Ozone Configuration.
+   * @param dbPath - The absolute path to the DB of the volume.
+   * @throws IOException - on Failure.
+   */
+  public static DatanodeVolumeStore get(ConfigurationSource config,
+      String dbPath) throws IOException {
+    DatanodeVolumeStore volumeStore = STORES.get(dbPath);
+    if (volumeStore == null) {
+      synchronized (STORES) {
+        volumeStore = STORES.get(dbPath);
+        if (volumeStore == null) {
+          LOG.info("Opening container DB of volume {}", dbPath);
+          volumeStore = new DatanodeVolumeStore(config, dbPath);
+          STORES.put(dbPath, volumeStore);
+        }
+      }
+    }
+    return volumeStore;
+  }
+
+  /**
+   * Closes the DBs of all volumes.
+   */
+  public static void closeAll() {
+    synchronized (STORES) {
+      List<DatanodeVolumeStore> stores = new ArrayList<>(STORES.values());
+      STORES.clear();
+      for (DatanodeVolumeStore volumeStore : stores) {
+        volumeStore.close();
+      }
+    }
+  }
+
+  /**
+   * Closes the DBs under the root directory of a volume, when the volume
+   * fails or is removed.
+   *
+   * @param hddsRoot - The root directory of the volume.
+   */
+  public static void closeVolume(File hddsRoot) {
+    String rootPath = hddsRoot.getAbsolutePath() + File.separator;
+    synchronized (STORES) {
+      Iterator<DatanodeVolumeStore> iterator = STORES.values().iterator();
+      while (iterator.hasNext()) {
+        DatanodeVolumeStore volumeStore = iterator.next();
+        if (volumeStore.dbPath.startsWith(rootPath)) {
+          iterator.remove();
+          LOG.info("Closing container DB of volume {}", volumeStore.dbPath);
+          volumeStore.close();
+        }
+      }
+    }
+  }
+
+  @VisibleForTesting
+  public static boolean isOpen(String dbPath) {
+    return STORES.containsKey(dbPath);
+  }
+
+  private void close() {
+    try {
+      store.close();
+    } catch (Exception e) {
+      LOG.error("Error closing container DB of volume {}", dbPath, e);
+    }
+  }
+
+  public DBStore getStore() {
+    return store;
+  }
+
+  public Table<String, Long> getMetadataTable() {
+    return metadataTable;
+  }
+
+  public Table<String, BlockData> getBlockDataTable() {
+    return blockDataTable;
+  }
+
+  public Table<String, ChunkInfoList> getDeletedBlocksTable() {
+    return deletedBlocksTable;
+  }
+
+  public Table<String, DeletedBlocksTransaction> getDeleteTransactionTable() {
+    return deleteTransactionTable;
+  }
+}
@@ -32,7 +32,6 @@
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
-import org.apache.hadoop.hdds.conf.MutableConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos;
@@ -55,7 +54,9 @@
 import org.apache.hadoop.ozone.container.common.impl.TopNOrderedContainerDeletionChoosingPolicy;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDispatcher;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
+import org.apache.hadoop.ozone.container.common.utils.ContainerCache;
 import org.apache.hadoop.ozone.container.common.utils.ReferenceCountedDB;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.common.volume.RoundRobinVolumeChoosingPolicy;
@@ -69,7 +70,7 @@
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.keyvalue.statemachine.background.BlockDeletingService;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStore;
-import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaTwoImpl;
+import org.apache.hadoop.ozone.container.metadata.DeleteTransactionStore;
 import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
 import org.apache.hadoop.ozone.container.testutils.BlockDeletingServiceTestImpl;
 import org.apache.hadoop.test.GenericTestUtils;
@@ -80,6 +81,7 @@
 
 import org.junit.AfterClass;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -92,6 +94,7 @@
 import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_VERSIONS;
 import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_V1;
 import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_V2;
+import static org.apache.hadoop.ozone.OzoneConsts.SCHEMA_V3;
 import static org.apache.hadoop.ozone.container.common.impl.ChunkLayOutVersion.FILE_PER_BLOCK;
 import static org.apache.hadoop.ozone.container.common.states.endpoint.VersionEndpointTask.LOG;
 import static org.mockito.ArgumentMatchers.any;
@@ -109,7 +112,7 @@ public class TestBlockDeletingService {
   private static String scmId;
   private static String clusterID;
   private static String datanodeUuid;
-  private static MutableConfigurationSource conf;
+  private static OzoneConfiguration conf;
 
   private final ChunkLayOutVersion layout;
   private final String schemaVersion;
@@ -161,8 +164,17 @@ public static void init() throws IOException {
     volumeSet = new MutableVolumeSet(datanodeUuid, conf);
   }
 
+  @Before
+  public void setup() {
+    // Containers are created with schema version 3 only if it is enabled.
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerDbPerVolumeEnabled(SCHEMA_V3.equals(schemaVersion));
+    conf.setFromObject(dnConf);
+  }
+
   @AfterClass
   public static void cleanup() throws IOException {
+    BlockUtils.shutdownCache(ContainerCache.getInstance(conf));
     FileUtils.deleteDirectory(testRoot);
   }
 
@@ -209,14 +221,14 @@ private void createToDeleteBlocks(ContainerSet containerSet,
       if (data.getSchemaVersion().equals(SCHEMA_V1)) {
         createPendingDeleteBlocksSchema1(numOfBlocksPerContainer, data,
             containerID, numOfChunksPerBlock, buffer, chunkManager, container);
-      } else if (data.getSchemaVersion().equals(SCHEMA_V2)) {
+      } else if (data.getSchemaVersion().equals(SCHEMA_V2)
+          || data.getSchemaVersion().equals(SCHEMA_V3)) {
         createPendingDeleteBlocksSchema2(numOfBlocksPerContainer, txnID,
             containerID, numOfChunksPerBlock, buffer, chunkManager, container,
             data);
       } else {
         throw new UnsupportedOperationException(
-            "Only schema version 1 and schema version 2 are "
-                + "supported.");
+            "Only schema versions 1, 2 and 3 are supported.");
       }
     }
   }
@@ -302,9 +314,8 @@ private void createTxn(KeyValueContainerData data, List<Long> containerBlocks,
       try (BatchOperation batch = metadata.getStore().getBatchHandler()
           .initBatchOperation()) {
         DatanodeStore ds = metadata.getStore();
-        DatanodeStoreSchemaTwoImpl dnStoreTwoImpl =
-            (DatanodeStoreSchemaTwoImpl) ds;
-        dnStoreTwoImpl.getDeleteTransactionTable()
+        DeleteTransactionStore deleteTxnStore = (DeleteTransactionStore) ds;
+        deleteTxnStore.getDeleteTransactionTable()
             .putWithBatch(batch, (long) txnID, dtx);
         metadata.getStore().getBatchHandler().commitBatchOperation(batch);
       }
@@ -380,15 +391,15 @@ private int getUnderDeletionBlocksCount(ReferenceCountedDB meta,
       return meta.getStore().getBlockDataTable()
           .getRangeKVs(null, 100, MetadataKeyFilters.getDeletingKeyFilter())
           .size();
-    } else if (data.getSchemaVersion().equals(SCHEMA_V2)) {
+    } else if (data.getSchemaVersion().equals(SCHEMA_V2)
+        || data.getSchemaVersion().equals(SCHEMA_V3)) {
       int pendingBlocks = 0;
       DatanodeStore ds = meta.getStore();
-      DatanodeStoreSchemaTwoImpl dnStoreTwoImpl =
-          (DatanodeStoreSchemaTwoImpl) ds;
+      DeleteTransactionStore deleteTxnStore = (DeleteTransactionStore) ds;
       try (
           TableIterator<Long, ? extends Table.KeyValue<Long, 
               StorageContainerDatanodeProtocolProtos.DeletedBlocksTransaction>> 
-              iter = dnStoreTwoImpl.getDeleteTransactionTable().iterator()) {
+              iter = deleteTxnStore.getDeleteTransactionTable().iterator()) {
         while (iter.hasNext()) {
           StorageContainerDatanodeProtocolProtos.DeletedBlocksTransaction
               delTx = iter.next().getValue();
@@ -398,7 +409,7 @@ private int getUnderDeletionBlocksCount(ReferenceCountedDB meta,
       return pendingBlocks;
     } else {
       throw new UnsupportedOperationException(
-          "Only schema version 1 and schema version 2 are supported.");
+          "Only schema versions 1, 2 and 3 are supported.");
     }
   }
 
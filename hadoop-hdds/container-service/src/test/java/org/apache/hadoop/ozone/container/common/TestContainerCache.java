@@ -142,6 +142,45 @@ public void testContainerCacheEviction() throws Exception {
     db5.close();
   }
 
+  @Test
+  public void testEvictedDBIsClosed() throws Exception {
+    File root = new File(testRoot);
+    root.mkdirs();
+
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setInt(OzoneConfigKeys.OZONE_CONTAINER_CACHE_SIZE, 2);
+    ContainerCache cache = ContainerCache.getInstance(conf);
+    cache.clear();
+    File containerDir1 = new File(root, "evict1");
+    File containerDir2 = new File(root, "evict2");
+    File containerDir3 = new File(root, "evict3");
+    createContainerDB(conf, containerDir1);
+    createContainerDB(conf, containerDir2);
+    createContainerDB(conf, containerDir3);
+
+    ContainerCacheMetrics metrics = cache.getMetrics();
+    long numCacheEvictions = metrics.getNumCacheEvictions();
+    ReferenceCountedDB db1 = cache.getDB(1, "RocksDB",
+        containerDir1.getPath(), OzoneConsts.SCHEMA_LATEST, conf);
+    db1.close();
+    cache.getDB(2, "RocksDB",
+        containerDir2.getPath(), OzoneConsts.SCHEMA_LATEST, conf).close();
+    // evicts container1, which is closed by the time getDB returns
+    cache.getDB(3, "RocksDB",
+        containerDir3.getPath(), OzoneConsts.SCHEMA_LATEST, conf).close();
+    Assert.assertEquals(numCacheEvictions + 1,
+        metrics.getNumCacheEvictions());
+    Assert.assertNull(cache.get(containerDir1.getPath()));
+
+    // RocksDB can only be opened again once it is closed.
+    ReferenceCountedDB db4 = cache.getDB(1, "RocksDB",
+        containerDir1.getPath(), OzoneConsts.SCHEMA_LATEST, conf);
+    Assert.assertNotSame(db1, db4);
+    Assert.assertTrue(db4.getStore().getBlockDataTable().isEmpty());
+    db4.close();
+    cache.shutdownCache();
+  }
+
   @Test
   public void testConcurrentDBGet() throws Exception {
     File root = new File(testRoot);
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.common;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.DeletedBlocksTransaction;
+import org.apache.hadoop.hdds.utils.MetadataKeyFilters;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.apache.hadoop.ozone.container.common.interfaces.BlockIterator;
+import org.apache.hadoop.ozone.container.metadata.ContainerPrefixedTable;
+import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaThreeImpl;
+import org.apache.hadoop.ozone.container.metadata.DatanodeVolumeStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests containers of schema version 3, which share the DB of their volume.
+ */
+public class TestDatanodeStoreSchemaThree {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final OzoneConfiguration conf = new OzoneConfiguration();
+  private String dbPath;
+
+  @Before
+  public void setup() {
+    dbPath = new File(folder.getRoot(), OzoneConsts.DN_VOLUME_CONTAINER_DB)
+        .getAbsolutePath();
+  }
+
+  @After
+  public void cleanup() {
+    DatanodeVolumeStore.closeAll();
+  }
+
+  @Test
+  public void testContainersShareDB() throws Exception {
+    DatanodeStoreSchemaThreeImpl store1 =
+        new DatanodeStoreSchemaThreeImpl(conf, 1, dbPath);
+    DatanodeStoreSchemaThreeImpl store12 =
+        new DatanodeStoreSchemaThreeImpl(conf, 12, dbPath);
+    assertSame(store1.getStore(), store12.getStore());
+
+    putBlocks(store1, 1, 3);
+    putBlocks(store12, 12, 2);
+    store1.getMetadataTable().put(OzoneConsts.BLOCK_COUNT, 3L);
+    store12.getBlockDataTable().put(OzoneConsts.DELETING_KEY_PREFIX + "5",
+        new BlockData(new BlockID(12, 5)));
+
+    assertEquals(3L, (long) store1.getMetadataTable()
+        .get(OzoneConsts.BLOCK_COUNT));
+    assertNull(store12.getMetadataTable().get(OzoneConsts.BLOCK_COUNT));
+    assertTrue(store12.getMetadataTable().isEmpty());
+    assertEquals(Arrays.asList(0L, 1L, 2L), getBlocks(store1));
+    assertEquals(Arrays.asList(0L, 1L), getBlocks(store12));
+
+    // Filters see the keys without the container prefix.
+    assertEquals(1, store12.getBlockDataTable().getRangeKVs(null, 100,
+        MetadataKeyFilters.getDeletingKeyFilter()).size());
+    assertEquals(0, store1.getBlockDataTable().getRangeKVs(null, 100,
+        MetadataKeyFilters.getDeletingKeyFilter()).size());
+    assertEquals("1", store1.getBlockDataTable().getRangeKVs("1", 100)
+        .get(0).getKey());
+
+    // Stopping the store of a container does not close the DB.
+    store12.stop();
+    assertEquals(Arrays.asList(0L, 1L, 2L), getBlocks(store1));
+
+    store1.deleteContainerData();
+    assertTrue(getBlocks(store1).isEmpty());
+    assertTrue(store1.getMetadataTable().isEmpty());
+    assertEquals(Arrays.asList(0L, 1L), getBlocks(store12));
+  }
+
+  @Test
+  public void testDeleteTransactionsAreSortedByID() throws Exception {
+    DatanodeStoreSchemaThreeImpl store =
+        new DatanodeStoreSchemaThreeImpl(conf, 1, dbPath);
+    Table<Long, DeletedBlocksTransaction> table =
+        store.getDeleteTransactionTable();
+    for (long txID : new long[] {10, 9, 100}) {
+      table.put(txID, DeletedBlocksTransaction.newBuilder().setTxID(txID)
+          .setContainerID(1).setCount(0).build());
+    }
+
+    List<Long> txIDs = new ArrayList<>();
+    try (TableIterator<Long, ? extends Table.KeyValue<Long,
+        DeletedBlocksTransaction>> iterator = table.iterator()) {
+      while (iterator.hasNext()) {
+        Table.KeyValue<Long, DeletedBlocksTransaction> keyValue =
+            iterator.next();
+        assertEquals(keyValue.getKey().longValue(),
+            keyValue.getValue().getTxID());
+        txIDs.add(keyValue.getKey());
+      }
+    }
+    assertEquals(Arrays.asList(9L, 10L, 100L), txIDs);
+    assertFalse(new DatanodeStoreSchemaThreeImpl(conf, 2, dbPath)
+        .getDeleteTransactionTable().iterator().hasNext());
+  }
+
+  @Test
+  public void testSeekToLast() throws Exception {
+    putBlocks(new DatanodeStoreSchemaThreeImpl(conf, 1, dbPath), 1, 3);
+    putBlocks(new DatanodeStoreSchemaThreeImpl(conf, 2, dbPath), 2, 2);
+    Table<String, BlockData> table =
+        DatanodeVolumeStore.get(conf, dbPath).getBlockDataTable();
+
+    try (TableIterator<String, ? extends Table.KeyValue<String, BlockData>>
+        iterator = ContainerPrefixedTable.withStringKeys(table, 1)
+        .iterator()) {
+      iterator.seekToLast();
+      assertTrue(iterator.hasNext());
+      assertEquals("2", iterator.next().getKey());
+      assertFalse(iterator.hasNext());
+    }
+
+    // Container 12 is sorted between containers 1 and 2, without rows.
+    try (TableIterator<String, ? extends Table.KeyValue<String, BlockData>>
+        iterator = ContainerPrefixedTable.withStringKeys(table, 12)
+        .iterator()) {
+      iterator.seekToLast();
+      assertFalse(iterator.hasNext());
+      assertNull(iterator.key());
+    }
+  }
+
+  @Test
+  public void testVolumeDBClosedWithVolume() throws Exception {
+    File volume1 = folder.newFolder("volume1");
+    File volume2 = folder.newFolder("volume2");
+    String path1 = new File(volume1, OzoneConsts.DN_VOLUME_CONTAINER_DB)
+        .getAbsolutePath();
+    String path2 = new File(volume2, OzoneConsts.DN_VOLUME_CONTAINER_DB)
+        .getAbsolutePath();
+    putBlocks(new DatanodeStoreSchemaThreeImpl(conf, 1, path1), 1, 1);
+    new DatanodeStoreSchemaThreeImpl(conf, 1, path2);
+
+    DatanodeVolumeStore.closeVolume(volume1);
+    assertFalse(DatanodeVolumeStore.isOpen(path1));
+    assertTrue(DatanodeVolumeStore.isOpen(path2));
+
+    // The DB is opened again by the next container accessing it.
+    assertEquals(Arrays.asList(0L),
+        getBlocks(new DatanodeStoreSchemaThreeImpl(conf, 1, path1)));
+  }
+
+  @Test
+  public void testExportImport() throws Exception {
+    DatanodeStoreSchemaThreeImpl store =
+        new DatanodeStoreSchemaThreeImpl(conf, 1, dbPath);
+    putBlocks(store, 1, 3);
+    store.getMetadataTable().put(OzoneConsts.BLOCK_COUNT, 3L);
+
+    String exportPath =
+        new File(folder.getRoot(), "1" + OzoneConsts.DN_CONTAINER_DB)
+            .getAbsolutePath();
+    store.exportContainerData(conf, exportPath);
+
+    DatanodeStoreSchemaThreeImpl imported =
+        new DatanodeStoreSchemaThreeImpl(conf, 1,
+            new File(folder.newFolder(), OzoneConsts.DN_VOLUME_CONTAINER_DB)
+                .getAbsolutePath());
+    putBlocks(imported, 1, 5);
+    imported.importContainerData(conf, exportPath);
+    assertEquals(Arrays.asList(0L, 1L, 2L), getBlocks(imported));
+    assertEquals(3L, (long) imported.getMetadataTable()
+        .get(OzoneConsts.BLOCK_COUNT));
+  }
+
+  private static void putBlocks(DatanodeStoreSchemaThreeImpl store,
+      long containerID, int count) throws Exception {
+    for (long localID = 0; localID < count; localID++) {
+      store.getBlockDataTable().put(Long.toString(localID),
+          new BlockData(new BlockID(containerID, localID)));
+    }
+  }
+
+  private static List<Long> getBlocks(DatanodeStoreSchemaThreeImpl store)
+      throws Exception {
+    List<Long> localIDs = new ArrayList<>();
+    try (BlockIterator<BlockData> iterator = store.getBlockIterator()) {
+      while (iterator.hasNext()) {
+        localIDs.add(iterator.nextBlock().getLocalID());
+      }
+    }
+    return localIDs;
+  }
+}
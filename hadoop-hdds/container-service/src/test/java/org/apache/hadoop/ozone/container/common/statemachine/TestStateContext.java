@@ -48,7 +48,10 @@
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.Descriptors.Descriptor;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.HddsConfigKeys;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerAction;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.PipelineAction;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
 import org.apache.hadoop.ozone.container.common.statemachine.DatanodeStateMachine.DatanodeStates;
@@ -601,4 +604,120 @@ public void testGetReports() {
     checkReportCount(ctx.getReports(scm1, 100), expectedReportCount);
     checkReportCount(ctx.getReports(scm2, 100), expectedReportCount);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testDeltaContainerReports() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setInt(HddsConfigKeys.HDDS_CONTAINER_REPORT_MAX_DELTAS, 2);
+    DatanodeStateMachine datanodeStateMachineMock =
+        mock(DatanodeStateMachine.class);
+
+    StateContext ctx = new StateContext(conf, DatanodeStates.getInitState(),
+        datanodeStateMachineMock);
+    InetSocketAddress scm1 = new InetSocketAddress("scm1", 9001);
+    ctx.addEndpoint(scm1);
+    InetSocketAddress scm2 = new InetSocketAddress("scm2", 9001);
+    ctx.addEndpoint(scm2);
+
+    // First report is sent in full until it is acknowledged.
+    ctx.addReport(newContainerReport(replica(1, 10), replica(2, 20)));
+    assertEquals(2, getContainerReport(ctx, scm1).getReportsCount());
+    ContainerReportsProto report = getContainerReport(ctx, scm1);
+    assertFalse(report.getDelta());
+    assertEquals(2, report.getReportsCount());
+    ctx.acknowledgeContainerReport(scm1);
+    assertNull(getContainerReport(ctx, scm1));
+
+    // Next reports are deltas, for the endpoints which acknowledged one.
+    ctx.addReport(newContainerReport(replica(2, 25), replica(3, 30)));
+    report = getContainerReport(ctx, scm1);
+    assertTrue(report.getDelta());
+    assertEquals(Arrays.asList(replica(2, 25), replica(3, 30)),
+        report.getReportsList());
+    assertEquals(Collections.singletonList(1L),
+        report.getRemovedContainerIDsList());
+    assertFalse(getContainerReport(ctx, scm2).getDelta());
+    ctx.acknowledgeContainerReport(scm1);
+
+    ctx.addReport(newContainerReport(replica(2, 25), replica(3, 35)));
+    report = getContainerReport(ctx, scm1);
+    assertTrue(report.getDelta());
+    assertEquals(Collections.singletonList(replica(3, 35)),
+        report.getReportsList());
+    assertEquals(0, report.getRemovedContainerIDsCount());
+    ctx.acknowledgeContainerReport(scm1);
+
+    // Full report after max deltas.
+    ctx.addReport(newContainerReport(replica(2, 25), replica(3, 35)));
+    report = getContainerReport(ctx, scm1);
+    assertFalse(report.getDelta());
+    assertEquals(2, report.getReportsCount());
+    ctx.acknowledgeContainerReport(scm1);
+
+    // Full report after reset, like when the endpoint registers.
+    ctx.addReport(newContainerReport(replica(2, 25)));
+    assertTrue(getContainerReport(ctx, scm1).getDelta());
+    ctx.resetContainerReport(scm1);
+    report = getContainerReport(ctx, scm1);
+    assertFalse(report.getDelta());
+    assertEquals(1, report.getReportsCount());
+  }
+
+  @Test
+  public void testUnsortedContainerReportSentInFull() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    DatanodeStateMachine datanodeStateMachineMock =
+        mock(DatanodeStateMachine.class);
+
+    StateContext ctx = new StateContext(conf, DatanodeStates.getInitState(),
+        datanodeStateMachineMock);
+    InetSocketAddress scm1 = new InetSocketAddress("scm1", 9001);
+    ctx.addEndpoint(scm1);
+
+    ctx.addReport(newContainerReport(replica(1, 10), replica(3, 30)));
+    getContainerReport(ctx, scm1);
+    ctx.acknowledgeContainerReport(scm1);
+
+    // Replicas removed and added on both sides of the acknowledged ones.
+    ctx.addReport(newContainerReport(replica(2, 20), replica(3, 30),
+        replica(4, 40)));
+    ContainerReportsProto report = getContainerReport(ctx, scm1);
+    assertTrue(report.getDelta());
+    assertEquals(Arrays.asList(replica(2, 20), replica(4, 40)),
+        report.getReportsList());
+    assertEquals(Collections.singletonList(1L),
+        report.getRemovedContainerIDsList());
+    ctx.acknowledgeContainerReport(scm1);
+
+    // The delta cannot be merged from replicas not sorted by container ID.
+    ctx.addReport(newContainerReport(replica(4, 40), replica(2, 20)));
+    report = getContainerReport(ctx, scm1);
+    assertFalse(report.getDelta());
+    assertEquals(2, report.getReportsCount());
+  }
+
+  private static ContainerReportsProto getContainerReport(StateContext ctx,
+      InetSocketAddress endpoint) {
+    for (GeneratedMessage report : ctx.getAllAvailableReports(endpoint)) {
+      if (report instanceof ContainerReportsProto) {
+        return (ContainerReportsProto) report;
+      }
+    }
+    return null;
+  }
+
+  private static ContainerReportsProto newContainerReport(
+      ContainerReplicaProto... replicas) {
+    return ContainerReportsProto.newBuilder()
+        .addAllReports(Arrays.asList(replicas))
+        .build();
+  }
+
+  private static ContainerReplicaProto replica(long containerID, long used) {
+    return ContainerReplicaProto.newBuilder()
+        .setContainerID(containerID)
+        .setState(ContainerReplicaProto.State.OPEN)
+        .setUsed(used)
+        .build();
+  }
+}
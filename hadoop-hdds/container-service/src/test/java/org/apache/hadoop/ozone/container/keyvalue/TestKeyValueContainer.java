@@ -31,12 +31,15 @@
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.impl.ChunkLayOutVersion;
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.common.utils.ContainerCache;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume
     .RoundRobinVolumeChoosingPolicy;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.BlockUtils;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
 import org.apache.hadoop.ozone.container.metadata.AbstractDatanodeStore;
 import org.apache.hadoop.test.GenericTestUtils;
 import org.apache.hadoop.util.DiskChecker;
@@ -235,6 +238,65 @@ public void testContainerImportExport() throws Exception {
     }
   }
 
+  @Test
+  public void testContainerImportExportWithVolumeDB() throws Exception {
+    DatanodeConfiguration dnConf = CONF.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerDbPerVolumeEnabled(true);
+    CONF.setFromObject(dnConf);
+    try {
+      keyValueContainer = new KeyValueContainer(keyValueContainerData, CONF);
+      createContainer();
+      assertEquals(OzoneConsts.SCHEMA_V3,
+          keyValueContainerData.getSchemaVersion());
+      assertEquals(OzoneConsts.DN_VOLUME_CONTAINER_DB,
+          keyValueContainerData.getDbFile().getName());
+      closeContainer();
+      populate(12);
+
+      File folderToExport = folder.newFile("exported.tar.gz");
+      TarContainerPacker packer = new TarContainerPacker();
+      try (FileOutputStream fos = new FileOutputStream(folderToExport)) {
+        keyValueContainer.exportContainerData(fos, packer);
+      }
+      assertFalse(KeyValueContainerUtil.getPackedDBFile(
+          keyValueContainerData).exists());
+
+      // Deleting the container deletes its rows from the DB of the volume.
+      keyValueContainer.delete();
+      try (ReferenceCountedDB db =
+               BlockUtils.getDB(keyValueContainerData, CONF)) {
+        assertTrue(db.getStore().getBlockDataTable().isEmpty(),
+            "Rows of deleted container");
+      }
+
+      KeyValueContainerData containerData = new KeyValueContainerData(
+          keyValueContainerData.getContainerID(),
+          keyValueContainerData.getLayOutVersion(),
+          keyValueContainerData.getMaxSize(), UUID.randomUUID().toString(),
+          datanodeId.toString());
+      KeyValueContainer container = new KeyValueContainer(containerData, CONF);
+      HddsVolume containerVolume = volumeChoosingPolicy.chooseVolume(volumeSet
+          .getVolumesList(), 1);
+      container.populatePathFields(scmId, containerVolume,
+          containerVolume.getHddsRootDir().toString());
+      try (FileInputStream fis = new FileInputStream(folderToExport)) {
+        container.importContainerData(fis, packer);
+      }
+
+      assertEquals(OzoneConsts.SCHEMA_V3, containerData.getSchemaVersion());
+      assertEquals(keyValueContainerData.getDbFile(),
+          containerData.getDbFile());
+      assertFalse(KeyValueContainerUtil.getPackedDBFile(containerData)
+          .exists());
+      assertEquals(12, containerData.getKeyCount());
+      assertEquals("value1", containerData.getMetadata().get("key1"));
+    } finally {
+      dnConf.setContainerDbPerVolumeEnabled(false);
+      CONF.setFromObject(dnConf);
+      BlockUtils.shutdownCache(ContainerCache.getInstance(CONF));
+    }
+  }
+
   /**
    * Create the container on disk.
    */
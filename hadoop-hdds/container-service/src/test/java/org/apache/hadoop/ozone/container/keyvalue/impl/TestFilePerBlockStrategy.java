@@ -21,10 +21,13 @@
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.container.ContainerTestHelper;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.keyvalue.ChunkLayoutTestInfo;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
@@ -33,10 +36,13 @@
 
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
+import java.util.UUID;
 
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.getChunk;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.setDataChecksum;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 /**
@@ -138,6 +144,145 @@ public void testPartialRead() throws Exception {
         readData2.rewind().toByteString());
   }
 
+  @Test
+  public void testReadChannelIsReused() throws Exception {
+    final int datalen = 1024;
+
+    KeyValueContainer container = getKeyValueContainer();
+    BlockID blockID = getBlockID();
+    ChunkInfo info = getChunk(blockID.getLocalID(), 0, 0, datalen);
+    ChunkBuffer data = ContainerTestHelper.getData(datalen);
+    setDataChecksum(info, data);
+    DispatcherContext ctx = getDispatcherContext();
+    FilePerBlockStrategy subject =
+        new FilePerBlockStrategy(true, null, new DatanodeConfiguration());
+    subject.writeChunk(container, blockID, info, data, ctx);
+
+    for (int i = 0; i < 3; i++) {
+      ChunkBuffer readData = subject.readChunk(container, blockID, info, ctx);
+      assertEquals(data.rewind().toByteString(),
+          readData.rewind().toByteString());
+    }
+    assertEquals(1, subject.getOpenReadChannelCount());
+    assertEquals(1, subject.getReadChannelCacheStats().missCount());
+    assertEquals(2, subject.getReadChannelCacheStats().hitCount());
+
+    // Open file should be closed when the block is deleted.
+    subject.deleteChunk(container, blockID, info);
+    assertEquals(0, subject.getOpenReadChannelCount());
+    subject.shutdown();
+  }
+
+  @Test
+  public void testReadChannelsAreClosedForContainerDelete() throws Exception {
+    final int datalen = 1024;
+
+    KeyValueContainer container = getKeyValueContainer();
+    DispatcherContext ctx = getDispatcherContext();
+    FilePerBlockStrategy subject =
+        new FilePerBlockStrategy(true, null, new DatanodeConfiguration());
+    for (int i = 0; i < 2; i++) {
+      BlockID blockID = new BlockID(getBlockID().getContainerID(),
+          getBlockID().getLocalID() + i);
+      ChunkInfo info = getChunk(blockID.getLocalID(), 0, 0, datalen);
+      ChunkBuffer data = ContainerTestHelper.getData(datalen);
+      setDataChecksum(info, data);
+      subject.writeChunk(container, blockID, info, data, ctx);
+      subject.readChunk(container, blockID, info, ctx);
+    }
+    assertEquals(2, subject.getOpenReadChannelCount());
+
+    subject.closeContainerFiles(container);
+    assertEquals(0, subject.getOpenReadChannelCount());
+    subject.shutdown();
+  }
+
+  @Test
+  public void testReadChannelCacheMetricsOfEachDatanode() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    String sourceName = ChunkReadChannelCacheMetrics.class.getSimpleName();
+    String dn1 = UUID.randomUUID().toString();
+    String dn2 = UUID.randomUUID().toString();
+    FilePerBlockStrategy subject1 = new FilePerBlockStrategy(true, null,
+        new DatanodeConfiguration(), dn1);
+    FilePerBlockStrategy subject2 = new FilePerBlockStrategy(true, null,
+        new DatanodeConfiguration(), dn2);
+    assertNotNull(ms.getSource(sourceName + dn1));
+    assertNotNull(ms.getSource(sourceName + dn2));
+
+    subject1.shutdown();
+    assertNull(ms.getSource(sourceName + dn1));
+    assertNotNull(ms.getSource(sourceName + dn2));
+    subject2.shutdown();
+    assertNull(ms.getSource(sourceName + dn2));
+  }
+
+  @Test
+  public void testReadWithoutChannelCache() throws Exception {
+    DatanodeConfiguration config = new DatanodeConfiguration();
+    config.setChunkReadChannelCacheSize(0);
+    FilePerBlockStrategy subject =
+        new FilePerBlockStrategy(true, null, config);
+
+    checkWriteAndRead(subject);
+    assertEquals(0, subject.getOpenReadChannelCount());
+    assertNull(subject.getReadChannelCacheStats());
+  }
+
+  @Test
+  public void testMappedReadOfClosedContainer() throws Exception {
+    DatanodeConfiguration config = new DatanodeConfiguration();
+    config.setChunkReadMmapEnabled(true);
+    checkWriteAndRead(new FilePerBlockStrategy(true, null, config));
+
+    config.setChunkReadChannelCacheSize(0);
+    checkWriteAndRead(new FilePerBlockStrategy(true, null, config));
+  }
+
+  private void checkWriteAndRead(FilePerBlockStrategy subject)
+      throws Exception {
+    final int datalen = 1024;
+    final int start = datalen / 4;
+    final int length = datalen / 2;
+
+    KeyValueContainer container = getKeyValueContainer();
+    BlockID blockID = new BlockID(getBlockID().getContainerID(),
+        getBlockID().getLocalID() + 1 + subject.hashCode());
+    ChunkInfo info = getChunk(blockID.getLocalID(), 0, 0, datalen);
+    ChunkBuffer data = ContainerTestHelper.getData(datalen);
+    setDataChecksum(info, data);
+    DispatcherContext ctx = getDispatcherContext();
+    subject.writeChunk(container, blockID, info, data, ctx);
+    container.getContainerData().setState(
+        ContainerProtos.ContainerDataProto.State.CLOSED);
+
+    try {
+      ChunkBuffer readData = subject.readChunk(container, blockID, info, ctx);
+      assertEquals(data.rewind().toByteString(),
+          readData.rewind().toByteString());
+
+      ChunkInfo info2 = getChunk(blockID.getLocalID(), 0, start, length);
+      ChunkBuffer readData2 =
+          subject.readChunk(container, blockID, info2, ctx);
+      assertEquals(
+          data.rewind().toByteString().substring(start, start + length),
+          readData2.rewind().toByteString());
+
+      // Reading beyond the end of the block should fail.
+      ChunkInfo info3 = getChunk(blockID.getLocalID(), 0, start, datalen);
+      try {
+        subject.readChunk(container, blockID, info3, ctx);
+        fail("Read beyond the end of block should fail");
+      } catch (StorageContainerException e) {
+        assertEquals(ContainerProtos.Result.CONTAINER_INTERNAL_ERROR, e.getResult());
+      }
+    } finally {
+      container.getContainerData().setState(
+          ContainerProtos.ContainerDataProto.State.OPEN);
+      subject.shutdown();
+    }
+  }
+
   @Override
   protected ChunkLayoutTestInfo getStrategy() {
     return ChunkLayoutTestInfo.FILE_PER_BLOCK;
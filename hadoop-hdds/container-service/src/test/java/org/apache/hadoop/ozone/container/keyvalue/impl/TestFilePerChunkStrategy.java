@@ -19,10 +19,12 @@
 package org.apache.hadoop.ozone.container.keyvalue.impl;
 
 import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
 import org.apache.hadoop.ozone.container.common.impl.ChunkLayOutVersion;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
 import org.apache.hadoop.ozone.container.keyvalue.ChunkLayoutTestInfo;
@@ -32,6 +34,7 @@
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -127,4 +130,32 @@ public void deletesChunkFileWithLengthIncludingOffset() throws Exception {
     assertFalse(file.exists());
   }
 
+  @Test
+  public void testMappedReadOfClosedContainer() throws Exception {
+    DatanodeConfiguration config = new DatanodeConfiguration();
+    config.setChunkReadMmapEnabled(true);
+    ChunkManager chunkManager = new FilePerChunkStrategy(true, null, config);
+    KeyValueContainer container = getKeyValueContainer();
+    BlockID blockID = getBlockID();
+    ChunkInfo chunkInfo = getChunkInfo();
+    DispatcherContext dispatcherContext = getDispatcherContext();
+    chunkManager.writeChunk(container, blockID, chunkInfo, getData(),
+        dispatcherContext);
+
+    // Data of open containers is copied to heap buffers.
+    ChunkBuffer data = chunkManager.readChunk(container, blockID, chunkInfo,
+        dispatcherContext);
+    assertFalse(data.asByteBufferList().get(0).isDirect());
+
+    container.getContainerData().setState(
+        ContainerProtos.ContainerDataProto.State.CLOSED);
+    ChunkBuffer mapped = chunkManager.readChunk(container, blockID, chunkInfo,
+        dispatcherContext);
+    for (ByteBuffer buffer : mapped.asByteBufferList()) {
+      assertTrue(buffer.isDirect());
+      assertTrue(buffer.isReadOnly());
+    }
+    assertEquals(data.toByteString(), mapped.toByteString());
+  }
+
 }
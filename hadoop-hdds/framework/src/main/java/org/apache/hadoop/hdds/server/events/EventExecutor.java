@@ -24,7 +24,8 @@
  * between the caller and the EventHandler.
  * <p>
  * Executors should guarantee that only one thread is executing one
- * EventHandler at the same time.
+ * EventHandler at the same time, unless the EventHandler is designed to
+ * process events of different sources in parallel.
  *
  * @param <PAYLOAD> the payload type of the event.
  */
@@ -53,6 +54,14 @@ void onMessage(EventHandler<PAYLOAD> handler,
    */
   long successfulEvents();
 
+  /**
+   * Return the number of the events which are not processed, as they are
+   * superseded by later events.
+   */
+  default long droppedEvents() {
+    return 0;
+  }
+
   /**
    * Return the number of the not-yet processed events.
    */
@@ -85,10 +85,28 @@ public <PAYLOAD, EVENT_TYPE extends Event<PAYLOAD>> void addHandler(
       EVENT_TYPE event, EventHandler<PAYLOAD> handler, String handlerName) {
     validateEvent(event);
     Preconditions.checkNotNull(handler, "Handler name should not be null.");
-    String executorName =
-        StringUtils.camelize(event.getName()) + EXECUTOR_NAME_SEPARATOR
-            + handlerName;
-    this.addHandler(event, new SingleThreadExecutor<>(executorName), handler);
+    this.addHandler(event,
+        new SingleThreadExecutor<>(getExecutorName(event, handlerName)),
+        handler);
+  }
+
+  /**
+   * Return the name of the executor which delivers the event to the handler,
+   * used for the executors created by the caller.
+   *
+   * @param event        Triggering event.
+   * @param handler      Handler of event.
+   * @param <PAYLOAD>    The type of the event payload.
+   * @param <EVENT_TYPE> The type of the event identifier.
+   */
+  public static <PAYLOAD, EVENT_TYPE extends Event<PAYLOAD>> String
+      getExecutorName(EVENT_TYPE event, EventHandler<PAYLOAD> handler) {
+    return getExecutorName(event, generateHandlerName(handler));
+  }
+
+  private static String getExecutorName(Event<?> event, String handlerName) {
+    return StringUtils.camelize(event.getName()) + EXECUTOR_NAME_SEPARATOR
+        + handlerName;
   }
 
   private <EVENT_TYPE extends Event<?>> void validateEvent(EVENT_TYPE event) {
@@ -99,7 +117,8 @@ private <EVENT_TYPE extends Event<?>> void validateEvent(EVENT_TYPE event) {
 
   }
 
-  private <PAYLOAD> String generateHandlerName(EventHandler<PAYLOAD> handler) {
+  private static <PAYLOAD> String generateHandlerName(
+      EventHandler<PAYLOAD> handler) {
     if (!handler.getClass().isAnonymousClass()) {
       return handler.getClass().getSimpleName();
     } else {
@@ -222,7 +241,8 @@ public void processAll(long timeout) {
 
       boolean allIdle =
           allExecutor.allMatch(executor -> executor.queuedEvents() == executor
-              .successfulEvents() + executor.failedEvents());
+              .successfulEvents() + executor.failedEvents()
+              + executor.droppedEvents());
 
       if (allIdle) {
         return;
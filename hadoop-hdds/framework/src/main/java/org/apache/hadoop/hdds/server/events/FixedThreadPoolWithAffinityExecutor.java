@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.server.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableRate;
+import org.apache.hadoop.util.Time;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EventExecutor to call the event handlers from a fixed pool of threads.
+ * <p>
+ * Each event payload has an affinity key, like the datanode which sent it.
+ * Events of the same key are always delivered by the same thread, in the
+ * order they are received, while events of different keys are delivered in
+ * parallel. Handlers used with this executor should be thread safe for
+ * events of different keys.
+ * <p>
+ * Each thread has a bounded queue, and the caller is blocked while the
+ * queue is full. If the executor replaces queued events, an event which is
+ * accepted by the replaceQueued predicate and received while an earlier
+ * event of the same key and handler is still in the queue replaces the
+ * payload of the latest such event, which is counted as dropped. This is
+ * used for events which carry the full state, like full reports of a
+ * datanode, which supersede the earlier ones. Other events are always
+ * queued, like deltas which depend on the earlier reports.
+ *
+ * @param <P> the payload type of events
+ */
+@Metrics(context = "EventQueue")
+public class FixedThreadPoolWithAffinityExecutor<P>
+    implements EventExecutor<P> {
+
+  private static final String EVENT_QUEUE = "EventQueue";
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(FixedThreadPoolWithAffinityExecutor.class);
+
+  private final String name;
+
+  private final Function<P, Object> affinityKey;
+
+  private final Predicate<P> replaceQueued;
+
+  private final List<BlockingQueue<Task<P>>> workQueues;
+
+  private final List<Thread> workers;
+
+  // Queued events which are not yet delivered, by handler and affinity key.
+  private final Map<EventHandler<P>, Map<Object, Task<P>>> queuedTasks =
+      new ConcurrentHashMap<>();
+
+  private volatile boolean running = true;
+
+  @Metric
+  private MutableCounterLong queued;
+
+  @Metric
+  private MutableCounterLong done;
+
+  @Metric
+  private MutableCounterLong failed;
+
+  @Metric
+  private MutableCounterLong dropped;
+
+  @Metric("Time events wait in the queue")
+  private MutableRate queueTime;
+
+  @Metric("Time to process events")
+  private MutableRate processTime;
+
+  /**
+   * Create FixedThreadPoolWithAffinityExecutor.
+   *
+   * @param name Unique name used in monitoring and metrics.
+   * @param threads Number of threads.
+   * @param queueCapacity Maximum number of events queued for each thread.
+   * @param affinityKey Returns the affinity key of an event payload, which
+   *                    should not be null.
+   * @param replaceQueued Returns true for the event payloads which replace
+   *                      the queued event of the same key and handler, or
+   *                      null if events are never replaced.
+   */
+  public FixedThreadPoolWithAffinityExecutor(String name, int threads,
+      int queueCapacity, Function<P, Object> affinityKey,
+      Predicate<P> replaceQueued) {
+    Preconditions.checkArgument(threads > 0,
+        "Number of threads should be positive");
+    this.name = name;
+    this.affinityKey = affinityKey;
+    this.replaceQueued = replaceQueued;
+    DefaultMetricsSystem.instance()
+        .register(EVENT_QUEUE + name, "Event Executor metrics ", this);
+
+    workQueues = new ArrayList<>(threads);
+    workers = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      BlockingQueue<Task<P>> workQueue =
+          new LinkedBlockingQueue<>(queueCapacity);
+      Thread worker = new Thread(() -> deliver(workQueue));
+      worker.setName(EVENT_QUEUE + "-" + name + "-" + i);
+      worker.setDaemon(true);
+      workQueues.add(workQueue);
+      workers.add(worker);
+      worker.start();
+    }
+  }
+
+  @Override
+  public void onMessage(EventHandler<P> handler, P message,
+      EventPublisher publisher) {
+    queued.incr();
+    Object key = affinityKey.apply(message);
+    Task<P> task = new Task<>(handler, message, publisher, key);
+    if (replaceQueued != null) {
+      Map<Object, Task<P>> tasks = queuedTasks
+          .computeIfAbsent(handler, h -> new ConcurrentHashMap<>());
+      if (!replaceQueued.test(message)) {
+        // Queued as the latest event of the key, to be replaced by the next.
+        tasks.put(key, task);
+      } else if (tasks.merge(key, task, (oldTask, newTask) -> {
+        oldTask.payload = newTask.payload;
+        return oldTask;
+      }) != task) {
+        dropped.incr();
+        return;
+      }
+    }
+    BlockingQueue<Task<P>> workQueue =
+        workQueues.get(Math.floorMod(key.hashCode(), workQueues.size()));
+    try {
+      workQueue.put(task);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.warn("Interrupted while queueing message {}", message);
+      removeQueuedTask(task);
+      failed.incr();
+    }
+  }
+
+  private void deliver(BlockingQueue<Task<P>> workQueue) {
+    while (running) {
+      Task<P> task;
+      try {
+        task = workQueue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      // Payload is read after the task is removed, so it is not replaced
+      // any more.
+      removeQueuedTask(task);
+      P payload = task.payload;
+      long startTime = Time.monotonicNow();
+      queueTime.add(startTime - task.queuedTime);
+      try {
+        task.handler.onMessage(payload, task.publisher);
+        done.incr();
+      } catch (Exception ex) {
+        LOG.error("Error on execution message {}", payload, ex);
+        failed.incr();
+      }
+      processTime.add(Time.monotonicNow() - startTime);
+    }
+  }
+
+  private void removeQueuedTask(Task<P> task) {
+    if (replaceQueued != null) {
+      queuedTasks.get(task.handler).remove(task.key, task);
+    }
+  }
+
+  @Metric("Number of events waiting in the queues")
+  public int getQueueSize() {
+    int queueSize = 0;
+    for (BlockingQueue<Task<P>> workQueue : workQueues) {
+      queueSize += workQueue.size();
+    }
+    return queueSize;
+  }
+
+  @Override
+  public long failedEvents() {
+    return failed.value();
+  }
+
+  @Override
+  public long successfulEvents() {
+    return done.value();
+  }
+
+  @Override
+  public long droppedEvents() {
+    return dropped.value();
+  }
+
+  @Override
+  public long queuedEvents() {
+    return queued.value();
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    workers.forEach(Thread::interrupt);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Event waiting in the queue to be delivered to the handler.
+   */
+  private static final class Task<P> {
+    private final EventHandler<P> handler;
+    private final EventPublisher publisher;
+    private final Object key;
+    private final long queuedTime = Time.monotonicNow();
+    private volatile P payload;
+
+    private Task(EventHandler<P> handler, P payload,
+        EventPublisher publisher, Object key) {
+      this.handler = handler;
+      this.payload = payload;
+      this.publisher = publisher;
+      this.key = key;
+    }
+  }
+}
@@ -74,6 +74,22 @@ <KEY, VALUE> Table<KEY, VALUE> getTable(String name,
       Class<KEY> keyType, Class<VALUE> valueType,
       TableCache.CacheType cacheType) throws IOException;
 
+  /**
+   * Gets an existing TableStore with implicit key/value conversion and
+   * with specified cache type and cache size.
+   * @param name - Name of the TableStore to get
+   * @param keyType
+   * @param valueType
+   * @param cacheType
+   * @param cacheSize - max number of read cache entries, used only for
+   *                  {@link TableCache.CacheType#READ_THROUGH_CACHE}.
+   * @return - TableStore.
+   * @throws IOException
+   */
+  <KEY, VALUE> Table<KEY, VALUE> getTable(String name,
+      Class<KEY> keyType, Class<VALUE> valueType,
+      TableCache.CacheType cacheType, long cacheSize) throws IOException;
+
   /**
    * Lists the Known list of Tables in a DB.
    *
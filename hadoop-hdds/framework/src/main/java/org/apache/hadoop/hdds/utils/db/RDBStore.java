@@ -307,6 +307,14 @@ public <K, V> Table<K, V> getTable(String name,
         valueType, cacheType);
   }
 
+  @Override
+  public <K, V> Table<K, V> getTable(String name,
+      Class<K> keyType, Class<V> valueType,
+      TableCache.CacheType cacheType, long cacheSize) throws IOException {
+    return new TypedTable<>(getTable(name), codecRegistry, keyType,
+        valueType, cacheType, cacheSize);
+  }
+
   @Override
   public ArrayList<Table> listTables() {
     ArrayList<Table> returnList = new ArrayList<>();
@@ -101,6 +101,13 @@ public ByteArrayKeyValue seek(byte[] key) {
     return currentEntry;
   }
 
+  @Override
+  public ByteArrayKeyValue seekForPrev(byte[] key) {
+    rocksDBIterator.seekForPrev(key);
+    setCurrentEntry();
+    return currentEntry;
+  }
+
   @Override
   public byte[] key() {
     if (rocksDBIterator.isValid()) {
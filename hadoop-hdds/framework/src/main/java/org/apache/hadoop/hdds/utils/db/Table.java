@@ -204,6 +204,15 @@ default void cleanupCache(List<Long> epochs) {
     throw new NotImplementedException("cacheIterator is not implemented");
   }
 
+  /**
+   * Return cache iterator maintained for this table, which returns the
+   * entries with keys greater than or equal to the given key, in key order.
+   */
+  default Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>>
+      cacheIterator(KEY startKey) {
+    throw new NotImplementedException("cacheIterator is not implemented");
+  }
+
   /**
    * Returns a certain range of key value pairs as a list based on a
    * startKey or count. Further a {@link MetadataKeyFilters.MetadataKeyFilter}
@@ -48,6 +48,17 @@
    */
   T seek(KEY key) throws IOException;
 
+  /**
+   * Seek to the last entry whose key is less than or equal to the given key.
+   *
+   * @param key - Bytes that represent the key.
+   * @return VALUE, or null if there is no such entry.
+   */
+  default T seekForPrev(KEY key) throws IOException {
+    throw new UnsupportedOperationException(
+        "seekForPrev is not supported by " + getClass().getSimpleName());
+  }
+
   /**
    * Returns the key value at the current position.
    * @return KEY
@@ -32,8 +32,10 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.hdds.utils.db.cache.FullTableCache;
 import org.apache.hadoop.hdds.utils.db.cache.PartialTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.ReadThroughTableCache;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache;
+import org.apache.hadoop.hdds.utils.db.cache.TableCacheMetrics;
 
 import static org.apache.hadoop.hdds.utils.db.cache.CacheResult.CacheStatus.EXISTS;
 import static org.apache.hadoop.hdds.utils.db.cache.CacheResult.CacheStatus.NOT_EXIST;
@@ -58,6 +60,10 @@
 
   private final TableCache<CacheKey<KEY>, CacheValue<VALUE>> cache;
 
+  private final CacheType cacheType;
+
+  private TableCacheMetrics cacheMetrics;
+
   private static final long EPOCH_DEFAULT = -1L;
 
   /**
@@ -90,10 +96,30 @@ public TypedTable(
       CodecRegistry codecRegistry, Class<KEY> keyType,
       Class<VALUE> valueType,
       CacheType cacheType) throws IOException {
+    this(rawTable, codecRegistry, keyType, valueType, cacheType, 0);
+  }
+
+  /**
+   * Create an TypedTable from the raw table with specified cache type.
+   * @param rawTable
+   * @param codecRegistry
+   * @param keyType
+   * @param valueType
+   * @param cacheType
+   * @param cacheSize - max number of read cache entries, used only when
+   *                  cache type is {@link CacheType#READ_THROUGH_CACHE}.
+   * @throws IOException
+   */
+  public TypedTable(
+      Table<byte[], byte[]> rawTable,
+      CodecRegistry codecRegistry, Class<KEY> keyType,
+      Class<VALUE> valueType,
+      CacheType cacheType, long cacheSize) throws IOException {
     this.rawTable = rawTable;
     this.codecRegistry = codecRegistry;
     this.keyType = keyType;
     this.valueType = valueType;
+    this.cacheType = cacheType;
 
     if (cacheType == CacheType.FULL_CACHE) {
       cache = new FullTableCache<>();
@@ -111,6 +137,11 @@ public TypedTable(
               new CacheValue<>(Optional.of(kv.getValue()), EPOCH_DEFAULT));
         }
       }
+    } else if (cacheType == CacheType.READ_THROUGH_CACHE) {
+      ReadThroughTableCache<CacheKey<KEY>, CacheValue<VALUE>> readCache =
+          new ReadThroughTableCache<>(cacheSize);
+      cache = readCache;
+      cacheMetrics = TableCacheMetrics.create(rawTable.getName(), readCache);
     } else {
       cache = new PartialTableCache<>();
     }
@@ -121,6 +152,7 @@ public void put(KEY key, VALUE value) throws IOException {
     byte[] keyData = codecRegistry.asRawData(key);
     byte[] valueData = codecRegistry.asRawData(value);
     rawTable.put(keyData, valueData);
+    cache.removeReadEntry(new CacheKey<>(key));
   }
 
   @Override
@@ -129,6 +161,7 @@ public void putWithBatch(BatchOperation batch, KEY key, VALUE value)
     byte[] keyData = codecRegistry.asRawData(key);
     byte[] valueData = codecRegistry.asRawData(value);
     rawTable.putWithBatch(batch, keyData, valueData);
+    cache.removeReadEntry(new CacheKey<>(key));
   }
 
   @Override
@@ -168,8 +201,8 @@ public VALUE get(KEY key) throws IOException {
     // Here the metadata lock will guarantee that cache is not updated for same
     // key during get key.
 
-    CacheResult<CacheValue<VALUE>> cacheResult =
-        cache.lookup(new CacheKey<>(key));
+    CacheKey<KEY> cacheKey = new CacheKey<>(key);
+    CacheResult<CacheValue<VALUE>> cacheResult = cache.lookup(cacheKey);
 
     if (cacheResult.getCacheStatus() == EXISTS) {
       return codecRegistry.copyObject(cacheResult.getValue().getCacheValue(),
@@ -177,7 +210,7 @@ public VALUE get(KEY key) throws IOException {
     } else if (cacheResult.getCacheStatus() == NOT_EXIST) {
       return null;
     } else {
-      return getFromTable(key);
+      return addReadEntry(cacheKey, getFromTable(key));
     }
   }
 
@@ -236,8 +269,8 @@ public VALUE getIfExist(KEY key) throws IOException {
     // Here the metadata lock will guarantee that cache is not updated for same
     // key during get key.
 
-    CacheResult<CacheValue<VALUE>> cacheResult =
-        cache.lookup(new CacheKey<>(key));
+    CacheKey<KEY> cacheKey = new CacheKey<>(key);
+    CacheResult<CacheValue<VALUE>> cacheResult = cache.lookup(cacheKey);
 
     if (cacheResult.getCacheStatus() == EXISTS) {
       return codecRegistry.copyObject(cacheResult.getValue().getCacheValue(),
@@ -245,8 +278,24 @@ public VALUE getIfExist(KEY key) throws IOException {
     } else if (cacheResult.getCacheStatus() == NOT_EXIST) {
       return null;
     } else {
-      return getFromTableIfExist(key);
+      return addReadEntry(cacheKey, getFromTableIfExist(key));
+    }
+  }
+
+  /**
+   * Add the value read from DB to the read cache, and return a copy of it,
+   * as the cached instance is shared with other readers. For cache types
+   * other than {@link CacheType#READ_THROUGH_CACHE}, the value is returned
+   * as is.
+   */
+  private VALUE addReadEntry(CacheKey<KEY> cacheKey, VALUE value)
+      throws IOException {
+    if (value == null || cacheType != CacheType.READ_THROUGH_CACHE) {
+      return value;
     }
+    cache.addReadEntry(cacheKey,
+        new CacheValue<>(Optional.of(value), EPOCH_DEFAULT));
+    return codecRegistry.copyObject(value, valueType);
   }
 
   private VALUE getFromTable(KEY key) throws IOException {
@@ -264,13 +313,14 @@ private VALUE getFromTableIfExist(KEY key) throws IOException {
   @Override
   public void delete(KEY key) throws IOException {
     rawTable.delete(codecRegistry.asRawData(key));
+    cache.removeReadEntry(new CacheKey<>(key));
   }
 
   @Override
   public void deleteWithBatch(BatchOperation batch, KEY key)
       throws IOException {
     rawTable.deleteWithBatch(batch, codecRegistry.asRawData(key));
-
+    cache.removeReadEntry(new CacheKey<>(key));
   }
 
   @Override
@@ -292,6 +342,9 @@ public long getEstimatedKeyCount() throws IOException {
 
   @Override
   public void close() throws Exception {
+    if (cacheMetrics != null) {
+      cacheMetrics.unRegister();
+    }
     rawTable.close();
 
   }
@@ -313,6 +366,12 @@ public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> cacheIterator() {
     return cache.iterator();
   }
 
+  @Override
+  public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> cacheIterator(
+      KEY startKey) {
+    return cache.iterator(new CacheKey<>(startKey));
+  }
+
   @Override
   public List<TypedKeyValue> getRangeKVs(
           KEY startKey, int count,
@@ -449,6 +508,16 @@ public TypedKeyValue seek(KEY key) throws IOException {
       return new TypedKeyValue(result);
     }
 
+    @Override
+    public TypedKeyValue seekForPrev(KEY key) throws IOException {
+      byte[] keyBytes = codecRegistry.asRawData(key);
+      KeyValue<byte[], byte[]> result = rawIterator.seekForPrev(keyBytes);
+      if (result == null) {
+        return null;
+      }
+      return new TypedKeyValue(result);
+    }
+
     @Override
     public KEY key() throws IOException {
       byte[] result = rawIterator.key();
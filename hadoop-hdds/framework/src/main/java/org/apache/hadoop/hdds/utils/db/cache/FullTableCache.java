@@ -24,6 +24,7 @@
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
@@ -51,7 +52,7 @@
   public static final Logger LOG =
       LoggerFactory.getLogger(FullTableCache.class);
 
-  private final Map<CACHEKEY, CACHEVALUE> cache;
+  private final ConcurrentNavigableMap<CACHEKEY, CACHEVALUE> cache;
   private final NavigableSet<EpochEntry<CACHEKEY>> epochEntries;
   private ExecutorService executorService;
 
@@ -110,6 +111,16 @@ public void put(CACHEKEY cacheKey, CACHEVALUE value) {
     }
   }
 
+  @Override
+  public void addReadEntry(CACHEKEY cacheKey, CACHEVALUE cacheValue) {
+    // Do nothing for full table cache, all entries are already in cache.
+  }
+
+  @Override
+  public void removeReadEntry(CACHEKEY cacheKey) {
+    // Do nothing for full table cache.
+  }
+
   @Override
   public void cleanup(List<Long> epochs) {
     executorService.execute(() -> evictCache(epochs));
@@ -125,6 +136,12 @@ public Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator() {
     return cache.entrySet().iterator();
   }
 
+  @Override
+  public Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator(
+      CACHEKEY startKey) {
+    return cache.tailMap(startKey).entrySet().iterator();
+  }
+
   @VisibleForTesting
   @Override
   public void evictCache(List<Long> epochs) {
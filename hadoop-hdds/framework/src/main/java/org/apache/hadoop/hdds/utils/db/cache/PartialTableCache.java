@@ -51,6 +51,7 @@
       LoggerFactory.getLogger(PartialTableCache.class);
 
   private final Map<CACHEKEY, CACHEVALUE> cache;
+  private final NavigableSet<CACHEKEY> sortedKeys;
   private final NavigableSet<EpochEntry<CACHEKEY>> epochEntries;
   private ExecutorService executorService;
 
@@ -58,7 +59,8 @@
   public PartialTableCache() {
     // We use concurrent Hash map for O(1) lookup for get API.
     // During list operation for partial cache we anyway merge between DB and
-    // cache state. So entries in cache does not need to be in sorted order.
+    // cache state. So entries in cache does not need to be in sorted order,
+    // list operations use the sorted set of keys below to seek to their range.
 
     // And as concurrentHashMap computeIfPresent which is used by cleanup is
     // atomic operation, and ozone level locks like bucket/volume locks
@@ -71,6 +73,8 @@ public PartialTableCache() {
     // that should be guarded by concurrentHashMap guaranty.
     cache = new ConcurrentHashMap<>();
 
+    sortedKeys = new ConcurrentSkipListSet<>();
+
     epochEntries = new ConcurrentSkipListSet<>();
     // Created a singleThreadExecutor, so one cleanup will be running at a
     // time.
@@ -92,9 +96,20 @@ public void loadInitial(CACHEKEY cacheKey, CACHEVALUE cacheValue) {
   @Override
   public void put(CACHEKEY cacheKey, CACHEVALUE value) {
     cache.put(cacheKey, value);
+    sortedKeys.add(cacheKey);
     epochEntries.add(new EpochEntry<>(value.getEpoch(), cacheKey));
   }
 
+  @Override
+  public void addReadEntry(CACHEKEY cacheKey, CACHEVALUE cacheValue) {
+    // Do nothing for partial table cache.
+  }
+
+  @Override
+  public void removeReadEntry(CACHEKEY cacheKey) {
+    // Do nothing for partial table cache.
+  }
+
   @Override
   public void cleanup(List<Long> epochs) {
     executorService.execute(() -> evictCache(epochs));
@@ -110,6 +125,13 @@ public Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator() {
     return cache.entrySet().iterator();
   }
 
+  @Override
+  public Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator(
+      CACHEKEY startKey) {
+    return new SortedKeyIterator<>(
+        sortedKeys.tailSet(startKey, true).iterator(), cache);
+  }
+
   @VisibleForTesting
   @Override
   public void evictCache(List<Long> epochs) {
@@ -141,6 +163,7 @@ public void evictCache(List<Long> epochs) {
               LOG.debug("CacheKey {} with epoch {} is removed from cache",
                   k.getCacheKey(), currentEpoch);
             }
+            sortedKeys.remove(k);
             return null;
           }
           return v;
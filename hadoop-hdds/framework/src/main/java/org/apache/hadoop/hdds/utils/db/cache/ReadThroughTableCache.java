@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience.Private;
+import org.apache.hadoop.hdds.annotation.InterfaceStability.Evolving;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache implementation for the table. Read through table cache behaves like
+ * {@link PartialTableCache} for entries which are not yet flushed to DB, and
+ * in addition keeps a bounded LRU set of values which are known to match the
+ * DB state.
+ *
+ * Values end up in the read cache in two ways:
+ * 1. When the entry is evicted after double buffer flush, the flushed value
+ * is moved to the read cache instead of being dropped.
+ * 2. When the caller reads the value from DB on a cache miss, it can add it
+ * with {@link #addReadEntry(CacheKey, CacheValue)}.
+ *
+ * Any update to a key through {@link #put(CacheKey, CacheValue)} or a direct
+ * DB update invalidates its read cache entry, so stale values are never
+ * returned once the write-through entry is evicted.
+ */
+@Private
+@Evolving
+public class ReadThroughTableCache<CACHEKEY extends CacheKey,
+    CACHEVALUE extends CacheValue> implements TableCache<CACHEKEY, CACHEVALUE> {
+
+  public static final Logger LOG =
+      LoggerFactory.getLogger(ReadThroughTableCache.class);
+
+  private final Map<CACHEKEY, CACHEVALUE> cache;
+  private final Cache<CACHEKEY, CACHEVALUE> readCache;
+  private final NavigableSet<CACHEKEY> sortedKeys;
+  private final NavigableSet<EpochEntry<CACHEKEY>> epochEntries;
+  private ExecutorService executorService;
+
+  public ReadThroughTableCache(long maxReadCacheSize) {
+    Preconditions.checkArgument(maxReadCacheSize > 0,
+        "Read cache size should be greater than zero");
+    // Same as partial table cache, write-through entries are kept in a
+    // concurrent hash map, and ozone level locks protect updating same key.
+    cache = new ConcurrentHashMap<>();
+
+    // Guava cache is thread safe and evicts least recently used entries
+    // once the size limit is reached.
+    readCache = CacheBuilder.newBuilder()
+        .maximumSize(maxReadCacheSize)
+        .recordStats()
+        .build();
+
+    // Keys are also kept in sorted order, so that list operations can visit
+    // only the entries in their range, without slowing down get.
+    sortedKeys = new ConcurrentSkipListSet<>();
+
+    epochEntries = new ConcurrentSkipListSet<>();
+    // Created a singleThreadExecutor, so one cleanup will be running at a
+    // time.
+    ThreadFactory build = new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("ReadThroughTableCache Cleanup Thread - %d").build();
+    executorService = Executors.newSingleThreadExecutor(build);
+  }
+
+  @Override
+  public CACHEVALUE get(CACHEKEY cachekey) {
+    return cache.get(cachekey);
+  }
+
+  @Override
+  public void loadInitial(CACHEKEY cacheKey, CACHEVALUE cacheValue) {
+    // Do nothing for read through table cache, values are loaded on demand.
+  }
+
+  @Override
+  public void put(CACHEKEY cacheKey, CACHEVALUE value) {
+    cache.put(cacheKey, value);
+    sortedKeys.add(cacheKey);
+    epochEntries.add(new EpochEntry<>(value.getEpoch(), cacheKey));
+    // Write-through entry takes precedence during lookup, but the old value
+    // should not be visible once it is evicted.
+    readCache.invalidate(cacheKey);
+  }
+
+  @Override
+  public void addReadEntry(CACHEKEY cacheKey, CACHEVALUE cacheValue) {
+    // Never shadow an entry which is not yet flushed to DB.
+    if (cacheValue.getCacheValue() != null && !cache.containsKey(cacheKey)) {
+      readCache.put(cacheKey, cacheValue);
+    }
+  }
+
+  @Override
+  public void removeReadEntry(CACHEKEY cacheKey) {
+    readCache.invalidate(cacheKey);
+  }
+
+  @Override
+  public void cleanup(List<Long> epochs) {
+    executorService.execute(() -> evictCache(epochs));
+  }
+
+  /**
+   * Return the number of entries which are not yet evicted after flush.
+   * Entries in the read cache are not counted.
+   * @return size
+   */
+  @Override
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * Return an iterator over entries which are not yet evicted after flush.
+   * Entries in the read cache match the DB state, so callers merging cache
+   * and DB results do not need to visit them.
+   * @return iterator of the write-through entries.
+   */
+  @Override
+  public Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator() {
+    return cache.entrySet().iterator();
+  }
+
+  @Override
+  public Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator(
+      CACHEKEY startKey) {
+    return new SortedKeyIterator<>(
+        sortedKeys.tailSet(startKey, true).iterator(), cache);
+  }
+
+  @VisibleForTesting
+  @Override
+  public void evictCache(List<Long> epochs) {
+    EpochEntry<CACHEKEY> currentEntry;
+    CACHEKEY cachekey;
+    long lastEpoch = epochs.get(epochs.size() - 1);
+    for (Iterator<EpochEntry<CACHEKEY>> iterator = epochEntries.iterator();
+         iterator.hasNext();) {
+      currentEntry = iterator.next();
+      cachekey = currentEntry.getCachekey();
+      long currentEpoch = currentEntry.getEpoch();
+
+      // If currentEntry epoch is greater than last epoch provided, we have
+      // deleted all entries less than specified epoch. So, we can break.
+      if (currentEpoch > lastEpoch) {
+        break;
+      }
+
+      if (epochs.contains(currentEpoch)) {
+        // Remove epoch entry, as the entry is there in epoch list.
+        iterator.remove();
+        // Move the value to read cache inside computeIfPresent, so that a
+        // concurrent put for the same key is either seen here or invalidates
+        // the read cache entry after it is added.
+        cache.computeIfPresent(cachekey, ((k, v) -> {
+          if (v.getEpoch() == currentEpoch) {
+            if (v.getCacheValue() != null) {
+              readCache.put(k, v);
+            } else {
+              readCache.invalidate(k);
+            }
+            if (LOG.isDebugEnabled()) {
+              LOG.debug("CacheKey {} with epoch {} is moved to read cache",
+                  k.getCacheKey(), currentEpoch);
+            }
+            sortedKeys.remove(k);
+            return null;
+          }
+          return v;
+        }));
+      }
+    }
+  }
+
+  @Override
+  public CacheResult<CACHEVALUE> lookup(CACHEKEY cachekey) {
+
+    CACHEVALUE cachevalue = cache.get(cachekey);
+    if (cachevalue == null) {
+      cachevalue = readCache.getIfPresent(cachekey);
+      if (cachevalue == null) {
+        return new CacheResult<>(CacheResult.CacheStatus.MAY_EXIST, null);
+      }
+      return new CacheResult<>(CacheResult.CacheStatus.EXISTS, cachevalue);
+    } else {
+      if (cachevalue.getCacheValue() != null) {
+        return new CacheResult<>(CacheResult.CacheStatus.EXISTS, cachevalue);
+      } else {
+        // When entity is marked for delete, cacheValue will be set to null.
+        return new CacheResult<>(CacheResult.CacheStatus.NOT_EXIST, null);
+      }
+    }
+  }
+
+  @Override
+  @VisibleForTesting
+  public Set<EpochEntry<CACHEKEY>> getEpochEntrySet() {
+    return epochEntries;
+  }
+
+  /**
+   * Return the number of entries in the read cache.
+   * @return read cache size
+   */
+  public long getReadCacheSize() {
+    return readCache.size();
+  }
+
+  /**
+   * Return hit, miss and eviction statistics of the read cache. Lookups
+   * served from write-through entries are not counted.
+   * @return CacheStats
+   */
+  public CacheStats getReadCacheStats() {
+    return readCache.stats();
+  }
+}
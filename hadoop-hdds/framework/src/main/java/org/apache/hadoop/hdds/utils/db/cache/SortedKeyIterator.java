@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the entries of a cache map, in the order of a separately
+ * maintained sorted set of its keys. Keys which are no longer in the map,
+ * because they were evicted after the set was read, are skipped.
+ */
+final class SortedKeyIterator<CACHEKEY, CACHEVALUE>
+    implements Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> {
+
+  private final Iterator<CACHEKEY> keys;
+  private final Map<CACHEKEY, CACHEVALUE> cache;
+  private Map.Entry<CACHEKEY, CACHEVALUE> next;
+
+  SortedKeyIterator(Iterator<CACHEKEY> keys, Map<CACHEKEY, CACHEVALUE> cache) {
+    this.keys = keys;
+    this.cache = cache;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (next == null && keys.hasNext()) {
+      CACHEKEY key = keys.next();
+      CACHEVALUE value = cache.get(key);
+      if (value != null) {
+        next = new AbstractMap.SimpleImmutableEntry<>(key, value);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public Map.Entry<CACHEKEY, CACHEVALUE> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Map.Entry<CACHEKEY, CACHEVALUE> entry = next;
+    next = null;
+    return entry;
+  }
+}
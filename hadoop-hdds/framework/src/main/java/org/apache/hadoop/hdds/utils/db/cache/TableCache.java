@@ -62,6 +62,29 @@
    */
   void put(CACHEKEY cacheKey, CACHEVALUE value);
 
+  /**
+   * Add an entry read from DB to the cache. This should be called only with
+   * values which match the DB state, and it is caller responsibility to
+   * hold the same locks as for {@link #put(CacheKey, CacheValue)}.
+   *
+   * This is a do nothing operation unless cache type is
+   * {@link TableCache.CacheType#READ_THROUGH_CACHE}.
+   * @param cacheKey
+   * @param cacheValue
+   */
+  void addReadEntry(CACHEKEY cacheKey, CACHEVALUE cacheValue);
+
+  /**
+   * Remove the entry added with {@link #addReadEntry(CacheKey, CacheValue)}
+   * for the key, if any. This should be called when the DB is updated
+   * directly without adding a cache entry.
+   *
+   * This is a do nothing operation unless cache type is
+   * {@link TableCache.CacheType#READ_THROUGH_CACHE}.
+   * @param cacheKey
+   */
+  void removeReadEntry(CACHEKEY cacheKey);
+
   /**
    * Removes all the entries from the cache which are matching with epoch
    * provided in the epoch list.
@@ -88,6 +111,15 @@
    */
   Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator();
 
+  /**
+   * Return an iterator for the cache, which returns the entries with keys
+   * greater than or equal to the given key, in key order. List operations
+   * use this to visit only the entries in the requested range.
+   * @param startKey
+   * @return sorted iterator of the underlying cache for the table.
+   */
+  Iterator<Map.Entry<CACHEKEY, CACHEVALUE>> iterator(CACHEKEY startKey);
+
   /**
    * Check key exist in cache or not.
    *
@@ -103,6 +135,11 @@
    *  {@link TableCache.CacheType#PARTIAL_CACHE}.
    *  It return's {@link CacheResult} with null and status as MAY_EXIST.
    *
+   *  If cache type is
+   *  {@link TableCache.CacheType#READ_THROUGH_CACHE}, it returns
+   *  {@link CacheResult.CacheStatus#EXISTS} when the key is in the read
+   *  cache, otherwise it behaves same as PARTIAL_CACHE.
+   *
    * @param cachekey
    */
   CacheResult<CACHEVALUE> lookup(CACHEKEY cachekey);
@@ -114,7 +151,9 @@
   enum CacheType {
     FULL_CACHE, //  This mean's the table maintains full cache. Cache and DB
     // state are same.
-    PARTIAL_CACHE // This is partial table cache, cache state is partial state
+    PARTIAL_CACHE, // This is partial table cache, cache state is partial state
     // compared to DB state.
+    READ_THROUGH_CACHE // This is partial table cache, which also keeps a
+    // bounded number of recently read or flushed entries.
   }
 }
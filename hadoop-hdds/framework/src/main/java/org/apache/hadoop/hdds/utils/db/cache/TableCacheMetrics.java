@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import com.google.common.cache.CacheStats;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience.Private;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+
+/**
+ * Metrics source to report read cache statistics of a table which uses
+ * {@link TableCache.CacheType#READ_THROUGH_CACHE}.
+ */
+@Private
+@Metrics(about = "Table Cache Metrics", context = "ozone")
+public class TableCacheMetrics implements MetricsSource {
+
+  private static final String SOURCE_PREFIX =
+      TableCacheMetrics.class.getSimpleName();
+
+  private final String source;
+  private final ReadThroughTableCache<?, ?> cache;
+
+  private TableCacheMetrics(String tableName,
+      ReadThroughTableCache<?, ?> cache) {
+    this.source = SOURCE_PREFIX + "-" + tableName;
+    this.cache = cache;
+  }
+
+  /**
+   * Create and register metrics for the given table. If the table is opened
+   * again, for example after the DB is reloaded from a checkpoint, metrics
+   * of the previous instance are replaced.
+   */
+  public static synchronized TableCacheMetrics create(String tableName,
+      ReadThroughTableCache<?, ?> cache) {
+    TableCacheMetrics metrics = new TableCacheMetrics(tableName, cache);
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(metrics.source);
+    return ms.register(metrics.source, "Table cache metrics for " + tableName,
+        metrics);
+  }
+
+  public void unRegister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(source);
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    CacheStats stats = cache.getReadCacheStats();
+    collector.addRecord(source)
+        .addGauge(Interns.info("ReadCacheSize",
+            "Number of entries in the read cache"),
+            cache.getReadCacheSize())
+        .addGauge(Interns.info("WriteCacheSize",
+            "Number of entries not yet evicted after flush"),
+            cache.size())
+        .addCounter(Interns.info("ReadCacheHits",
+            "Number of lookups served from the read cache"),
+            stats.hitCount())
+        .addCounter(Interns.info("ReadCacheMisses",
+            "Number of lookups which had to go to DB"),
+            stats.missCount())
+        .addCounter(Interns.info("ReadCacheEvictions",
+            "Number of entries evicted from the read cache due to size"),
+            stats.evictionCount());
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.server.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing the FixedThreadPoolWithAffinityExecutor.
+ */
+public class TestFixedThreadPoolWithAffinityExecutor {
+
+  private static final Event<Long> EVENT1 =
+      new TypedEvent<>(Long.class, "SCM_EVENT1");
+
+  private EventQueue queue;
+
+  @Before
+  public void startEventQueue() {
+    DefaultMetricsSystem.initialize(getClass().getSimpleName());
+    queue = new EventQueue();
+  }
+
+  @After
+  public void stopEventQueue() {
+    DefaultMetricsSystem.shutdown();
+    queue.close();
+  }
+
+  @Test
+  public void testOrderOfKeys() {
+    Map<Long, List<Long>> received = new ConcurrentHashMap<>();
+    EventHandler<Long> handler = (payload, publisher) ->
+        received.computeIfAbsent(payload % 10,
+            key -> Collections.synchronizedList(new ArrayList<>()))
+            .add(payload);
+    queue.addHandler(EVENT1, new FixedThreadPoolWithAffinityExecutor<>(
+        "OrderOfKeys", 4, 100, payload -> payload % 10, null), handler);
+
+    for (long i = 0; i < 1000; i++) {
+      queue.fireEvent(EVENT1, i);
+    }
+    queue.processAll(10000);
+
+    Assert.assertEquals(10, received.size());
+    for (List<Long> payloads : received.values()) {
+      Assert.assertEquals(100, payloads.size());
+      List<Long> sorted = new ArrayList<>(payloads);
+      Collections.sort(sorted);
+      Assert.assertEquals(sorted, payloads);
+    }
+  }
+
+  @Test
+  public void testReplaceQueued() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch unblock = new CountDownLatch(1);
+    List<Long> received = Collections.synchronizedList(new ArrayList<>());
+    EventHandler<Long> handler = (payload, publisher) -> {
+      if (payload == 0) {
+        blocked.countDown();
+        try {
+          unblock.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      received.add(payload);
+    };
+    FixedThreadPoolWithAffinityExecutor<Long> executor =
+        new FixedThreadPoolWithAffinityExecutor<>(
+            "ReplaceQueued", 1, 100, payload -> payload % 2,
+            payload -> true);
+    queue.addHandler(EVENT1, executor, handler);
+
+    // Keeps the thread busy, so the later events are queued.
+    queue.fireEvent(EVENT1, 0L);
+    blocked.await();
+    for (long i = 1; i <= 6; i++) {
+      queue.fireEvent(EVENT1, i);
+    }
+    Assert.assertEquals(2, executor.getQueueSize());
+    unblock.countDown();
+    queue.processAll(10000);
+
+    // Only the last queued event of each key is delivered.
+    Assert.assertEquals(Arrays.asList(0L, 5L, 6L), received);
+    Assert.assertEquals(7, executor.queuedEvents());
+    Assert.assertEquals(3, executor.successfulEvents());
+    Assert.assertEquals(4, executor.droppedEvents());
+  }
+
+  @Test
+  public void testReplaceQueuedOnlyIfAccepted() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch unblock = new CountDownLatch(1);
+    List<Long> received = Collections.synchronizedList(new ArrayList<>());
+    EventHandler<Long> handler = (payload, publisher) -> {
+      if (payload == 0) {
+        blocked.countDown();
+        try {
+          unblock.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      received.add(payload);
+    };
+    // Only even events replace the queued ones.
+    FixedThreadPoolWithAffinityExecutor<Long> executor =
+        new FixedThreadPoolWithAffinityExecutor<>(
+            "ReplaceQueuedOnlyIfAccepted", 1, 100, payload -> 0L,
+            payload -> payload % 2 == 0);
+    queue.addHandler(EVENT1, executor, handler);
+
+    queue.fireEvent(EVENT1, 0L);
+    blocked.await();
+    for (long payload : new long[] {2, 4, 1, 3, 6, 5}) {
+      queue.fireEvent(EVENT1, payload);
+    }
+    Assert.assertEquals(4, executor.getQueueSize());
+    unblock.countDown();
+    queue.processAll(10000);
+
+    // Odd events are not replaced, except by an even event received
+    // right after them.
+    Assert.assertEquals(Arrays.asList(0L, 4L, 1L, 6L, 5L), received);
+    Assert.assertEquals(7, executor.queuedEvents());
+    Assert.assertEquals(5, executor.successfulEvents());
+    Assert.assertEquals(2, executor.droppedEvents());
+  }
+}
@@ -162,6 +162,27 @@ public void testSeekReturnsTheActualKey() {
     assertArrayEquals(new byte[]{0x7f}, val.getValue());
   }
 
+  @Test
+  public void testSeekForPrevReturnsTheActualKey() {
+    when(rocksDBIteratorMock.isValid()).thenReturn(true);
+    when(rocksDBIteratorMock.key()).thenReturn(new byte[]{0x00});
+    when(rocksDBIteratorMock.value()).thenReturn(new byte[]{0x7f});
+
+    RDBStoreIterator iter = new RDBStoreIterator(rocksDBIteratorMock);
+    ByteArrayKeyValue val = iter.seekForPrev(new byte[]{0x55});
+
+    InOrder verifier = inOrder(rocksDBIteratorMock);
+
+    verify(rocksDBIteratorMock, never()).seek(any(byte[].class));
+    verifier.verify(rocksDBIteratorMock, times(1))
+        .seekForPrev(any(byte[].class));
+    verifier.verify(rocksDBIteratorMock, times(1)).isValid();
+    verifier.verify(rocksDBIteratorMock, times(1)).key();
+    verifier.verify(rocksDBIteratorMock, times(1)).value();
+    assertArrayEquals(new byte[]{0x00}, val.getKey());
+    assertArrayEquals(new byte[]{0x7f}, val.getValue());
+  }
+
   @Test
   public void testGettingTheKeyIfIteratorIsValid() {
     when(rocksDBIteratorMock.isValid()).thenReturn(true);
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Class tests read through table cache.
+ */
+public class TestReadThroughTableCache {
+
+  private static final int READ_CACHE_SIZE = 10;
+
+  private ReadThroughTableCache<CacheKey<String>, CacheValue<String>>
+      tableCache;
+
+  @Before
+  public void create() {
+    tableCache = new ReadThroughTableCache<>(READ_CACHE_SIZE);
+  }
+
+  @Test
+  public void testEvictMovesEntriesToReadCache() {
+    List<Long> epochs = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      tableCache.put(new CacheKey<>(Integer.toString(i)),
+          new CacheValue<>(Optional.of(Integer.toString(i)), i));
+      epochs.add((long) i);
+    }
+    // Mark key 4 for delete.
+    tableCache.put(new CacheKey<>("4"), new CacheValue<>(Optional.absent(), 5));
+    epochs.add(5L);
+
+    tableCache.evictCache(epochs);
+
+    Assert.assertEquals(0, tableCache.size());
+    Assert.assertEquals(4, tableCache.getReadCacheSize());
+    for (int i = 0; i < 4; i++) {
+      CacheResult<CacheValue<String>> result =
+          tableCache.lookup(new CacheKey<>(Integer.toString(i)));
+      Assert.assertEquals(CacheResult.CacheStatus.EXISTS,
+          result.getCacheStatus());
+      Assert.assertEquals(Integer.toString(i),
+          result.getValue().getCacheValue());
+    }
+    Assert.assertEquals(CacheResult.CacheStatus.MAY_EXIST,
+        tableCache.lookup(new CacheKey<>("4")).getCacheStatus());
+    Assert.assertEquals(4, tableCache.getReadCacheStats().hitCount());
+    Assert.assertEquals(1, tableCache.getReadCacheStats().missCount());
+  }
+
+  @Test
+  public void testSortedIteratorSkipsReadEntries() {
+    tableCache.put(new CacheKey<>("b"), new CacheValue<>(Optional.of("b"), 1));
+    tableCache.put(new CacheKey<>("a"), new CacheValue<>(Optional.of("a"), 2));
+    tableCache.evictCache(Collections.singletonList(1L));
+    tableCache.put(new CacheKey<>("c"), new CacheValue<>(Optional.of("c"), 3));
+
+    // "b" is in the read cache, which matches the DB.
+    List<String> keys = new ArrayList<>();
+    tableCache.iterator(new CacheKey<>("")).forEachRemaining(
+        entry -> keys.add(entry.getKey().getCacheKey()));
+    Assert.assertEquals(Arrays.asList("a", "c"), keys);
+  }
+
+  @Test
+  public void testPutInvalidatesReadEntry() {
+    CacheKey<String> key = new CacheKey<>("key");
+    tableCache.addReadEntry(key, new CacheValue<>(Optional.of("old"), -1));
+    Assert.assertEquals("old",
+        tableCache.lookup(key).getValue().getCacheValue());
+
+    // Delete of the key should be visible while it is not flushed, and the
+    // old value should not come back after eviction.
+    tableCache.put(key, new CacheValue<>(Optional.absent(), 1));
+    Assert.assertEquals(CacheResult.CacheStatus.NOT_EXIST,
+        tableCache.lookup(key).getCacheStatus());
+
+    List<Long> epochs = new ArrayList<>();
+    epochs.add(1L);
+    tableCache.evictCache(epochs);
+    Assert.assertEquals(CacheResult.CacheStatus.MAY_EXIST,
+        tableCache.lookup(key).getCacheStatus());
+  }
+
+  @Test
+  public void testReadEntryDoesNotShadowPendingEntry() {
+    CacheKey<String> key = new CacheKey<>("key");
+    tableCache.put(key, new CacheValue<>(Optional.of("new"), 1));
+    tableCache.addReadEntry(key, new CacheValue<>(Optional.of("old"), -1));
+    Assert.assertEquals(0, tableCache.getReadCacheSize());
+
+    // Eviction of an older epoch should not remove the newer entry.
+    tableCache.put(key, new CacheValue<>(Optional.of("newer"), 2));
+    List<Long> epochs = new ArrayList<>();
+    epochs.add(1L);
+    tableCache.evictCache(epochs);
+    Assert.assertEquals("newer",
+        tableCache.lookup(key).getValue().getCacheValue());
+    Assert.assertEquals(1, tableCache.size());
+  }
+
+  @Test
+  public void testReadCacheIsBounded() {
+    for (int i = 0; i < READ_CACHE_SIZE * 3; i++) {
+      tableCache.addReadEntry(new CacheKey<>(Integer.toString(i)),
+          new CacheValue<>(Optional.of(Integer.toString(i)), -1));
+    }
+    Assert.assertTrue(tableCache.getReadCacheSize() <= READ_CACHE_SIZE);
+    Assert.assertTrue(tableCache.getReadCacheStats().evictionCount() > 0);
+    // Most recently added entry should be retained.
+    String last = Integer.toString(READ_CACHE_SIZE * 3 - 1);
+    Assert.assertEquals(CacheResult.CacheStatus.EXISTS,
+        tableCache.lookup(new CacheKey<>(last)).getCacheStatus());
+  }
+}
@@ -22,6 +22,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -472,6 +473,44 @@ public void testTableCacheWithNonConsecutiveEpochList() {
 
   }
 
+  @Test
+  public void testSortedIterator() {
+    tableCache.put(new CacheKey<>("/vol/b/c"),
+        new CacheValue<>(Optional.of("c"), 1));
+    tableCache.put(new CacheKey<>("/vol/a/2"),
+        new CacheValue<>(Optional.of("2"), 2));
+    tableCache.put(new CacheKey<>("/vol/a/1"),
+        new CacheValue<>(Optional.of("1"), 3));
+    tableCache.put(new CacheKey<>("/vol/b/a"),
+        new CacheValue<>(Optional.absent(), 4));
+
+    Assert.assertEquals(Arrays.asList("/vol/a/2", "/vol/b/a", "/vol/b/c"),
+        sortedKeysFrom("/vol/a/2"));
+    Assert.assertEquals(Arrays.asList("/vol/b/a", "/vol/b/c"),
+        sortedKeysFrom("/vol/a/3"));
+    Assert.assertEquals(Collections.emptyList(), sortedKeysFrom("/vol/c"));
+
+    // Evicted entries are not returned.
+    tableCache.evictCache(Arrays.asList(1L, 4L));
+    List<String> remaining = new ArrayList<>();
+    tableCache.iterator().forEachRemaining(
+        entry -> remaining.add(entry.getKey().getCacheKey()));
+    Collections.sort(remaining);
+    Assert.assertEquals(remaining, sortedKeysFrom("/"));
+
+    // Entry put again after eviction is returned.
+    tableCache.put(new CacheKey<>("/vol/b/a"),
+        new CacheValue<>(Optional.of("a"), 5));
+    Assert.assertTrue(sortedKeysFrom("/vol/b").contains("/vol/b/a"));
+  }
+
+  private List<String> sortedKeysFrom(String startKey) {
+    List<String> keys = new ArrayList<>();
+    tableCache.iterator(new CacheKey<>(startKey)).forEachRemaining(
+        entry -> keys.add(entry.getKey().getCacheKey()));
+    return keys;
+  }
+
   private int writeToCache(int count, int startVal, long sleep)
       throws InterruptedException {
     int counter = 1;
@@ -95,7 +95,8 @@ protected void processContainerReplica(final DatanodeDetails datanodeDetails,
       updateContainerStats(datanodeDetails, containerId, replicaProto);
       if (!updateContainerState(datanodeDetails, containerId, replicaProto,
           publisher)) {
-        updateContainerReplica(datanodeDetails, containerId, replicaProto);
+        updateContainerReplica(datanodeDetails, containerId, replicaProto,
+            publisher);
       }
     }
   }
@@ -217,6 +218,7 @@ private boolean updateContainerState(final DatanodeDetails datanode,
                 "reported QUASI_CLOSED replica.", containerId, datanode);
         containerManager.updateContainerState(containerId,
             LifeCycleEvent.QUASI_CLOSE);
+        publisher.fireEvent(SCMEvents.CONTAINER_REPLICAS_CHANGED, containerId);
       }
 
       if (replica.getState() == State.CLOSED) {
@@ -226,6 +228,7 @@ private boolean updateContainerState(final DatanodeDetails datanode,
             == container.getSequenceId());
         containerManager.updateContainerState(containerId,
             LifeCycleEvent.CLOSE);
+        publisher.fireEvent(SCMEvents.CONTAINER_REPLICAS_CHANGED, containerId);
       }
 
       break;
@@ -252,6 +255,7 @@ private boolean updateContainerState(final DatanodeDetails datanode,
             == container.getSequenceId());
         containerManager.updateContainerState(containerId,
             LifeCycleEvent.FORCE_CLOSE);
+        publisher.fireEvent(SCMEvents.CONTAINER_REPLICAS_CHANGED, containerId);
       }
       break;
     case CLOSED:
@@ -280,9 +284,17 @@ private boolean updateContainerState(final DatanodeDetails datanode,
 
   private void updateContainerReplica(final DatanodeDetails datanodeDetails,
                                       final ContainerID containerId,
-                                      final ContainerReplicaProto replicaProto)
+                                      final ContainerReplicaProto replicaProto,
+                                      final EventPublisher publisher)
       throws ContainerNotFoundException, ContainerReplicaNotFoundException {
 
+    // Replication only depends on the location and the state of the
+    // replicas, so only these changes are reported.
+    final boolean changed = containerManager.getContainerReplicas(containerId)
+        .stream()
+        .noneMatch(r -> r.getDatanodeDetails().equals(datanodeDetails)
+            && r.getState() == replicaProto.getState());
+
     final ContainerReplica replica = ContainerReplica.newBuilder()
         .setContainerID(containerId)
         .setContainerState(replicaProto.getState())
@@ -298,6 +310,9 @@ private void updateContainerReplica(final DatanodeDetails datanodeDetails,
     } else {
       containerManager.updateContainerReplica(containerId, replica);
     }
+    if (changed) {
+      publisher.fireEvent(SCMEvents.CONTAINER_REPLICAS_CHANGED, containerId);
+    }
   }
 
   /**
@@ -94,7 +94,8 @@ public ContainerReportHandler(final NodeManager nodeManager,
   }
 
   /**
-   * Process the container reports from datanodes.
+   * Process the container reports from datanodes. A delta report is applied
+   * to the containers known on the datanode, full reports replace them.
    *
    * @param reportFromDatanode Container Report
    * @param publisher EventPublisher reference
@@ -116,6 +117,11 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
         reportFromDatanode.getReport();
 
     try {
+      if (containerReport.getDelta()) {
+        processDeltaReport(datanodeDetails, containerReport, publisher);
+        containerManager.notifyContainerReportProcessing(true, true);
+        return;
+      }
       final List<ContainerReplicaProto> replicas =
           containerReport.getReportsList();
       final Set<ContainerID> containersInSCM =
@@ -129,7 +135,7 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
       missingReplicas.removeAll(containersInDn);
 
       processContainerReplicas(datanodeDetails, replicas, publisher);
-      processMissingReplicas(datanodeDetails, missingReplicas);
+      processMissingReplicas(datanodeDetails, missingReplicas, publisher);
       updateDeleteTransaction(datanodeDetails, replicas, publisher);
 
       /*
@@ -147,6 +153,36 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
 
   }
 
+  /**
+   * Processes a delta container report, which only has the replicas changed
+   * since the last report from the datanode, and the removed containers.
+   *
+   * @param datanodeDetails Datanode from which this report was received
+   * @param containerReport delta container report
+   * @param publisher EventPublisher reference
+   */
+  private void processDeltaReport(final DatanodeDetails datanodeDetails,
+      final ContainerReportsProto containerReport,
+      final EventPublisher publisher) throws NodeNotFoundException {
+    final List<ContainerReplicaProto> replicas =
+        containerReport.getReportsList();
+    final Set<ContainerID> removedReplicas = containerReport
+        .getRemovedContainerIDsList().stream()
+        .map(ContainerID::valueOf).collect(Collectors.toSet());
+
+    processContainerReplicas(datanodeDetails, replicas, publisher);
+    processMissingReplicas(datanodeDetails, removedReplicas, publisher);
+    updateDeleteTransaction(datanodeDetails, replicas, publisher);
+
+    for (ContainerReplicaProto replica : replicas) {
+      nodeManager.addContainer(datanodeDetails,
+          ContainerID.valueOf(replica.getContainerID()));
+    }
+    for (ContainerID id : removedReplicas) {
+      nodeManager.removeContainer(datanodeDetails, id);
+    }
+  }
+
   /**
    * Processes the ContainerReport, unknown container reported
    * that will be deleted by SCM.
@@ -186,9 +222,11 @@ private void processContainerReplicas(final DatanodeDetails datanodeDetails,
    *
    * @param datanodeDetails DatanodeDetails
    * @param missingReplicas ContainerID which are missing on the given datanode
+   * @param publisher EventPublisher reference
    */
   private void processMissingReplicas(final DatanodeDetails datanodeDetails,
-                                      final Set<ContainerID> missingReplicas) {
+                                      final Set<ContainerID> missingReplicas,
+                                      final EventPublisher publisher) {
     for (ContainerID id : missingReplicas) {
       try {
         containerManager.getContainerReplicas(id).stream()
@@ -197,6 +235,7 @@ private void processMissingReplicas(final DatanodeDetails datanodeDetails,
             .ifPresent(replica -> {
               try {
                 containerManager.removeContainerReplica(id, replica);
+                publisher.fireEvent(SCMEvents.CONTAINER_REPLICAS_CHANGED, id);
               } catch (ContainerNotFoundException |
                   ContainerReplicaNotFoundException ignored) {
                 // This should not happen, but even if it happens, not an issue
@@ -32,7 +32,12 @@
 import java.util.StringJoiner;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
@@ -44,6 +49,7 @@
 import org.apache.hadoop.hdds.conf.ConfigGroup;
 import org.apache.hadoop.hdds.conf.ConfigType;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.conf.PostConstruct;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
@@ -58,11 +64,14 @@
 import org.apache.hadoop.hdds.scm.node.NodeManager;
 import org.apache.hadoop.hdds.scm.node.NodeStatus;
 import org.apache.hadoop.hdds.scm.node.states.NodeNotFoundException;
+import org.apache.hadoop.hdds.server.events.EventHandler;
 import org.apache.hadoop.hdds.server.events.EventPublisher;
 import org.apache.hadoop.metrics2.MetricsCollector;
 import org.apache.hadoop.metrics2.MetricsInfo;
+import org.apache.hadoop.metrics2.MetricsRecordBuilder;
 import org.apache.hadoop.metrics2.MetricsSource;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
 import org.apache.hadoop.ozone.common.statemachine.InvalidStateTransitionException;
 import org.apache.hadoop.ozone.lock.LockManager;
 import org.apache.hadoop.ozone.protocol.commands.CloseContainerCommand;
@@ -74,8 +83,8 @@
 import org.apache.hadoop.util.Time;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.GeneratedMessage;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import static org.apache.hadoop.hdds.conf.ConfigTag.OZONE;
 import static org.apache.hadoop.hdds.conf.ConfigTag.SCM;
 
@@ -88,8 +97,20 @@
  * Replication Manager (RM) is the one which is responsible for making sure
  * that the containers are properly replicated. Replication Manager deals only
  * with Quasi Closed / Closed container.
+ *
+ * Containers are processed by a pool of worker threads, each processing the
+ * containers of one shard, where containers are assigned to shards by their
+ * ID. Containers of dead datanodes are processed before the other containers
+ * of their shard.
+ *
+ * All the containers are processed in full runs, which are done at a longer
+ * interval. Between full runs, only the containers which have changed since
+ * the last run, as reported by container report handlers and node state
+ * events, and the containers which still needed action in the last run are
+ * processed.
  */
-public class ReplicationManager implements MetricsSource, SCMService {
+public class ReplicationManager implements MetricsSource, SCMService,
+    EventHandler<DatanodeDetails> {
 
   public static final Logger LOG =
       LoggerFactory.getLogger(ReplicationManager.class);
@@ -156,6 +177,45 @@ public class ReplicationManager implements MetricsSource, SCMService {
    */
   private volatile boolean running;
 
+  /**
+   * Set if another run is requested while the ReplicationMonitor thread is
+   * processing the containers.
+   */
+  private boolean runRequested;
+  private boolean fullRunRequested;
+  private long lastFullRunTime;
+
+  /**
+   * Containers which should be processed in the next run, even if it is not
+   * a full run.
+   */
+  private final Set<ContainerID> dirtyContainers =
+      ConcurrentHashMap.newKeySet();
+  private final ContainerChangeHandler containerChangeHandler =
+      new ContainerChangeHandler();
+  private final NodeChangeHandler nodeChangeHandler = new NodeChangeHandler();
+
+  /**
+   * Worker threads processing the container shards, null if the containers
+   * are processed by the ReplicationMonitor thread.
+   */
+  private final ThreadPoolExecutor workers;
+
+  /**
+   * Containers which should be processed first in the next run, for
+   * example the containers of dead datanodes.
+   */
+  private final Set<ContainerID> priorityContainers =
+      ConcurrentHashMap.newKeySet();
+
+  /**
+   * Number of containers processed by each shard in the current run.
+   */
+  private final AtomicLongArray shardProgress;
+  private volatile long lastRunDuration;
+  private volatile long lastRunContainerCount;
+  private volatile boolean lastRunFull;
+
   /**
    * Minimum number of replica in a healthy state for maintenance.
    */
@@ -199,6 +259,19 @@ public ReplicationManager(final ConfigurationSource conf,
     this.inflightReplication = new ConcurrentHashMap<>();
     this.inflightDeletion = new ConcurrentHashMap<>();
     this.minHealthyForMaintenance = rmConf.getMaintenanceReplicaMinimum();
+    this.shardProgress = new AtomicLongArray(rmConf.getWorkerThreads());
+    if (rmConf.getWorkerThreads() > 1) {
+      // Worker threads are stopped while the ReplicationMonitor thread is
+      // idle.
+      this.workers = new ThreadPoolExecutor(rmConf.getWorkerThreads(),
+          rmConf.getWorkerThreads(), 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+              .setNameFormat("ReplicationManagerWorker-%d")
+              .setDaemon(true).build());
+      this.workers.allowCoreThreadTimeOut(true);
+    } else {
+      this.workers = null;
+    }
 
     this.waitTimeInMillis = conf.getTimeDuration(
         HddsConfigKeys.HDDS_SCM_WAIT_TIME_AFTER_SAFE_MODE_EXIT,
@@ -252,13 +325,56 @@ public boolean isRunning() {
   /**
    * Process all the containers immediately.
    */
-  @VisibleForTesting
-  @SuppressFBWarnings(value="NN_NAKED_NOTIFY",
-      justification="Used only for testing")
   public synchronized void processContainersNow() {
+    fullRunRequested = true;
+    notifyAll();
+  }
+
+  /**
+   * Process the changed containers immediately.
+   */
+  private synchronized void processChangedContainersNow() {
+    runRequested = true;
     notifyAll();
   }
 
+  /**
+   * Returns the handler which marks the containers of the event to be
+   * processed in the next run.
+   */
+  public EventHandler<ContainerID> getContainerChangeHandler() {
+    return containerChangeHandler;
+  }
+
+  /**
+   * Returns the handler which marks the containers of the datanode of the
+   * event to be processed in the next run.
+   */
+  public EventHandler<DatanodeDetails> getNodeChangeHandler() {
+    return nodeChangeHandler;
+  }
+
+  /**
+   * Processes the containers of the dead datanode before the other
+   * containers, as they are likely under replicated.
+   *
+   * @param datanode DatanodeDetails of the dead datanode
+   * @param publisher EventPublisher
+   */
+  @Override
+  public void onMessage(DatanodeDetails datanode, EventPublisher publisher) {
+    try {
+      Set<ContainerID> containers = nodeManager.getContainers(datanode);
+      LOG.info("Processing {} containers of dead datanode {} first.",
+          containers.size(), datanode);
+      priorityContainers.addAll(containers);
+      dirtyContainers.addAll(containers);
+      processChangedContainersNow();
+    } catch (NodeNotFoundException e) {
+      LOG.warn("Dead datanode {} is not found.", datanode, e);
+    }
+  }
+
   /**
    * Stops Replication Monitor thread.
    */
@@ -277,21 +393,43 @@ public synchronized void stop() {
 
   /**
    * ReplicationMonitor thread runnable. This wakes up at configured
-   * interval and processes all the containers in the system.
+   * interval and processes the changed containers, or all the containers in
+   * the system if the full run interval has elapsed.
    */
-  private synchronized void run() {
+  private void run() {
     try {
       while (running) {
         final long start = Time.monotonicNow();
-        final List<ContainerInfo> containers =
-            containerManager.getContainers();
-        containers.forEach(this::processContainer);
+        final boolean fullRun;
+        synchronized (this) {
+          fullRun = fullRunRequested || lastFullRunTime == 0 ||
+              start - lastFullRunTime >= rmConf.getFullInterval();
+          fullRunRequested = false;
+          runRequested = false;
+        }
 
+        final List<ContainerInfo> containers;
+        if (fullRun) {
+          lastFullRunTime = start;
+          dirtyContainers.clear();
+          containers = containerManager.getContainers();
+        } else {
+          containers = getDirtyContainers();
+        }
+        processContainers(containers);
+
+        lastRunDuration = Time.monotonicNow() - start;
+        lastRunContainerCount = containers.size();
+        lastRunFull = fullRun;
         LOG.info("Replication Monitor Thread took {} milliseconds for" +
-                " processing {} containers.", Time.monotonicNow() - start,
-            containers.size());
+                " processing {} containers in {} run.", lastRunDuration,
+            containers.size(), fullRun ? "full" : "incremental");
 
-        wait(rmConf.getInterval());
+        synchronized (this) {
+          if (running && !fullRunRequested && !runRequested) {
+            wait(rmConf.getInterval());
+          }
+        }
       }
     } catch (Throwable t) {
       // When we get runtime exception, we should terminate SCM.
@@ -300,14 +438,86 @@ private synchronized void run() {
     }
   }
 
+  /**
+   * Processes the given containers in shards, priority containers first.
+   *
+   * @param containers containers to process
+   */
+  private void processContainers(List<ContainerInfo> containers)
+      throws InterruptedException, ExecutionException {
+    final int shardCount = shardProgress.length();
+    final List<List<ContainerInfo>> shards = new ArrayList<>(shardCount);
+    for (int i = 0; i < shardCount; i++) {
+      shards.add(new ArrayList<>(containers.size() / shardCount + 1));
+      shardProgress.set(i, 0);
+    }
+
+    final Set<ContainerID> priority = new HashSet<>(priorityContainers);
+    priorityContainers.removeAll(priority);
+    if (!priority.isEmpty()) {
+      containers.stream()
+          .filter(c -> priority.contains(c.containerID()))
+          .forEach(c -> shards.get(getShard(c, shardCount)).add(c));
+    }
+    containers.stream()
+        .filter(c -> priority.isEmpty() || !priority.contains(c.containerID()))
+        .forEach(c -> shards.get(getShard(c, shardCount)).add(c));
+
+    if (workers == null) {
+      processShard(0, shards.get(0));
+      return;
+    }
+    final List<Future<?>> futures = new ArrayList<>(shardCount);
+    for (int i = 0; i < shardCount; i++) {
+      final int shard = i;
+      futures.add(workers.submit(() -> processShard(shard, shards.get(shard))));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  /**
+   * Removes and returns the containers marked to be processed in the next
+   * run.
+   */
+  private List<ContainerInfo> getDirtyContainers() {
+    final List<ContainerID> ids = new ArrayList<>(dirtyContainers);
+    dirtyContainers.removeAll(ids);
+    final List<ContainerInfo> containers = new ArrayList<>(ids.size());
+    for (ContainerID id : ids) {
+      try {
+        containers.add(containerManager.getContainer(id));
+      } catch (ContainerNotFoundException e) {
+        LOG.debug("Container {} is removed, skipping.", id);
+      }
+    }
+    return containers;
+  }
+
+  private static int getShard(ContainerInfo container, int shardCount) {
+    return (int) (container.getContainerID() % shardCount);
+  }
+
+  private void processShard(int shard, List<ContainerInfo> containers) {
+    for (ContainerInfo container : containers) {
+      if (processContainer(container)) {
+        // Container still needs action, check it again in the next run.
+        dirtyContainers.add(container.containerID());
+      }
+      shardProgress.incrementAndGet(shard);
+    }
+  }
+
   /**
    * Process the given container.
    *
    * @param container ContainerInfo
+   * @return true if the container may need further action
    */
-  private void processContainer(ContainerInfo container) {
+  private boolean processContainer(ContainerInfo container) {
     if (!shouldRun()) {
-      return;
+      return true;
     }
 
     final ContainerID id = container.containerID();
@@ -325,8 +535,9 @@ private void processContainer(ContainerInfo container) {
       if (state == LifeCycleState.OPEN) {
         if (!isOpenContainerHealthy(container, replicas)) {
           eventPublisher.fireEvent(SCMEvents.CLOSE_CONTAINER, id);
+          return true;
         }
-        return;
+        return false;
       }
 
       /*
@@ -337,7 +548,7 @@ private void processContainer(ContainerInfo container) {
       if (state == LifeCycleState.CLOSING) {
         replicas.forEach(replica -> sendCloseCommand(
             container, replica.getDatanodeDetails(), false));
-        return;
+        return true;
       }
 
       /*
@@ -347,7 +558,7 @@ private void processContainer(ContainerInfo container) {
       if (state == LifeCycleState.QUASI_CLOSED &&
           canForceCloseContainer(container, replicas)) {
         forceCloseContainer(container, replicas);
-        return;
+        return true;
       }
 
       /*
@@ -372,7 +583,7 @@ private void processContainer(ContainerInfo container) {
        */
       if (state == LifeCycleState.DELETING) {
         handleContainerUnderDelete(container, replicas);
-        return;
+        return true;
       }
 
       /**
@@ -380,7 +591,7 @@ private void processContainer(ContainerInfo container) {
        * it will be removed from SCM.
        */
       if (state == LifeCycleState.DELETED) {
-        return;
+        return false;
       }
 
       ContainerReplicaCount replicaSet =
@@ -400,7 +611,7 @@ private void processContainer(ContainerInfo container) {
          *  If container is empty, schedule task to delete the container.
          */
         deleteContainerReplicas(container, replicas);
-        return;
+        return true;
       }
 
       /*
@@ -410,7 +621,7 @@ private void processContainer(ContainerInfo container) {
       if (!replicaSet.isSufficientlyReplicated()
           || !placementStatus.isPolicySatisfied()) {
         handleUnderReplicatedContainer(container, replicaSet, placementStatus);
-        return;
+        return true;
       }
 
       /*
@@ -419,7 +630,7 @@ private void processContainer(ContainerInfo container) {
        */
       if (replicaSet.isOverReplicated()) {
         handleOverReplicatedContainer(container, replicaSet);
-        return;
+        return true;
       }
 
       /*
@@ -429,12 +640,16 @@ private void processContainer(ContainerInfo container) {
        */
       if (!replicaSet.isHealthy()) {
         handleUnstableContainer(container, replicas);
+        return true;
       }
+      return false;
 
     } catch (ContainerNotFoundException ex) {
       LOG.warn("Missing container {}.", id);
+      return false;
     } catch (Exception ex) {
       LOG.warn("Process container {} error: ", id, ex);
+      return true;
     } finally {
       lockManager.writeUnlock(id);
     }
@@ -1145,12 +1360,74 @@ private boolean isOpenContainerHealthy(
 
   @Override
   public void getMetrics(MetricsCollector collector, boolean all) {
-    collector.addRecord(ReplicationManager.class.getSimpleName())
+    MetricsRecordBuilder builder =
+        collector.addRecord(ReplicationManager.class.getSimpleName())
         .addGauge(ReplicationManagerMetrics.INFLIGHT_REPLICATION,
             inflightReplication.size())
         .addGauge(ReplicationManagerMetrics.INFLIGHT_DELETION,
             inflightDeletion.size())
-        .endRecord();
+        .addGauge(ReplicationManagerMetrics.LAST_RUN_DURATION,
+            lastRunDuration)
+        .addGauge(ReplicationManagerMetrics.LAST_RUN_CONTAINERS,
+            lastRunContainerCount)
+        .addGauge(ReplicationManagerMetrics.PRIORITY_CONTAINERS,
+            priorityContainers.size())
+        .addGauge(ReplicationManagerMetrics.DIRTY_CONTAINERS,
+            dirtyContainers.size());
+    for (int i = 0; i < shardProgress.length(); i++) {
+      builder.addGauge(Interns.info("Shard" + i + "ProcessedContainers",
+          "Containers processed by shard " + i + " in the current run."),
+          shardProgress.get(i));
+    }
+    builder.endRecord();
+  }
+
+  @VisibleForTesting
+  boolean isLastRunFull() {
+    return lastRunFull;
+  }
+
+  @VisibleForTesting
+  int getShardCount() {
+    return shardProgress.length();
+  }
+
+  @VisibleForTesting
+  long getShardProgress(int shard) {
+    return shardProgress.get(shard);
+  }
+
+  @VisibleForTesting
+  long getLastRunContainerCount() {
+    return lastRunContainerCount;
+  }
+
+  /**
+   * Marks the changed container to be processed in the next run.
+   */
+  private final class ContainerChangeHandler
+      implements EventHandler<ContainerID> {
+    @Override
+    public void onMessage(ContainerID id, EventPublisher publisher) {
+      dirtyContainers.add(id);
+    }
+  }
+
+  /**
+   * Marks the containers of a datanode, whose state has changed, to be
+   * processed in the next run.
+   */
+  private final class NodeChangeHandler
+      implements EventHandler<DatanodeDetails> {
+    @Override
+    public void onMessage(DatanodeDetails datanode,
+        EventPublisher publisher) {
+      try {
+        dirtyContainers.addAll(nodeManager.getContainers(datanode));
+      } catch (NodeNotFoundException e) {
+        LOG.warn("Datanode {} is not found.", datanode, e);
+      }
+    }
   }
 
   /**
@@ -1226,6 +1503,64 @@ public void setMaintenanceReplicaMinimum(int replicaCount) {
       this.maintenanceReplicaMinimum = replicaCount;
     }
 
+    /**
+     * The frequency in which ReplicationMonitor thread should process all the
+     * containers.
+     */
+    @Config(key = "full.interval",
+        type = ConfigType.TIME,
+        defaultValue = "60m",
+        tags = {SCM, OZONE},
+        description = "Interval of processing all the containers by the " +
+            "replication monitor thread. In between, at the interval set by " +
+            "hdds.scm.replication.thread.interval, only the containers " +
+            "changed since the last run, and the containers which still " +
+            "needed action in the last run are processed. If this is not " +
+            "greater than hdds.scm.replication.thread.interval, all the " +
+            "containers are processed in every run."
+    )
+    private long fullInterval = Duration.ofMinutes(60).toMillis();
+
+    public void setFullInterval(Duration fullInterval) {
+      this.fullInterval = fullInterval.toMillis();
+    }
+
+    public long getFullInterval() {
+      return fullInterval;
+    }
+
+    /**
+     * The number of threads processing the containers.
+     */
+    @Config(key = "worker.threads",
+        type = ConfigType.INT,
+        defaultValue = "4",
+        tags = {SCM, OZONE},
+        description = "Number of threads used by the replication monitor " +
+            "to process the containers. Containers are split to this many " +
+            "shards by container ID, and each shard is processed by one " +
+            "thread. If set to 1, the containers are processed by the " +
+            "replication monitor thread itself."
+    )
+    private int workerThreads = 4;
+
+    public void setWorkerThreads(int workerThreads) {
+      this.workerThreads = workerThreads;
+    }
+
+    public int getWorkerThreads() {
+      return workerThreads;
+    }
+
+    @PostConstruct
+    public void validate() {
+      if (workerThreads < 1) {
+        LOG.warn("hdds.scm.replication.worker.threads must be at least 1, " +
+            "but was set to {}. Defaulting to 1.", workerThreads);
+        workerThreads = 1;
+      }
+    }
+
     public long getInterval() {
       return interval;
     }
@@ -1245,7 +1580,15 @@ public int getMaintenanceReplicaMinimum() {
   public enum ReplicationManagerMetrics implements MetricsInfo {
 
     INFLIGHT_REPLICATION("Tracked inflight container replication requests."),
-    INFLIGHT_DELETION("Tracked inflight container deletion requests.");
+    INFLIGHT_DELETION("Tracked inflight container deletion requests."),
+    LAST_RUN_DURATION("Time taken by the last run of the replication " +
+        "monitor in milliseconds."),
+    LAST_RUN_CONTAINERS("Number of containers processed in the last run of " +
+        "the replication monitor."),
+    PRIORITY_CONTAINERS("Containers waiting to be processed first in the " +
+        "next run of the replication monitor."),
+    DIRTY_CONTAINERS("Containers waiting to be processed in the next run " +
+        "of the replication monitor.");
 
     private final String desc;
 
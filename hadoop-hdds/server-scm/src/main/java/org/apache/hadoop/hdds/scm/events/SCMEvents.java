@@ -140,6 +140,15 @@ public final class SCMEvents {
   public static final TypedEvent<ContainerID> CLOSE_CONTAINER =
       new TypedEvent<>(ContainerID.class, "Close_Container");
 
+  /**
+   * This event will be triggered by container report handlers whenever a
+   * replica of a container is added, removed or changes state, or the state
+   * of the container is changed based on the reported replicas.
+   * ReplicationManager processes these containers in its next run.
+   */
+  public static final TypedEvent<ContainerID> CONTAINER_REPLICAS_CHANGED =
+      new TypedEvent<>(ContainerID.class, "Container_Replicas_Changed");
+
   /**
    * This event will be triggered whenever a new datanode is registered with
    * SCM.
@@ -161,6 +170,14 @@ public final class SCMEvents {
   public static final TypedEvent<DatanodeDetails> DEAD_NODE =
       new TypedEvent<>(DatanodeDetails.class, "Dead_Node");
 
+  /**
+   * This event will be triggered by DeadNodeHandler after the replicas on a
+   * dead datanode are removed. ReplicationManager processes the containers
+   * of the datanode before other containers in its next run.
+   */
+  public static final TypedEvent<DatanodeDetails> DEAD_NODE_REPLICAS_REMOVED =
+      new TypedEvent<>(DatanodeDetails.class, "Dead_Node_Replicas_Removed");
+
   /**
    * This event will be triggered whenever a datanode is moved into maintenance.
    */
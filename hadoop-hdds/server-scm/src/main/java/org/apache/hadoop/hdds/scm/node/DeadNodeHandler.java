@@ -37,6 +37,7 @@
 import org.slf4j.LoggerFactory;
 
 import static org.apache.hadoop.hdds.scm.events.SCMEvents.CLOSE_CONTAINER;
+import static org.apache.hadoop.hdds.scm.events.SCMEvents.DEAD_NODE_REPLICAS_REMOVED;
 
 /**
  * Handles Dead Node event.
@@ -79,9 +80,11 @@ public void onMessage(final DatanodeDetails datanodeDetails,
       closeContainers(datanodeDetails, publisher);
 
       // Remove the container replicas associated with the dead node unless it
-      // is IN_MAINTENANCE
+      // is IN_MAINTENANCE, and let ReplicationManager know that the containers
+      // of the node are likely under replicated now.
       if (!nodeManager.getNodeStatus(datanodeDetails).isInMaintenance()) {
         removeContainerReplicas(datanodeDetails);
+        publisher.fireEvent(DEAD_NODE_REPLICAS_REMOVED, datanodeDetails);
       }
 
     } catch (NodeNotFoundException ex) {
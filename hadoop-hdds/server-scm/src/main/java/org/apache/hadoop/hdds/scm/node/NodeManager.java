@@ -202,6 +202,16 @@ void setNodeOperationalState(DatanodeDetails datanodeDetails,
   void addContainer(DatanodeDetails datanodeDetails,
                     ContainerID containerId) throws NodeNotFoundException;
 
+  /**
+   * Removes the given container from the specified datanode.
+   *
+   * @param datanodeDetails - DatanodeDetails
+   * @param containerId - containerID
+   * @throws NodeNotFoundException - if datanode is not known.
+   */
+  void removeContainer(DatanodeDetails datanodeDetails,
+                       ContainerID containerId) throws NodeNotFoundException;
+
   /**
    * Remaps datanode to containers mapping to the new set of containers.
    * @param datanodeDetails - DatanodeDetails
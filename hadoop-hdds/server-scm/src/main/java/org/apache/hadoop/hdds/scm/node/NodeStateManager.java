@@ -519,6 +519,19 @@ public void addContainer(final UUID uuid,
     nodeStateMap.addContainer(uuid, containerId);
   }
 
+  /**
+   * Removes the given container from the specified datanode.
+   *
+   * @param uuid - datanode uuid
+   * @param containerId - containerID
+   * @throws NodeNotFoundException - if datanode is not known.
+   */
+  public void removeContainer(final UUID uuid,
+                              final ContainerID containerId)
+      throws NodeNotFoundException {
+    nodeStateMap.removeContainer(uuid, containerId);
+  }
+
   /**
    * Update set of containers available on a datanode.
    * @param uuid - DatanodeID
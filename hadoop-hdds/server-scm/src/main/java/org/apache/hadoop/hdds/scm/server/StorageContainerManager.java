@@ -43,6 +43,7 @@
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.conf.Configuration;
@@ -118,8 +119,12 @@
 import org.apache.hadoop.hdds.security.x509.certificate.authority.CertificateServer;
 import org.apache.hadoop.hdds.security.x509.certificate.authority.DefaultCAServer;
 import org.apache.hadoop.hdds.server.ServiceRuntimeInfoImpl;
+import org.apache.hadoop.hdds.scm.server.SCMDatanodeHeartbeatDispatcher.ReportFromDatanode;
+import org.apache.hadoop.hdds.server.events.Event;
+import org.apache.hadoop.hdds.server.events.EventHandler;
 import org.apache.hadoop.hdds.server.events.EventPublisher;
 import org.apache.hadoop.hdds.server.events.EventQueue;
+import org.apache.hadoop.hdds.server.events.FixedThreadPoolWithAffinityExecutor;
 import org.apache.hadoop.hdds.utils.HddsVersionInfo;
 import org.apache.hadoop.hdds.utils.LegacyHadoopConfigurationSource;
 import org.apache.hadoop.io.IOUtils;
@@ -379,10 +384,13 @@ private StorageContainerManager(OzoneConfiguration conf,
     clientProtocolServer = new SCMClientProtocolServer(conf, this);
     eventQueue.addHandler(SCMEvents.DATANODE_COMMAND, scmNodeManager);
     eventQueue.addHandler(SCMEvents.RETRIABLE_DATANODE_COMMAND, scmNodeManager);
-    eventQueue.addHandler(SCMEvents.NODE_REPORT, nodeReportHandler);
-    eventQueue.addHandler(SCMEvents.CONTAINER_REPORT, containerReportHandler);
-    eventQueue.addHandler(SCMEvents.INCREMENTAL_CONTAINER_REPORT,
-        incrementalContainerReportHandler);
+    addReportHandler(SCMEvents.NODE_REPORT, nodeReportHandler,
+        report -> true);
+    // Delta container reports depend on the earlier reports.
+    addReportHandler(SCMEvents.CONTAINER_REPORT, containerReportHandler,
+        report -> !report.getReport().getDelta());
+    addReportHandler(SCMEvents.INCREMENTAL_CONTAINER_REPORT,
+        incrementalContainerReportHandler, null);
     eventQueue.addHandler(SCMEvents.CONTAINER_ACTIONS, actionsHandler);
     eventQueue.addHandler(SCMEvents.CLOSE_CONTAINER, closeContainerHandler);
     eventQueue.addHandler(SCMEvents.NEW_NODE, newNodeHandler);
@@ -390,6 +398,16 @@ private StorageContainerManager(OzoneConfiguration conf,
     eventQueue.addHandler(SCMEvents.NON_HEALTHY_TO_HEALTHY_NODE,
         nonHealthyToHealthyNodeHandler);
     eventQueue.addHandler(SCMEvents.DEAD_NODE, deadNodeHandler);
+    eventQueue.addHandler(SCMEvents.DEAD_NODE_REPLICAS_REMOVED,
+        replicationManager);
+    eventQueue.addHandler(SCMEvents.CONTAINER_REPLICAS_CHANGED,
+        replicationManager.getContainerChangeHandler());
+    eventQueue.addHandler(SCMEvents.STALE_NODE,
+        replicationManager.getNodeChangeHandler());
+    eventQueue.addHandler(SCMEvents.NON_HEALTHY_TO_HEALTHY_NODE,
+        replicationManager.getNodeChangeHandler());
+    eventQueue.addHandler(SCMEvents.START_ADMIN_ON_NODE,
+        replicationManager.getNodeChangeHandler());
     eventQueue.addHandler(SCMEvents.START_ADMIN_ON_NODE,
         datanodeStartAdminHandler);
     eventQueue.addHandler(SCMEvents.CMD_STATUS_REPORT, cmdStatusReportHandler);
@@ -398,7 +416,8 @@ private StorageContainerManager(OzoneConfiguration conf,
     eventQueue.addHandler(SCMEvents.DELETE_BLOCK_STATUS,
         (DeletedBlockLogImplV2) scmBlockManager.getDeletedBlockLog());
     eventQueue.addHandler(SCMEvents.PIPELINE_ACTIONS, pipelineActionHandler);
-    eventQueue.addHandler(SCMEvents.PIPELINE_REPORT, pipelineReportHandler);
+    addReportHandler(SCMEvents.PIPELINE_REPORT, pipelineReportHandler,
+        report -> true);
 
     // Emit initial safe mode status, as now handlers are registered.
     scmSafeModeManager.emitSafeModeStatus();
@@ -407,6 +426,29 @@ private StorageContainerManager(OzoneConfiguration conf,
     registerMetricsSource(this);
   }
 
+  /**
+   * Adds the handler of datanode reports with an executor which processes
+   * the reports of different datanodes in parallel.
+   * @param replaceQueued returns true for full reports, which replace the
+   *                      queued report of the same datanode, or null if
+   *                      reports are never replaced.
+   */
+  private <P extends ReportFromDatanode<?>> void addReportHandler(
+      Event<P> event, EventHandler<P> handler, Predicate<P> replaceQueued) {
+    FixedThreadPoolWithAffinityExecutor<P> executor =
+        new FixedThreadPoolWithAffinityExecutor<>(
+            EventQueue.getExecutorName(event, handler),
+            configuration.getInt(
+                ScmConfigKeys.OZONE_SCM_EVENT_REPORT_EXEC_THREADS,
+                ScmConfigKeys.OZONE_SCM_EVENT_REPORT_EXEC_THREADS_DEFAULT),
+            configuration.getInt(
+                ScmConfigKeys.OZONE_SCM_EVENT_REPORT_QUEUE_SIZE,
+                ScmConfigKeys.OZONE_SCM_EVENT_REPORT_QUEUE_SIZE_DEFAULT),
+            report -> report.getDatanodeDetails().getUuid(),
+            replaceQueued);
+    eventQueue.addHandler(event, executor, handler);
+  }
+
   private void initializeCertificateClient() {
     if (scmStorageConfig.checkPrimarySCMIdInitialized()) {
       scmCertificateClient = new SCMCertificateClient(
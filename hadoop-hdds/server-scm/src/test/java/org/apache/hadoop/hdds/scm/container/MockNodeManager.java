@@ -54,6 +54,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -390,7 +391,8 @@ public void addContainer(DatanodeDetails dd,
                            ContainerID containerId)
       throws NodeNotFoundException {
     try {
-      Set<ContainerID> set = node2ContainerMap.getContainers(dd.getUuid());
+      Set<ContainerID> set =
+          new HashSet<>(node2ContainerMap.getContainers(dd.getUuid()));
       set.add(containerId);
       node2ContainerMap.setContainersForDatanode(dd.getUuid(), set);
     } catch (SCMException e) {
@@ -398,6 +400,20 @@ public void addContainer(DatanodeDetails dd,
     }
   }
 
+  @Override
+  public void removeContainer(DatanodeDetails dd,
+                              ContainerID containerId)
+      throws NodeNotFoundException {
+    try {
+      Set<ContainerID> set =
+          new HashSet<>(node2ContainerMap.getContainers(dd.getUuid()));
+      set.remove(containerId);
+      node2ContainerMap.setContainersForDatanode(dd.getUuid(), set);
+    } catch (SCMException e) {
+      e.printStackTrace();
+    }
+  }
+
   @Override
   public void addDatanodeCommand(UUID dnId, SCMCommand command) {
     if(commandMap.containsKey(dnId)) {
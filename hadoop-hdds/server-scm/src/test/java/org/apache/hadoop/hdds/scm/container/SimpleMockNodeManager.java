@@ -244,6 +244,11 @@ public void addContainer(DatanodeDetails datanodeDetails,
       ContainerID containerId) throws NodeNotFoundException {
   }
 
+  @Override
+  public void removeContainer(DatanodeDetails datanodeDetails,
+      ContainerID containerId) throws NodeNotFoundException {
+  }
+
 
 
   @Override
@@ -40,6 +40,7 @@
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -177,6 +178,62 @@ public void testUnderReplicatedContainer()
 
   }
 
+  @Test
+  public void testDeltaContainerReport()
+      throws NodeNotFoundException, ContainerNotFoundException, SCMException {
+
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final Iterator<DatanodeDetails> nodeIterator = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator();
+    final DatanodeDetails datanodeOne = nodeIterator.next();
+    final DatanodeDetails datanodeTwo = nodeIterator.next();
+
+    final ContainerInfo containerOne = getContainer(LifeCycleState.CLOSED);
+    final ContainerInfo containerTwo = getContainer(LifeCycleState.CLOSED);
+    final ContainerInfo containerThree = getContainer(LifeCycleState.CLOSED);
+    final Set<ContainerID> containerIDSet = Stream.of(
+        containerOne.containerID(), containerTwo.containerID())
+        .collect(Collectors.toSet());
+
+    nodeManager.setContainers(datanodeOne, containerIDSet);
+    nodeManager.setContainers(datanodeTwo, containerIDSet);
+
+    containerStateManager.loadContainer(containerOne);
+    containerStateManager.loadContainer(containerTwo);
+    containerStateManager.loadContainer(containerThree);
+
+    for (ContainerInfo container : Arrays.asList(containerOne, containerTwo)) {
+      for (ContainerReplica replica : getReplicas(container.containerID(),
+          ContainerReplicaProto.State.CLOSED, datanodeOne, datanodeTwo)) {
+        containerStateManager.updateContainerReplica(
+            container.containerID(), replica);
+      }
+    }
+
+    // datanodeOne sends a delta report, in which containerThree is added
+    // and containerOne is removed, while containerTwo is unchanged.
+    final ContainerReportsProto containerReport = getContainerReportsProto(
+        containerThree.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne.getUuidString()).toBuilder()
+        .setDelta(true)
+        .addRemovedContainerIDs(containerOne.getContainerID())
+        .build();
+    reportHandler.onMessage(
+        new ContainerReportFromDatanode(datanodeOne, containerReport),
+        publisher);
+
+    Assert.assertEquals(1, containerManager.getContainerReplicas(
+        containerOne.containerID()).size());
+    Assert.assertEquals(2, containerManager.getContainerReplicas(
+        containerTwo.containerID()).size());
+    Assert.assertEquals(1, containerManager.getContainerReplicas(
+        containerThree.containerID()).size());
+    Assert.assertEquals(Stream.of(containerTwo.containerID(),
+        containerThree.containerID()).collect(Collectors.toSet()),
+        nodeManager.getContainers(datanodeOne));
+  }
+
   @Test
   public void testOverReplicatedContainer() throws NodeNotFoundException,
       SCMException, ContainerNotFoundException {
@@ -52,7 +52,9 @@
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -1099,6 +1101,99 @@ public void testUnderReplicatedNotHealthySource()
     assertReplicaScheduled(0);
   }
 
+  /**
+   * Containers are split into shards, which are processed in parallel.
+   */
+  @Test
+  public void testContainersAreProcessedInShards()
+      throws SCMException, ContainerNotFoundException, InterruptedException,
+      TimeoutException {
+    final int containerCount = 20;
+    for (int i = 0; i < containerCount; i++) {
+      final ContainerInfo container = createContainer(LifeCycleState.CLOSED);
+      addReplica(container, NodeStatus.inServiceHealthy(), CLOSED);
+      addReplica(container, NodeStatus.inServiceHealthy(), CLOSED);
+    }
+    assertReplicaScheduled(containerCount);
+    // Commands are sent before the run completes.
+    GenericTestUtils.waitFor(() ->
+        replicationManager.getLastRunContainerCount() == containerCount,
+        10, 10000);
+
+    long processed = 0;
+    for (int i = 0; i < replicationManager.getShardCount(); i++) {
+      processed += replicationManager.getShardProgress(i);
+    }
+    Assert.assertEquals(containerCount, processed);
+  }
+
+  /**
+   * Containers of a dead datanode are processed without waiting for the
+   * next interval.
+   */
+  @Test
+  public void testDeadNodeContainersAreProcessed()
+      throws SCMException, ContainerNotFoundException, InterruptedException,
+      NodeNotFoundException {
+    final ContainerInfo container = createContainer(LifeCycleState.CLOSED);
+    addReplica(container, NodeStatus.inServiceHealthy(), CLOSED);
+    addReplica(container, NodeStatus.inServiceHealthy(), CLOSED);
+    final DatanodeDetails deadNode = randomDatanodeDetails();
+    nodeManager.register(deadNode, NodeStatus.inServiceDead());
+    nodeManager.setContainers(deadNode,
+        Collections.singleton(container.containerID()));
+
+    final int currentReplicateCommandCount = datanodeCommandHandler
+        .getInvocationCount(SCMCommandProto.Type.replicateContainerCommand);
+    eventQueue.addHandler(SCMEvents.DEAD_NODE_REPLICAS_REMOVED,
+        replicationManager);
+    eventQueue.fireEvent(SCMEvents.DEAD_NODE_REPLICAS_REMOVED, deadNode);
+    eventQueue.processAll(1000L);
+    // Wait for EventQueue to call the event handler
+    Thread.sleep(100L);
+    Assert.assertEquals(currentReplicateCommandCount + 1,
+        datanodeCommandHandler.getInvocationCount(
+            SCMCommandProto.Type.replicateContainerCommand));
+  }
+
+  /**
+   * Between full runs only the changed containers, and the containers which
+   * still need action are processed.
+   */
+  @Test
+  public void testOnlyChangedContainersAreProcessedBetweenFullRuns()
+      throws SCMException, ContainerNotFoundException, InterruptedException,
+      TimeoutException {
+    final ContainerInfo underReplicated =
+        createContainer(LifeCycleState.CLOSED);
+    addReplica(underReplicated, NodeStatus.inServiceHealthy(), CLOSED);
+    addReplica(underReplicated, NodeStatus.inServiceHealthy(), CLOSED);
+    final ContainerInfo healthy = createContainer(LifeCycleState.CLOSED);
+    addReplica(healthy, NodeStatus.inServiceHealthy(), CLOSED);
+    addReplica(healthy, NodeStatus.inServiceHealthy(), CLOSED);
+    addReplica(healthy, NodeStatus.inServiceHealthy(), CLOSED);
+
+    final ReplicationManagerConfiguration rmConf =
+        new ReplicationManagerConfiguration();
+    rmConf.setInterval(Duration.ofMillis(100));
+    rmConf.setFullInterval(Duration.ofHours(1));
+    replicationManager.stop();
+    createReplicationManager(rmConf);
+
+    // The under replicated container waits for the new replica, so it is
+    // processed in every run.
+    GenericTestUtils.waitFor(() -> !replicationManager.isLastRunFull() &&
+        replicationManager.getLastRunContainerCount() == 1, 10, 10000);
+
+    replicationManager.getContainerChangeHandler()
+        .onMessage(healthy.containerID(), eventQueue);
+    GenericTestUtils.waitFor(() ->
+        replicationManager.getLastRunContainerCount() == 2, 10, 10000);
+    GenericTestUtils.waitFor(() ->
+        replicationManager.getLastRunContainerCount() == 1, 10, 10000);
+    Assert.assertFalse(replicationManager.isLastRunFull());
+  }
+
   private ContainerInfo createContainer(LifeCycleState containerState)
       throws SCMException {
     final ContainerInfo container = getContainer(containerState);
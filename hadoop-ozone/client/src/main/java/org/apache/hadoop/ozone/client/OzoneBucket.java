@@ -33,6 +33,7 @@
 import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
@@ -544,7 +545,25 @@ public Iterator<? extends OzoneKey> listKeys(String keyPrefix)
    */
   public Iterator<? extends OzoneKey> listKeys(String keyPrefix,
       String prevKey) throws IOException {
-    return new KeyIterator(keyPrefix, prevKey);
+    return new KeyIterator(keyPrefix, prevKey, null);
+  }
+
+  /**
+   * Returns Iterator to iterate over the keys after prevKey in the bucket,
+   * grouping keys by the delimiter like S3 ListObjects does. Keys whose name
+   * contains the delimiter after keyPrefix are returned as a single entry per
+   * common prefix, which has the common prefix, including the delimiter, as
+   * name and no data. Ozone Manager skips the keys below a common prefix, so
+   * they are not transferred to the client.
+   *
+   * @param keyPrefix Bucket prefix to match
+   * @param prevKey Keys will be listed after this key name
+   * @param delimiter Delimiter to group keys by, keys are not grouped if null
+   * @return {@code Iterator<OzoneKey>}
+   */
+  public Iterator<? extends OzoneKey> listKeys(String keyPrefix,
+      String prevKey, String delimiter) throws IOException {
+    return new KeyIterator(keyPrefix, prevKey, delimiter);
   }
 
   /**
@@ -556,6 +575,18 @@ public void deleteKey(String key) throws IOException {
     proxy.deleteKey(volumeName, name, key);
   }
 
+  /**
+   * Deletes a directory from a bucket with the prefix metadata layout.
+   * @param key Name of the directory to be deleted.
+   * @param recursive whether the directory is deleted with its contents,
+   * otherwise only an empty directory is deleted.
+   * @throws IOException
+   */
+  public void deleteDirectory(String key, boolean recursive)
+      throws IOException {
+    proxy.deleteKey(volumeName, name, key, recursive);
+  }
+
   /**
    * Deletes the given list of keys from the bucket.
    * @param keyList List of the key name to be deleted.
@@ -576,6 +607,40 @@ public void renameKey(String fromKeyName, String toKeyName)
     proxy.renameKey(volumeName, name, fromKeyName, toKeyName);
   }
 
+  /**
+   * Copy a key to this bucket, without copying the data. The new key
+   * references the blocks of the source key.
+   * @param fromBucketName Bucket of the source key, in the same volume.
+   * @param fromKeyName Name of the source key.
+   * @param toKeyName Name of the new key.
+   * @param keyMetadata Custom metadata of the new key, if empty the metadata
+   *                    of the source key is copied.
+   * @throws IOException
+   */
+  public void copyKey(String fromBucketName, String fromKeyName,
+      String toKeyName, Map<String, String> keyMetadata) throws IOException {
+    proxy.copyKey(volumeName, fromBucketName, fromKeyName, name, toKeyName,
+        keyMetadata);
+  }
+
+  /**
+   * Copy a key as a part of a multipart upload in this bucket, without
+   * copying the data. The part references the blocks of the source key.
+   * @param fromBucketName Bucket of the source key, in the same volume.
+   * @param fromKeyName Name of the source key.
+   * @param key Name of the multipart upload key.
+   * @param partNumber Part number of the part.
+   * @param uploadID Upload ID of the multipart upload.
+   * @return OmMultipartCommitUploadPartInfo
+   * @throws IOException
+   */
+  public OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      String fromBucketName, String fromKeyName, String key, int partNumber,
+      String uploadID) throws IOException {
+    return proxy.copyMultipartUploadPart(volumeName, fromBucketName,
+        fromKeyName, name, key, partNumber, uploadID);
+  }
+
   /**
    * Rename the key by keyMap, The key is fromKeyName and value is toKeyName.
    * @param keyMap The key is original key name nad value is new key name.
@@ -771,6 +836,7 @@ public OzoneMultipartUploadList listMultipartUploads(String prefix)
   private class KeyIterator implements Iterator<OzoneKey> {
 
     private String keyPrefix = null;
+    private String delimiter = null;
     private Iterator<OzoneKey> currentIterator;
     private OzoneKey currentValue;
 
@@ -780,9 +846,12 @@ private class KeyIterator implements Iterator<OzoneKey> {
      * If prevKey is null it iterates from the first key in the bucket.
      * The returned keys match key prefix.
      * @param keyPrefix
+     * @param delimiter
      */
-    KeyIterator(String keyPrefix, String prevKey) throws IOException{
+    KeyIterator(String keyPrefix, String prevKey, String delimiter)
+        throws IOException{
       this.keyPrefix = keyPrefix;
+      this.delimiter = delimiter;
       this.currentValue = null;
       this.currentIterator = getNextListOfKeys(prevKey).iterator();
     }
@@ -817,7 +886,7 @@ public OzoneKey next() {
     private List<OzoneKey> getNextListOfKeys(String prevKey) throws
         IOException {
       return proxy.listKeys(volumeName, name, keyPrefix, prevKey,
-          listCacheSize);
+          delimiter, listCacheSize);
     }
   }
 }
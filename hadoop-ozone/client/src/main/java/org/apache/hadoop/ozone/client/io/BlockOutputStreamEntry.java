@@ -29,6 +29,7 @@
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.storage.BlockOutputStream;
 import org.apache.hadoop.hdds.scm.storage.BufferPool;
+import org.apache.hadoop.hdds.scm.storage.CommitWatchPool;
 import org.apache.hadoop.hdds.security.token.OzoneBlockTokenIdentifier;
 import org.apache.hadoop.security.token.Token;
 
@@ -52,6 +53,7 @@ public final class BlockOutputStreamEntry extends OutputStream {
   private final Token<OzoneBlockTokenIdentifier> token;
 
   private BufferPool bufferPool;
+  private final CommitWatchPool commitWatchPool;
 
   @SuppressWarnings({"parameternumber", "squid:S00107"})
   private BlockOutputStreamEntry(
@@ -61,7 +63,8 @@ private BlockOutputStreamEntry(
       long length,
       BufferPool bufferPool,
       Token<OzoneBlockTokenIdentifier> token,
-      OzoneClientConfig config
+      OzoneClientConfig config,
+      CommitWatchPool commitWatchPool
   ) {
     this.config = config;
     this.outputStream = null;
@@ -73,6 +76,7 @@ private BlockOutputStreamEntry(
     this.length = length;
     this.currentPosition = 0;
     this.bufferPool = bufferPool;
+    this.commitWatchPool = commitWatchPool;
   }
 
   long getLength() {
@@ -97,7 +101,7 @@ private void checkStream() throws IOException {
     if (this.outputStream == null) {
       this.outputStream =
           new BlockOutputStream(blockID, xceiverClientManager,
-              pipeline, bufferPool, config, token);
+              pipeline, bufferPool, config, token, commitWatchPool);
     }
   }
 
@@ -201,6 +205,7 @@ public static class Builder {
     private BufferPool bufferPool;
     private Token<OzoneBlockTokenIdentifier> token;
     private OzoneClientConfig config;
+    private CommitWatchPool commitWatchPool;
 
     public Builder setBlockID(BlockID bID) {
       this.blockID = bID;
@@ -246,6 +251,11 @@ public Builder setToken(Token<OzoneBlockTokenIdentifier> bToken) {
       return this;
     }
 
+    public Builder setCommitWatchPool(CommitWatchPool pool) {
+      this.commitWatchPool = pool;
+      return this;
+    }
+
     public BlockOutputStreamEntry build() {
       return new BlockOutputStreamEntry(blockID,
           key,
@@ -253,7 +263,7 @@ public BlockOutputStreamEntry build() {
           pipeline,
           length,
           bufferPool,
-          token, config);
+          token, config, commitWatchPool);
     }
   }
 
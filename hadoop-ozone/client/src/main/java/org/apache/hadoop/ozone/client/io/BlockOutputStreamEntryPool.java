@@ -31,6 +31,7 @@
 import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
 import org.apache.hadoop.hdds.scm.storage.BufferPool;
+import org.apache.hadoop.hdds.scm.storage.CommitWatchPool;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
@@ -60,6 +61,7 @@ public class BlockOutputStreamEntryPool {
   private final XceiverClientFactory xceiverClientFactory;
   private final String requestID;
   private final BufferPool bufferPool;
+  private final CommitWatchPool commitWatchPool;
   private OmMultipartCommitUploadPartInfo commitUploadPartInfo;
   private final long openID;
   private final ExcludeList excludeList;
@@ -73,7 +75,8 @@ public BlockOutputStreamEntryPool(
       String uploadID, int partNumber,
       boolean isMultipart, OmKeyInfo info,
       boolean unsafeByteBufferConversion,
-      XceiverClientFactory xceiverClientFactory, long openID
+      XceiverClientFactory xceiverClientFactory, long openID,
+      CommitWatchPool commitWatchPool
   ) {
     this.config = config;
     this.xceiverClientFactory = xceiverClientFactory;
@@ -88,6 +91,7 @@ public BlockOutputStreamEntryPool(
     this.requestID = requestId;
     this.openID = openID;
     this.excludeList = new ExcludeList();
+    this.commitWatchPool = commitWatchPool;
 
     this.bufferPool =
         new BufferPool(config.getStreamBufferSize(),
@@ -121,6 +125,7 @@ public BlockOutputStreamEntryPool(
     currentStreamIndex = 0;
     openID = -1;
     excludeList = new ExcludeList();
+    commitWatchPool = null;
   }
 
   /**
@@ -157,7 +162,8 @@ private void addKeyLocationInfo(OmKeyLocationInfo subKeyInfo) {
             .setConfig(config)
             .setLength(subKeyInfo.getLength())
             .setBufferPool(bufferPool)
-            .setToken(subKeyInfo.getToken());
+            .setToken(subKeyInfo.getToken())
+            .setCommitWatchPool(commitWatchPool);
     streamEntries.add(builder.build());
   }
 
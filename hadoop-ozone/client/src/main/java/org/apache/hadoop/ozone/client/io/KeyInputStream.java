@@ -25,6 +25,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -35,6 +36,7 @@
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.storage.BlockInputStream;
+import org.apache.hadoop.hdds.scm.storage.ReadAheadPool;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 
@@ -56,7 +58,7 @@ public class KeyInputStream extends InputStream
 
   private String key;
   private long length = 0;
-  private boolean closed = false;
+  private volatile boolean closed = false;
 
   // List of BlockInputStreams, one for each block in the key
   private final List<BlockInputStream> blockStreams;
@@ -77,6 +79,13 @@ public class KeyInputStream extends InputStream
   // can be reset if a new position is seeked.
   private int blockIndexOfPrevPosition;
 
+  // Pool reading chunks ahead, null if read-ahead is disabled.
+  private ReadAheadPool readAheadPool;
+
+  // Index of the last block for which read-ahead has been started, while
+  // reading the previous block.
+  private int readAheadBlockIndex;
+
   public KeyInputStream() {
     blockStreams = new ArrayList<>();
     blockIndex = 0;
@@ -88,10 +97,23 @@ public KeyInputStream() {
   public static LengthInputStream getFromOmKeyInfo(OmKeyInfo keyInfo,
       XceiverClientFactory xceiverClientFactory,
       boolean verifyChecksum,  Function<OmKeyInfo, OmKeyInfo> retryFunction) {
+    return getFromOmKeyInfo(keyInfo, xceiverClientFactory, verifyChecksum,
+        retryFunction, null);
+  }
+
+  /**
+   * For each block in keyInfo, add a BlockInputStream to blockStreams.
+   * Chunks are read ahead using the given pool, if it is not null.
+   */
+  public static LengthInputStream getFromOmKeyInfo(OmKeyInfo keyInfo,
+      XceiverClientFactory xceiverClientFactory,
+      boolean verifyChecksum,  Function<OmKeyInfo, OmKeyInfo> retryFunction,
+      ReadAheadPool readAheadPool) {
     List<OmKeyLocationInfo> keyLocationInfos = keyInfo
         .getLatestVersionLocations().getBlocksLatestVersionOnly();
 
     KeyInputStream keyInputStream = new KeyInputStream();
+    keyInputStream.readAheadPool = readAheadPool;
     keyInputStream.initialize(keyInfo, keyLocationInfos,
         xceiverClientFactory, verifyChecksum, retryFunction);
 
@@ -101,6 +123,14 @@ public static LengthInputStream getFromOmKeyInfo(OmKeyInfo keyInfo,
   public static List<LengthInputStream> getStreamsFromKeyInfo(OmKeyInfo keyInfo,
       XceiverClientFactory xceiverClientFactory, boolean verifyChecksum,
       Function<OmKeyInfo, OmKeyInfo> retryFunction) {
+    return getStreamsFromKeyInfo(keyInfo, xceiverClientFactory,
+        verifyChecksum, retryFunction, null);
+  }
+
+  public static List<LengthInputStream> getStreamsFromKeyInfo(OmKeyInfo keyInfo,
+      XceiverClientFactory xceiverClientFactory, boolean verifyChecksum,
+      Function<OmKeyInfo, OmKeyInfo> retryFunction,
+      ReadAheadPool readAheadPool) {
     List<OmKeyLocationInfo> keyLocationInfos = keyInfo
         .getLatestVersionLocations().getBlocksLatestVersionOnly();
 
@@ -130,6 +160,7 @@ public static List<LengthInputStream> getStreamsFromKeyInfo(OmKeyInfo keyInfo,
     for (Map.Entry<Integer, List<OmKeyLocationInfo>> entry :
         partsToBlocksMap.entrySet()) {
       KeyInputStream keyInputStream = new KeyInputStream();
+      keyInputStream.readAheadPool = readAheadPool;
       keyInputStream.initialize(keyInfo, entry.getValue(),
           xceiverClientFactory, verifyChecksum, retryFunction);
       lengthInputStreams.add(new LengthInputStream(keyInputStream,
@@ -191,7 +222,7 @@ private synchronized void addStream(OmKeyLocationInfo blockInfo,
     blockStreams.add(new BlockInputStream(blockInfo.getBlockID(),
         blockInfo.getLength(), blockInfo.getPipeline(), blockInfo.getToken(),
         verifyChecksum, xceiverClientFactory,
-        blockID -> refreshPipelineFunction.apply(blockInfo)));
+        blockID -> refreshPipelineFunction.apply(blockInfo), readAheadPool));
   }
 
   @VisibleForTesting
@@ -257,9 +288,53 @@ public synchronized int read(byte[] b, int off, int len) throws IOException {
         blockIndex += 1;
       }
     }
+    if (readAheadPool != null) {
+      readAheadNextBlocks();
+    }
     return totalReadLen;
   }
 
+  /**
+   * If the read-ahead window extends beyond the current block, start reading
+   * the first chunks of the next blocks in the background. Block streams are
+   * initialized by the background task, so the next blocks are located
+   * while the current one is read.
+   */
+  private void readAheadNextBlocks() {
+    int firstBlock = blockIndex + 1;
+    if (firstBlock <= readAheadBlockIndex
+        || firstBlock >= blockStreams.size()) {
+      return;
+    }
+    int numChunks = readAheadPool.getWindow()
+        - blockStreams.get(blockIndex).getChunksAhead();
+    if (numChunks <= 0) {
+      return;
+    }
+    readAheadBlockIndex = firstBlock;
+    try {
+      readAheadPool.execute(() -> readAhead(firstBlock, numChunks));
+    } catch (RejectedExecutionException e) {
+      LOG.debug("Failed to read ahead blocks of key {}", key, e);
+    }
+  }
+
+  private void readAhead(int firstBlock, int numChunks) {
+    int remaining = numChunks;
+    for (int i = firstBlock; i < blockStreams.size() && remaining > 0
+        && !closed; i++) {
+      BlockInputStream blockStream = blockStreams.get(i);
+      try {
+        remaining -= blockStream.readAhead(remaining);
+      } catch (IOException e) {
+        // The block is initialized again when it is read.
+        LOG.debug("Failed to read ahead block {} of key {}",
+            blockStream.getBlockID(), key, e);
+        return;
+      }
+    }
+  }
+
   /**
    * Seeks the KeyInputStream to the specified position. This involves 2 steps:
    *    1. Updating the blockIndex to the blockStream corresponding to the
@@ -40,6 +40,7 @@
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.scm.storage.CommitWatchPool;
 import org.apache.hadoop.io.retry.RetryPolicies;
 import org.apache.hadoop.io.retry.RetryPolicy;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -135,7 +136,8 @@ public KeyOutputStream(
       OzoneManagerProtocol omClient, int chunkSize,
       String requestId, ReplicationFactor factor, ReplicationType type,
       String uploadID, int partNumber, boolean isMultipart,
-      boolean unsafeByteBufferConversion
+      boolean unsafeByteBufferConversion,
+      CommitWatchPool commitWatchPool
   ) {
     this.config = config;
     OmKeyInfo info = handler.getKeyInfo();
@@ -148,7 +150,8 @@ public KeyOutputStream(
             isMultipart, info,
             unsafeByteBufferConversion,
             xceiverClientManager,
-            handler.getId());
+            handler.getId(),
+            commitWatchPool);
 
     // Retrieve the file encryption key info, null if file is not in
     // encrypted bucket.
@@ -560,6 +563,7 @@ public static class Builder {
     private boolean isMultipartKey;
     private boolean unsafeByteBufferConversion;
     private OzoneClientConfig clientConfig;
+    private CommitWatchPool commitWatchPool;
 
     public Builder setMultipartUploadID(String uploadID) {
       this.multipartUploadID = uploadID;
@@ -621,6 +625,11 @@ public Builder enableUnsafeByteBufferConversion(boolean enabled) {
       return this;
     }
 
+    public Builder setCommitWatchPool(CommitWatchPool pool) {
+      this.commitWatchPool = pool;
+      return this;
+    }
+
     public KeyOutputStream build() {
       return new KeyOutputStream(
           clientConfig,
@@ -634,7 +643,8 @@ public KeyOutputStream build() {
           multipartUploadID,
           multipartNumber,
           isMultipartKey,
-          unsafeByteBufferConversion);
+          unsafeByteBufferConversion,
+          commitWatchPool);
     }
   }
 
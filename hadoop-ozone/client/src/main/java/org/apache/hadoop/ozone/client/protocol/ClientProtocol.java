@@ -41,12 +41,14 @@
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.S3SecretValue;
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
+import org.apache.hadoop.ozone.om.protocol.S3Auth;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRoleInfo;
 import org.apache.hadoop.ozone.security.OzoneTokenIdentifier;
 import org.apache.hadoop.ozone.security.acl.OzoneObj;
@@ -296,6 +298,18 @@ OzoneInputStream getKey(String volumeName, String bucketName, String keyName)
   void deleteKey(String volumeName, String bucketName, String keyName)
       throws IOException;
 
+  /**
+   * Deletes an existing key or directory.
+   * @param volumeName Name of the Volume
+   * @param bucketName Name of the Bucket
+   * @param keyName Name of the Key
+   * @param recursive whether a directory is deleted with its contents, in
+   * buckets with the prefix metadata layout
+   * @throws IOException
+   */
+  void deleteKey(String volumeName, String bucketName, String keyName,
+      boolean recursive) throws IOException;
+
   /**
    * Deletes keys through the list.
    * @param volumeName Name of the Volume
@@ -318,6 +332,40 @@ void deleteKeys(String volumeName, String bucketName,
   void renameKey(String volumeName, String bucketName, String fromKeyName,
                  String toKeyName) throws IOException;
 
+  /**
+   * Copies an existing key. The new key references the blocks of the
+   * source key, so no data is copied.
+   * @param volumeName Name of the Volume
+   * @param fromBucketName Name of the Bucket of the source Key
+   * @param fromKeyName Name of the source Key
+   * @param toBucketName Name of the Bucket of the new Key
+   * @param toKeyName Name of the new Key
+   * @param metadata Custom metadata of the new Key, if empty the metadata
+   *                 of the source Key is used
+   * @throws IOException
+   */
+  void copyKey(String volumeName, String fromBucketName, String fromKeyName,
+      String toBucketName, String toKeyName, Map<String, String> metadata)
+      throws IOException;
+
+  /**
+   * Copies an existing key as a part of a multipart upload. The part
+   * references the blocks of the source key, so no data is copied.
+   * @param volumeName Name of the Volume
+   * @param fromBucketName Name of the Bucket of the source Key
+   * @param fromKeyName Name of the source Key
+   * @param bucketName Name of the Bucket of the multipart upload
+   * @param keyName Name of the multipart upload Key
+   * @param partNumber Part number of the part
+   * @param uploadID Upload ID of the multipart upload
+   * @return OmMultipartCommitUploadPartInfo
+   * @throws IOException
+   */
+  @SuppressWarnings("parameternumber")
+  OmMultipartCommitUploadPartInfo copyMultipartUploadPart(String volumeName,
+      String fromBucketName, String fromKeyName, String bucketName,
+      String keyName, int partNumber, String uploadID) throws IOException;
+
   /**
    * Renames existing keys within a bucket.
    * @param volumeName Name of the Volume
@@ -344,6 +392,26 @@ List<OzoneKey> listKeys(String volumeName, String bucketName,
                           String keyPrefix, String prevKey, int maxListResult)
       throws IOException;
 
+  /**
+   * Returns list of Keys in {Volume/Bucket} that matches the keyPrefix,
+   * grouping keys by the delimiter. Keys whose name contains the delimiter
+   * after keyPrefix are returned as one entry per common prefix, which has
+   * the common prefix, including the delimiter, as name and no data.
+   * Size of the returned list depends on maxListResult. The caller has
+   * to make multiple calls to read all keys.
+   * @param volumeName Name of the Volume
+   * @param bucketName Name of the Bucket
+   * @param keyPrefix Bucket prefix to match
+   * @param prevKey Starting point of the list, this key is excluded
+   * @param delimiter Delimiter to group keys by, keys are not grouped if null
+   * @param maxListResult Max number of keys and common prefixes to return.
+   * @return {@code List<OzoneKey>}
+   * @throws IOException
+   */
+  List<OzoneKey> listKeys(String volumeName, String bucketName,
+      String keyPrefix, String prevKey, String delimiter, int maxListResult)
+      throws IOException;
+
   /**
    * List trash allows the user to list the keys that were marked as deleted,
    * but not actually deleted by Ozone Manager. This allows a user to recover
@@ -658,6 +726,19 @@ List<OzoneFileStatus> listStatus(String volumeName, String bucketName,
    */
   OzoneManagerProtocol getOzoneManagerClient();
 
+  /**
+   * Sets the S3 authentication information sent with the requests made by
+   * the current thread. The user of the requests is the S3 user, instead of
+   * the user of the client.
+   * @param s3Auth S3 authentication information.
+   */
+  void setThreadLocalS3Auth(S3Auth s3Auth);
+
+  /**
+   * Clears the S3 authentication information of the current thread.
+   */
+  void clearThreadLocalS3Auth();
+
   /**
    * Set Bucket Quota.
    * @param volumeName Name of the Volume.
@@ -49,6 +49,8 @@
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.XceiverClientManager;
 import org.apache.hadoop.hdds.scm.client.HddsClientUtils;
+import org.apache.hadoop.hdds.scm.storage.CommitWatchPool;
+import org.apache.hadoop.hdds.scm.storage.ReadAheadPool;
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.IOUtils;
 import org.apache.hadoop.io.Text;
@@ -82,6 +84,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmDeleteKeys;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteList;
@@ -98,6 +101,7 @@
 import org.apache.hadoop.ozone.om.helpers.ServiceInfo;
 import org.apache.hadoop.ozone.om.helpers.ServiceInfoEx;
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
+import org.apache.hadoop.ozone.om.protocol.S3Auth;
 import org.apache.hadoop.ozone.om.protocolPB.OmTransport;
 import org.apache.hadoop.ozone.om.protocolPB.OmTransportFactory;
 import org.apache.hadoop.ozone.om.protocolPB.OzoneManagerProtocolClientSideTranslatorPB;
@@ -146,6 +150,8 @@ public class RpcClient implements ClientProtocol {
   private final boolean topologyAwareReadEnabled;
   private final boolean checkKeyNameEnabled;
   private final OzoneClientConfig clientConfig;
+  private final ReadAheadPool readAheadPool;
+  private final CommitWatchPool commitWatchPool;
 
   /**
    * Creates RpcClient instance with the given configuration.
@@ -190,6 +196,19 @@ public RpcClient(ConfigurationSource conf, String omServiceId)
     this.xceiverClientManager = new XceiverClientManager(conf,
         conf.getObject(XceiverClientManager.ScmClientConfig.class),
         x509Certificates);
+    if (clientConfig.getReadAheadChunks() > 0) {
+      this.readAheadPool = new ReadAheadPool(
+          clientConfig.getReadAheadChunks(),
+          clientConfig.getReadAheadThreads(), this::withThreadLocalS3Auth);
+    } else {
+      this.readAheadPool = null;
+    }
+    if (clientConfig.isStreamCommitWatchAsync()) {
+      this.commitWatchPool = new CommitWatchPool(
+          clientConfig.getStreamCommitWatchThreads());
+    } else {
+      this.commitWatchPool = null;
+    }
 
     int configuredChunkSize = (int) conf
         .getStorageSize(ScmConfigKeys.OZONE_SCM_CHUNK_SIZE_KEY,
@@ -759,6 +778,12 @@ public OzoneInputStream getKey(
   public void deleteKey(
       String volumeName, String bucketName, String keyName)
       throws IOException {
+    deleteKey(volumeName, bucketName, keyName, false);
+  }
+
+  @Override
+  public void deleteKey(String volumeName, String bucketName, String keyName,
+      boolean recursive) throws IOException {
     verifyVolumeName(volumeName);
     verifyBucketName(bucketName);
     Preconditions.checkNotNull(keyName);
@@ -766,6 +791,7 @@ public void deleteKey(
         .setVolumeName(volumeName)
         .setBucketName(bucketName)
         .setKeyName(keyName)
+        .setRecursive(recursive)
         .build();
     ozoneManagerClient.deleteKey(keyArgs);
   }
@@ -798,6 +824,60 @@ public void renameKey(String volumeName, String bucketName,
     ozoneManagerClient.renameKey(keyArgs, toKeyName);
   }
 
+  @Override
+  public void copyKey(String volumeName, String fromBucketName,
+      String fromKeyName, String toBucketName, String toKeyName,
+      Map<String, String> metadata) throws IOException {
+    verifyVolumeName(volumeName);
+    verifyBucketName(fromBucketName);
+    verifyBucketName(toBucketName);
+    if(checkKeyNameEnabled){
+      HddsClientUtils.verifyKeyName(toKeyName);
+    }
+    HddsClientUtils.checkNotNull(fromKeyName, toKeyName);
+    OmKeyArgs keyArgs = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(fromBucketName)
+        .setKeyName(fromKeyName)
+        .build();
+    OmKeyArgs toKeyArgs = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(toBucketName)
+        .setKeyName(toKeyName)
+        .addAllMetadata(metadata)
+        .setAcls(getAclList())
+        .build();
+    ozoneManagerClient.copyKey(keyArgs, toKeyArgs);
+  }
+
+  @Override
+  public OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      String volumeName, String fromBucketName, String fromKeyName,
+      String bucketName, String keyName, int partNumber, String uploadID)
+      throws IOException {
+    verifyVolumeName(volumeName);
+    verifyBucketName(fromBucketName);
+    verifyBucketName(bucketName);
+    HddsClientUtils.checkNotNull(fromKeyName, keyName, uploadID);
+    Preconditions.checkArgument(partNumber > 0 && partNumber <=10000, "Part " +
+        "number should be greater than zero and less than or equal to 10000");
+    OmKeyArgs keyArgs = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(fromBucketName)
+        .setKeyName(fromKeyName)
+        .build();
+    OmKeyArgs partKeyArgs = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(bucketName)
+        .setKeyName(keyName)
+        .setIsMultipartKey(true)
+        .setMultipartUploadID(uploadID)
+        .setMultipartUploadPartNumber(partNumber)
+        .setAcls(getAclList())
+        .build();
+    return ozoneManagerClient.copyMultipartUploadPart(keyArgs, partKeyArgs);
+  }
+
   @Override
   public void renameKeys(String volumeName, String bucketName,
                          Map<String, String> keyMap) throws IOException {
@@ -815,8 +895,16 @@ public List<OzoneKey> listKeys(String volumeName, String bucketName,
                                  String keyPrefix, String prevKey,
                                  int maxListResult)
       throws IOException {
+    return listKeys(volumeName, bucketName, keyPrefix, prevKey, null,
+        maxListResult);
+  }
+
+  @Override
+  public List<OzoneKey> listKeys(String volumeName, String bucketName,
+      String keyPrefix, String prevKey, String delimiter, int maxListResult)
+      throws IOException {
     List<OmKeyInfo> keys = ozoneManagerClient.listKeys(
-        volumeName, bucketName, prevKey, keyPrefix, maxListResult);
+        volumeName, bucketName, prevKey, keyPrefix, delimiter, maxListResult);
 
     return keys.stream().map(key -> new OzoneKey(
         key.getVolumeName(),
@@ -878,7 +966,8 @@ public OzoneKeyDetails getKeyDetails(
 
   @Override
   public void close() throws IOException {
-    IOUtils.cleanupWithLogger(LOG, ozoneManagerClient, xceiverClientManager);
+    IOUtils.cleanupWithLogger(LOG, ozoneManagerClient, xceiverClientManager,
+        readAheadPool, commitWatchPool);
   }
 
   @Override
@@ -948,6 +1037,7 @@ public OzoneOutputStream createMultipartKey(String volumeName,
             .setIsMultipartKey(true)
             .enableUnsafeByteBufferConversion(unsafeByteBufferConversion)
             .setConfig(clientConfig)
+            .setCommitWatchPool(commitWatchPool)
             .build();
     keyOutputStream.addPreallocateBlocks(
         openKey.getKeyInfo().getLatestVersionLocations(),
@@ -1116,6 +1206,7 @@ private OzoneInputStream getInputStreamWithRetryFunction(
             .setKeyName(omKeyInfo.getKeyName())
             .setRefreshPipeline(true)
             .setSortDatanodesInPipeline(topologyAwareReadEnabled)
+            .setForceUpdateContainerCache(true)
             .build();
         return ozoneManagerClient.lookupKey(omKeyArgs);
       } catch (IOException e) {
@@ -1219,7 +1310,7 @@ private OzoneInputStream createInputStream(
     if (feInfo == null) {
       LengthInputStream lengthInputStream = KeyInputStream
           .getFromOmKeyInfo(keyInfo, xceiverClientManager,
-              clientConfig.isChecksumVerify(), retryFunction);
+              clientConfig.isChecksumVerify(), retryFunction, readAheadPool);
       try {
         Map< String, String > keyInfoMetadata = keyInfo.getMetadata();
         if (Boolean.valueOf(keyInfoMetadata.get(OzoneConsts.GDPR_FLAG))) {
@@ -1239,7 +1330,7 @@ private OzoneInputStream createInputStream(
       // Regular Key with FileEncryptionInfo
       LengthInputStream lengthInputStream = KeyInputStream
           .getFromOmKeyInfo(keyInfo, xceiverClientManager,
-              clientConfig.isChecksumVerify(), retryFunction);
+              clientConfig.isChecksumVerify(), retryFunction, readAheadPool);
       final KeyProvider.KeyVersion decrypted = getDEK(feInfo);
       final CryptoInputStream cryptoIn =
           new CryptoInputStream(lengthInputStream.getWrappedStream(),
@@ -1250,7 +1341,7 @@ private OzoneInputStream createInputStream(
       // Multipart Key with FileEncryptionInfo
       List<LengthInputStream> lengthInputStreams = KeyInputStream
           .getStreamsFromKeyInfo(keyInfo, xceiverClientManager,
-              clientConfig.isChecksumVerify(), retryFunction);
+              clientConfig.isChecksumVerify(), retryFunction, readAheadPool);
       final KeyProvider.KeyVersion decrypted = getDEK(feInfo);
 
       List<OzoneCryptoInputStream> cryptoInputStreams = new ArrayList<>();
@@ -1279,6 +1370,7 @@ private OzoneOutputStream createOutputStream(OpenKeySession openKey,
             .setFactor(HddsProtos.ReplicationFactor.valueOf(factor.getValue()))
             .enableUnsafeByteBufferConversion(unsafeByteBufferConversion)
             .setConfig(clientConfig)
+            .setCommitWatchPool(commitWatchPool)
             .build();
     keyOutputStream
         .addPreallocateBlocks(openKey.getKeyInfo().getLatestVersionLocations(),
@@ -1335,4 +1427,34 @@ public String getCanonicalServiceName() {
   public OzoneManagerProtocol getOzoneManagerClient() {
     return ozoneManagerClient;
   }
+
+  @Override
+  public void setThreadLocalS3Auth(S3Auth s3Auth) {
+    ozoneManagerClient.setThreadLocalS3Auth(s3Auth);
+  }
+
+  @Override
+  public void clearThreadLocalS3Auth() {
+    ozoneManagerClient.clearThreadLocalS3Auth();
+  }
+
+  /**
+   * Returns the task to run with the S3 authentication information of the
+   * current thread, so that OM requests made by the task on another thread
+   * are sent on behalf of the same S3 user.
+   */
+  private Runnable withThreadLocalS3Auth(Runnable task) {
+    S3Auth s3Auth = ozoneManagerClient.getThreadLocalS3Auth();
+    if (s3Auth == null) {
+      return task;
+    }
+    return () -> {
+      ozoneManagerClient.setThreadLocalS3Auth(s3Auth);
+      try {
+        task.run();
+      } finally {
+        ozoneManagerClient.clearThreadLocalS3Auth();
+      }
+    };
+  }
 }
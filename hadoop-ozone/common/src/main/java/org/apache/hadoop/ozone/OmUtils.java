@@ -269,6 +269,7 @@ public static boolean isReadOnly(
     case CreateKey:
     case RenameKey:
     case RenameKeys:
+    case CopyKey:
     case DeleteKey:
     case DeleteKeys:
     case CommitKey:
@@ -287,6 +288,7 @@ public static boolean isReadOnly(
     case SetAcl:
     case AddAcl:
     case PurgeKeys:
+    case PurgeDirectories:
     case RecoverTrash:
     case DeleteOpenKeys:
       return false;
@@ -33,6 +33,7 @@ public enum OMAction implements AuditAction {
   DELETE_KEY,
   RENAME_KEY,
   RENAME_KEYS,
+  COPY_KEY,
   SET_OWNER,
   SET_QUOTA,
   UPDATE_VOLUME,
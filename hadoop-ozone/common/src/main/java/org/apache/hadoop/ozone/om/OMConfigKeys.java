@@ -76,6 +76,88 @@ private OMConfigKeys() {
       "ozone.om.db.cache.size.mb";
   public static final int OZONE_OM_DB_CACHE_SIZE_DEFAULT = 128;
 
+  // Number of deserialized key table entries OM keeps in memory after they
+  // are flushed to DB. 0 disables the read cache.
+  public static final String OZONE_OM_KEY_TABLE_READ_CACHE_SIZE =
+      "ozone.om.key.table.read.cache.size";
+  public static final long OZONE_OM_KEY_TABLE_READ_CACHE_SIZE_DEFAULT = 0;
+
+  // When enabled, the double buffer adds the next batch of responses to a
+  // RocksDB batch while the previous batch is being committed.
+  public static final String OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED =
+      "ozone.om.double.buffer.pipelined.flush.enabled";
+  public static final boolean
+      OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT = false;
+  // Maximum number of transactions flushed in one batch. 0 means no limit.
+  public static final String OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE =
+      "ozone.om.double.buffer.max.batch.size";
+  public static final int OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE_DEFAULT = 0;
+  public static final String OZONE_OM_DOUBLE_BUFFER_MAX_FLUSH_WAIT =
+      "ozone.om.double.buffer.max.flush.wait";
+  public static final String OZONE_OM_DOUBLE_BUFFER_MAX_FLUSH_WAIT_DEFAULT =
+      "0ms";
+
+  // Number of partitions of the executor which applies Ratis transactions.
+  // Requests on a single bucket are applied in the partition of the bucket,
+  // other requests wait for all partitions. 1 applies requests serially.
+  public static final String OZONE_OM_RATIS_APPLY_EXECUTOR_PARTITIONS =
+      "ozone.om.ratis.apply.executor.partitions";
+  public static final int OZONE_OM_RATIS_APPLY_EXECUTOR_PARTITIONS_DEFAULT = 1;
+
+  // When enabled, clients send read requests to all the OMs round robin, and
+  // OM followers serve them once they have applied the transactions the
+  // leader has committed. Reads may be stale for up to the leader election
+  // timeout after a leader change, so this is disabled by default.
+  public static final String OZONE_OM_FOLLOWER_READ_ENABLED =
+      "ozone.om.follower.read.enabled";
+  public static final boolean OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_FOLLOWER_READ_TIMEOUT =
+      "ozone.om.follower.read.timeout";
+  public static final TimeDuration OZONE_OM_FOLLOWER_READ_TIMEOUT_DEFAULT =
+      TimeDuration.valueOf(5, TimeUnit.SECONDS);
+
+  // When enabled, OM allocates blocks in batches from SCM and hands them out
+  // to clients locally, instead of calling SCM for each block allocation.
+  public static final String OZONE_OM_BLOCK_LEASE_ENABLED =
+      "ozone.om.block.lease.enabled";
+  public static final boolean OZONE_OM_BLOCK_LEASE_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_BLOCK_LEASE_BATCH_SIZE =
+      "ozone.om.block.lease.batch.size";
+  public static final int OZONE_OM_BLOCK_LEASE_BATCH_SIZE_DEFAULT = 100;
+  public static final String OZONE_OM_BLOCK_LEASE_DURATION =
+      "ozone.om.block.lease.duration";
+  public static final String OZONE_OM_BLOCK_LEASE_DURATION_DEFAULT = "30s";
+
+  // When enabled, OM sorts datanodes by distance to the client using a local
+  // copy of the network topology, instead of calling SCM for each pipeline.
+  public static final String OZONE_OM_NETWORK_TOPOLOGY_LOCAL_ENABLED =
+      "ozone.om.network.topology.local.enabled";
+  public static final boolean OZONE_OM_NETWORK_TOPOLOGY_LOCAL_ENABLED_DEFAULT =
+      false;
+  public static final String OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL =
+      "ozone.om.network.topology.refresh.interval";
+  public static final String
+      OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL_DEFAULT = "5m";
+  public static final String OZONE_OM_NETWORK_TOPOLOGY_SORT_CACHE_SIZE =
+      "ozone.om.network.topology.sort.cache.size";
+  public static final int OZONE_OM_NETWORK_TOPOLOGY_SORT_CACHE_SIZE_DEFAULT =
+      10000;
+
+  // When enabled, OM caches the pipelines of containers returned by SCM, so
+  // that key lookups do not call SCM for each container.
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_ENABLED =
+      "ozone.om.container.location.cache.enabled";
+  public static final boolean
+      OZONE_OM_CONTAINER_LOCATION_CACHE_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE =
+      "ozone.om.container.location.cache.size";
+  public static final int OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT =
+      100000;
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_TTL =
+      "ozone.om.container.location.cache.ttl";
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT =
+      "30s";
+
   public static final String OZONE_OM_VOLUME_LISTALL_ALLOWED =
       "ozone.om.volume.listall.allowed";
   public static final boolean OZONE_OM_VOLUME_LISTALL_ALLOWED_DEFAULT = true;
@@ -233,6 +315,25 @@ private OMConfigKeys() {
   public static final boolean OZONE_OM_ENABLE_FILESYSTEM_PATHS_DEFAULT =
       false;
 
+  // Metadata layout of the buckets created by OM. The layout is stored in
+  // the bucket metadata under the same key, so existing buckets keep their
+  // layout when this is changed.
+  public static final String OZONE_OM_METADATA_LAYOUT =
+      "ozone.om.metadata.layout";
+  public static final String OZONE_OM_METADATA_LAYOUT_SIMPLE = "SIMPLE";
+  public static final String OZONE_OM_METADATA_LAYOUT_PREFIX = "PREFIX";
+  public static final String OZONE_OM_METADATA_LAYOUT_DEFAULT =
+      OZONE_OM_METADATA_LAYOUT_SIMPLE;
+
+  public static final String OZONE_DIRECTORY_DELETING_SERVICE_INTERVAL =
+      "ozone.directory.deleting.service.interval";
+  public static final String
+      OZONE_DIRECTORY_DELETING_SERVICE_INTERVAL_DEFAULT = "60s";
+
+  public static final String OZONE_PATH_DELETING_LIMIT_PER_TASK =
+      "ozone.path.deleting.limit.per.task";
+  public static final int OZONE_PATH_DELETING_LIMIT_PER_TASK_DEFAULT = 10000;
+
   public static final String OZONE_OM_HA_PREFIX = "ozone.om.ha";
 
   public static final String OZONE_FS_TRASH_INTERVAL_KEY =
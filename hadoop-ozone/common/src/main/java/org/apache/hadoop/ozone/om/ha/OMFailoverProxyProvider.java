@@ -79,6 +79,9 @@ public class OMFailoverProxyProvider implements
 
   private String currentProxyOMNodeId;
   private int currentProxyIndex;
+  // Index of the OM the last read request was sent to, when reads are
+  // served by OM followers.
+  private int readProxyIndex;
 
   private final ConfigurationSource conf;
   private final long omVersion;
@@ -205,6 +208,22 @@ public synchronized ProxyInfo getProxy() {
     return currentProxyInfo;
   }
 
+  /**
+   * Get the proxy object to send the next read request to, when OM followers
+   * serve reads. Read requests are spread over all the OMs round robin.
+   * RPC proxy object is intialized lazily.
+   * @return the OM proxy object to invoke read methods upon
+   */
+  public synchronized ProxyInfo getReadProxy() {
+    readProxyIndex = (readProxyIndex + 1) % omNodeIDList.size();
+    String nodeId = omNodeIDList.get(readProxyIndex);
+    ProxyInfo proxyInfo = omProxies.get(nodeId);
+    if (proxyInfo == null) {
+      proxyInfo = createOMProxy(nodeId);
+    }
+    return proxyInfo;
+  }
+
   /**
    * Creates proxy object.
    */
@@ -47,6 +47,8 @@ public final class OmKeyArgs implements Auditable {
   private Map<String, String> metadata;
   private boolean refreshPipeline;
   private boolean sortDatanodesInPipeline;
+  private boolean forceUpdateContainerCache;
+  private boolean recursive;
   private List<OzoneAcl> acls;
 
   @SuppressWarnings("parameternumber")
@@ -55,7 +57,8 @@ private OmKeyArgs(String volumeName, String bucketName, String keyName,
       List<OmKeyLocationInfo> locationInfoList, boolean isMultipart,
       String uploadID, int partNumber,
       Map<String, String> metadataMap, boolean refreshPipeline,
-      List<OzoneAcl> acls, boolean sortDatanode) {
+      List<OzoneAcl> acls, boolean sortDatanode,
+      boolean forceUpdateContainerCache, boolean recursive) {
     this.volumeName = volumeName;
     this.bucketName = bucketName;
     this.keyName = keyName;
@@ -70,6 +73,8 @@ private OmKeyArgs(String volumeName, String bucketName, String keyName,
     this.refreshPipeline = refreshPipeline;
     this.acls = acls;
     this.sortDatanodesInPipeline = sortDatanode;
+    this.forceUpdateContainerCache = forceUpdateContainerCache;
+    this.recursive = recursive;
   }
 
   public boolean getIsMultipartKey() {
@@ -140,6 +145,14 @@ public boolean getSortDatanodes() {
     return sortDatanodesInPipeline;
   }
 
+  public boolean getForceUpdateContainerCache() {
+    return forceUpdateContainerCache;
+  }
+
+  public boolean isRecursive() {
+    return recursive;
+  }
+
   @Override
   public Map<String, String> toAuditMap() {
     Map<String, String> auditMap = new LinkedHashMap<>();
@@ -177,6 +190,8 @@ public OmKeyArgs.Builder toBuilder() {
         .addAllMetadata(metadata)
         .setRefreshPipeline(refreshPipeline)
         .setSortDatanodesInPipeline(sortDatanodesInPipeline)
+        .setForceUpdateContainerCache(forceUpdateContainerCache)
+        .setRecursive(recursive)
         .setAcls(acls);
   }
 
@@ -197,6 +212,8 @@ public static class Builder {
     private Map<String, String> metadata = new HashMap<>();
     private boolean refreshPipeline;
     private boolean sortDatanodesInPipeline;
+    private boolean forceUpdateContainerCache;
+    private boolean recursive;
     private List<OzoneAcl> acls;
 
     public Builder setVolumeName(String volume) {
@@ -274,11 +291,21 @@ public Builder setSortDatanodesInPipeline(boolean sort) {
       return this;
     }
 
+    public Builder setForceUpdateContainerCache(boolean forceUpdate) {
+      this.forceUpdateContainerCache = forceUpdate;
+      return this;
+    }
+
+    public Builder setRecursive(boolean isRecursive) {
+      this.recursive = isRecursive;
+      return this;
+    }
+
     public OmKeyArgs build() {
       return new OmKeyArgs(volumeName, bucketName, keyName, dataSize, type,
           factor, locationInfoList, isMultipartKey, multipartUploadID,
           multipartUploadPartNumber, metadata, refreshPipeline, acls,
-          sortDatanodesInPipeline);
+          sortDatanodesInPipeline, forceUpdateContainerCache, recursive);
     }
 
   }
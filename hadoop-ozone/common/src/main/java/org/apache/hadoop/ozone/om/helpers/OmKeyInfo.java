@@ -58,6 +58,12 @@ public final class OmKeyInfo extends WithObjectID {
    */
   private List<OzoneAcl> acls;
 
+  /**
+   * Set when location versions and ACLs are shared with another instance
+   * created by {@link #copyObject()}. They are copied before first update.
+   */
+  private volatile boolean shared;
+
   @SuppressWarnings("parameternumber")
   OmKeyInfo(String volumeName, String bucketName, String keyName,
       List<OmKeyLocationInfoGroup> versions, long dataSize,
@@ -131,10 +137,25 @@ public synchronized OmKeyLocationInfoGroup getLatestVersionLocations() {
         keyLocationVersions.get(keyLocationVersions.size() - 1);
   }
 
+  /**
+   * Return all location versions of the key. The returned list and the
+   * location infos in it may be shared with other copies of this key, so
+   * they should not be updated, use {@link #getKeyLocationVersionsForUpdate()}
+   * instead.
+   */
   public List<OmKeyLocationInfoGroup> getKeyLocationVersions() {
     return keyLocationVersions;
   }
 
+  /**
+   * Return all location versions of the key, which can be updated in place,
+   * for example to set the pipeline or block token of a location.
+   */
+  public List<OmKeyLocationInfoGroup> getKeyLocationVersionsForUpdate() {
+    copyOnWrite();
+    return keyLocationVersions;
+  }
+
   public void updateModifcationTime() {
     this.modificationTime = Time.monotonicNow();
   }
@@ -147,6 +168,7 @@ public void updateModifcationTime() {
    */
   public void updateLocationInfoList(List<OmKeyLocationInfo> locationInfoList,
       boolean isMpu) {
+    copyOnWrite();
     long latestVersion = getLatestVersionLocations().getVersion();
     OmKeyLocationInfoGroup keyLocationInfoGroup = getLatestVersionLocations();
 
@@ -180,6 +202,7 @@ public synchronized void appendNewBlocks(
     if (keyLocationVersions.size() == 0) {
       throw new IOException("Appending new block, but no version exist");
     }
+    copyOnWrite();
     OmKeyLocationInfoGroup currentLatestVersion =
         keyLocationVersions.get(keyLocationVersions.size() - 1);
     currentLatestVersion.appendNewBlocks(newLocationList);
@@ -199,6 +222,7 @@ public synchronized void appendNewBlocks(
   public synchronized long addNewVersion(
       List<OmKeyLocationInfo> newLocationList, boolean updateTime)
       throws IOException {
+    copyOnWrite();
     long latestVersionNum;
     if (keyLocationVersions.size() == 0) {
       // no version exist, these blocks are the very first version.
@@ -242,17 +266,42 @@ public List<OzoneAcl> getAcls() {
   }
 
   public boolean addAcl(OzoneAcl acl) {
+    copyOnWrite();
     return OzoneAclUtil.addAcl(acls, acl);
   }
 
   public boolean removeAcl(OzoneAcl acl) {
+    copyOnWrite();
     return OzoneAclUtil.removeAcl(acls, acl);
   }
 
   public boolean setAcls(List<OzoneAcl> newAcls) {
+    copyOnWrite();
     return OzoneAclUtil.setAcl(acls, newAcls);
   }
 
+  /**
+   * Copy location versions and ACLs, if they are shared with another
+   * instance, so that updates to them are not visible to other copies.
+   */
+  private synchronized void copyOnWrite() {
+    if (!shared) {
+      return;
+    }
+    List<OmKeyLocationInfoGroup> versions =
+        new ArrayList<>(keyLocationVersions.size());
+    keyLocationVersions.forEach(keyLocationVersion ->
+        versions.add(keyLocationVersion.copyObject()));
+    keyLocationVersions = versions;
+
+    List<OzoneAcl> newAcls = new ArrayList<>(acls.size());
+    acls.forEach(acl -> newAcls.add(new OzoneAcl(acl.getType(),
+        acl.getName(), (BitSet) acl.getAclBitSet().clone(),
+        acl.getAclScope())));
+    acls = newAcls;
+    shared = false;
+  }
+
   /**
    * Builder of OmKeyInfo.
    */
@@ -505,35 +554,26 @@ public int hashCode() {
 
   /**
    * Return a new copy of the object.
+   *
+   * Location versions and ACLs are shared between this instance and the
+   * copy until one of them is updated, so that copying a key with many
+   * blocks is cheap for callers which only read it.
    */
   public OmKeyInfo copyObject() {
-    OmKeyInfo.Builder builder = new OmKeyInfo.Builder()
-        .setVolumeName(volumeName)
-        .setBucketName(bucketName)
-        .setKeyName(keyName)
-        .setCreationTime(creationTime)
-        .setModificationTime(modificationTime)
-        .setDataSize(dataSize)
-        .setReplicationType(type)
-        .setReplicationFactor(factor)
-        .setFileEncryptionInfo(encInfo)
-        .setObjectID(objectID).setUpdateID(updateID);
-
-
-    keyLocationVersions.forEach(keyLocationVersion ->
-        builder.addOmKeyLocationInfoGroup(
-            new OmKeyLocationInfoGroup(keyLocationVersion.getVersion(),
-                keyLocationVersion.getLocationList())));
-
-    acls.forEach(acl -> builder.addAcl(new OzoneAcl(acl.getType(),
-            acl.getName(), (BitSet) acl.getAclBitSet().clone(),
-        acl.getAclScope())));
-
+    Map<String, String> metadataCopy = new HashMap<>();
     if (metadata != null) {
-      metadata.forEach((k, v) -> builder.addMetadata(k, v));
+      metadataCopy.putAll(metadata);
     }
 
-    return builder.build();
+    OmKeyInfo copy;
+    synchronized (this) {
+      copy = new OmKeyInfo(volumeName, bucketName, keyName,
+          keyLocationVersions, dataSize, creationTime, modificationTime, type,
+          factor, metadataCopy, encInfo, acls, objectID, updateID);
+      shared = true;
+    }
+    copy.shared = true;
+    return copy;
   }
 
   /**
@@ -124,6 +124,16 @@ public int getPartNumber() {
     return partNumber;
   }
 
+  /**
+   * Return a new copy of the object.
+   */
+  public OmKeyLocationInfo copyObject() {
+    OmKeyLocationInfo copy = new OmKeyLocationInfo(blockID, pipeline, length,
+        offset, token, partNumber);
+    copy.setCreateVersion(createVersion);
+    return copy;
+  }
+
   /**
    * Builder of OmKeyLocationInfo.
    */
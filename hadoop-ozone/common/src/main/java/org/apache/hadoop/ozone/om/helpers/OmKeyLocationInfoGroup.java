@@ -143,6 +143,20 @@ OmKeyLocationInfoGroup generateNextVersion(
     return new OmKeyLocationInfoGroup(version + 1, newMap);
   }
 
+  /**
+   * Return a new copy of the object, locations are copied as well.
+   */
+  OmKeyLocationInfoGroup copyObject() {
+    Map<Long, List<OmKeyLocationInfo>> newMap = new HashMap<>();
+    locationVersionMap.forEach((createVersion, locations) -> {
+      List<OmKeyLocationInfo> newLocations =
+          new ArrayList<>(locations.size());
+      locations.forEach(info -> newLocations.add(info.copyObject()));
+      newMap.put(createVersion, newLocations);
+    });
+    return new OmKeyLocationInfoGroup(version, newMap, isMultipartKey);
+  }
+
   void appendNewBlocks(List<OmKeyLocationInfo> newLocationList) {
     List<OmKeyLocationInfo> locationList = locationVersionMap.get(version);
     for (OmKeyLocationInfo info : newLocationList) {
@@ -21,8 +21,11 @@
 import org.apache.hadoop.util.StringUtils;
 
 import java.nio.file.Paths;
+import java.util.Map;
 
 import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT_PREFIX;
 
 /**
  * Utility class for OzoneFileSystem.
@@ -116,4 +119,13 @@ public static boolean isValidName(String src) {
     }
     return true;
   }
+
+  /**
+   * Whether a bucket with the given metadata has the prefix metadata layout,
+   * where directories and files are stored by the object ID of their parent.
+   */
+  public static boolean isPrefixLayout(Map<String, String> bucketMetadata) {
+    return bucketMetadata != null && OZONE_OM_METADATA_LAYOUT_PREFIX.equals(
+        bucketMetadata.get(OZONE_OM_METADATA_LAYOUT));
+  }
 }
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.lock;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsRecordBuilder;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource;
+
+/**
+ * Lock wait time histograms of {@link OzoneManagerLock}, reported for each
+ * {@link Resource} and lock type. Each histogram counts lock acquisitions
+ * by the time spent waiting for the lock, along with the total count and
+ * total wait time.
+ *
+ * Updates only use {@link LongAdder}, so recording does not add contention
+ * between the threads taking the locks.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Ozone Manager Lock Metrics", context = OzoneConsts.OZONE)
+public final class OMLockMetrics implements MetricsSource {
+
+  private static final String SOURCE_NAME =
+      OMLockMetrics.class.getSimpleName();
+
+  // Upper bounds of the histogram buckets, last bucket has no upper bound.
+  private static final long[] BUCKET_BOUNDS_MICROS =
+      {10, 100, 1_000, 10_000, 100_000};
+  private static final String[] BUCKET_NAMES =
+      {"10us", "100us", "1ms", "10ms", "100ms", "Inf"};
+
+  private final Map<Resource, Histogram> readLockWaitTime =
+      new EnumMap<>(Resource.class);
+  private final Map<Resource, Histogram> writeLockWaitTime =
+      new EnumMap<>(Resource.class);
+
+  private OMLockMetrics() {
+    for (Resource resource : Resource.values()) {
+      readLockWaitTime.put(resource,
+          new Histogram(resource.getName() + "_ReadLockWait"));
+      writeLockWaitTime.put(resource,
+          new Histogram(resource.getName() + "_WriteLockWait"));
+    }
+  }
+
+  /**
+   * Create and register OMLockMetrics. Metrics of any previous instance,
+   * for example of an earlier OM metadata manager instance, are replaced.
+   *
+   * @return OMLockMetrics
+   */
+  public static synchronized OMLockMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+    return ms.register(SOURCE_NAME, "Ozone Manager Lock Metrics",
+        new OMLockMetrics());
+  }
+
+  /**
+   * Unregister the metrics instance, unless it was already replaced by the
+   * metrics of a newer instance.
+   */
+  public void unRegister() {
+    synchronized (OMLockMetrics.class) {
+      MetricsSystem ms = DefaultMetricsSystem.instance();
+      if (ms.getSource(SOURCE_NAME) == this) {
+        ms.unregisterSource(SOURCE_NAME);
+      }
+    }
+  }
+
+  void updateReadLockWaitTime(Resource resource, long waitNanos) {
+    readLockWaitTime.get(resource).add(waitNanos);
+  }
+
+  void updateWriteLockWaitTime(Resource resource, long waitNanos) {
+    writeLockWaitTime.get(resource).add(waitNanos);
+  }
+
+  @VisibleForTesting
+  public long getReadLockCount(Resource resource) {
+    return readLockWaitTime.get(resource).count.sum();
+  }
+
+  @VisibleForTesting
+  public long getWriteLockCount(Resource resource) {
+    return writeLockWaitTime.get(resource).count.sum();
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    MetricsRecordBuilder recordBuilder = collector.addRecord(SOURCE_NAME);
+    for (Resource resource : Resource.values()) {
+      readLockWaitTime.get(resource).snapshot(recordBuilder);
+      writeLockWaitTime.get(resource).snapshot(recordBuilder);
+    }
+  }
+
+  /**
+   * Wait time histogram of a lock type.
+   */
+  private static final class Histogram {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder[] buckets =
+        new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+
+    private Histogram(String name) {
+      this.name = name;
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    private void add(long waitNanos) {
+      count.increment();
+      totalNanos.add(waitNanos);
+      long waitMicros = TimeUnit.NANOSECONDS.toMicros(waitNanos);
+      int i = 0;
+      while (i < BUCKET_BOUNDS_MICROS.length &&
+          waitMicros >= BUCKET_BOUNDS_MICROS[i]) {
+        i++;
+      }
+      buckets[i].increment();
+    }
+
+    private void snapshot(MetricsRecordBuilder recordBuilder) {
+      recordBuilder.addCounter(Interns.info(name + "NumOps",
+          "Number of " + name + " lock acquisitions"), count.sum());
+      recordBuilder.addCounter(Interns.info(name + "TimeNs",
+          "Total " + name + " time in nanoseconds"), totalNanos.sum());
+      for (int i = 0; i < buckets.length; i++) {
+        recordBuilder.addCounter(Interns.info(name + "Below" + BUCKET_NAMES[i],
+            "Number of lock acquisitions with " + name + " time below " +
+                BUCKET_NAMES[i]), buckets[i].sum());
+      }
+    }
+  }
+}
@@ -20,14 +20,19 @@
 
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.google.common.annotations.VisibleForTesting;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.ozone.lock.LockManager;
+import org.apache.hadoop.util.Time;
 
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_FAIR_LOCK_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_FAIR_LOCK;
@@ -72,6 +77,8 @@
  *     {@literal +-->} acquire s3 bucket lock (will throw Exception)<br>
  * </p>
  * <br>
+ * Each resource type has its own {@link LockManager}, so that locks of
+ * different types never share a lock, even when striped locking is enabled.
  */
 
 public class OzoneManagerLock {
@@ -82,9 +89,11 @@ public class OzoneManagerLock {
   private static final String READ_LOCK = "read";
   private static final String WRITE_LOCK = "write";
 
-  private final LockManager<String> manager;
+  private final Map<Resource, LockManager<String>> managers =
+      new EnumMap<>(Resource.class);
   private final ThreadLocal<Short> lockSet = ThreadLocal.withInitial(
       () -> Short.valueOf((short)0));
+  private final OMLockMetrics omLockMetrics;
 
 
   /**
@@ -94,7 +103,10 @@ public class OzoneManagerLock {
   public OzoneManagerLock(ConfigurationSource conf) {
     boolean fair = conf.getBoolean(OZONE_MANAGER_FAIR_LOCK,
         OZONE_MANAGER_FAIR_LOCK_DEFAULT);
-    manager = new LockManager<>(conf, fair);
+    for (Resource resource : Resource.values()) {
+      managers.put(resource, new LockManager<>(conf, fair));
+    }
+    omLockMetrics = OMLockMetrics.create();
   }
 
   /**
@@ -117,7 +129,7 @@ public OzoneManagerLock(ConfigurationSource conf) {
   @Deprecated
   public boolean acquireLock(Resource resource, String... resources) {
     String resourceName = generateResourceName(resource, resources);
-    return lock(resource, resourceName, manager::writeLock, WRITE_LOCK);
+    return lock(resource, resourceName, LockManager::writeLock, WRITE_LOCK);
   }
 
   /**
@@ -139,7 +151,7 @@ public boolean acquireLock(Resource resource, String... resources) {
    */
   public boolean acquireReadLock(Resource resource, String... resources) {
     String resourceName = generateResourceName(resource, resources);
-    return lock(resource, resourceName, manager::readLock, READ_LOCK);
+    return lock(resource, resourceName, LockManager::readLock, READ_LOCK);
   }
 
 
@@ -162,17 +174,20 @@ public boolean acquireReadLock(Resource resource, String... resources) {
    */
   public boolean acquireWriteLock(Resource resource, String... resources) {
     String resourceName = generateResourceName(resource, resources);
-    return lock(resource, resourceName, manager::writeLock, WRITE_LOCK);
+    return lock(resource, resourceName, LockManager::writeLock, WRITE_LOCK);
   }
 
   private boolean lock(Resource resource, String resourceName,
-      Consumer<String> lockFn, String lockType) {
+      BiConsumer<LockManager<String>, String> lockFn, String lockType) {
     if (!resource.canLock(lockSet.get())) {
       String errorMessage = getErrorMessage(resource);
       LOG.error(errorMessage);
       throw new RuntimeException(errorMessage);
     } else {
-      lockFn.accept(resourceName);
+      long startTime = Time.monotonicNowNanos();
+      lockFn.accept(managers.get(resource), resourceName);
+      updateLockWaitTime(resource, lockType,
+          Time.monotonicNowNanos() - startTime);
       if (LOG.isDebugEnabled()) {
         LOG.debug("Acquired {} {} lock on resource {}", lockType, resource.name,
             resourceName);
@@ -182,6 +197,15 @@ private boolean lock(Resource resource, String resourceName,
     }
   }
 
+  private void updateLockWaitTime(Resource resource, String lockType,
+      long waitNanos) {
+    if (READ_LOCK.equals(lockType)) {
+      omLockMetrics.updateReadLockWaitTime(resource, waitNanos);
+    } else {
+      omLockMetrics.updateWriteLockWaitTime(resource, waitNanos);
+    }
+  }
+
   /**
    * Generate resource name to be locked.
    * @param resource
@@ -233,6 +257,7 @@ public boolean acquireMultiUserLock(String firstUser, String secondUser) {
       LOG.error(errorMessage);
       throw new RuntimeException(errorMessage);
     } else {
+      LockManager<String> manager = managers.get(resource);
       // When acquiring multiple user locks, the reason for doing lexical
       // order comparison is to avoid deadlock scenario.
 
@@ -246,8 +271,10 @@ public boolean acquireMultiUserLock(String firstUser, String secondUser) {
       // Now if first thread acquires lock on hdfs, 2nd thread wait for lock
       // on hdfs, and first thread acquires lock on ozone. Once after first
       // thread releases user locks, 2nd thread acquires them.
+      // With striped locking, the order of the stripes is used first, as
+      // users can share stripes.
 
-      int compare = firstUser.compareTo(secondUser);
+      int compare = compareLockOrder(manager, firstUser, secondUser);
       String temp;
 
       // Order the user names in sorted order. Swap them.
@@ -257,6 +284,7 @@ public boolean acquireMultiUserLock(String firstUser, String secondUser) {
         firstUser = temp;
       }
 
+      long startTime = Time.monotonicNowNanos();
       if (compare == 0) {
         // both users are equal.
         manager.writeLock(firstUser);
@@ -271,6 +299,8 @@ public boolean acquireMultiUserLock(String firstUser, String secondUser) {
           throw ex;
         }
       }
+      omLockMetrics.updateWriteLockWaitTime(resource,
+          Time.monotonicNowNanos() - startTime);
       if (LOG.isDebugEnabled()) {
         LOG.debug("Acquired Write {} lock on resource {} and {}", resource.name,
             firstUser, secondUser);
@@ -282,6 +312,32 @@ public boolean acquireMultiUserLock(String firstUser, String secondUser) {
 
 
 
+  private static int compareLockOrder(LockManager<String> manager,
+      String first, String second) {
+    int compare = manager.compareLockOrder(first, second);
+    return compare != 0 ? compare : first.compareTo(second);
+  }
+
+  /**
+   * Compares the order in which the locks of two buckets of the same volume
+   * have to be acquired, when a thread holds both of them at the same time.
+   * Like for multi user locks, the stripe order is used first with striped
+   * locking, then the lexical order.
+   * @param volume volume of the buckets
+   * @param firstBucket first bucket
+   * @param secondBucket second bucket
+   * @return negative if the lock of first bucket has to be acquired first,
+   * positive if the lock of second bucket has to be acquired first, 0 if
+   * the buckets are the same
+   */
+  public int compareBucketLockOrder(String volume, String firstBucket,
+      String secondBucket) {
+    Resource resource = Resource.BUCKET_LOCK;
+    return compareLockOrder(managers.get(resource),
+        generateResourceName(resource, volume, firstBucket),
+        generateResourceName(resource, volume, secondBucket));
+  }
+
   /**
    * Release lock on multiple users.
    * @param firstUser
@@ -291,8 +347,9 @@ public void releaseMultiUserLock(String firstUser, String secondUser) {
     Resource resource = Resource.USER_LOCK;
     firstUser = generateResourceName(resource, firstUser);
     secondUser = generateResourceName(resource, secondUser);
+    LockManager<String> manager = managers.get(resource);
 
-    int compare = firstUser.compareTo(secondUser);
+    int compare = compareLockOrder(manager, firstUser, secondUser);
 
     String temp;
     // Order the user names in sorted order. Swap them.
@@ -326,7 +383,7 @@ public void releaseMultiUserLock(String firstUser, String secondUser) {
    */
   public void releaseWriteLock(Resource resource, String... resources) {
     String resourceName = generateResourceName(resource, resources);
-    unlock(resource, resourceName, manager::writeUnlock, WRITE_LOCK);
+    unlock(resource, resourceName, LockManager::writeUnlock, WRITE_LOCK);
   }
 
   /**
@@ -339,7 +396,7 @@ public void releaseWriteLock(Resource resource, String... resources) {
    */
   public void releaseReadLock(Resource resource, String... resources) {
     String resourceName = generateResourceName(resource, resources);
-    unlock(resource, resourceName, manager::readUnlock, READ_LOCK);
+    unlock(resource, resourceName, LockManager::readUnlock, READ_LOCK);
   }
 
   /**
@@ -353,15 +410,15 @@ public void releaseReadLock(Resource resource, String... resources) {
   @Deprecated
   public void releaseLock(Resource resource, String... resources) {
     String resourceName = generateResourceName(resource, resources);
-    unlock(resource, resourceName, manager::writeUnlock, WRITE_LOCK);
+    unlock(resource, resourceName, LockManager::writeUnlock, WRITE_LOCK);
   }
 
   private void unlock(Resource resource, String resourceName,
-      Consumer<String> lockFn, String lockType) {
+      BiConsumer<LockManager<String>, String> lockFn, String lockType) {
     // TODO: Not checking release of higher order level lock happened while
     // releasing lower order level lock, as for that we need counter for
     // locks, as some locks support acquiring lock again.
-    lockFn.accept(resourceName);
+    lockFn.accept(managers.get(resource), resourceName);
     // clear lock
     if (LOG.isDebugEnabled()) {
       LOG.debug("Release {} {}, lock on resource {}", lockType, resource.name,
@@ -370,6 +427,18 @@ private void unlock(Resource resource, String resourceName,
     lockSet.set(resource.clearLock(lockSet.get()));
   }
 
+  @VisibleForTesting
+  public OMLockMetrics getOMLockMetrics() {
+    return omLockMetrics;
+  }
+
+  /**
+   * Unregisters the lock metrics, called when the OM is stopped.
+   */
+  public void cleanup() {
+    omLockMetrics.unRegister();
+  }
+
   /**
    * Resource defined in Ozone.
    */
@@ -228,6 +228,27 @@ OmKeyLocationInfo allocateBlock(OmKeyArgs args, long clientID,
    */
   void renameKeys(OmRenameKeys omRenameKeys) throws IOException;
 
+  /**
+   * Copy an existing key. The new key references the blocks of the source
+   * key, the data is not copied.
+   * @param args the args of the source key.
+   * @param toArgs the args of the new key.
+   * @return OmKeyInfo of the new key.
+   * @throws IOException
+   */
+  OmKeyInfo copyKey(OmKeyArgs args, OmKeyArgs toArgs) throws IOException;
+
+  /**
+   * Copy an existing key as a part of a multipart upload. The part
+   * references the blocks of the source key, the data is not copied.
+   * @param args the args of the source key.
+   * @param toArgs the args of the multipart upload part.
+   * @return OmMultipartCommitUploadPartInfo of the part.
+   * @throws IOException
+   */
+  OmMultipartCommitUploadPartInfo copyMultipartUploadPart(OmKeyArgs args,
+      OmKeyArgs toArgs) throws IOException;
+
   /**
    * Deletes an existing key.
    *
@@ -302,6 +323,35 @@ List<OmKeyInfo> listKeys(String volumeName,
       String bucketName, String startKeyName, String keyPrefix, int maxKeys)
       throws IOException;
 
+  /**
+   * Returns a list of keys represented by {@link OmKeyInfo} in the given
+   * bucket, grouping keys by the delimiter. Keys whose name contains the
+   * delimiter after the prefix are returned as a single entry per common
+   * prefix. Such an entry has the common prefix, including the delimiter, as
+   * key name, and no data.
+   *
+   * @param volumeName
+   *   the name of the volume.
+   * @param bucketName
+   *   the name of the bucket.
+   * @param startKeyName
+   *   the start key name, only the keys whose name is
+   *   after this value will be included in the result.
+   *   If it is a common prefix, the keys below it are excluded too.
+   * @param keyPrefix
+   *   key name prefix, only the keys whose name has
+   *   this prefix will be included in the result.
+   * @param delimiter
+   *   the delimiter to group keys by, keys are not grouped if null.
+   * @param maxKeys
+   *   the maximum number of keys and common prefixes to return.
+   * @return a list of keys and common prefixes.
+   * @throws IOException
+   */
+  List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKeyName, String keyPrefix, String delimiter, int maxKeys)
+      throws IOException;
+
   /**
    * Returns list of Ozone services with its configuration details.
    *
@@ -525,4 +575,33 @@ default boolean recoverTrash(String volumeName, String bucketName,
     return false;
   }
 
+  /**
+   * Sets the S3 authentication information sent with the requests made by
+   * the current thread, until it is cleared. Used by the S3 gateway to make
+   * requests on behalf of S3 users through a shared client. Implementations
+   * which can not send the requests as the S3 user must not ignore it, the
+   * requests would be made as the user of the client instead.
+   * @param s3Auth S3 authentication information of the current S3 request
+   */
+  default void setThreadLocalS3Auth(S3Auth s3Auth) {
+    throw new UnsupportedOperationException("S3 authentication is not"
+        + " supported by " + getClass().getSimpleName());
+  }
+
+  /**
+   * @return S3 authentication information set for the current thread, or null
+   */
+  default S3Auth getThreadLocalS3Auth() {
+    throw new UnsupportedOperationException("S3 authentication is not"
+        + " supported by " + getClass().getSimpleName());
+  }
+
+  /**
+   * Clears the S3 authentication information of the current thread.
+   */
+  default void clearThreadLocalS3Auth() {
+    throw new UnsupportedOperationException("S3 authentication is not"
+        + " supported by " + getClass().getSimpleName());
+  }
+
 }
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.protocol;
+
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.S3Authentication;
+
+/**
+ * S3 authentication information of the requests made by the S3 gateway on
+ * behalf of an S3 user.
+ */
+public class S3Auth {
+  private final String stringToSign;
+  private final String signature;
+  private final String accessId;
+
+  public S3Auth(String stringToSign, String signature, String accessId) {
+    this.stringToSign = stringToSign;
+    this.signature = signature;
+    this.accessId = accessId;
+  }
+
+  public String getStringToSign() {
+    return stringToSign;
+  }
+
+  public String getSignature() {
+    return signature;
+  }
+
+  public String getAccessId() {
+    return accessId;
+  }
+
+  public S3Authentication getProtobuf() {
+    S3Authentication.Builder builder = S3Authentication.newBuilder()
+        .setAccessId(accessId);
+    // Requests without signature are accepted in non-secure clusters.
+    if (stringToSign != null) {
+      builder.setStringToSign(stringToSign);
+    }
+    if (signature != null) {
+      builder.setSignature(signature);
+    }
+    return builder.build();
+  }
+}
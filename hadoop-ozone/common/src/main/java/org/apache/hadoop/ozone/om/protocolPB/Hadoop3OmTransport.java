@@ -22,11 +22,14 @@
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.retry.FailoverProxyProvider.ProxyInfo;
 import org.apache.hadoop.io.retry.RetryProxy;
 import org.apache.hadoop.ipc.ProtobufHelper;
 import org.apache.hadoop.ipc.ProtobufRpcEngine;
 import org.apache.hadoop.ipc.RPC;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.om.ha.OMFailoverProxyProvider;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
@@ -56,6 +59,8 @@ public class Hadoop3OmTransport implements OmTransport {
 
   private final OzoneManagerProtocolPB rpcProxy;
 
+  private final boolean followerReadEnabled;
+
   public Hadoop3OmTransport(ConfigurationSource conf,
       UserGroupInformation ugi, String omServiceId) throws IOException {
 
@@ -71,10 +76,21 @@ public Hadoop3OmTransport(ConfigurationSource conf,
         OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_DEFAULT);
 
     this.rpcProxy = createRetryProxy(omFailoverProxyProvider, maxFailovers);
+
+    this.followerReadEnabled = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT) &&
+        omFailoverProxyProvider.getOMProxyInfos().size() > 1;
   }
 
   @Override
   public OMResponse submitRequest(OMRequest payload) throws IOException {
+    if (followerReadEnabled && OmUtils.isReadOnly(payload)) {
+      OMResponse omResponse = submitReadRequest(payload);
+      if (omResponse != null) {
+        return omResponse;
+      }
+    }
     try {
       OMResponse omResponse =
           rpcProxy.submitRequest(NULL_RPC_CONTROLLER, payload);
@@ -97,6 +113,24 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
     }
   }
 
+  /**
+   * Sends the read request to the next OM round robin, which may be a
+   * follower.
+   * @return the response, or null if the OM failed to serve the request, in
+   * which case it should be sent to the leader.
+   */
+  private OMResponse submitReadRequest(OMRequest payload) {
+    ProxyInfo proxyInfo = omFailoverProxyProvider.getReadProxy();
+    try {
+      return ((OzoneManagerProtocolPB) proxyInfo.proxy).submitRequest(
+          NULL_RPC_CONTROLLER, payload);
+    } catch (ServiceException e) {
+      LOG.debug("Read request {} failed on {}, sending it to the leader",
+          payload.getCmdType(), proxyInfo.proxyInfo, e);
+      return null;
+    }
+  }
+
   @Override
   public Text getDelegationTokenService() {
     return omFailoverProxyProvider.getCurrentProxyDelegationToken();
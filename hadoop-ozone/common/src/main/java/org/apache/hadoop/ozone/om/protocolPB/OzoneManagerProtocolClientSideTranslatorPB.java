@@ -54,6 +54,7 @@
 import org.apache.hadoop.ozone.om.helpers.ServiceInfo;
 import org.apache.hadoop.ozone.om.helpers.ServiceInfoEx;
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
+import org.apache.hadoop.ozone.om.protocol.S3Auth;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.AddAclRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.AddAclResponse;
@@ -64,6 +65,8 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CancelDelegationTokenResponseProto;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CheckVolumeAccessRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateBucketRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateDirectoryRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateFileRequest;
@@ -168,6 +171,9 @@
 
   private OmTransport transport;
 
+  // S3 authentication information sent with the requests of each thread.
+  private final ThreadLocal<S3Auth> threadLocalS3Auth = new ThreadLocal<>();
+
   public OzoneManagerProtocolClientSideTranslatorPB(OmTransport omTransport,
       String clientId) {
     this.clientID = clientId;
@@ -193,6 +199,21 @@ public void close() throws IOException {
     transport.close();
   }
 
+  @Override
+  public void setThreadLocalS3Auth(S3Auth s3Auth) {
+    threadLocalS3Auth.set(s3Auth);
+  }
+
+  @Override
+  public S3Auth getThreadLocalS3Auth() {
+    return threadLocalS3Auth.get();
+  }
+
+  @Override
+  public void clearThreadLocalS3Auth() {
+    threadLocalS3Auth.remove();
+  }
+
   /**
    * Returns a OMRequest builder with specified type.
    * @param cmdType type of the request
@@ -213,9 +234,13 @@ private OMRequest.Builder createOMRequest(Type cmdType) {
    */
   private OMResponse submitRequest(OMRequest omRequest)
       throws IOException {
-    OMRequest payload = OMRequest.newBuilder(omRequest)
-        .setTraceID(TracingUtil.exportCurrentSpan())
-        .build();
+    OMRequest.Builder builder = OMRequest.newBuilder(omRequest)
+        .setTraceID(TracingUtil.exportCurrentSpan());
+    S3Auth s3Auth = threadLocalS3Auth.get();
+    if (s3Auth != null) {
+      builder.setS3Authentication(s3Auth.getProtobuf());
+    }
+    OMRequest payload = builder.build();
 
     return transport.submitRequest(payload);
   }
@@ -676,6 +701,7 @@ public OmKeyInfo lookupKey(OmKeyArgs args) throws IOException {
         .setKeyName(args.getKeyName())
         .setDataSize(args.getDataSize())
         .setSortDatanodes(args.getSortDatanodes())
+        .setForceUpdateContainerCache(args.getForceUpdateContainerCache())
         .build();
     req.setKeyArgs(keyArgs);
 
@@ -734,6 +760,61 @@ public void renameKey(OmKeyArgs args, String toKeyName) throws IOException {
     handleError(submitRequest(omRequest));
   }
 
+  @Override
+  public OmKeyInfo copyKey(OmKeyArgs args, OmKeyArgs toArgs)
+      throws IOException {
+    OMRequest omRequest = createOMRequest(Type.CopyKey)
+        .setCopyKeyRequest(getCopyKeyRequest(args, toArgs))
+        .build();
+
+    CopyKeyResponse response =
+        handleError(submitRequest(omRequest)).getCopyKeyResponse();
+    return OmKeyInfo.getFromProtobuf(response.getKeyInfo());
+  }
+
+  @Override
+  public OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      OmKeyArgs args, OmKeyArgs toArgs) throws IOException {
+    OMRequest omRequest = createOMRequest(Type.CopyKey)
+        .setCopyKeyRequest(getCopyKeyRequest(args, toArgs))
+        .build();
+
+    CopyKeyResponse response =
+        handleError(submitRequest(omRequest)).getCopyKeyResponse();
+    return new OmMultipartCommitUploadPartInfo(response.getPartName());
+  }
+
+  private CopyKeyRequest getCopyKeyRequest(OmKeyArgs args,
+      OmKeyArgs toArgs) {
+    KeyArgs keyArgs = KeyArgs.newBuilder()
+        .setVolumeName(args.getVolumeName())
+        .setBucketName(args.getBucketName())
+        .setKeyName(args.getKeyName())
+        .build();
+
+    KeyArgs.Builder toKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(toArgs.getVolumeName())
+        .setBucketName(toArgs.getBucketName())
+        .setKeyName(toArgs.getKeyName());
+    if (toArgs.getMetadata() != null && toArgs.getMetadata().size() > 0) {
+      toKeyArgs.addAllMetadata(KeyValueUtil.toProtobuf(toArgs.getMetadata()));
+    }
+    if (toArgs.getAcls() != null) {
+      toKeyArgs.addAllAcls(toArgs.getAcls().stream().distinct()
+          .map(OzoneAcl::toProtobuf).collect(Collectors.toList()));
+    }
+    if (toArgs.getMultipartUploadID() != null) {
+      toKeyArgs.setMultipartUploadID(toArgs.getMultipartUploadID())
+          .setMultipartNumber(toArgs.getMultipartUploadPartNumber())
+          .setIsMultipartKey(true);
+    }
+
+    return CopyKeyRequest.newBuilder()
+        .setKeyArgs(keyArgs)
+        .setToKeyArgs(toKeyArgs)
+        .build();
+  }
+
   /**
    * Deletes an existing key.
    *
@@ -746,7 +827,8 @@ public void deleteKey(OmKeyArgs args) throws IOException {
     KeyArgs keyArgs = KeyArgs.newBuilder()
         .setVolumeName(args.getVolumeName())
         .setBucketName(args.getBucketName())
-        .setKeyName(args.getKeyName()).build();
+        .setKeyName(args.getKeyName())
+        .setRecursive(args.isRecursive()).build();
     req.setKeyArgs(keyArgs);
 
     OMRequest omRequest = createOMRequest(Type.DeleteKey)
@@ -806,6 +888,16 @@ public void deleteBucket(String volume, String bucket) throws IOException {
   @Override
   public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
       String startKey, String prefix, int maxKeys) throws IOException {
+    return listKeys(volumeName, bucketName, startKey, prefix, null, maxKeys);
+  }
+
+  /**
+   * List keys in a bucket, grouping them by the delimiter.
+   */
+  @Override
+  public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKey, String prefix, String delimiter, int maxKeys)
+      throws IOException {
     List<OmKeyInfo> keys = new ArrayList<>();
     ListKeysRequest.Builder reqBuilder = ListKeysRequest.newBuilder();
     reqBuilder.setVolumeName(volumeName);
@@ -820,6 +912,10 @@ public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
       reqBuilder.setPrefix(prefix);
     }
 
+    if (delimiter != null) {
+      reqBuilder.setDelimiter(delimiter);
+    }
+
     ListKeysRequest req = reqBuilder.build();
 
     OMRequest omRequest = createOMRequest(Type.ListKeys)
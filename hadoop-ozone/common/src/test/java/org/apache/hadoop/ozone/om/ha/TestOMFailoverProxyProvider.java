@@ -22,6 +22,8 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.StringJoiner;
 
 import org.apache.hadoop.io.Text;
@@ -141,6 +143,23 @@ public void testWaitTimeResetWhenAllNodeFailoverAndSameNode() {
     failoverToNextNode(1, waitBetweenRetries);
   }
 
+  /**
+   * Tests read requests are spread over all the OMs, without failing over
+   * the proxy of the other requests.
+   */
+  @Test
+  public void testReadProxyRoundRobin() {
+    String currentProxyOMNodeId = provider.getCurrentProxyOMNodeId();
+    Set<Object> readProxies = new HashSet<>();
+    for (int i = 0; i < numNodes; i++) {
+      readProxies.add(provider.getReadProxy());
+    }
+    Assert.assertEquals(numNodes, readProxies.size());
+    Assert.assertTrue(readProxies.contains(provider.getReadProxy()));
+    Assert.assertEquals(currentProxyOMNodeId,
+        provider.getCurrentProxyOMNodeId());
+  }
+
   /**
    * Failover to next node and wait time should be same as waitTimeAfter.
    */
@@ -84,9 +84,10 @@ public void testCopyObject() {
 
     OmKeyInfo cloneKey = key.copyObject();
 
-    // Because for OmKeyLocationInfoGroup we have not implemented equals()
-    // method, so it checks only references.
-    Assert.assertNotEquals(key, cloneKey);
+    // Location versions are shared until one of the copies is updated.
+    Assert.assertEquals(key, cloneKey);
+    Assert.assertSame(key.getKeyLocationVersions(),
+        cloneKey.getKeyLocationVersions());
 
 
     key.setAcls(Arrays.asList(new OzoneAcl(
@@ -106,6 +107,40 @@ public void testCopyObject() {
 
   }
 
+  @Test
+  public void testCopyObjectUpdateLocations() throws Exception {
+    OmKeyInfo key = new Builder()
+        .setKeyName("key1")
+        .setBucketName("bucket")
+        .setVolumeName("vol1")
+        .setCreationTime(Time.now())
+        .setModificationTime(Time.now())
+        .setDataSize(100L)
+        .setReplicationFactor(ReplicationFactor.THREE)
+        .setReplicationType(ReplicationType.RATIS)
+        .setOmKeyLocationInfos(
+            Collections.singletonList(createOmKeyLocationInfoGroup()))
+        .build();
+
+    OmKeyInfo cloneKey = key.copyObject();
+    cloneKey.appendNewBlocks(Collections.singletonList(
+        getOmKeyLocationInfo(new BlockID(102L, 100L), getPipeline())), false);
+
+    // Update of the copy should not be visible in the original key.
+    Assert.assertEquals(2,
+        key.getLatestVersionLocations().getLocationList().size());
+    Assert.assertEquals(3,
+        cloneKey.getLatestVersionLocations().getLocationList().size());
+
+    // Locations returned for update are private to the copy.
+    OmKeyInfo secondCloneKey = key.copyObject();
+    OmKeyLocationInfo location = secondCloneKey
+        .getKeyLocationVersionsForUpdate().get(0).getLocationList().get(0);
+    location.setPartNumber(10);
+    Assert.assertNotEquals(10, key.getLatestVersionLocations()
+        .getLocationList().get(0).getPartNumber());
+  }
+
   private OmKeyLocationInfoGroup createOmKeyLocationInfoGroup() {
     List<OmKeyLocationInfo> omKeyLocationInfos = new ArrayList<>();
     omKeyLocationInfos.add(getOmKeyLocationInfo(new BlockID(100L, 101L),
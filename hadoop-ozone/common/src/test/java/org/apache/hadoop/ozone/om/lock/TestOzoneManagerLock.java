@@ -28,6 +28,10 @@
 import org.junit.Test;
 
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.lock.LockManager;
 
 import static org.junit.Assert.fail;
 
@@ -235,6 +239,37 @@ public OzoneManagerLock.Resource getResource() {
     }
   }
 
+  @Test
+  public void testBucketLockOrder() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_LOCK_STRIPED_ENABLED, true);
+    conf.setInt(OzoneConfigKeys.OZONE_LOCK_STRIPES, 4);
+    OzoneManagerLock lock = new OzoneManagerLock(conf);
+    LockManager<String> stripes = new LockManager<>(conf);
+
+    for (int i = 0; i < 20; i++) {
+      String first = "bucket" + i;
+      Assert.assertEquals(0,
+          lock.compareBucketLockOrder("vol", first, first));
+      for (int j = i + 1; j < 20; j++) {
+        String second = "bucket" + j;
+        int compare = lock.compareBucketLockOrder("vol", first, second);
+        Assert.assertNotEquals(0, compare);
+        Assert.assertEquals(Integer.signum(compare), -Integer.signum(
+            lock.compareBucketLockOrder("vol", second, first)));
+
+        // buckets in different stripes are locked in stripe order
+        int stripeCompare = stripes.compareLockOrder(
+            OzoneManagerLockUtil.generateBucketLockName("vol", first),
+            OzoneManagerLockUtil.generateBucketLockName("vol", second));
+        if (stripeCompare != 0) {
+          Assert.assertEquals(Integer.signum(stripeCompare),
+              Integer.signum(compare));
+        }
+      }
+    }
+  }
+
   @Test
   public void acquireMultiUserLock() {
     OzoneManagerLock lock = new OzoneManagerLock(new OzoneConfiguration());
@@ -341,4 +376,76 @@ public void testMultiLockResourceParallel() throws Exception {
     Thread.sleep(100);
     Assert.assertTrue(gotLock.get());
   }
+
+  @Test
+  public void testLockWaitTimeMetrics() {
+    OzoneManagerLock lock = new OzoneManagerLock(new OzoneConfiguration());
+    OMLockMetrics metrics = lock.getOMLockMetrics();
+    lock.acquireReadLock(OzoneManagerLock.Resource.VOLUME_LOCK, "vol");
+    lock.acquireWriteLock(OzoneManagerLock.Resource.BUCKET_LOCK, "vol",
+        "bucket");
+    lock.releaseWriteLock(OzoneManagerLock.Resource.BUCKET_LOCK, "vol",
+        "bucket");
+    lock.releaseReadLock(OzoneManagerLock.Resource.VOLUME_LOCK, "vol");
+    lock.acquireMultiUserLock("user1", "user2");
+    lock.releaseMultiUserLock("user1", "user2");
+
+    Assert.assertEquals(1,
+        metrics.getReadLockCount(OzoneManagerLock.Resource.VOLUME_LOCK));
+    Assert.assertEquals(0,
+        metrics.getWriteLockCount(OzoneManagerLock.Resource.VOLUME_LOCK));
+    Assert.assertEquals(1,
+        metrics.getWriteLockCount(OzoneManagerLock.Resource.BUCKET_LOCK));
+    Assert.assertEquals(1,
+        metrics.getWriteLockCount(OzoneManagerLock.Resource.USER_LOCK));
+  }
+
+  @Test
+  public void testStripedLocks() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_LOCK_STRIPED_ENABLED, true);
+    // All resources of a type share a single lock.
+    conf.setInt(OzoneConfigKeys.OZONE_LOCK_STRIPES, 1);
+    OzoneManagerLock lock = new OzoneManagerLock(conf);
+
+    // Locks of different types do not share stripes, so read lock on volume
+    // and write lock on bucket can be held together.
+    lock.acquireReadLock(OzoneManagerLock.Resource.VOLUME_LOCK, "vol");
+    lock.acquireWriteLock(OzoneManagerLock.Resource.BUCKET_LOCK, "vol",
+        "bucket");
+    lock.releaseWriteLock(OzoneManagerLock.Resource.BUCKET_LOCK, "vol",
+        "bucket");
+    lock.releaseReadLock(OzoneManagerLock.Resource.VOLUME_LOCK, "vol");
+
+    lock.acquireMultiUserLock("user2", "user1");
+    AtomicBoolean gotLock = new AtomicBoolean(false);
+    new Thread(() -> {
+      lock.acquireMultiUserLock("user3", "user4");
+      gotLock.set(true);
+      lock.releaseMultiUserLock("user3", "user4");
+    }).start();
+    // Let's give some time for the new thread to run
+    Thread.sleep(100);
+    // Other users share the same stripe, so the new thread will wait.
+    Assert.assertFalse(gotLock.get());
+    lock.releaseMultiUserLock("user2", "user1");
+    Thread.sleep(100);
+    Assert.assertTrue(gotLock.get());
+  }
+
+  @Test
+  public void testCleanupUnregistersMetrics() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    OzoneManagerLock lock = new OzoneManagerLock(new OzoneConfiguration());
+    String sourceName = OMLockMetrics.class.getSimpleName();
+    Assert.assertSame(lock.getOMLockMetrics(), ms.getSource(sourceName));
+
+    // cleanup of a replaced lock keeps the metrics of the new one
+    OzoneManagerLock newLock = new OzoneManagerLock(new OzoneConfiguration());
+    lock.cleanup();
+    Assert.assertSame(newLock.getOMLockMetrics(), ms.getSource(sourceName));
+
+    newLock.cleanup();
+    Assert.assertNull(ms.getSource(sourceName));
+  }
 }
@@ -254,7 +254,7 @@ public void testKeyOps() throws IOException {
     Mockito.doNothing().when(mockKm).deleteKey(any());
     Mockito.doReturn(null).when(mockKm).lookupKey(any(), any());
     Mockito.doReturn(null).when(mockKm).listKeys(any(), any(), any(), any(),
-        anyInt());
+        any(), anyInt());
     Mockito.doReturn(null).when(mockKm).listTrash(any(), any(), any(), any(),
         anyInt());
     Mockito.doNothing().when(mockKm).commitKey(any(), anyLong());
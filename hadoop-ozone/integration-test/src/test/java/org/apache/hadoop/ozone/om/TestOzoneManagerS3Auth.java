@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.MiniOzoneCluster;
+import org.apache.hadoop.ozone.OzoneAcl;
+import org.apache.hadoop.ozone.OzoneTestUtils;
+import org.apache.hadoop.ozone.client.ObjectStore;
+import org.apache.hadoop.ozone.client.OzoneClient;
+import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
+import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
+import org.apache.hadoop.ozone.om.protocol.S3Auth;
+import org.apache.hadoop.ozone.security.acl.OzoneObj;
+import org.apache.hadoop.ozone.security.acl.OzoneObjInfo;
+
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_ACL_AUTHORIZER_CLASS;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_ACL_AUTHORIZER_CLASS_NATIVE;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_ACL_ENABLED;
+import static org.apache.hadoop.ozone.security.acl.OzoneObj.StoreType.OZONE;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Tests requests made on behalf of S3 users through one shared client, as
+ * the S3 gateway does.
+ */
+public class TestOzoneManagerS3Auth {
+
+  @Rule
+  public Timeout timeout = Timeout.seconds(300);
+
+  private static final String[] USERS = {"s3user1", "s3user2"};
+  private static final int ITERATIONS = 20;
+
+  private static MiniOzoneCluster cluster;
+  private static OzoneClient client;
+
+  @BeforeClass
+  public static void init() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    // Use native impl here, default impl doesn't do actual checks
+    conf.set(OZONE_ACL_AUTHORIZER_CLASS, OZONE_ACL_AUTHORIZER_CLASS_NATIVE);
+    conf.setBoolean(OZONE_ACL_ENABLED, true);
+    cluster = MiniOzoneCluster.newBuilder(conf)
+        .setNumDatanodes(1)
+        .build();
+    cluster.waitForClusterToBeReady();
+    client = cluster.getClient();
+
+    // Each user can only access its own volume.
+    ObjectStore store = client.getObjectStore();
+    for (String user : USERS) {
+      String volumeName = volumeOf(user);
+      store.createVolume(volumeName);
+      store.getClientProxy().setVolumeOwner(volumeName, user);
+      OzoneObj obj = OzoneObjInfo.Builder.newBuilder()
+          .setVolumeName(volumeName)
+          .setResType(OzoneObj.ResourceType.VOLUME)
+          .setStoreType(OZONE)
+          .build();
+      Assert.assertTrue(store.setAcl(obj,
+          OzoneAcl.parseAcls("user:" + user + ":a")));
+    }
+  }
+
+  @AfterClass
+  public static void shutdown() {
+    if (cluster != null) {
+      cluster.shutdown();
+    }
+  }
+
+  @Test
+  public void testS3UsersSharingClient() throws Exception {
+    CyclicBarrier barrier = new CyclicBarrier(USERS.length);
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < USERS.length; i++) {
+      String user = USERS[i];
+      String otherUser = USERS[(i + 1) % USERS.length];
+      futures.add(CompletableFuture.runAsync(() -> {
+        try {
+          barrier.await();
+          checkAccessAs(user, otherUser);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }));
+    }
+    for (CompletableFuture<Void> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+
+    // The identity of the S3 users is not left on the shared client.
+    ObjectStore store = client.getObjectStore();
+    for (String user : USERS) {
+      Assert.assertEquals(user, store.getVolume(volumeOf(user)).getOwner());
+    }
+  }
+
+  private static void checkAccessAs(String user, String otherUser)
+      throws Exception {
+    ObjectStore store = client.getObjectStore();
+    ClientProtocol proxy = store.getClientProxy();
+    for (int i = 0; i < ITERATIONS; i++) {
+      proxy.setThreadLocalS3Auth(new S3Auth("", "", user));
+      try {
+        Assert.assertEquals(user,
+            store.getVolume(volumeOf(user)).getOwner());
+        OzoneTestUtils.expectOmException(ResultCodes.PERMISSION_DENIED,
+            () -> store.getVolume(volumeOf(otherUser)));
+      } finally {
+        proxy.clearThreadLocalS3Auth();
+      }
+    }
+  }
+
+  private static String volumeOf(String user) {
+    return "vol-" + user;
+  }
+}
@@ -126,6 +126,25 @@ public interface OMMetadataManager extends DBStoreHAManager {
    */
   String getOzoneDirKey(String volume, String bucket, String key);
 
+  /**
+   * Given the object ID of a parent directory or bucket and a child name,
+   * return the DB key of the child in the directory and file tables of
+   * buckets with the prefix metadata layout.
+   *
+   * @param parentObjectId - object ID of the parent directory or bucket
+   * @param name - name of the child directory or file
+   * @return DB key as String.
+   */
+  String getOzonePathKey(long parentObjectId, String name);
+
+  /**
+   * Returns the DB key of a deleted directory in the deleted directory table.
+   *
+   * @param objectId - object ID of the deleted directory
+   * @param pathKey - DB key of the directory in the directory table
+   * @return DB key as String.
+   */
+  String getOzoneDeletePathKey(long objectId, String pathKey);
 
   /**
    * Returns the DB key name of a open key in OM metadata store. Should be
@@ -196,6 +215,34 @@ List<OmKeyInfo> listKeys(String volumeName,
       String bucketName, String startKey, String keyPrefix, int maxKeys)
       throws IOException;
 
+  /**
+   * Returns a list of keys represented by {@link OmKeyInfo} in the given
+   * bucket, rolling up the keys below each common prefix.
+   *
+   * If the delimiter is not empty, keys whose name contains the delimiter
+   * after keyPrefix are not returned. For each such group of keys a single
+   * entry is returned instead, whose name is the common prefix up to and
+   * including the first delimiter, and which has no data. The rest of the
+   * group is skipped by seeking past the common prefix. A startKey which is
+   * a common prefix excludes all keys below it.
+   *
+   * @param volumeName the name of the volume.
+   * @param bucketName the name of the bucket.
+   * @param startKey the start key name, only the keys whose name is after this
+   * value will be included in the result. This key is excluded from the
+   * result.
+   * @param keyPrefix key name prefix, only the keys whose name has this prefix
+   * will be included in the result.
+   * @param delimiter the delimiter to group keys by, may be null.
+   * @param maxKeys the maximum number of entries to return. It ensures the
+   * size of the result will not exceed this limit.
+   * @return a list of keys and common prefixes.
+   * @throws IOException
+   */
+  List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, String delimiter, int maxKeys)
+      throws IOException;
+
   /**
    * List trash allows the user to list the keys that were marked as deleted,
    * but not actually deleted by Ozone Manager. This allows a user to recover
@@ -346,6 +393,46 @@ String getMultipartKey(String volume, String bucket, String key, String
 
   Table<String, TransactionInfo> getTransactionInfoTable();
 
+  /**
+   * Gets the block reference table. It holds the number of extra keys
+   * referring to a block, for blocks shared between keys by key copy. Blocks
+   * referred by a single key have no entry.
+   * @return Table
+   */
+  Table<String, Long> getBlockReferenceTable();
+
+  /**
+   * Gets the directory table of buckets with the prefix metadata layout. The
+   * key is the object ID of the parent directory or bucket and the directory
+   * name, the value has the directory name as key name.
+   * @return Table
+   */
+  Table<String, OmKeyInfo> getDirectoryTable();
+
+  /**
+   * Gets the file table of buckets with the prefix metadata layout. The key
+   * is the object ID of the parent directory or bucket and the file name,
+   * the value has the file name as key name.
+   * @return Table
+   */
+  Table<String, OmKeyInfo> getFileTable();
+
+  /**
+   * Gets the table of deleted directories of buckets with the prefix
+   * metadata layout, whose contents have not been purged yet. The value has
+   * the full path of the directory as key name.
+   * @return Table
+   */
+  Table<String, OmKeyInfo> getDeletedDirTable();
+
+  /**
+   * Returns the DB key of a block in the block reference table.
+   * @param containerID - container ID of the block
+   * @param localID - local ID of the block
+   * @return DB key as String.
+   */
+  String getBlockReferenceKey(long containerID, long localID);
+
   /**
    * Returns number of rows in a table.  This should not be used for very
    * large tables.
@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.om;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.utils.BackgroundService;
+import org.apache.hadoop.hdds.utils.BackgroundTask;
+import org.apache.hadoop.hdds.utils.BackgroundTaskQueue;
+import org.apache.hadoop.hdds.utils.BackgroundTaskResult;
+import org.apache.hadoop.hdds.utils.BackgroundTaskResult.EmptyTaskResult;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeDirectoriesRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgePathRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.protocol.ClientId;
+import org.apache.ratis.protocol.Message;
+import org.apache.ratis.protocol.RaftClientRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_PATH_DELETING_LIMIT_PER_TASK;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_PATH_DELETING_LIMIT_PER_TASK_DEFAULT;
+
+/**
+ * This is the background service to purge the contents of the directories
+ * deleted from buckets with the prefix metadata layout. It scans the
+ * DeletedDirectoryTable periodically, and submits PurgeDirectories requests
+ * which move the files of the deleted directories to the DeletedTable, and
+ * their sub-directories to the DeletedDirectoryTable. A deleted directory is
+ * removed once all its children are moved.
+ */
+public class DirectoryDeletingService extends BackgroundService {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DirectoryDeletingService.class);
+
+  // Use only a single thread for directory deletion. Multiple threads would
+  // read from the same table and can send purge requests for the same
+  // directory multiple times.
+  private static final int DIR_DELETING_CORE_POOL_SIZE = 1;
+
+  private final OzoneManager ozoneManager;
+  private final OMMetadataManager metadataManager;
+  private static ClientId clientId = ClientId.randomId();
+  private final int pathLimitPerTask;
+  private final AtomicLong deletedDirsCount;
+  private final AtomicLong movedFilesCount;
+  private final AtomicLong runCount;
+
+  DirectoryDeletingService(OzoneManager ozoneManager,
+      OMMetadataManager metadataManager, long serviceInterval,
+      long serviceTimeout, ConfigurationSource conf) {
+    super("DirectoryDeletingService", serviceInterval, TimeUnit.MILLISECONDS,
+        DIR_DELETING_CORE_POOL_SIZE, serviceTimeout);
+    this.ozoneManager = ozoneManager;
+    this.metadataManager = metadataManager;
+    this.pathLimitPerTask = conf.getInt(OZONE_PATH_DELETING_LIMIT_PER_TASK,
+        OZONE_PATH_DELETING_LIMIT_PER_TASK_DEFAULT);
+    this.deletedDirsCount = new AtomicLong(0);
+    this.movedFilesCount = new AtomicLong(0);
+    this.runCount = new AtomicLong(0);
+  }
+
+  /**
+   * Returns the number of times this Background service has run.
+   *
+   * @return Long, run count.
+   */
+  @VisibleForTesting
+  public AtomicLong getRunCount() {
+    return runCount;
+  }
+
+  /**
+   * Returns the number of deleted directories purged by the service.
+   *
+   * @return Long count.
+   */
+  @VisibleForTesting
+  public AtomicLong getDeletedDirsCount() {
+    return deletedDirsCount;
+  }
+
+  /**
+   * Returns the number of files moved to the DeletedTable by the service.
+   *
+   * @return Long count.
+   */
+  @VisibleForTesting
+  public AtomicLong getMovedFilesCount() {
+    return movedFilesCount;
+  }
+
+  @Override
+  public BackgroundTaskQueue getTasks() {
+    BackgroundTaskQueue queue = new BackgroundTaskQueue();
+    queue.add(new DirectoryDeletingTask());
+    return queue;
+  }
+
+  private boolean shouldRun() {
+    if (ozoneManager == null) {
+      // OzoneManager can be null for testing
+      return true;
+    }
+    return ozoneManager.isLeaderReady();
+  }
+
+  /**
+   * A directory deleting task lists the children of the deleted directories
+   * from the OM DB, up to a certain number of paths, and asks OM to purge
+   * them.
+   */
+  private class DirectoryDeletingTask implements BackgroundTask {
+
+    @Override
+    public int getPriority() {
+      return 0;
+    }
+
+    @Override
+    public BackgroundTaskResult call() throws Exception {
+      // Check if this is the Leader OM. If not leader, no need to execute this
+      // task.
+      if (shouldRun()) {
+        runCount.incrementAndGet();
+        try {
+          long startTime = Time.monotonicNow();
+          List<PurgePathRequest> purgePaths = getPurgePaths();
+          if (!purgePaths.isEmpty() && submitPurgeRequest(purgePaths)) {
+            long dirCount = 0;
+            long fileCount = 0;
+            for (PurgePathRequest path : purgePaths) {
+              if (path.getPurgeDir()) {
+                dirCount++;
+              }
+              fileCount += path.getDeletedSubFilesCount();
+            }
+            LOG.debug("Number of dirs deleted: {}, files moved: {}, " +
+                "elapsed time: {}ms", dirCount, fileCount,
+                Time.monotonicNow() - startTime);
+            deletedDirsCount.addAndGet(dirCount);
+            movedFilesCount.addAndGet(fileCount);
+          }
+        } catch (IOException e) {
+          LOG.error("Error while running delete directories background " +
+              "task. Will retry at next run.", e);
+        }
+      }
+      // By design, no one cares about the results of this call back.
+      return EmptyTaskResult.newResult();
+    }
+  }
+
+  /**
+   * Lists the children of the deleted directories, up to the path limit.
+   * A deleted directory is purged along with its last children.
+   */
+  @VisibleForTesting
+  List<PurgePathRequest> getPurgePaths() throws IOException {
+    List<PurgePathRequest> purgePaths = new ArrayList<>();
+    int remaining = pathLimitPerTask;
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+        deletedDirs = metadataManager.getDeletedDirTable().iterator()) {
+      while (remaining > 0 && deletedDirs.hasNext()) {
+        Table.KeyValue<String, OmKeyInfo> deletedDir = deletedDirs.next();
+        String prefix = metadataManager.getOzonePathKey(
+            deletedDir.getValue().getObjectID(), "");
+
+        PurgePathRequest.Builder path = PurgePathRequest.newBuilder()
+            .setDeletedDir(deletedDir.getKey());
+        List<String> subDirs = listKeys(metadataManager.getDirectoryTable(),
+            prefix, remaining);
+        path.addAllMarkDeletedSubDirs(subDirs);
+        remaining -= subDirs.size();
+        List<String> subFiles = listKeys(metadataManager.getFileTable(),
+            prefix, remaining);
+        path.addAllDeletedSubFiles(subFiles);
+        remaining -= subFiles.size();
+
+        // All the children are listed if the limit is not reached.
+        path.setPurgeDir(remaining > 0);
+        purgePaths.add(path.build());
+      }
+    }
+    return purgePaths;
+  }
+
+  /**
+   * Lists up to limit keys of the table with the given prefix.
+   */
+  private static List<String> listKeys(Table<String, OmKeyInfo> table,
+      String prefix, int limit) throws IOException {
+    List<String> keys = new ArrayList<>();
+    if (limit <= 0) {
+      return keys;
+    }
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+        iterator = table.iterator()) {
+      iterator.seek(prefix);
+      while (iterator.hasNext() && keys.size() < limit) {
+        String key = iterator.next().getKey();
+        if (!key.startsWith(prefix)) {
+          break;
+        }
+        keys.add(key);
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Submits PurgeDirectories request for the given paths.
+   *
+   * @return whether the request was submitted successfully.
+   */
+  private boolean submitPurgeRequest(List<PurgePathRequest> purgePaths) {
+    OMRequest omRequest = OMRequest.newBuilder()
+        .setCmdType(Type.PurgeDirectories)
+        .setPurgeDirectoriesRequest(PurgeDirectoriesRequest.newBuilder()
+            .addAllDeletedPath(purgePaths))
+        .setClientId(clientId.toString())
+        .build();
+
+    // Submit PurgeDirectories request to OM
+    try {
+      if (ozoneManager.isRatisEnabled()) {
+        RaftClientRequest raftClientRequest =
+            createRaftClientRequestForPurge(omRequest);
+        ozoneManager.getOmRatisServer().submitRequest(omRequest,
+            raftClientRequest);
+      } else {
+        ozoneManager.getOmServerProtocol().submitRequest(null, omRequest);
+      }
+    } catch (ServiceException e) {
+      LOG.error("PurgeDirectories request failed. Will retry at next run.",
+          e);
+      return false;
+    }
+    return true;
+  }
+
+  private RaftClientRequest createRaftClientRequestForPurge(
+      OMRequest omRequest) {
+    return RaftClientRequest.newBuilder()
+        .setClientId(clientId)
+        .setServerId(ozoneManager.getOmRatisServer().getRaftPeerId())
+        .setGroupId(ozoneManager.getOmRatisServer().getRaftGroupId())
+        .setCallId(runCount.get())
+        .setMessage(
+            Message.valueOf(
+                OMRatisHelper.convertRequestToByteString(omRequest)))
+        .setType(RaftClientRequest.writeRequestType())
+        .build();
+  }
+}
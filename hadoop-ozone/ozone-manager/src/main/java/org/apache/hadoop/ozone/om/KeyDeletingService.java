@@ -26,6 +26,7 @@
 
 import com.google.protobuf.ServiceException;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
 import org.apache.hadoop.ozone.common.BlockGroup;
@@ -33,7 +34,9 @@
 import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DeletedKeys;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.SharedKeyBlocks;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 import org.apache.hadoop.util.Time;
 import org.apache.hadoop.hdds.utils.BackgroundService;
@@ -164,17 +167,17 @@ public BackgroundTaskResult call() throws Exception {
           List<BlockGroup> keyBlocksList = manager
               .getPendingDeletionKeys(keyLimitPerTask);
           if (keyBlocksList != null && !keyBlocksList.isEmpty()) {
+            Map<String, List<BlockID>> sharedBlocks = new HashMap<>();
             List<DeleteBlockGroupResult> results =
-                scmClient.deleteKeyBlocks(keyBlocksList);
+                deleteUnsharedBlocks(keyBlocksList, sharedBlocks);
             if (results != null) {
               int delCount;
-              if (isRatisEnabled()) {
-                delCount = submitPurgeKeysRequest(results);
+              if (ozoneManager != null) {
+                delCount = submitPurgeKeysRequest(results, sharedBlocks);
               } else {
-                // TODO: Once HA and non-HA paths are merged, we should have
-                //  only one code path here. Purge keys should go through an
-                //  OMRequest model.
-                delCount = deleteAllKeys(results);
+                // Without OzoneManager, only in tests, there is no request
+                // processing, so the keys are deleted from the DB directly.
+                delCount = deleteAllKeys(results, sharedBlocks);
               }
               LOG.debug("Number of keys deleted: {}, elapsed time: {}ms",
                   delCount, Time.monotonicNow() - startTime);
@@ -190,22 +193,87 @@ public BackgroundTaskResult call() throws Exception {
       return EmptyTaskResult.newResult();
     }
 
+    /**
+     * Sends the blocks of the given keys to SCM for deletion, except for the
+     * blocks which are still referred by other keys. Those are added to
+     * sharedBlocks instead, so that their reference count is decremented
+     * when the key is purged.
+     *
+     * @param keyBlocksList blocks of the keys pending deletion.
+     * @param sharedBlocks shared blocks by deleted key name, filled in by
+     *                     this method.
+     * @return DeleteBlockGroups returned by SCM, and successful results for
+     * the keys which have only shared blocks.
+     */
+    private List<DeleteBlockGroupResult> deleteUnsharedBlocks(
+        List<BlockGroup> keyBlocksList, Map<String, List<BlockID>> sharedBlocks)
+        throws IOException {
+      OMMetadataManager metadataManager = manager.getMetadataManager();
+      Table<String, Long> blockReferenceTable =
+          metadataManager.getBlockReferenceTable();
+      // Number of references released by the keys processed so far.
+      Map<String, Long> releasedReferences = new HashMap<>();
+      List<BlockGroup> unsharedKeyBlocks = new ArrayList<>();
+      List<DeleteBlockGroupResult> results = new ArrayList<>();
+      for (BlockGroup keyBlocks : keyBlocksList) {
+        List<BlockID> unsharedBlocks = new ArrayList<>();
+        for (BlockID blockID : keyBlocks.getBlockIDList()) {
+          String blockKey = metadataManager.getBlockReferenceKey(
+              blockID.getContainerID(), blockID.getLocalID());
+          Long references = blockReferenceTable.get(blockKey);
+          long released = releasedReferences.getOrDefault(blockKey, 0L);
+          if (references != null && references > released) {
+            releasedReferences.put(blockKey, released + 1);
+            sharedBlocks.computeIfAbsent(keyBlocks.getGroupID(),
+                k -> new ArrayList<>()).add(blockID);
+          } else {
+            unsharedBlocks.add(blockID);
+          }
+        }
+        if (unsharedBlocks.isEmpty()) {
+          results.add(new DeleteBlockGroupResult(keyBlocks.getGroupID(),
+              new ArrayList<>()));
+        } else {
+          unsharedKeyBlocks.add(BlockGroup.newBuilder()
+              .setKeyName(keyBlocks.getGroupID())
+              .addAllBlockIDs(unsharedBlocks)
+              .build());
+        }
+      }
+      if (!unsharedKeyBlocks.isEmpty()) {
+        List<DeleteBlockGroupResult> scmResults =
+            scmClient.deleteKeyBlocks(unsharedKeyBlocks);
+        if (scmResults == null) {
+          return null;
+        }
+        results.addAll(scmResults);
+      }
+      return results;
+    }
+
     /**
      * Deletes all the keys that SCM has acknowledged and queued for delete.
      *
      * @param results DeleteBlockGroups returned by SCM.
+     * @param sharedBlocks blocks of the keys which are still referred by
+     *                     other keys.
      * @throws RocksDBException on Error.
      * @throws IOException      on Error
      */
-    private int deleteAllKeys(List<DeleteBlockGroupResult> results)
+    private int deleteAllKeys(List<DeleteBlockGroupResult> results,
+        Map<String, List<BlockID>> sharedBlocks)
         throws RocksDBException, IOException {
-      Table deletedTable = manager.getMetadataManager().getDeletedTable();
+      OMMetadataManager metadataManager = manager.getMetadataManager();
+      Table deletedTable = metadataManager.getDeletedTable();
+      Table<String, Long> blockReferenceTable =
+          metadataManager.getBlockReferenceTable();
 
-      DBStore store = manager.getMetadataManager().getStore();
+      DBStore store = metadataManager.getStore();
 
       // Put all keys to delete in a single transaction and call for delete.
       int deletedCount = 0;
       try (BatchOperation writeBatch = store.initBatchOperation()) {
+        Map<String, Long> blockReferences = new HashMap<>();
         for (DeleteBlockGroupResult result : results) {
           if (result.isSuccess()) {
             // Purge key from OM DB.
@@ -213,6 +281,29 @@ private int deleteAllKeys(List<DeleteBlockGroupResult> results)
                 result.getObjectKey());
             LOG.debug("Key {} deleted from OM DB", result.getObjectKey());
             deletedCount++;
+            List<BlockID> blocks = sharedBlocks.remove(result.getObjectKey());
+            if (blocks == null) {
+              continue;
+            }
+            for (BlockID blockID : blocks) {
+              String blockKey = metadataManager.getBlockReferenceKey(
+                  blockID.getContainerID(), blockID.getLocalID());
+              Long references = blockReferences.get(blockKey);
+              if (references == null) {
+                references = blockReferenceTable.get(blockKey);
+              }
+              if (references != null) {
+                blockReferences.put(blockKey, references - 1);
+              }
+            }
+          }
+        }
+        for (Map.Entry<String, Long> entry : blockReferences.entrySet()) {
+          if (entry.getValue() > 0) {
+            blockReferenceTable.putWithBatch(writeBatch, entry.getKey(),
+                entry.getValue());
+          } else {
+            blockReferenceTable.deleteWithBatch(writeBatch, entry.getKey());
           }
         }
         // Write a single transaction for delete.
@@ -223,12 +314,17 @@ private int deleteAllKeys(List<DeleteBlockGroupResult> results)
 
     /**
      * Submits PurgeKeys request for the keys whose blocks have been deleted
-     * by SCM.
+     * by SCM. Without Ratis, the request is processed by OM directly, so
+     * that the tables are updated through the table cache and the double
+     * buffer the same way as with Ratis.
      *
      * @param results DeleteBlockGroups returned by SCM.
+     * @param sharedBlocks blocks of the keys which are still referred by
+     *                     other keys.
      * @throws IOException      on Error
      */
-    public int submitPurgeKeysRequest(List<DeleteBlockGroupResult> results) {
+    public int submitPurgeKeysRequest(List<DeleteBlockGroupResult> results,
+        Map<String, List<BlockID>> sharedBlocks) {
       Map<Pair<String, String>, List<String>> purgeKeysMapPerBucket =
           new HashMap<>();
 
@@ -247,6 +343,21 @@ public int submitPurgeKeysRequest(List<DeleteBlockGroupResult> results) {
 
       PurgeKeysRequest.Builder purgeKeysRequest = PurgeKeysRequest.newBuilder();
 
+      // Reference counts of the shared blocks are decremented on purge.
+      for (DeleteBlockGroupResult result : results) {
+        List<BlockID> blocks = result.isSuccess() ?
+            sharedBlocks.remove(result.getObjectKey()) : null;
+        if (blocks != null) {
+          SharedKeyBlocks.Builder sharedKeyBlocks = SharedKeyBlocks.newBuilder()
+              .setDeletedKey(result.getObjectKey());
+          for (BlockID blockID : blocks) {
+            sharedKeyBlocks.addBlockIDs(
+                blockID.getContainerBlockID().getProtobuf());
+          }
+          purgeKeysRequest.addSharedKeyBlocks(sharedKeyBlocks);
+        }
+      }
+
       // Add keys to PurgeKeysRequest bucket wise.
       for (Map.Entry<Pair<String, String>, List<String>> entry :
           purgeKeysMapPerBucket.entrySet()) {
@@ -267,10 +378,20 @@ public int submitPurgeKeysRequest(List<DeleteBlockGroupResult> results) {
 
       // Submit PurgeKeys request to OM
       try {
-        RaftClientRequest raftClientRequest =
-            createRaftClientRequestForPurge(omRequest);
-        ozoneManager.getOmRatisServer().submitRequest(omRequest,
-            raftClientRequest);
+        if (isRatisEnabled()) {
+          RaftClientRequest raftClientRequest =
+              createRaftClientRequestForPurge(omRequest);
+          ozoneManager.getOmRatisServer().submitRequest(omRequest,
+              raftClientRequest);
+        } else {
+          OMResponse response = ozoneManager.getOmServerProtocol()
+              .submitRequest(null, omRequest);
+          if (!response.getSuccess()) {
+            LOG.error("PurgeKey request failed: {}. Will retry at next run.",
+                response.getMessage());
+            return 0;
+          }
+        }
       } catch (ServiceException e) {
         LOG.error("PurgeKey request failed. Will retry at next run.");
         return 0;
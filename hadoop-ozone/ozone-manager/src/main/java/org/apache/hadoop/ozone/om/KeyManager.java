@@ -151,6 +151,35 @@ List<OmKeyInfo> listKeys(String volumeName,
       String bucketName, String startKey, String keyPrefix, int maxKeys)
       throws IOException;
 
+  /**
+   * Returns a list of keys represented by {@link OmKeyInfo}
+   * in the given bucket. If delimiter is not empty, the keys below each
+   * common prefix are returned as a single entry named after the prefix,
+   * see {@link OMMetadataManager#listKeys(String, String, String, String,
+   * String, int)}.
+   *
+   * @param volumeName
+   *   the name of the volume.
+   * @param bucketName
+   *   the name of the bucket.
+   * @param startKey
+   *   the start key name, only the keys whose name is
+   *   after this value will be included in the result.
+   *   This key is excluded from the result.
+   * @param keyPrefix
+   *   key name prefix, only the keys whose name has
+   *   this prefix will be included in the result.
+   * @param delimiter
+   *   the delimiter to group keys by, may be null.
+   * @param maxKeys
+   *   the maximum number of entries to return.
+   * @return a list of keys and common prefixes.
+   * @throws IOException
+   */
+  List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, String delimiter, int maxKeys)
+      throws IOException;
+
   /**
    * List trash allows the user to list the keys that were marked as deleted,
    * but not actually deleted by Ozone Manager. This allows a user to recover
@@ -214,6 +243,12 @@ List<RepeatedOmKeyInfo> listTrash(String volumeName, String bucketName,
    */
   BackgroundService getDeletingService();
 
+  /**
+   * Returns the instance of Directory Deleting Service.
+   * @return Background service.
+   */
+  BackgroundService getDirDeletingService();
+
 
   /**
    * Initiate multipart upload for the specified key.
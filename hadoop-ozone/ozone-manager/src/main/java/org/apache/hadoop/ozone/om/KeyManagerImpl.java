@@ -67,7 +67,6 @@
 import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
-import org.apache.hadoop.ipc.Server;
 import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConsts;
@@ -96,6 +95,7 @@
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
 import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PartKeyInfo;
 import org.apache.hadoop.ozone.security.OzoneBlockTokenSecretManager;
 import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
@@ -130,6 +130,12 @@
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_SCM_BLOCK_SIZE_DEFAULT;
 import static org.apache.hadoop.ozone.ClientVersions.CURRENT_VERSION;
 import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_ENABLED;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_ENABLED_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NETWORK_TOPOLOGY_LOCAL_ENABLED;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NETWORK_TOPOLOGY_LOCAL_ENABLED_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_DIRECTORY_DELETING_SERVICE_INTERVAL;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_DIRECTORY_DELETING_SERVICE_INTERVAL_DEFAULT;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.DIRECTORY_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.FILE_NOT_FOUND;
@@ -167,6 +173,9 @@ public class KeyManagerImpl implements KeyManager {
   private final boolean grpcBlockTokenEnabled;
 
   private BackgroundService keyDeletingService;
+  private BackgroundService dirDeletingService;
+  private ScmTopologyClient topologyClient;
+  private ScmContainerLocationCache containerLocationCache;
 
   private final KeyProviderCryptoExtension kmsProvider;
   private final PrefixManager prefixManager;
@@ -246,6 +255,37 @@ public void start(OzoneConfiguration configuration) {
           serviceTimeout, configuration);
       keyDeletingService.start();
     }
+
+    if (dirDeletingService == null) {
+      long dirDeleteInterval = configuration.getTimeDuration(
+          OZONE_DIRECTORY_DELETING_SERVICE_INTERVAL,
+          OZONE_DIRECTORY_DELETING_SERVICE_INTERVAL_DEFAULT,
+          TimeUnit.MILLISECONDS);
+      long serviceTimeout = configuration.getTimeDuration(
+          OZONE_BLOCK_DELETING_SERVICE_TIMEOUT,
+          OZONE_BLOCK_DELETING_SERVICE_TIMEOUT_DEFAULT,
+          TimeUnit.MILLISECONDS);
+      dirDeletingService = new DirectoryDeletingService(ozoneManager,
+          metadataManager, dirDeleteInterval, serviceTimeout, configuration);
+      dirDeletingService.start();
+    }
+
+    if (topologyClient == null && scmClient.getContainerClient() != null
+        && configuration.getBoolean(OZONE_OM_NETWORK_TOPOLOGY_LOCAL_ENABLED,
+            OZONE_OM_NETWORK_TOPOLOGY_LOCAL_ENABLED_DEFAULT)) {
+      topologyClient = new ScmTopologyClient(scmClient.getContainerClient(),
+          configuration);
+      topologyClient.start();
+    }
+
+    if (containerLocationCache == null
+        && scmClient.getContainerClient() != null
+        && configuration.getBoolean(OZONE_OM_CONTAINER_LOCATION_CACHE_ENABLED,
+            OZONE_OM_CONTAINER_LOCATION_CACHE_ENABLED_DEFAULT)) {
+      containerLocationCache = new ScmContainerLocationCache(
+          scmClient.getContainerClient(), configuration);
+      containerLocationCache.start();
+    }
   }
 
   KeyProviderCryptoExtension getKMSProvider() {
@@ -258,6 +298,18 @@ public void stop() throws IOException {
       keyDeletingService.shutdown();
       keyDeletingService = null;
     }
+    if (dirDeletingService != null) {
+      dirDeletingService.shutdown();
+      dirDeletingService = null;
+    }
+    if (topologyClient != null) {
+      topologyClient.stop();
+      topologyClient = null;
+    }
+    if (containerLocationCache != null) {
+      containerLocationCache.stop();
+      containerLocationCache = null;
+    }
   }
 
   private OmBucketInfo getBucketInfo(String volumeName, String bucketName)
@@ -391,7 +443,7 @@ private List<OmKeyLocationInfo> allocateBlock(OmKeyInfo keyInfo,
    * UGI.getCurrentUser which is synch'ed.
    */
   public static UserGroupInformation getRemoteUser() throws IOException {
-    UserGroupInformation ugi = Server.getRemoteUser();
+    UserGroupInformation ugi = OzoneManager.getRpcRemoteUser();
     return (ugi != null) ? ugi : UserGroupInformation.getCurrentUser();
   }
 
@@ -653,9 +705,15 @@ public OmKeyInfo lookupKey(OmKeyArgs args, String clientAddress)
         bucketName);
     OmKeyInfo value = null;
     try {
-      String keyBytes = metadataManager.getOzoneKey(
-          volumeName, bucketName, keyName);
-      value = metadataManager.getKeyTable().get(keyBytes);
+      if (isPrefixLayout(volumeName, bucketName)) {
+        OMFileRequest.OMPrefixPathInfo pathInfo =
+            resolvePrefixPath(volumeName, bucketName, keyName);
+        value = withFullKeyName(pathInfo.getFileInfo(), pathInfo);
+      } else {
+        String keyBytes = metadataManager.getOzoneKey(
+            volumeName, bucketName, keyName);
+        value = metadataManager.getKeyTable().get(keyBytes);
+      }
     } catch (IOException ex) {
       if (ex instanceof OMException) {
         throw ex;
@@ -684,7 +742,8 @@ public OmKeyInfo lookupKey(OmKeyArgs args, String clientAddress)
     // Refresh container pipeline info from SCM
     // based on OmKeyArgs.refreshPipeline flag
     // value won't be null as the check is done inside try/catch block.
-    refresh(value);
+    refreshPipeline(Collections.singletonList(value),
+        args.getForceUpdateContainerCache());
 
     if (args.getSortDatanodes()) {
       sortDatanodes(clientAddress, value);
@@ -696,7 +755,8 @@ private void addBlockToken4Read(OmKeyInfo value) throws IOException {
     Preconditions.checkNotNull(value, "OMKeyInfo cannot be null");
     if (grpcBlockTokenEnabled) {
       String remoteUser = getRemoteUser().getShortUserName();
-      for (OmKeyLocationInfoGroup key : value.getKeyLocationVersions()) {
+      for (OmKeyLocationInfoGroup key :
+          value.getKeyLocationVersionsForUpdate()) {
         key.getLocationList().forEach(k -> {
           k.setToken(secretManager.generateToken(remoteUser,
               k.getBlockID().getContainerBlockID().toString(),
@@ -711,6 +771,17 @@ private void addBlockToken4Read(OmKeyInfo value) throws IOException {
    */
   @VisibleForTesting
   protected void refreshPipeline(List<OmKeyInfo> keyList) throws IOException {
+    refreshPipeline(keyList, false);
+  }
+
+  /**
+   * Refresh pipeline info in OM by asking SCM.
+   * @param keyList a list of OmKeyInfo
+   * @param forceUpdate whether cached pipelines of the containers should be
+   * ignored, e.g. because the client failed to read from them
+   */
+  private void refreshPipeline(List<OmKeyInfo> keyList, boolean forceUpdate)
+      throws IOException {
     if (keyList == null || keyList.isEmpty()) {
       return;
     }
@@ -728,11 +799,16 @@ protected void refreshPipeline(List<OmKeyInfo> keyList) throws IOException {
     }
 
     Map<Long, ContainerWithPipeline> containerWithPipelineMap =
-        refreshPipeline(containerIDs);
+        refreshPipeline(containerIDs, forceUpdate);
 
     for (OmKeyInfo keyInfo : keyList) {
+      if (!isPipelineChanged(keyInfo, containerWithPipelineMap)) {
+        continue;
+      }
+      // Location infos may be shared with the cached key, so update them
+      // only on a private copy.
       List<OmKeyLocationInfoGroup> locationInfoGroups =
-          keyInfo.getKeyLocationVersions();
+          keyInfo.getKeyLocationVersionsForUpdate();
       for (OmKeyLocationInfoGroup key : locationInfoGroups) {
         for (OmKeyLocationInfo k : key.getLocationList()) {
           ContainerWithPipeline cp =
@@ -745,13 +821,29 @@ protected void refreshPipeline(List<OmKeyInfo> keyList) throws IOException {
     }
   }
 
+  private static boolean isPipelineChanged(OmKeyInfo keyInfo,
+      Map<Long, ContainerWithPipeline> containerWithPipelineMap) {
+    for (OmKeyLocationInfoGroup key : keyInfo.getKeyLocationVersions()) {
+      for (OmKeyLocationInfo k : key.getLocationList()) {
+        ContainerWithPipeline cp =
+            containerWithPipelineMap.get(k.getContainerID());
+        if (cp != null && !cp.getPipeline().equals(k.getPipeline())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /**
-   * Refresh pipeline info in OM by asking SCM.
+   * Refresh pipeline info in OM by asking SCM, or from the container location
+   * cache if enabled.
    * @param containerIDs a set of containerIDs
+   * @param forceUpdate whether cached pipelines should be ignored
    */
   @VisibleForTesting
   protected Map<Long, ContainerWithPipeline> refreshPipeline(
-      Set<Long> containerIDs) throws IOException {
+      Set<Long> containerIDs, boolean forceUpdate) throws IOException {
     // TODO: fix Some tests that may not initialize container client
     // The production should always have containerClient initialized.
     if (scmClient.getContainerClient() == null ||
@@ -762,6 +854,10 @@ protected Map<Long, ContainerWithPipeline> refreshPipeline(
     Map<Long, ContainerWithPipeline> containerWithPipelineMap = new HashMap<>();
 
     try {
+      ScmContainerLocationCache cache = containerLocationCache;
+      if (cache != null) {
+        return cache.getContainerWithPipelines(containerIDs, forceUpdate);
+      }
       List<ContainerWithPipeline> cpList = scmClient.getContainerClient().
           getContainerWithPipelineBatch(new ArrayList<>(containerIDs));
       for (ContainerWithPipeline cp : cpList) {
@@ -906,9 +1002,22 @@ private boolean isKeyEmpty(OmKeyInfo keyInfo) {
   public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
       String startKey, String keyPrefix,
       int maxKeys) throws IOException {
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, null,
+        maxKeys);
+  }
+
+  @Override
+  public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, String delimiter,
+      int maxKeys) throws IOException {
     Preconditions.checkNotNull(volumeName);
     Preconditions.checkNotNull(bucketName);
 
+    if (isPrefixLayout(volumeName, bucketName)) {
+      throw new OMException("List keys is not supported for buckets with " +
+          "the prefix metadata layout", ResultCodes.NOT_SUPPORTED_OPERATION);
+    }
+
     // We don't take a lock in this path, since we walk the
     // underlying table using an iterator. That automatically creates a
     // snapshot of the data, so we don't need these locks at a higher level
@@ -920,7 +1029,7 @@ public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
     }
 
     List<OmKeyInfo> keyList = metadataManager.listKeys(volumeName, bucketName,
-        startKey, keyPrefix, maxKeys);
+        startKey, keyPrefix, delimiter, maxKeys);
 
     return keyList;
   }
@@ -967,6 +1076,11 @@ public BackgroundService getDeletingService() {
     return keyDeletingService;
   }
 
+  @Override
+  public BackgroundService getDirDeletingService() {
+    return dirDeletingService;
+  }
+
   @Override
   public OmMultipartInfo initiateMultipartUpload(OmKeyArgs omKeyArgs) throws
       IOException {
@@ -1795,13 +1909,24 @@ private OzoneFileStatus getOzoneFileStatus(String volumeName,
         return new OzoneFileStatus();
       }
 
-      // Check if the key is a file.
-      String fileKeyBytes = metadataManager.getOzoneKey(
-              volumeName, bucketName, keyName);
-      fileKeyInfo = metadataManager.getKeyTable().get(fileKeyBytes);
+      if (isPrefixLayout(volumeName, bucketName)) {
+        OMFileRequest.OMPrefixPathInfo pathInfo =
+            resolvePrefixPath(volumeName, bucketName, keyName);
+        if (pathInfo.getDirInfo() != null) {
+          return new OzoneFileStatus(
+              withFullKeyName(pathInfo.getDirInfo(), pathInfo),
+              scmBlockSize, true);
+        }
+        fileKeyInfo = withFullKeyName(pathInfo.getFileInfo(), pathInfo);
+      } else {
+        // Check if the key is a file.
+        String fileKeyBytes = metadataManager.getOzoneKey(
+                volumeName, bucketName, keyName);
+        fileKeyInfo = metadataManager.getKeyTable().get(fileKeyBytes);
+      }
 
       // Check if the key is a directory.
-      if (fileKeyInfo == null) {
+      if (fileKeyInfo == null && !isPrefixLayout(volumeName, bucketName)) {
         String dirKey = OzoneFSUtils.addTrailingSlashIfNeeded(keyName);
         String dirKeyBytes = metadataManager.getOzoneKey(
                 volumeName, bucketName, dirKey);
@@ -2004,7 +2129,8 @@ public void refresh(OmKeyInfo key) throws IOException {
   }
 
   /**
-   * Helper function for listStatus to find key in TableCache.
+   * Helper function for listStatus to find key in TableCache. The iterator
+   * should be sorted, and start at or before both keyArgs and startCacheKey.
    */
   private void listStatusFindKeyInTableCache(
       Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>> cacheIter,
@@ -2015,6 +2141,11 @@ private void listStatusFindKeyInTableCache(
       Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>> entry =
           cacheIter.next();
       String cacheKey = entry.getKey().getCacheKey();
+      if (isAfterPrefix(cacheKey, keyArgs)
+          && isAfterPrefix(cacheKey, startCacheKey)) {
+        // No more entries to list, or deleted entries to hide from DB.
+        break;
+      }
       if (cacheKey.equals(keyArgs)) {
         continue;
       }
@@ -2041,6 +2172,13 @@ private void listStatusFindKeyInTableCache(
     }
   }
 
+  /**
+   * Returns true if the key is greater than all the keys with the prefix.
+   */
+  private static boolean isAfterPrefix(String key, String prefix) {
+    return !key.startsWith(prefix) && key.compareTo(prefix) > 0;
+  }
+
   /**
    * List the status for a file or a directory and its contents.
    *
@@ -2086,6 +2224,10 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     String volumeName = args.getVolumeName();
     String bucketName = args.getBucketName();
     String keyName = args.getKeyName();
+    if (isPrefixLayout(volumeName, bucketName)) {
+      return listStatusWithPrefixLayout(args, recursive, startKey, numEntries,
+          clientAddress);
+    }
     // A map sorted by OmKey to combine results from TableCache and DB.
     TreeMap<String, OzoneFileStatus> cacheKeyMap = new TreeMap<>();
     // A set to keep track of keys deleted in cache but not flushed to DB.
@@ -2104,14 +2246,16 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
         bucketName);
     try {
       Table keyTable = metadataManager.getKeyTable();
-      Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>>
-          cacheIter = keyTable.cacheIterator();
       String startCacheKey = OZONE_URI_DELIMITER + volumeName +
           OZONE_URI_DELIMITER + bucketName + OZONE_URI_DELIMITER +
           ((startKey.equals(OZONE_URI_DELIMITER)) ? "" : startKey);
       // Note: eliminating the case where startCacheKey could end with '//'
       String keyArgs = OzoneFSUtils.addTrailingSlashIfNeeded(
           metadataManager.getOzoneKey(volumeName, bucketName, keyName));
+      // Seek to the first cache entry which can be in the listed range.
+      Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>>
+          cacheIter = keyTable.cacheIterator(
+              startCacheKey.compareTo(keyArgs) < 0 ? startCacheKey : keyArgs);
 
       // First, find key in TableCache
       listStatusFindKeyInTableCache(cacheIter, keyArgs, startCacheKey,
@@ -2218,6 +2362,175 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     return fileStatusList;
   }
 
+  /**
+   * List the status of a directory of a bucket with the prefix metadata
+   * layout. The children of the directory are looked up by its object ID in
+   * the directory and file tables, so only the non-recursive listing is
+   * supported.
+   */
+  private List<OzoneFileStatus> listStatusWithPrefixLayout(OmKeyArgs args,
+      boolean recursive, String startKey, long numEntries,
+      String clientAddress) throws IOException {
+    if (recursive) {
+      throw new OMException("Recursive list status is not supported for " +
+          "buckets with the prefix metadata layout",
+          ResultCodes.NOT_SUPPORTED_OPERATION);
+    }
+    String volumeName = args.getVolumeName();
+    String bucketName = args.getBucketName();
+    String keyName = args.getKeyName();
+
+    String startName = "";
+    if (Strings.isNullOrEmpty(startKey)) {
+      OzoneFileStatus fileStatus = getFileStatus(args, clientAddress);
+      if (fileStatus.isFile()) {
+        return Collections.singletonList(fileStatus);
+      }
+    } else {
+      List<String> startNames = OMFileRequest.getPathComponents(startKey);
+      startName = startNames.get(startNames.size() - 1);
+    }
+
+    // A map sorted by child name to combine results from both tables.
+    TreeMap<String, OzoneFileStatus> childMap = new TreeMap<>();
+    List<OzoneFileStatus> fileStatusList = new ArrayList<>();
+    metadataManager.getLock().acquireReadLock(BUCKET_LOCK, volumeName,
+        bucketName);
+    try {
+      long parentId;
+      String parentPath;
+      if (keyName.isEmpty()) {
+        validateBucket(volumeName, bucketName);
+        parentId = getBucketInfo(volumeName, bucketName).getObjectID();
+        parentPath = "";
+      } else {
+        OMFileRequest.OMPrefixPathInfo pathInfo =
+            resolvePrefixPath(volumeName, bucketName, keyName);
+        if (pathInfo.getDirInfo() == null) {
+          // Nothing to list after the start key if keyName is not a
+          // directory.
+          return fileStatusList;
+        }
+        parentId = pathInfo.getDirInfo().getObjectID();
+        parentPath = pathInfo.getNormalizedKeyName() + OZONE_URI_DELIMITER;
+      }
+
+      String prefix = metadataManager.getOzonePathKey(parentId, "");
+      listChildren(metadataManager.getDirectoryTable(), prefix, startName,
+          parentPath, numEntries, true, childMap);
+      listChildren(metadataManager.getFileTable(), prefix, startName,
+          parentPath, numEntries, false, childMap);
+
+      for (OzoneFileStatus fileStatus : childMap.values()) {
+        fileStatusList.add(fileStatus);
+        if (fileStatusList.size() >= numEntries) {
+          break;
+        }
+      }
+    } finally {
+      metadataManager.getLock().releaseReadLock(BUCKET_LOCK, volumeName,
+          bucketName);
+    }
+
+    List<OmKeyInfo> keyInfoList = new ArrayList<>(fileStatusList.size());
+    for (OzoneFileStatus fileStatus : fileStatusList) {
+      keyInfoList.add(fileStatus.getKeyInfo());
+    }
+    refreshPipeline(keyInfoList);
+
+    if (args.getSortDatanodes()) {
+      sortDatanodes(clientAddress, keyInfoList.toArray(new OmKeyInfo[0]));
+    }
+    return fileStatusList;
+  }
+
+  /**
+   * Adds up to numEntries children of a directory from the given table,
+   * starting from startName, to childMap. Entries of the table cache take
+   * precedence over the DB.
+   */
+  @SuppressWarnings("parameternumber")
+  private void listChildren(Table<String, OmKeyInfo> table, String prefix,
+      String startName, String parentPath, long numEntries,
+      boolean isDirectory, TreeMap<String, OzoneFileStatus> childMap)
+      throws IOException {
+    String seekKey = prefix + startName;
+    // Keys deleted in cache but not flushed to DB.
+    Set<String> deletedKeySet = new HashSet<>();
+    Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>> cacheIter =
+        table.cacheIterator(seekKey);
+    while (cacheIter.hasNext()) {
+      Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>> entry =
+          cacheIter.next();
+      String key = entry.getKey().getCacheKey();
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+      OmKeyInfo omKeyInfo = entry.getValue().getCacheValue();
+      if (omKeyInfo == null) {
+        deletedKeySet.add(key);
+      } else {
+        addChild(childMap, omKeyInfo, parentPath, isDirectory);
+      }
+    }
+
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+        iterator = table.iterator()) {
+      iterator.seek(seekKey);
+      long countEntries = 0;
+      while (iterator.hasNext() && countEntries < numEntries) {
+        Table.KeyValue<String, OmKeyInfo> kv = iterator.next();
+        String key = kv.getKey();
+        if (!key.startsWith(prefix)) {
+          break;
+        }
+        if (deletedKeySet.contains(key)) {
+          continue;
+        }
+        OmKeyInfo omKeyInfo = kv.getValue();
+        if (!childMap.containsKey(omKeyInfo.getKeyName())) {
+          addChild(childMap, omKeyInfo, parentPath, isDirectory);
+        }
+        countEntries++;
+      }
+    }
+  }
+
+  private void addChild(TreeMap<String, OzoneFileStatus> childMap,
+      OmKeyInfo omKeyInfo, String parentPath, boolean isDirectory) {
+    String name = omKeyInfo.getKeyName();
+    OmKeyInfo keyInfo = omKeyInfo.copyObject();
+    keyInfo.setKeyName(parentPath + name);
+    childMap.put(name, new OzoneFileStatus(keyInfo,
+        isDirectory ? 0 : scmBlockSize, isDirectory));
+  }
+
+  private boolean isPrefixLayout(String volumeName, String bucketName) {
+    return OMFileRequest.isPrefixLayout(metadataManager, volumeName,
+        bucketName);
+  }
+
+  private OMFileRequest.OMPrefixPathInfo resolvePrefixPath(String volumeName,
+      String bucketName, String keyName) throws IOException {
+    validateBucket(volumeName, bucketName);
+    return OMFileRequest.resolvePrefixPath(metadataManager,
+        getBucketInfo(volumeName, bucketName), keyName);
+  }
+
+  /**
+   * Entries of the prefix layout tables are named by their leaf name, this
+   * returns a copy of the entry named by its full path.
+   */
+  private static OmKeyInfo withFullKeyName(OmKeyInfo omKeyInfo,
+      OMFileRequest.OMPrefixPathInfo pathInfo) {
+    if (omKeyInfo == null) {
+      return null;
+    }
+    OmKeyInfo keyInfo = omKeyInfo.copyObject();
+    keyInfo.setKeyName(pathInfo.getNormalizedKeyName());
+    return keyInfo;
+  }
+
   private String getNextGreaterString(String volumeName, String bucketName,
       String keyPrefix) throws IOException {
     // Increment the last character of the string and return the new ozone key.
@@ -2345,6 +2658,15 @@ void sortDatanodes(String clientMachine, OmKeyInfo... keyInfos) {
 
   private List<DatanodeDetails> sortDatanodes(String clientMachine,
       List<DatanodeDetails> nodes, OmKeyInfo keyInfo, List<String> nodeList) {
+    ScmTopologyClient topology = topologyClient;
+    if (topology != null) {
+      List<DatanodeDetails> sortedNodes =
+          topology.sortDatanodes(nodes, clientMachine);
+      if (sortedNodes != null) {
+        return sortedNodes;
+      }
+    }
+
     List<DatanodeDetails> sortedNodes = null;
     try {
       sortedNodes = scmClient.getBlockClient()
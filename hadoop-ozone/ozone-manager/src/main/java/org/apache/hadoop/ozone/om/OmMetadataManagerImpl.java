@@ -23,6 +23,7 @@
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -40,7 +41,6 @@
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.hdds.utils.db.Table.KeyValue;
 import org.apache.hadoop.hdds.utils.db.TableIterator;
-import org.apache.hadoop.hdds.utils.db.TypedTable;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
@@ -129,6 +129,17 @@ public class OmMetadataManagerImpl implements OMMetadataManager {
    * |----------------------------------------------------------------------|
    * |  transactionInfoTable | #TRANSACTIONINFO -> OMTransactionInfo        |
    * |----------------------------------------------------------------------|
+   * |  blockReferenceTable  | containerID/localID -> extra key references  |
+   * |----------------------------------------------------------------------|
+   *
+   * Buckets with the prefix metadata layout store their namespace in:
+   * |----------------------------------------------------------------------|
+   * |  directoryTable    | /parentObjectID/dirName -> KeyInfo               |
+   * |----------------------------------------------------------------------|
+   * |  fileTable         | /parentObjectID/fileName -> KeyInfo              |
+   * |----------------------------------------------------------------------|
+   * |  deletedDirectoryTable | /parentObjectID/dirName/objectID -> KeyInfo  |
+   * |----------------------------------------------------------------------|
    */
 
   public static final String USER_TABLE = "userTable";
@@ -143,6 +154,10 @@ public class OmMetadataManagerImpl implements OMMetadataManager {
   public static final String PREFIX_TABLE = "prefixTable";
   public static final String TRANSACTION_INFO_TABLE =
       "transactionInfoTable";
+  public static final String BLOCK_REFERENCE_TABLE = "blockReferenceTable";
+  public static final String DIRECTORY_TABLE = "directoryTable";
+  public static final String FILE_TABLE = "fileTable";
+  public static final String DELETED_DIR_TABLE = "deletedDirectoryTable";
 
   private DBStore store;
 
@@ -160,8 +175,13 @@ public class OmMetadataManagerImpl implements OMMetadataManager {
   private Table dTokenTable;
   private Table prefixTable;
   private Table transactionInfoTable;
+  private Table<String, Long> blockReferenceTable;
+  private Table<String, OmKeyInfo> directoryTable;
+  private Table<String, OmKeyInfo> fileTable;
+  private Table<String, OmKeyInfo> deletedDirTable;
   private boolean isRatisEnabled;
   private boolean ignorePipelineinKey;
+  private long keyTableReadCacheSize;
 
   // Epoch is used to generate the objectIDs. The most significant 2 bits of
   // objectIDs is set to this epoch. For clusters before HDDS-4315 there is
@@ -190,6 +210,9 @@ public OmMetadataManagerImpl(OzoneConfiguration conf) throws IOException {
     // For test purpose only
     ignorePipelineinKey = conf.getBoolean(
         "ozone.om.ignore.pipeline", Boolean.TRUE);
+    keyTableReadCacheSize = conf.getLong(
+        OMConfigKeys.OZONE_OM_KEY_TABLE_READ_CACHE_SIZE,
+        OMConfigKeys.OZONE_OM_KEY_TABLE_READ_CACHE_SIZE_DEFAULT);
     start(conf);
   }
 
@@ -336,6 +359,10 @@ public static DBStoreBuilder addOMTablesAndCodecs(DBStoreBuilder builder) {
         .addTable(S3_SECRET_TABLE)
         .addTable(PREFIX_TABLE)
         .addTable(TRANSACTION_INFO_TABLE)
+        .addTable(BLOCK_REFERENCE_TABLE)
+        .addTable(DIRECTORY_TABLE)
+        .addTable(FILE_TABLE)
+        .addTable(DELETED_DIR_TABLE)
         .addCodec(OzoneTokenIdentifier.class, new TokenIdentifierCodec())
         .addCodec(OmKeyInfo.class, new OmKeyInfoCodec(true))
         .addCodec(RepeatedOmKeyInfo.class,
@@ -373,7 +400,13 @@ protected void initializeOmTables() throws IOException {
 
     checkTableStatus(bucketTable, BUCKET_TABLE);
 
-    keyTable = this.store.getTable(KEY_TABLE, String.class, OmKeyInfo.class);
+    if (keyTableReadCacheSize > 0) {
+      keyTable = this.store.getTable(KEY_TABLE, String.class, OmKeyInfo.class,
+          CacheType.READ_THROUGH_CACHE, keyTableReadCacheSize);
+    } else {
+      keyTable = this.store.getTable(KEY_TABLE, String.class,
+          OmKeyInfo.class);
+    }
     checkTableStatus(keyTable, KEY_TABLE);
 
     deletedTable = this.store.getTable(DELETED_TABLE, String.class,
@@ -403,6 +436,22 @@ protected void initializeOmTables() throws IOException {
     transactionInfoTable = this.store.getTable(TRANSACTION_INFO_TABLE,
         String.class, TransactionInfo.class);
     checkTableStatus(transactionInfoTable, TRANSACTION_INFO_TABLE);
+
+    blockReferenceTable = this.store.getTable(BLOCK_REFERENCE_TABLE,
+        String.class, Long.class);
+    checkTableStatus(blockReferenceTable, BLOCK_REFERENCE_TABLE);
+
+    directoryTable = this.store.getTable(DIRECTORY_TABLE, String.class,
+        OmKeyInfo.class);
+    checkTableStatus(directoryTable, DIRECTORY_TABLE);
+
+    fileTable = this.store.getTable(FILE_TABLE, String.class,
+        OmKeyInfo.class);
+    checkTableStatus(fileTable, FILE_TABLE);
+
+    deletedDirTable = this.store.getTable(DELETED_DIR_TABLE, String.class,
+        OmKeyInfo.class);
+    checkTableStatus(deletedDirTable, DELETED_DIR_TABLE);
   }
 
   /**
@@ -485,6 +534,16 @@ public String getOzoneDirKey(String volume, String bucket, String key) {
     return getOzoneKey(volume, bucket, key);
   }
 
+  @Override
+  public String getOzonePathKey(long parentObjectId, String name) {
+    return OM_KEY_PREFIX + parentObjectId + OM_KEY_PREFIX + name;
+  }
+
+  @Override
+  public String getOzoneDeletePathKey(long objectId, String pathKey) {
+    return pathKey + OM_KEY_PREFIX + objectId;
+  }
+
   @Override
   public String getOpenKey(String volume, String bucket,
                            String key, long id) {
@@ -566,14 +625,17 @@ public boolean isVolumeEmpty(String volume) throws IOException {
 
       // First check in bucket table cache.
     Iterator<Map.Entry<CacheKey<String>, CacheValue<OmBucketInfo>>> iterator =
-        ((TypedTable< String, OmBucketInfo>) bucketTable).cacheIterator();
+        bucketTable.cacheIterator(volumePrefix);
     while (iterator.hasNext()) {
       Map.Entry< CacheKey< String >, CacheValue< OmBucketInfo > > entry =
           iterator.next();
       String key = entry.getKey().getCacheKey();
+      if (!key.startsWith(volumePrefix)) {
+        break;
+      }
       OmBucketInfo omBucketInfo = entry.getValue().getCacheValue();
       // Making sure that entry is not for delete bucket request.
-      if (key.startsWith(volumePrefix) && omBucketInfo != null) {
+      if (omBucketInfo != null) {
         return false;
       }
     }
@@ -617,29 +679,52 @@ public boolean isVolumeEmpty(String volume) throws IOException {
   public boolean isBucketEmpty(String volume, String bucket)
       throws IOException {
     String keyPrefix = getBucketKey(volume, bucket);
+    if (!isEmpty(keyTable, keyPrefix)) {
+      return false;
+    }
 
+    // Directories and files of buckets with the prefix layout are stored by
+    // the object ID of their parent, which is the bucket at the top level.
+    OmBucketInfo bucketInfo = getBucketTable().get(keyPrefix);
+    if (bucketInfo != null
+        && OzoneFSUtils.isPrefixLayout(bucketInfo.getMetadata())) {
+      String pathPrefix = getOzonePathKey(bucketInfo.getObjectID(), "");
+      return isEmpty(directoryTable, pathPrefix)
+          && isEmpty(fileTable, pathPrefix);
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the table has no keys with the given prefix.
+   */
+  private static boolean isEmpty(Table<String, OmKeyInfo> table,
+      String keyPrefix) throws IOException {
     // First check in key table cache.
     Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>> iterator =
-        ((TypedTable< String, OmKeyInfo>) keyTable).cacheIterator();
+        table.cacheIterator(keyPrefix);
     while (iterator.hasNext()) {
       Map.Entry< CacheKey<String>, CacheValue<OmKeyInfo>> entry =
           iterator.next();
       String key = entry.getKey().getCacheKey();
+      if (!key.startsWith(keyPrefix)) {
+        break;
+      }
       OmKeyInfo omKeyInfo = entry.getValue().getCacheValue();
       // Making sure that entry is not for delete key request.
-      if (key.startsWith(keyPrefix) && omKeyInfo != null) {
+      if (omKeyInfo != null) {
         return false;
       }
     }
     try (TableIterator<String, ? extends KeyValue<String, OmKeyInfo>> keyIter =
-        keyTable.iterator()) {
+        table.iterator()) {
       KeyValue<String, OmKeyInfo> kv = keyIter.seek(keyPrefix);
 
       if (kv != null) {
         // Check the entry in db is not marked for delete. This can happen
         // while entry is marked for delete, but it is not flushed to DB.
         CacheValue<OmKeyInfo> cacheValue =
-            keyTable.getCacheValue(new CacheKey(kv.getKey()));
+            table.getCacheValue(new CacheKey(kv.getKey()));
         if (cacheValue != null) {
           if (kv.getKey().startsWith(keyPrefix)
               && cacheValue.getCacheValue() != null) {
@@ -703,9 +788,9 @@ public List<OmBucketInfo> listBuckets(final String volumeName,
 
 
     // For Bucket it is full cache, so we can just iterate in-memory table
-    // cache.
+    // cache from the startKey.
     Iterator<Map.Entry<CacheKey<String>, CacheValue<OmBucketInfo>>> iterator =
-        bucketTable.cacheIterator();
+        bucketTable.cacheIterator(startKey);
 
 
     while (currentCount < maxNumOfBuckets && iterator.hasNext()) {
@@ -713,6 +798,9 @@ public List<OmBucketInfo> listBuckets(final String volumeName,
           iterator.next();
 
       String key = entry.getKey().getCacheKey();
+      if (!key.startsWith(seekPrefix) && key.compareTo(seekPrefix) > 0) {
+        break;
+      }
       OmBucketInfo omBucketInfo = entry.getValue().getCacheValue();
       // Making sure that entry in cache is not for delete bucket request.
 
@@ -747,6 +835,14 @@ public List<OmBucketInfo> listBuckets(final String volumeName,
   @Override
   public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
       String startKey, String keyPrefix, int maxKeys) throws IOException {
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, null,
+        maxKeys);
+  }
+
+  @Override
+  public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, String delimiter, int maxKeys)
+      throws IOException {
 
     List<OmKeyInfo> result = new ArrayList<>();
     if (maxKeys <= 0) {
@@ -792,22 +888,18 @@ public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
 
     TreeMap<String, OmKeyInfo> cacheKeyMap = new TreeMap<>();
     Set<String> deletedKeySet = new TreeSet<>();
+    // Table cache keeps its keys sorted, so only the cache entries which are
+    // greater than or equal to startKey and match with keyPrefix are visited.
     Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>> iterator =
-        keyTable.cacheIterator();
-
-    //TODO: We can avoid this iteration if table cache has stored entries in
-    // treemap. Currently HashMap is used in Cache. HashMap get operation is an
-    // constant time operation, where as for treeMap get is log(n).
-    // So if we move to treemap, the get operation will be affected. As get
-    // is frequent operation on table. So, for now in list we iterate cache map
-    // and construct treeMap which match with keyPrefix and are greater than or
-    // equal to startKey. Later we can revisit this, if list operation
-    // is becoming slow.
+        keyTable.cacheIterator(seekKey);
     while (iterator.hasNext()) {
       Map.Entry< CacheKey<String>, CacheValue<OmKeyInfo>> entry =
           iterator.next();
 
       String key = entry.getKey().getCacheKey();
+      if (!key.startsWith(seekPrefix) && key.compareTo(seekPrefix) > 0) {
+        break;
+      }
       OmKeyInfo omKeyInfo = entry.getValue().getCacheValue();
       // Making sure that entry in cache is not for delete key request.
 
@@ -820,6 +912,11 @@ public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
       }
     }
 
+    if (!Strings.isNullOrEmpty(delimiter)) {
+      return listKeysWithDelimiter(seekKey, skipStartKey, seekPrefix,
+          delimiter, cacheKeyMap, deletedKeySet, maxKeys);
+    }
+
     // Get maxKeys from DB if it has.
 
     try (TableIterator<String, ? extends KeyValue<String, OmKeyInfo>>
@@ -870,6 +967,138 @@ public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
     return result;
   }
 
+  /**
+   * Merges the key table and the keys from the table cache in key order,
+   * returning a single entry for each common prefix. After a common prefix is
+   * found the iterator seeks past it, so the keys below the prefix are not
+   * read.
+   */
+  @SuppressWarnings("parameternumber")
+  private List<OmKeyInfo> listKeysWithDelimiter(String seekKey,
+      boolean skipStartKey, String seekPrefix, String delimiter,
+      TreeMap<String, OmKeyInfo> cacheKeyMap, Set<String> deletedKeySet,
+      int maxKeys) throws IOException {
+    List<OmKeyInfo> result = new ArrayList<>();
+
+    try (TableIterator<String, ? extends KeyValue<String, OmKeyInfo>>
+             keyIter = getKeyTable().iterator()) {
+      keyIter.seek(seekKey);
+      KeyValue<String, OmKeyInfo> dbEntry =
+          nextKey(keyIter, seekPrefix, deletedKeySet);
+      Map.Entry<String, OmKeyInfo> cacheEntry =
+          cacheKeyMap.ceilingEntry(seekKey);
+
+      while (result.size() < maxKeys
+          && (dbEntry != null || cacheEntry != null)) {
+        String key;
+        OmKeyInfo omKeyInfo;
+        if (dbEntry == null || (cacheEntry != null
+            && cacheEntry.getKey().compareTo(dbEntry.getKey()) <= 0)) {
+          key = cacheEntry.getKey();
+          omKeyInfo = cacheEntry.getValue();
+          if (dbEntry != null && dbEntry.getKey().equals(key)) {
+            // Cache has the latest version of this key.
+            dbEntry = nextKey(keyIter, seekPrefix, deletedKeySet);
+          }
+          cacheEntry = cacheKeyMap.higherEntry(key);
+        } else {
+          key = dbEntry.getKey();
+          omKeyInfo = dbEntry.getValue();
+          dbEntry = nextKey(keyIter, seekPrefix, deletedKeySet);
+        }
+
+        if (skipStartKey && key.equals(seekKey)) {
+          continue;
+        }
+
+        int index = key.indexOf(delimiter, seekPrefix.length());
+        if (index < 0) {
+          result.add(omKeyInfo);
+          continue;
+        }
+
+        String commonPrefix = key.substring(0, index + delimiter.length());
+        // Start key may be a common prefix returned by the previous call.
+        if (!(skipStartKey && commonPrefix.equals(seekKey))) {
+          result.add(createCommonPrefixKeyInfo(omKeyInfo,
+              key.length() - commonPrefix.length()));
+        }
+
+        String prefixEnd = getPrefixEnd(commonPrefix);
+        if (prefixEnd != null) {
+          keyIter.seek(prefixEnd);
+          dbEntry = nextKey(keyIter, seekPrefix, deletedKeySet);
+          cacheEntry = cacheKeyMap.ceilingEntry(prefixEnd);
+        } else {
+          while (dbEntry != null
+              && dbEntry.getKey().startsWith(commonPrefix)) {
+            dbEntry = nextKey(keyIter, seekPrefix, deletedKeySet);
+          }
+          while (cacheEntry != null
+              && cacheEntry.getKey().startsWith(commonPrefix)) {
+            cacheEntry = cacheKeyMap.higherEntry(cacheEntry.getKey());
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the next key from the iterator which has the seekPrefix and is
+   * not deleted, or null if there is no such key.
+   */
+  private static KeyValue<String, OmKeyInfo> nextKey(
+      TableIterator<String, ? extends KeyValue<String, OmKeyInfo>> keyIter,
+      String seekPrefix, Set<String> deletedKeySet) throws IOException {
+    while (keyIter.hasNext()) {
+      KeyValue<String, OmKeyInfo> kv = keyIter.next();
+      if (kv == null || !kv.getKey().startsWith(seekPrefix)) {
+        return null;
+      }
+      if (!deletedKeySet.contains(kv.getKey())) {
+        return kv;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the smallest key which is greater than all keys starting with
+   * the given prefix, or null if the last character of the prefix cannot be
+   * incremented.
+   */
+  private static String getPrefixEnd(String prefix) {
+    char last = prefix.charAt(prefix.length() - 1);
+    if (last == Character.MAX_VALUE || Character.isSurrogate(last)
+        || Character.isSurrogate((char) (last + 1))) {
+      return null;
+    }
+    return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+  }
+
+  /**
+   * Creates the entry returned for a common prefix, the name of the key
+   * below the prefix is cut after the delimiter.
+   */
+  private static OmKeyInfo createCommonPrefixKeyInfo(OmKeyInfo omKeyInfo,
+      int suffixLength) {
+    String keyName = omKeyInfo.getKeyName();
+    return new OmKeyInfo.Builder()
+        .setVolumeName(omKeyInfo.getVolumeName())
+        .setBucketName(omKeyInfo.getBucketName())
+        .setKeyName(keyName.substring(0, keyName.length() - suffixLength))
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, new ArrayList<>())))
+        .setCreationTime(omKeyInfo.getCreationTime())
+        .setModificationTime(omKeyInfo.getModificationTime())
+        .setDataSize(0)
+        .setReplicationType(omKeyInfo.getType())
+        .setReplicationFactor(omKeyInfo.getFactor())
+        .build();
+  }
+
   // TODO: HDDS-2419 - Complete stub below for core logic
   @Override
   public List<RepeatedOmKeyInfo> listTrash(String volumeName, String bucketName,
@@ -1089,23 +1318,24 @@ public Set<String> getMultipartUploadKeys(
     Set<String> response = new TreeSet<>();
     Set<String> aborted = new TreeSet<>();
 
-    Iterator<Map.Entry<CacheKey<String>, CacheValue<OmMultipartKeyInfo>>>
-        cacheIterator = getMultipartInfoTable().cacheIterator();
-
     String prefixKey =
         OmMultipartUpload.getDbKey(volumeName, bucketName, prefix);
 
-    // First iterate all the entries in cache.
+    Iterator<Map.Entry<CacheKey<String>, CacheValue<OmMultipartKeyInfo>>>
+        cacheIterator = getMultipartInfoTable().cacheIterator(prefixKey);
+
+    // First iterate the entries with the prefix in cache.
     while (cacheIterator.hasNext()) {
       Map.Entry<CacheKey<String>, CacheValue<OmMultipartKeyInfo>> cacheEntry =
           cacheIterator.next();
-      if (cacheEntry.getKey().getCacheKey().startsWith(prefixKey)) {
-        // Check if it is marked for delete, due to abort mpu
-        if (cacheEntry.getValue().getCacheValue() != null) {
-          response.add(cacheEntry.getKey().getCacheKey());
-        } else {
-          aborted.add(cacheEntry.getKey().getCacheKey());
-        }
+      if (!cacheEntry.getKey().getCacheKey().startsWith(prefixKey)) {
+        break;
+      }
+      // Check if it is marked for delete, due to abort mpu
+      if (cacheEntry.getValue().getCacheValue() != null) {
+        response.add(cacheEntry.getKey().getCacheKey());
+      } else {
+        aborted.add(cacheEntry.getKey().getCacheKey());
       }
     }
 
@@ -1137,6 +1367,31 @@ public Table<String, TransactionInfo> getTransactionInfoTable() {
     return transactionInfoTable;
   }
 
+  @Override
+  public Table<String, Long> getBlockReferenceTable() {
+    return blockReferenceTable;
+  }
+
+  @Override
+  public Table<String, OmKeyInfo> getDirectoryTable() {
+    return directoryTable;
+  }
+
+  @Override
+  public Table<String, OmKeyInfo> getFileTable() {
+    return fileTable;
+  }
+
+  @Override
+  public Table<String, OmKeyInfo> getDeletedDirTable() {
+    return deletedDirTable;
+  }
+
+  @Override
+  public String getBlockReferenceKey(long containerID, long localID) {
+    return containerID + OM_KEY_PREFIX + localID;
+  }
+
   /**
    * Update store used by subclass.
    *
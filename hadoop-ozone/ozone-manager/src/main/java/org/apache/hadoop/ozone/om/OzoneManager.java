@@ -141,6 +141,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRoleInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OzoneAclInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.S3Authentication;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ServicePort;
 import org.apache.hadoop.ozone.storage.proto.OzoneManagerStorageProtos.PersistedUserVolumeInfo;
 import org.apache.hadoop.ozone.protocolPB.OzoneManagerProtocolServerSideTranslatorPB;
@@ -189,7 +190,6 @@
 import static org.apache.hadoop.hdds.HddsUtils.getScmAddressForBlockClients;
 import static org.apache.hadoop.hdds.HddsUtils.getScmAddressForClients;
 import static org.apache.hadoop.hdds.security.x509.certificates.utils.CertificateSignRequest.getEncodedString;
-import static org.apache.hadoop.hdds.server.ServerUtils.getRemoteUserName;
 import static org.apache.hadoop.hdds.server.ServerUtils.updateRPCListenAddress;
 import static org.apache.hadoop.ozone.OmUtils.MAX_TRXN_ID;
 import static org.apache.hadoop.ozone.OzoneAcl.AclScope.ACCESS;
@@ -210,8 +210,12 @@
 import static org.apache.hadoop.ozone.OzoneConsts.OM_RATIS_SNAPSHOT_DIR;
 import static org.apache.hadoop.ozone.OzoneConsts.RPC_PORT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_ADDRESS_KEY;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_LEASE_ENABLED;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_LEASE_ENABLED_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_ENABLE_FILESYSTEM_PATHS;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_ENABLE_FILESYSTEM_PATHS_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_HANDLER_COUNT_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_HANDLER_COUNT_KEY;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_KERBEROS_KEYTAB_FILE_KEY;
@@ -254,6 +258,12 @@ public final class OzoneManager extends ServiceRuntimeInfoImpl
   private static final String OM_DAEMON = "om";
 
   private static boolean securityEnabled = false;
+
+  // S3 authentication information of the request processed by the current
+  // handler thread, set if the request was made by the S3 gateway on behalf
+  // of an S3 user.
+  private static final ThreadLocal<S3Authentication> S3_AUTH =
+      new ThreadLocal<>();
   private OzoneDelegationTokenSecretManager delegationTokenMgr;
   private OzoneBlockTokenSecretManager blockTokenMgr;
   private CertificateClient certClient;
@@ -279,6 +289,7 @@ public final class OzoneManager extends ServiceRuntimeInfoImpl
   private final OMStorage omStorage;
   private final ScmBlockLocationProtocol scmBlockClient;
   private final StorageContainerLocationProtocol scmContainerClient;
+  private ScmBlockLeaseClient scmBlockLeaseClient;
   private ObjectName omInfoBeanName;
   private Timer metricsTimer;
   private ScheduleOMMetricsWriteTask scheduleOMMetricsWriteTask;
@@ -398,7 +409,14 @@ private OzoneManager(OzoneConfiguration conf) throws IOException,
     scmContainerClient = getScmContainerClient(configuration);
     // verifies that the SCM info in the OM Version file is correct.
     scmBlockClient = getScmBlockClient(configuration);
-    this.scmClient = new ScmClient(scmBlockClient, scmContainerClient);
+    if (configuration.getBoolean(OZONE_OM_BLOCK_LEASE_ENABLED,
+        OZONE_OM_BLOCK_LEASE_ENABLED_DEFAULT)) {
+      scmBlockLeaseClient =
+          new ScmBlockLeaseClient(scmBlockClient, configuration);
+      this.scmClient = new ScmClient(scmBlockLeaseClient, scmContainerClient);
+    } else {
+      this.scmClient = new ScmClient(scmBlockClient, scmContainerClient);
+    }
 
     // For testing purpose only, not hit scm from om as Hadoop UGI can't login
     // two principals in the same JVM.
@@ -1348,6 +1366,9 @@ public void stop() {
         omRatisServer = null;
       }
       isOmRpcServerRunning = false;
+      if (scmBlockLeaseClient != null) {
+        scmBlockLeaseClient.stop();
+      }
       keyManager.stop();
       stopSecretManager();
       if (httpServer != null) {
@@ -1355,6 +1376,7 @@ public void stop() {
       }
       stopTrashEmptier();
       metadataManager.stop();
+      metadataManager.getLock().cleanup();
       metrics.unRegister();
       omClientProtocolMetrics.unregister();
       unregisterMXBean();
@@ -1511,6 +1533,11 @@ private boolean isAllowedDelegationTokenOp() throws IOException {
    */
   private AuthenticationMethod getConnectionAuthenticationMethod()
       throws IOException {
+    if (getS3Auth() != null) {
+      // S3 users are authenticated by the signature of the request, like
+      // with a token.
+      return AuthenticationMethod.TOKEN;
+    }
     UserGroupInformation ugi = getRemoteUser();
     AuthenticationMethod authMethod = ugi.getAuthenticationMethod();
     if (authMethod == AuthenticationMethod.PROXY) {
@@ -1521,11 +1548,52 @@ private AuthenticationMethod getConnectionAuthenticationMethod()
 
   // optimize ugi lookup for RPC operations to avoid a trip through
   // UGI.getCurrentUser which is synch'ed
-  private static UserGroupInformation getRemoteUser() throws IOException {
-    UserGroupInformation ugi = Server.getRemoteUser();
+  public static UserGroupInformation getRemoteUser() throws IOException {
+    UserGroupInformation ugi = getRpcRemoteUser();
     return (ugi != null) ? ugi : UserGroupInformation.getCurrentUser();
   }
 
+  /**
+   * Returns the user of the request processed by the current thread. This is
+   * the S3 user for requests made by the S3 gateway on behalf of S3 users,
+   * otherwise the user of the RPC connection.
+   *
+   * @return remote user, or null if not called from an RPC handler.
+   */
+  public static UserGroupInformation getRpcRemoteUser() {
+    S3Authentication s3Auth = S3_AUTH.get();
+    if (s3Auth != null) {
+      return UserGroupInformation.createRemoteUser(s3Auth.getAccessId());
+    }
+    return Server.getRemoteUser();
+  }
+
+  private static String getRemoteUserName() {
+    UserGroupInformation remoteUser = getRpcRemoteUser();
+    return remoteUser != null ? remoteUser.getUserName() : null;
+  }
+
+  /**
+   * Sets the S3 authentication information of the request processed by the
+   * current thread.
+   * @param s3Auth S3 authentication information, null to clear it.
+   */
+  public static void setS3Auth(S3Authentication s3Auth) {
+    if (s3Auth == null) {
+      S3_AUTH.remove();
+    } else {
+      S3_AUTH.set(s3Auth);
+    }
+  }
+
+  public static S3Authentication getS3Auth() {
+    return S3_AUTH.get();
+  }
+
+  public boolean isSecurityEnabled() {
+    return secConfig.isSecurityEnabled();
+  }
+
   /**
    * Get delegation token from OzoneManager.
    *
@@ -1671,7 +1739,7 @@ public void createVolume(OmVolumeArgs args) throws IOException {
   private void checkAcls(ResourceType resType, StoreType store,
       ACLType acl, String vol, String bucket, String key)
       throws IOException {
-    UserGroupInformation user = ProtobufRpcEngine.Server.getRemoteUser();
+    UserGroupInformation user = getRpcRemoteUser();
     InetAddress remoteIp = ProtobufRpcEngine.Server.getRemoteIp();
     checkAcls(resType, store, acl, vol, bucket, key,
         user != null ? user : getRemoteUser(),
@@ -1942,8 +2010,7 @@ public void deleteVolume(String volume) throws IOException {
   @Override
   public List<OmVolumeArgs> listVolumeByUser(String userName, String prefix,
       String prevKey, int maxKeys) throws IOException {
-    UserGroupInformation remoteUserUgi =
-        ProtobufRpcEngine.Server.getRemoteUser();
+    UserGroupInformation remoteUserUgi = getRpcRemoteUser();
     if (isAclEnabled) {
       if (remoteUserUgi == null) {
         LOG.error("Rpc user UGI is null. Authorization failed.");
@@ -2318,6 +2385,20 @@ public void renameKeys(OmRenameKeys omRenameKeys)
         "this to be implemented. As write requests use a new approach");
   }
 
+  @Override
+  public OmKeyInfo copyKey(OmKeyArgs args, OmKeyArgs toArgs)
+      throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented. As write requests use a new approach");
+  }
+
+  @Override
+  public OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      OmKeyArgs args, OmKeyArgs toArgs) throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented. As write requests use a new approach");
+  }
+
   @Override
   public void renameKey(OmKeyArgs args, String toKeyName) throws IOException {
     Preconditions.checkNotNull(args);
@@ -2393,6 +2474,14 @@ public void deleteKeys(OmDeleteKeys deleteKeys) throws IOException {
   @Override
   public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
       String startKey, String keyPrefix, int maxKeys) throws IOException {
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, null,
+        maxKeys);
+  }
+
+  @Override
+  public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, String delimiter, int maxKeys)
+      throws IOException {
 
     ResolvedBucket bucket = resolveBucketLink(Pair.of(volumeName, bucketName));
 
@@ -2406,11 +2495,14 @@ public List<OmKeyInfo> listKeys(String volumeName, String bucketName,
     auditMap.put(OzoneConsts.START_KEY, startKey);
     auditMap.put(OzoneConsts.MAX_KEYS, String.valueOf(maxKeys));
     auditMap.put(OzoneConsts.KEY_PREFIX, keyPrefix);
+    if (delimiter != null) {
+      auditMap.put(OzoneConsts.DELIMITER, delimiter);
+    }
 
     try {
       metrics.incNumKeyLists();
       return keyManager.listKeys(bucket.realVolume(), bucket.realBucket(),
-          startKey, keyPrefix, maxKeys);
+          startKey, keyPrefix, delimiter, maxKeys);
     } catch (IOException ex) {
       metrics.incNumKeyListFails();
       auditSuccess = false;
@@ -3593,7 +3685,7 @@ public ResolvedBucket resolveBucketLink(Pair<String, String> requested)
       if (isAclEnabled) {
         InetAddress remoteIp = Server.getRemoteIp();
         resolved = resolveBucketLink(requested, new HashSet<>(),
-            Server.getRemoteUser(),
+            getRpcRemoteUser(),
             remoteIp,
             remoteIp != null ? remoteIp.getHostName() :
                 omRpcAddress.getHostName());
@@ -3664,6 +3756,14 @@ public boolean getEnableFileSystemPaths() {
         OZONE_OM_ENABLE_FILESYSTEM_PATHS_DEFAULT);
   }
 
+  /**
+   * Returns the metadata layout of the buckets created by this OM.
+   */
+  public String getOMMetadataLayout() {
+    return configuration.getTrimmed(OZONE_OM_METADATA_LAYOUT,
+        OZONE_OM_METADATA_LAYOUT_DEFAULT);
+  }
+
   /**
    * Create volume which is required for S3Gateway operations.
    * @throws IOException
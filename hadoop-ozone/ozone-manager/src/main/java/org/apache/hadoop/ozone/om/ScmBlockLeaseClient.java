@@ -0,0 +1,364 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationType;
+import org.apache.hadoop.hdds.scm.AddSCMRequest;
+import org.apache.hadoop.hdds.scm.ScmInfo;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.common.helpers.AllocatedBlock;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.hadoop.ozone.common.BlockGroup;
+import org.apache.hadoop.ozone.common.DeleteBlockGroupResult;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_LEASE_BATCH_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_LEASE_BATCH_SIZE_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_LEASE_DURATION;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_LEASE_DURATION_DEFAULT;
+
+/**
+ * {@link ScmBlockLocationProtocol} client which allocates blocks from SCM in
+ * batches, and serves block allocations from the blocks leased this way.
+ *
+ * Leased blocks are kept separately for each block size, replication type,
+ * factor and owner. When the number of leased blocks drops below half of the
+ * batch size, a new batch is allocated in the background, so that most
+ * requests can be served without waiting for SCM. If there are not enough
+ * leased blocks, the missing ones are allocated from SCM directly.
+ *
+ * Leased blocks which are not handed out within the lease duration are
+ * discarded, as their pipeline may have been closed since. Requests with a
+ * non-empty exclude list are always sent to SCM, and leased blocks matching
+ * the exclude list are discarded, as writes to them would most likely fail
+ * the same way.
+ *
+ * All other calls are passed to the wrapped client.
+ */
+public class ScmBlockLeaseClient implements ScmBlockLocationProtocol {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ScmBlockLeaseClient.class);
+
+  private final ScmBlockLocationProtocol scmBlockClient;
+  private final int batchSize;
+  private final long leaseDurationMs;
+  private final Map<LeaseKey, LeasePool> pools = new ConcurrentHashMap<>();
+  private final ExecutorService prefetchExecutor;
+
+  private final LongAdder leasedBlocksUsed = new LongAdder();
+  private final LongAdder scmBlocksAllocated = new LongAdder();
+  private final LongAdder leasedBlocksDiscarded = new LongAdder();
+
+  public ScmBlockLeaseClient(ScmBlockLocationProtocol scmBlockClient,
+      ConfigurationSource conf) {
+    this(scmBlockClient,
+        conf.getInt(OZONE_OM_BLOCK_LEASE_BATCH_SIZE,
+            OZONE_OM_BLOCK_LEASE_BATCH_SIZE_DEFAULT),
+        conf.getTimeDuration(OZONE_OM_BLOCK_LEASE_DURATION,
+            OZONE_OM_BLOCK_LEASE_DURATION_DEFAULT, TimeUnit.MILLISECONDS));
+  }
+
+  @VisibleForTesting
+  ScmBlockLeaseClient(ScmBlockLocationProtocol scmBlockClient,
+      int batchSize, long leaseDurationMs) {
+    Preconditions.checkArgument(batchSize > 0,
+        OZONE_OM_BLOCK_LEASE_BATCH_SIZE + " should be greater than zero");
+    Preconditions.checkArgument(leaseDurationMs > 0,
+        OZONE_OM_BLOCK_LEASE_DURATION + " should be greater than zero");
+    this.scmBlockClient = scmBlockClient;
+    this.batchSize = batchSize;
+    this.leaseDurationMs = leaseDurationMs;
+    this.prefetchExecutor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("OMBlockLeasePrefetch-%d").build());
+  }
+
+  @Override
+  public List<AllocatedBlock> allocateBlock(long size, int numBlocks,
+      ReplicationType type, ReplicationFactor factor, String owner,
+      ExcludeList excludeList) throws IOException {
+
+    if (excludeList != null && !excludeList.isEmpty()) {
+      pools.values().forEach(pool -> pool.discard(excludeList));
+      List<AllocatedBlock> blocks = scmBlockClient.allocateBlock(size,
+          numBlocks, type, factor, owner, excludeList);
+      scmBlocksAllocated.add(blocks.size());
+      return blocks;
+    }
+
+    LeasePool pool = pools.computeIfAbsent(
+        new LeaseKey(size, type, factor, owner), LeasePool::new);
+    List<AllocatedBlock> blocks = pool.take(numBlocks);
+    leasedBlocksUsed.add(blocks.size());
+
+    int missing = numBlocks - blocks.size();
+    if (missing > 0) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Allocating {} blocks from SCM for {}, not enough leased " +
+            "blocks", missing, pool.key);
+      }
+      List<AllocatedBlock> allocated = scmBlockClient.allocateBlock(size,
+          missing, type, factor, owner, new ExcludeList());
+      scmBlocksAllocated.add(allocated.size());
+      blocks.addAll(allocated);
+    }
+    pool.prefetchIfNeeded();
+    return blocks;
+  }
+
+  @Override
+  public List<DeleteBlockGroupResult> deleteKeyBlocks(
+      List<BlockGroup> keyBlocksInfoList) throws IOException {
+    return scmBlockClient.deleteKeyBlocks(keyBlocksInfoList);
+  }
+
+  @Override
+  public ScmInfo getScmInfo() throws IOException {
+    return scmBlockClient.getScmInfo();
+  }
+
+  @Override
+  public boolean addSCM(AddSCMRequest request) throws IOException {
+    return scmBlockClient.addSCM(request);
+  }
+
+  @Override
+  public List<DatanodeDetails> sortDatanodes(List<String> nodes,
+      String clientMachine) throws IOException {
+    return scmBlockClient.sortDatanodes(nodes, clientMachine);
+  }
+
+  /**
+   * Stop allocating new batches, and discard all leased blocks.
+   */
+  public void stop() {
+    prefetchExecutor.shutdownNow();
+    pools.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    stop();
+    scmBlockClient.close();
+  }
+
+  @VisibleForTesting
+  long getLeasedBlocksUsed() {
+    return leasedBlocksUsed.sum();
+  }
+
+  @VisibleForTesting
+  long getScmBlocksAllocated() {
+    return scmBlocksAllocated.sum();
+  }
+
+  @VisibleForTesting
+  long getLeasedBlocksDiscarded() {
+    return leasedBlocksDiscarded.sum();
+  }
+
+  @VisibleForTesting
+  int getLeasedBlockCount() {
+    return pools.values().stream().mapToInt(pool -> pool.size.get()).sum();
+  }
+
+  @VisibleForTesting
+  boolean isPrefetchRunning() {
+    return pools.values().stream().anyMatch(pool -> pool.prefetching.get());
+  }
+
+  private static boolean isExcluded(AllocatedBlock block,
+      ExcludeList excludeList) {
+    Pipeline pipeline = block.getPipeline();
+    if (excludeList.getPipelineIds().contains(pipeline.getId())) {
+      return true;
+    }
+    if (excludeList.getContainerIds().contains(
+        ContainerID.valueOf(block.getBlockID().getContainerID()))) {
+      return true;
+    }
+    return !Collections.disjoint(excludeList.getDatanodes(),
+        pipeline.getNodes());
+  }
+
+  /**
+   * Blocks leased from SCM with the same allocation parameters.
+   */
+  private final class LeasePool {
+    private final LeaseKey key;
+    // Leases are added in batches with the same expiry time, so the head of
+    // the queue always expires first.
+    private final Queue<BlockLease> leases = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+
+    private LeasePool(LeaseKey key) {
+      this.key = key;
+    }
+
+    private List<AllocatedBlock> take(int count) {
+      List<AllocatedBlock> blocks = new ArrayList<>(count);
+      long now = Time.monotonicNow();
+      while (blocks.size() < count) {
+        BlockLease lease = leases.poll();
+        if (lease == null) {
+          break;
+        }
+        size.decrementAndGet();
+        if (lease.expiry < now) {
+          leasedBlocksDiscarded.increment();
+          continue;
+        }
+        blocks.add(lease.block);
+      }
+      return blocks;
+    }
+
+    private void add(List<AllocatedBlock> blocks) {
+      long expiry = Time.monotonicNow() + leaseDurationMs;
+      for (AllocatedBlock block : blocks) {
+        leases.add(new BlockLease(block, expiry));
+        size.incrementAndGet();
+      }
+    }
+
+    private void discard(ExcludeList excludeList) {
+      leases.removeIf(lease -> {
+        if (isExcluded(lease.block, excludeList)) {
+          size.decrementAndGet();
+          leasedBlocksDiscarded.increment();
+          return true;
+        }
+        return false;
+      });
+    }
+
+    private void prefetchIfNeeded() {
+      if (size.get() >= batchSize / 2 ||
+          !prefetching.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        prefetchExecutor.execute(this::prefetch);
+      } catch (RuntimeException e) {
+        // Executor is shut down.
+        prefetching.set(false);
+        LOG.debug("Failed to schedule block prefetch for {}", key, e);
+      }
+    }
+
+    private void prefetch() {
+      try {
+        List<AllocatedBlock> blocks = scmBlockClient.allocateBlock(key.size,
+            batchSize, key.type, key.factor, key.owner, new ExcludeList());
+        scmBlocksAllocated.add(blocks.size());
+        add(blocks);
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Leased {} blocks from SCM for {}", blocks.size(), key);
+        }
+      } catch (IOException | RuntimeException e) {
+        // Requests fall back to allocating blocks from SCM directly.
+        LOG.warn("Failed to allocate blocks from SCM for {}", key, e);
+      } finally {
+        prefetching.set(false);
+      }
+    }
+  }
+
+  /**
+   * Block leased from SCM, which should be handed out before expiry.
+   */
+  private static final class BlockLease {
+    private final AllocatedBlock block;
+    private final long expiry;
+
+    private BlockLease(AllocatedBlock block, long expiry) {
+      this.block = block;
+      this.expiry = expiry;
+    }
+  }
+
+  /**
+   * Parameters of block allocation.
+   */
+  private static final class LeaseKey {
+    private final long size;
+    private final ReplicationType type;
+    private final ReplicationFactor factor;
+    private final String owner;
+
+    private LeaseKey(long size, ReplicationType type,
+        ReplicationFactor factor, String owner) {
+      this.size = size;
+      this.type = type;
+      this.factor = factor;
+      this.owner = owner;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      LeaseKey that = (LeaseKey) o;
+      return size == that.size && type == that.type &&
+          factor == that.factor && Objects.equals(owner, that.owner);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(size, type, factor, owner);
+    }
+
+    @Override
+    public String toString() {
+      return type + "/" + factor + "/" + size;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ContainerWithPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT;
+
+/**
+ * Caches the pipelines of containers returned by SCM, so that OM does not
+ * have to call SCM for each key it looks up.
+ *
+ * Pipelines are cached for a limited time, after which they are fetched from
+ * SCM again. Only the containers which are not cached are requested from SCM.
+ * A client which failed to read from the returned pipelines asks OM to drop
+ * the cached pipelines of the key's containers when it looks up the key
+ * again.
+ */
+public class ScmContainerLocationCache {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ScmContainerLocationCache.class);
+
+  private final StorageContainerLocationProtocol scmContainerClient;
+  private final Cache<Long, ContainerWithPipeline> containerCache;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder scmCalls = new LongAdder();
+  private final LongAdder savedScmCalls = new LongAdder();
+  private ScmContainerLocationCacheMetrics metrics;
+
+  public ScmContainerLocationCache(
+      StorageContainerLocationProtocol scmContainerClient,
+      ConfigurationSource conf) {
+    this(scmContainerClient,
+        conf.getTimeDuration(OZONE_OM_CONTAINER_LOCATION_CACHE_TTL,
+            OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT,
+            TimeUnit.MILLISECONDS),
+        conf.getInt(OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE,
+            OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT));
+  }
+
+  @VisibleForTesting
+  ScmContainerLocationCache(
+      StorageContainerLocationProtocol scmContainerClient, long ttlMs,
+      int cacheSize) {
+    Preconditions.checkArgument(ttlMs > 0,
+        OZONE_OM_CONTAINER_LOCATION_CACHE_TTL
+            + " should be greater than zero");
+    this.scmContainerClient = scmContainerClient;
+    this.containerCache = CacheBuilder.newBuilder()
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .maximumSize(cacheSize)
+        .build();
+  }
+
+  /**
+   * Registers the metrics of the cache.
+   */
+  public void start() {
+    metrics = ScmContainerLocationCacheMetrics.create(this);
+  }
+
+  public void stop() {
+    if (metrics != null) {
+      metrics.unRegister();
+      metrics = null;
+    }
+    containerCache.invalidateAll();
+  }
+
+  /**
+   * Returns the pipelines of the containers, asking SCM only for the
+   * containers which are not cached.
+   *
+   * @param containerIDs IDs of the containers
+   * @param forceUpdate whether the cached pipelines of the containers should
+   * be dropped and fetched from SCM again
+   * @return pipelines of the containers by container ID
+   */
+  public Map<Long, ContainerWithPipeline> getContainerWithPipelines(
+      Set<Long> containerIDs, boolean forceUpdate) throws IOException {
+    if (forceUpdate) {
+      invalidate(containerIDs);
+    }
+
+    Map<Long, ContainerWithPipeline> containers =
+        new HashMap<>(containerIDs.size());
+    List<Long> missing = new ArrayList<>();
+    for (Long containerID : containerIDs) {
+      ContainerWithPipeline cp = containerCache.getIfPresent(containerID);
+      if (cp != null) {
+        containers.put(containerID, copyOf(cp));
+      } else {
+        missing.add(containerID);
+      }
+    }
+    hits.add(containers.size());
+    misses.add(missing.size());
+
+    if (missing.isEmpty()) {
+      savedScmCalls.increment();
+      return containers;
+    }
+
+    scmCalls.increment();
+    List<ContainerWithPipeline> cpList =
+        scmContainerClient.getContainerWithPipelineBatch(missing);
+    for (ContainerWithPipeline cp : cpList) {
+      long containerID = cp.getContainerInfo().getContainerID();
+      containers.put(containerID, cp);
+      // A pipeline without nodes is not of use to readers, SCM should be
+      // asked again next time.
+      if (!cp.getPipeline().getNodes().isEmpty()) {
+        containerCache.put(containerID, copyOf(cp));
+      }
+    }
+    return containers;
+  }
+
+  /**
+   * Pipelines returned to callers are copies, as the order of their nodes is
+   * changed for each client when sorting datanodes.
+   */
+  private static ContainerWithPipeline copyOf(ContainerWithPipeline cp) {
+    return new ContainerWithPipeline(cp.getContainerInfo(),
+        Pipeline.newBuilder(cp.getPipeline()).build());
+  }
+
+  /**
+   * Drops the cached pipelines of the containers.
+   */
+  public void invalidate(Set<Long> containerIDs) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Invalidating cached pipelines of containers {}",
+          containerIDs);
+    }
+    containerCache.invalidateAll(containerIDs);
+    invalidations.add(containerIDs.size());
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+
+  long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  long getScmCalls() {
+    return scmCalls.sum();
+  }
+
+  long getSavedScmCalls() {
+    return savedScmCalls.sum();
+  }
+
+  long size() {
+    return containerCache.size();
+  }
+}
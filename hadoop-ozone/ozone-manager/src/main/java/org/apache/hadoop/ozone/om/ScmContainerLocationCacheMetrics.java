@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+
+/**
+ * Metrics source to report statistics of the
+ * {@link ScmContainerLocationCache}.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "OM Container Location Cache Metrics", context = "ozone")
+public final class ScmContainerLocationCacheMetrics implements MetricsSource {
+
+  private static final String SOURCE_NAME =
+      ScmContainerLocationCacheMetrics.class.getSimpleName();
+
+  private final ScmContainerLocationCache cache;
+
+  private ScmContainerLocationCacheMetrics(ScmContainerLocationCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Create and register metrics for the given cache. Metrics of any
+   * previous instance are replaced.
+   */
+  public static synchronized ScmContainerLocationCacheMetrics create(
+      ScmContainerLocationCache cache) {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+    return ms.register(SOURCE_NAME, "OM container location cache metrics",
+        new ScmContainerLocationCacheMetrics(cache));
+  }
+
+  public void unRegister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    collector.addRecord(SOURCE_NAME)
+        .addGauge(Interns.info("CacheSize",
+            "Number of containers with cached pipeline"),
+            cache.size())
+        .addCounter(Interns.info("CacheHits",
+            "Number of containers served from the cache"),
+            cache.getHits())
+        .addCounter(Interns.info("CacheMisses",
+            "Number of containers which had to be fetched from SCM"),
+            cache.getMisses())
+        .addCounter(Interns.info("CacheInvalidations",
+            "Number of containers dropped from the cache on client request"),
+            cache.getInvalidations())
+        .addCounter(Interns.info("ScmCalls",
+            "Number of calls made to SCM to get container pipelines"),
+            cache.getScmCalls())
+        .addCounter(Interns.info("SavedScmCalls",
+            "Number of lookups served without calling SCM"),
+            cache.getSavedScmCalls());
+  }
+}
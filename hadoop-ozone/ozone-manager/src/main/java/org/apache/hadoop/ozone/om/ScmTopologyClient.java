@@ -0,0 +1,315 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.DFSConfigKeysLegacy;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.scm.net.NetworkTopology;
+import org.apache.hadoop.hdds.scm.net.NetworkTopologyImpl;
+import org.apache.hadoop.hdds.scm.net.Node;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.ClientVersions.CURRENT_VERSION;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NETWORK_TOPOLOGY_SORT_CACHE_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NETWORK_TOPOLOGY_SORT_CACHE_SIZE_DEFAULT;
+
+/**
+ * Sorts datanodes by their distance to a client using a local copy of the
+ * network topology, so that OM does not have to call SCM for each pipeline
+ * of the keys it looks up.
+ *
+ * The topology is loaded from SCM on start and reloaded periodically. Like in
+ * SCM, the client is matched to a datanode by its IP address, or by its host
+ * name if datanodes are registered by host name. If the client is not a
+ * datanode, the order of the datanodes is kept.
+ *
+ * Sorted datanodes are cached for each client address and set of datanodes,
+ * until the topology is reloaded. If a datanode is not found in the local
+ * topology, null is returned so that the caller can ask SCM, and a reload of
+ * the topology is triggered.
+ */
+public class ScmTopologyClient {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ScmTopologyClient.class);
+
+  /**
+   * Minimum time between two reloads triggered by unknown datanodes.
+   */
+  private static final long MIN_TRIGGERED_REFRESH_INTERVAL_MS = 10_000;
+
+  private final StorageContainerLocationProtocol scmContainerClient;
+  private final ConfigurationSource conf;
+  private final boolean useHostname;
+  private final long refreshIntervalMs;
+  private final Cache<SortKey, List<DatanodeDetails>> sortedNodesCache;
+  private final ScheduledExecutorService refreshExecutor;
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+  private volatile Topology topology;
+  private volatile long lastRefreshTime;
+
+  private final LongAdder localSorts = new LongAdder();
+  private final LongAdder cachedSorts = new LongAdder();
+  private final LongAdder unknownNodeSorts = new LongAdder();
+
+  public ScmTopologyClient(StorageContainerLocationProtocol scmContainerClient,
+      ConfigurationSource conf) {
+    this(scmContainerClient, conf,
+        conf.getTimeDuration(OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL,
+            OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL_DEFAULT,
+            TimeUnit.MILLISECONDS),
+        conf.getInt(OZONE_OM_NETWORK_TOPOLOGY_SORT_CACHE_SIZE,
+            OZONE_OM_NETWORK_TOPOLOGY_SORT_CACHE_SIZE_DEFAULT));
+  }
+
+  @VisibleForTesting
+  ScmTopologyClient(StorageContainerLocationProtocol scmContainerClient,
+      ConfigurationSource conf, long refreshIntervalMs, int cacheSize) {
+    Preconditions.checkArgument(refreshIntervalMs > 0,
+        OZONE_OM_NETWORK_TOPOLOGY_REFRESH_INTERVAL
+            + " should be greater than zero");
+    this.scmContainerClient = scmContainerClient;
+    this.conf = conf;
+    this.useHostname = conf.getBoolean(
+        DFSConfigKeysLegacy.DFS_DATANODE_USE_DN_HOSTNAME,
+        DFSConfigKeysLegacy.DFS_DATANODE_USE_DN_HOSTNAME_DEFAULT);
+    this.refreshIntervalMs = refreshIntervalMs;
+    this.sortedNodesCache = CacheBuilder.newBuilder()
+        .maximumSize(cacheSize)
+        .build();
+    this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("OMTopologyRefresh-%d").build());
+  }
+
+  /**
+   * Loads the topology from SCM, and schedules the periodic reload.
+   */
+  public void start() {
+    refreshExecutor.scheduleWithFixedDelay(this::refresh, 0,
+        refreshIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    refreshExecutor.shutdownNow();
+  }
+
+  /**
+   * Sorts the datanodes by their distance to the client.
+   *
+   * @param nodes datanodes of a pipeline
+   * @param clientMachine IP address or host name of the client
+   * @return the sorted datanodes, or null if the topology is not loaded yet
+   * or some datanode is not known.
+   */
+  public List<DatanodeDetails> sortDatanodes(List<DatanodeDetails> nodes,
+      String clientMachine) {
+    Topology current = topology;
+    if (current == null) {
+      return null;
+    }
+
+    SortKey key = new SortKey(clientMachine, nodes);
+    List<DatanodeDetails> sortedNodes = sortedNodesCache.getIfPresent(key);
+    if (sortedNodes != null) {
+      cachedSorts.increment();
+      return sortedNodes;
+    }
+
+    List<Node> nodeList = new ArrayList<>(nodes.size());
+    for (DatanodeDetails node : nodes) {
+      DatanodeDetails known = current.getNode(node.getUuidString());
+      if (known == null) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Datanode {} is not in the local network topology",
+              node);
+        }
+        unknownNodeSorts.increment();
+        triggerRefresh();
+        return null;
+      }
+      nodeList.add(known);
+    }
+
+    List<? extends Node> sorted = current.getClusterMap().sortByDistanceCost(
+        current.getNodeByAddress(clientMachine), nodeList, nodeList.size());
+    sortedNodes = new ArrayList<>(sorted.size());
+    for (Node node : sorted) {
+      sortedNodes.add((DatanodeDetails) node);
+    }
+    sortedNodes = Collections.unmodifiableList(sortedNodes);
+    sortedNodesCache.put(key, sortedNodes);
+    localSorts.increment();
+    return sortedNodes;
+  }
+
+  /**
+   * Schedules a reload of the topology, unless one is already pending or the
+   * topology has been reloaded recently.
+   */
+  private void triggerRefresh() {
+    if (Time.monotonicNow() - lastRefreshTime
+        >= MIN_TRIGGERED_REFRESH_INTERVAL_MS
+        && refreshPending.compareAndSet(false, true)) {
+      try {
+        refreshExecutor.execute(this::refresh);
+      } catch (RuntimeException e) {
+        refreshPending.set(false);
+        LOG.debug("Unable to schedule network topology refresh", e);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  void refresh() {
+    try {
+      List<HddsProtos.Node> nodes = scmContainerClient.queryNode(null, null,
+          HddsProtos.QueryScope.CLUSTER, "", CURRENT_VERSION);
+      topology = new Topology(nodes);
+      sortedNodesCache.invalidateAll();
+      LOG.debug("Loaded network topology of {} datanodes from SCM",
+          nodes.size());
+    } catch (IOException e) {
+      LOG.warn("Unable to load network topology from SCM", e);
+    } catch (RuntimeException e) {
+      LOG.error("Unable to load network topology from SCM", e);
+    } finally {
+      lastRefreshTime = Time.monotonicNow();
+      refreshPending.set(false);
+    }
+  }
+
+  @VisibleForTesting
+  long getLocalSorts() {
+    return localSorts.sum();
+  }
+
+  @VisibleForTesting
+  long getCachedSorts() {
+    return cachedSorts.sum();
+  }
+
+  @VisibleForTesting
+  long getUnknownNodeSorts() {
+    return unknownNodeSorts.sum();
+  }
+
+  /**
+   * Snapshot of the network topology loaded from SCM.
+   */
+  private final class Topology {
+    private final NetworkTopology clusterMap;
+    private final Map<String, DatanodeDetails> nodesByUuid = new HashMap<>();
+    private final Map<String, DatanodeDetails> nodesByAddress =
+        new HashMap<>();
+
+    Topology(List<HddsProtos.Node> nodes) {
+      clusterMap = new NetworkTopologyImpl(conf);
+      for (HddsProtos.Node node : nodes) {
+        DatanodeDetails datanode =
+            DatanodeDetails.getFromProtoBuf(node.getNodeID());
+        // Same as the name SCM registers the datanode with.
+        datanode.setNetworkName(datanode.getUuidString());
+        try {
+          clusterMap.add(datanode);
+        } catch (RuntimeException e) {
+          LOG.warn("Unable to add datanode {} to network topology", datanode,
+              e);
+          continue;
+        }
+        nodesByUuid.put(datanode.getUuidString(), datanode);
+        nodesByAddress.putIfAbsent(useHostname ? datanode.getHostName()
+            : datanode.getIpAddress(), datanode);
+      }
+    }
+
+    NetworkTopology getClusterMap() {
+      return clusterMap;
+    }
+
+    DatanodeDetails getNode(String uuid) {
+      return nodesByUuid.get(uuid);
+    }
+
+    DatanodeDetails getNodeByAddress(String address) {
+      return address == null ? null : nodesByAddress.get(address);
+    }
+  }
+
+  /**
+   * Key of the sorted datanodes cache.
+   */
+  private static final class SortKey {
+    private final String clientMachine;
+    private final Set<String> nodes;
+
+    SortKey(String clientMachine, List<DatanodeDetails> datanodes) {
+      this.clientMachine = clientMachine;
+      this.nodes = new HashSet<>(datanodes.size());
+      for (DatanodeDetails datanode : datanodes) {
+        nodes.add(datanode.getUuidString());
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SortKey sortKey = (SortKey) o;
+      return Objects.equals(clientMachine, sortKey.clientMachine)
+          && nodes.equals(sortKey.nodes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(clientMachine, nodes);
+    }
+  }
+}
@@ -143,6 +143,42 @@ public class OMDBDefinition implements DBDefinition {
                     TransactionInfo.class,
                     new TransactionInfoCodec());
 
+  public static final DBColumnFamilyDefinition<String, Long>
+            BLOCK_REFERENCE_TABLE =
+            new DBColumnFamilyDefinition<>(
+                    OmMetadataManagerImpl.BLOCK_REFERENCE_TABLE,
+                    String.class,
+                    new StringCodec(),
+                    Long.class,
+                    new LongCodec());
+
+  public static final DBColumnFamilyDefinition<String, OmKeyInfo>
+            DIRECTORY_TABLE =
+            new DBColumnFamilyDefinition<>(
+                    OmMetadataManagerImpl.DIRECTORY_TABLE,
+                    String.class,
+                    new StringCodec(),
+                    OmKeyInfo.class,
+                    new OmKeyInfoCodec(true));
+
+  public static final DBColumnFamilyDefinition<String, OmKeyInfo>
+            FILE_TABLE =
+            new DBColumnFamilyDefinition<>(
+                    OmMetadataManagerImpl.FILE_TABLE,
+                    String.class,
+                    new StringCodec(),
+                    OmKeyInfo.class,
+                    new OmKeyInfoCodec(true));
+
+  public static final DBColumnFamilyDefinition<String, OmKeyInfo>
+            DELETED_DIR_TABLE =
+            new DBColumnFamilyDefinition<>(
+                    OmMetadataManagerImpl.DELETED_DIR_TABLE,
+                    String.class,
+                    new StringCodec(),
+                    OmKeyInfo.class,
+                    new OmKeyInfoCodec(true));
+
   @Override
   public String getName() {
     return OzoneConsts.OM_DB_NAME;
@@ -158,7 +194,8 @@ public DBColumnFamilyDefinition[] getColumnFamilies() {
     return new DBColumnFamilyDefinition[] {DELETED_TABLE, USER_TABLE,
         VOLUME_TABLE, OPEN_KEY_TABLE, KEY_TABLE,
         BUCKET_TABLE, MULTIPART_INFO_TABLE, PREFIX_TABLE, DTOKEN_TABLE,
-        S3_SECRET_TABLE, TRANSACTION_INFO_TABLE};
+        S3_SECRET_TABLE, TRANSACTION_INFO_TABLE, BLOCK_REFERENCE_TABLE,
+        DIRECTORY_TABLE, FILE_TABLE, DELETED_DIR_TABLE};
   }
 }
 
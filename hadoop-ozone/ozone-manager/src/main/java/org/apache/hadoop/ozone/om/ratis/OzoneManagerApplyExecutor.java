@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Arrays;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.apache.hadoop.util.concurrent.HadoopExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor which applies the Ratis transactions of OM. It has a number of
+ * partitions with a single thread each. Transactions on a bucket are applied
+ * in the partition of the bucket, in the order they are submitted, so
+ * transactions on different buckets are applied in parallel. Transactions
+ * which are not on a single bucket are barriers, they are applied after all
+ * the previously submitted transactions, and before any transaction
+ * submitted later.
+ *
+ * As partitions complete transactions out of order, the executor tracks the
+ * applied index, which is the highest index up to which all the submitted
+ * transactions are applied, and notifies its listener when it advances.
+ */
+final class OzoneManagerApplyExecutor {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OzoneManagerApplyExecutor.class);
+
+  private final ExecutorService[] executors;
+  // Future of the last transaction submitted to each partition.
+  private final CompletableFuture<?>[] tails;
+  private final LongConsumer appliedIndexListener;
+  // Future of the last barrier transaction.
+  private volatile CompletableFuture<?> lastBarrier =
+      CompletableFuture.completedFuture(null);
+
+  // Indexes of the submitted transactions which are not yet applied.
+  private final NavigableSet<Long> pendingIndexes = new TreeSet<>();
+  private long lastSubmittedIndex = -1;
+  private long appliedIndex = -1;
+
+  OzoneManagerApplyExecutor(int partitions,
+      LongConsumer appliedIndexListener) {
+    Preconditions.checkArgument(partitions > 0,
+        "Number of apply executor partitions should be positive");
+    this.appliedIndexListener = appliedIndexListener;
+    this.executors = new ExecutorService[partitions];
+    this.tails = new CompletableFuture<?>[partitions];
+    ThreadFactory build = new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("OM StateMachine ApplyTransaction Thread - %d").build();
+    for (int i = 0; i < partitions; i++) {
+      executors[i] = HadoopExecutors.newSingleThreadExecutor(build);
+      tails[i] = CompletableFuture.completedFuture(null);
+    }
+  }
+
+  /**
+   * @return true if transactions on different buckets can be applied in
+   * parallel.
+   */
+  boolean isPartitioned() {
+    return executors.length > 1;
+  }
+
+  /**
+   * Submits a transaction to be applied.
+   * @param bucketKey key of the bucket the transaction is on, or null if it
+   *                  is not on a single bucket.
+   * @param index log index of the transaction.
+   * @param command applies the transaction.
+   * @return future which completes with the result of the command.
+   */
+  synchronized <T> CompletableFuture<T> submit(String bucketKey, long index,
+      Supplier<T> command) {
+    pendingIndexes.add(index);
+    lastSubmittedIndex = index;
+
+    CompletableFuture<T> future;
+    if (bucketKey == null || !isPartitioned()) {
+      future = CompletableFuture.allOf(tails).thenApplyAsync(
+          v -> command.get(), executors[0]);
+      Arrays.fill(tails, future);
+      lastBarrier = future;
+    } else {
+      int partition = Math.floorMod(bucketKey.hashCode(), executors.length);
+      future = tails[partition].thenApplyAsync(
+          v -> command.get(), executors[partition]);
+      tails[partition] = future;
+    }
+    return future.whenComplete((result, ex) -> markApplied(index));
+  }
+
+  /**
+   * Waits for the barrier transactions submitted so far to be applied.
+   */
+  void awaitBarriers() {
+    try {
+      lastBarrier.join();
+    } catch (CompletionException ex) {
+      // Failure is handled by the submitter of the barrier.
+      LOG.debug("Barrier transaction failed", ex);
+    }
+  }
+
+  private synchronized void markApplied(long index) {
+    pendingIndexes.remove(index);
+    long newAppliedIndex = pendingIndexes.isEmpty() ?
+        lastSubmittedIndex : pendingIndexes.first() - 1;
+    if (newAppliedIndex > appliedIndex) {
+      appliedIndex = newAppliedIndex;
+      if (appliedIndexListener != null) {
+        appliedIndexListener.accept(appliedIndex);
+      }
+    }
+  }
+
+  /**
+   * @return the highest index up to which all the submitted transactions
+   * are applied.
+   */
+  synchronized long getAppliedIndex() {
+    return appliedIndex;
+  }
+
+  void stop() {
+    for (ExecutorService executor : executors) {
+      HadoopExecutors.shutdown(executor, LOG, 5, TimeUnit.SECONDS);
+    }
+  }
+}
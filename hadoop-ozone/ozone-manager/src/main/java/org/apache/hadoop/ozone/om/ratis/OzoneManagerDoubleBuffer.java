@@ -21,10 +21,13 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -63,6 +66,17 @@
  * Adding OM request to doubleBuffer and swap of buffer are synchronized
  * methods.
  *
+ * When pipelined flush is enabled, flush thread only adds the responses to a
+ * batch, and a separate commit thread commits the batches to DB in order. So
+ * the next batch is prepared while the previous batch is being committed.
+ * Responses which read from DB in addToDBBatch wait for previously prepared
+ * batches to be committed, so that they see the latest DB state.
+ *
+ * When applied index tracking is enabled, transactions can be added out of
+ * order, and only the transactions up to the applied index are flushed, in
+ * index order. So each batch ends at an index up to which all the
+ * transactions are flushed, and it can be recorded as the last applied
+ * transaction in DB.
  */
 public final class OzoneManagerDoubleBuffer {
 
@@ -83,12 +97,20 @@ public final class OzoneManagerDoubleBuffer {
   // future objects which hold the future returned by add method.
   private volatile Queue<CompletableFuture<Void>> currentFutureQueue;
 
-  // Once we have an entry in current buffer, we swap the currentFutureQueue
-  // with readyFutureQueue. After flush is completed in flushTransaction
-  // daemon thread, we complete the futures in readyFutureQueue and clear them.
+  // Once we have an entry in current buffer, the futures in currentFutureQueue
+  // are moved to readyFutureQueue along with the entries. After the batch is
+  // committed, we complete the futures of the batch.
   private volatile Queue<CompletableFuture<Void>> readyFutureQueue;
 
   private Daemon daemon;
+  // Commit thread and the queue of prepared batches, used only when
+  // pipelined flush is enabled.
+  private Daemon commitDaemon;
+  private final BlockingQueue<PreparedBatch> preparedBatches;
+  // Guards preparedBatchCount and committedBatchCount.
+  private final Object commitLock = new Object();
+  private long preparedBatchCount;
+  private long committedBatchCount;
   private final OMMetadataManager omMetadataManager;
   private final AtomicLong flushedTransactionCount = new AtomicLong(0);
   private final AtomicLong flushIterations = new AtomicLong(0);
@@ -100,6 +122,14 @@ public final class OzoneManagerDoubleBuffer {
 
   private final boolean isRatisEnabled;
   private final boolean isTracingEnabled;
+  private final boolean isPipelinedFlushEnabled;
+  private final int maxBatchSize;
+  private final long maxFlushWaitMs;
+  private final boolean isAppliedIndexTracked;
+  // Index up to which all the transactions are added, and the applied index
+  // up to which transactions are moved to readyBuffer. Guarded by this.
+  private long appliedIndex = -1;
+  private long readyIndex = -1;
 
   /**
    * function which will get term associated with the transaction index.
@@ -117,6 +147,10 @@ public static class Builder {
     private boolean isRatisEnabled = false;
     private boolean isTracingEnabled = false;
     private Function<Long, Long> indexToTerm = null;
+    private boolean isPipelinedFlushEnabled = false;
+    private int maxBatchSize = 0;
+    private long maxFlushWaitMs = 0;
+    private boolean isAppliedIndexTracked = false;
 
     public Builder setOmMetadataManager(OMMetadataManager omm) {
       this.mm = omm;
@@ -144,6 +178,38 @@ public Builder setIndexToTerm(Function<Long, Long> termGet) {
       return this;
     }
 
+    public Builder enablePipelinedFlush(boolean enablePipelinedFlush) {
+      this.isPipelinedFlushEnabled = enablePipelinedFlush;
+      return this;
+    }
+
+    /**
+     * Maximum number of transactions flushed in one batch, a value less than
+     * or equal to zero means no limit.
+     */
+    public Builder setMaxBatchSize(int batchSize) {
+      this.maxBatchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Maximum time to wait for more transactions before starting a flush.
+     */
+    public Builder setMaxFlushWaitMs(long flushWaitMs) {
+      this.maxFlushWaitMs = flushWaitMs;
+      return this;
+    }
+
+    /**
+     * Flush only the transactions up to the index set by
+     * {@link #updateAppliedIndex(long)}, when transactions are applied out
+     * of order.
+     */
+    public Builder enableAppliedIndexTracking(boolean enable) {
+      this.isAppliedIndexTracked = enable;
+      return this;
+    }
+
     public OzoneManagerDoubleBuffer build() {
       if (isRatisEnabled) {
         Preconditions.checkNotNull(rs, "When ratis is enabled, " +
@@ -152,19 +218,51 @@ public OzoneManagerDoubleBuffer build() {
             "indexToTerm should not be null");
       }
       return new OzoneManagerDoubleBuffer(mm, rs, isRatisEnabled,
-          isTracingEnabled, indexToTerm);
+          isTracingEnabled, indexToTerm, isPipelinedFlushEnabled,
+          maxBatchSize, maxFlushWaitMs, isAppliedIndexTracked);
     }
   }
 
+  /**
+   * Transactions of a flush iteration added to a batch, which is yet to be
+   * committed to DB.
+   */
+  private static final class PreparedBatch {
+    private final Queue<DoubleBufferEntry<OMClientResponse>> entries;
+    private final Queue<CompletableFuture<Void>> futures;
+    private final BatchOperation batchOperation;
+    private final Map<String, List<Long>> cleanupEpochs;
+    private final List<Long> flushedEpochs;
+    private final String lastTraceId;
+
+    private PreparedBatch(Queue<DoubleBufferEntry<OMClientResponse>> entries,
+        Queue<CompletableFuture<Void>> futures, BatchOperation batchOperation,
+        Map<String, List<Long>> cleanupEpochs, List<Long> flushedEpochs,
+        String lastTraceId) {
+      this.entries = entries;
+      this.futures = futures;
+      this.batchOperation = batchOperation;
+      this.cleanupEpochs = cleanupEpochs;
+      this.flushedEpochs = flushedEpochs;
+      this.lastTraceId = lastTraceId;
+    }
+  }
+
+  @SuppressWarnings("parameternumber")
   private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
       OzoneManagerRatisSnapshot ozoneManagerRatisSnapShot,
       boolean isRatisEnabled, boolean isTracingEnabled,
-      Function<Long, Long> indexToTerm) {
+      Function<Long, Long> indexToTerm, boolean isPipelinedFlushEnabled,
+      int maxBatchSize, long maxFlushWaitMs, boolean isAppliedIndexTracked) {
     this.currentBuffer = new ConcurrentLinkedQueue<>();
     this.readyBuffer = new ConcurrentLinkedQueue<>();
 
     this.isRatisEnabled = isRatisEnabled;
     this.isTracingEnabled = isTracingEnabled;
+    this.isPipelinedFlushEnabled = isPipelinedFlushEnabled;
+    this.maxBatchSize = maxBatchSize;
+    this.maxFlushWaitMs = maxFlushWaitMs;
+    this.isAppliedIndexTracked = isAppliedIndexTracked;
     if (!isRatisEnabled) {
       this.currentFutureQueue = new ConcurrentLinkedQueue<>();
       this.readyFutureQueue = new ConcurrentLinkedQueue<>();
@@ -183,6 +281,17 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
     // Daemon thread which runs in back ground and flushes transactions to DB.
     daemon = new Daemon(this::flushTransactions);
     daemon.setName("OMDoubleBufferFlushThread");
+
+    if (isPipelinedFlushEnabled) {
+      // Allow one batch to be queued while another is being committed, so
+      // that flush thread does not run too far ahead of commit.
+      preparedBatches = new ArrayBlockingQueue<>(1);
+      commitDaemon = new Daemon(this::commitTransactions);
+      commitDaemon.setName("OMDoubleBufferCommitThread");
+      commitDaemon.start();
+    } else {
+      preparedBatches = null;
+    }
     daemon.start();
 
   }
@@ -230,140 +339,215 @@ private Void addToBatchTransactionInfoWithTrace(String parentName,
 
   /**
    * Runs in a background thread and batches the transaction in currentBuffer
-   * and commit to DB.
+   * and commit to DB. When pipelined flush is enabled, the batch is handed
+   * over to commit thread instead of committing it here.
    */
   private void flushTransactions() {
     while (isRunning.get()) {
       try {
-        if (canFlush()) {
-          Map<String, List<Long>> cleanupEpochs = new HashMap<>();
-
-          setReadyBuffer();
-          List<Long> flushedEpochs = null;
-          try(BatchOperation batchOperation = omMetadataManager.getStore()
-              .initBatchOperation()) {
-
-            AtomicReference<String> lastTraceId = new AtomicReference<>();
-            readyBuffer.iterator().forEachRemaining((entry) -> {
-              try {
-                OMResponse omResponse = entry.getResponse().getOMResponse();
-                lastTraceId.set(omResponse.getTraceID());
-                addToBatchWithTrace(omResponse,
-                    (SupplierWithIOException<Void>) () -> {
-                      entry.getResponse().checkAndUpdateDB(omMetadataManager,
-                          batchOperation);
-                      return null;
-                    });
-
-                addCleanupEntry(entry, cleanupEpochs);
-
-              } catch (IOException ex) {
-                // During Adding to RocksDB batch entry got an exception.
-                // We should terminate the OM.
-                terminate(ex);
-              }
-            });
-
-            // Commit transaction info to DB.
-            flushedEpochs = readyBuffer.stream().map(
-                DoubleBufferEntry::getTrxLogIndex)
-                .sorted().collect(Collectors.toList());
-            long lastRatisTransactionIndex = flushedEpochs.get(
-                flushedEpochs.size() - 1);
-            long term = isRatisEnabled ?
-                indexToTerm.apply(lastRatisTransactionIndex) : -1;
-
-            addToBatchTransactionInfoWithTrace(lastTraceId.get(),
-                lastRatisTransactionIndex,
-                (SupplierWithIOException<Void>) () -> {
-                  omMetadataManager.getTransactionInfoTable().putWithBatch(
-                      batchOperation, TRANSACTION_INFO_KEY,
-                      new TransactionInfo.Builder()
-                          .setTransactionIndex(lastRatisTransactionIndex)
-                          .setCurrentTerm(term).build());
-                  return null;
-                });
-
+        if (canFlush() && setReadyBuffer()) {
+          PreparedBatch batch = prepareBatch();
+          if (isPipelinedFlushEnabled) {
             long startTime = Time.monotonicNow();
-            flushBatchWithTrace(lastTraceId.get(), readyBuffer.size(),
-                (SupplierWithIOException<Void>) () -> {
-                  omMetadataManager.getStore().commitBatchOperation(
-                      batchOperation);
-                  return null;
-                });
-            ozoneManagerDoubleBufferMetrics.updateFlushTime(
+            try {
+              preparedBatches.put(batch);
+            } catch (InterruptedException ex) {
+              batch.batchOperation.close();
+              throw ex;
+            }
+            ozoneManagerDoubleBufferMetrics.updateCommitWaitTime(
                 Time.monotonicNow() - startTime);
+          } else {
+            commitBatch(batch);
           }
+        }
+      } catch (InterruptedException ex) {
+        handleInterrupt(ex);
+      } catch (IOException ex) {
+        terminate(ex);
+      } catch (Throwable t) {
+        final String s = "OMDoubleBuffer flush thread" +
+            Thread.currentThread().getName() + "encountered Throwable error";
+        ExitUtils.terminate(2, s, t, LOG);
+      }
+    }
+  }
 
-          // Complete futures first and then do other things. So, that
-          // handler threads will be released.
-          if (!isRatisEnabled) {
-            // Once all entries are flushed, we can complete their future.
-            readyFutureQueue.iterator().forEachRemaining((entry) -> {
-              entry.complete(null);
-            });
+  /**
+   * Runs in a background thread when pipelined flush is enabled, and commits
+   * the batches prepared by flush thread to DB in order.
+   */
+  private void commitTransactions() {
+    while (isRunning.get()) {
+      try {
+        commitBatch(preparedBatches.take());
+      } catch (InterruptedException ex) {
+        handleInterrupt(ex);
+      } catch (IOException ex) {
+        terminate(ex);
+      } catch (Throwable t) {
+        final String s = "OMDoubleBuffer commit thread" +
+            Thread.currentThread().getName() + "encountered Throwable error";
+        ExitUtils.terminate(2, s, t, LOG);
+      }
+    }
+  }
 
-            readyFutureQueue.clear();
-          }
+  /**
+   * Adds the transactions in readyBuffer to a new batch along with the
+   * {@link TransactionInfo} of the last transaction.
+   */
+  private PreparedBatch prepareBatch() throws IOException,
+      InterruptedException {
+    if (isPipelinedFlushEnabled && readsFromDBOnFlush(readyBuffer)) {
+      awaitPreparedBatchesCommitted();
+    }
 
-          int flushedTransactionsSize = readyBuffer.size();
-          flushedTransactionCount.addAndGet(flushedTransactionsSize);
-          flushIterations.incrementAndGet();
+    long startTime = Time.monotonicNow();
+    Map<String, List<Long>> cleanupEpochs = new HashMap<>();
+    BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation();
+    try {
+      AtomicReference<String> lastTraceId = new AtomicReference<>();
+      readyBuffer.iterator().forEachRemaining((entry) -> {
+        try {
+          OMResponse omResponse = entry.getResponse().getOMResponse();
+          lastTraceId.set(omResponse.getTraceID());
+          addToBatchWithTrace(omResponse,
+              (SupplierWithIOException<Void>) () -> {
+                entry.getResponse().checkAndUpdateDB(omMetadataManager,
+                    batchOperation);
+                return null;
+              });
+
+          addCleanupEntry(entry, cleanupEpochs);
+
+        } catch (IOException ex) {
+          // During Adding to RocksDB batch entry got an exception.
+          // We should terminate the OM.
+          terminate(ex);
+        }
+      });
+
+      // Commit transaction info to DB.
+      List<Long> flushedEpochs = readyBuffer.stream().map(
+          DoubleBufferEntry::getTrxLogIndex)
+          .sorted().collect(Collectors.toList());
+      long lastRatisTransactionIndex = flushedEpochs.get(
+          flushedEpochs.size() - 1);
+      long term = isRatisEnabled ?
+          indexToTerm.apply(lastRatisTransactionIndex) : -1;
+
+      addToBatchTransactionInfoWithTrace(lastTraceId.get(),
+          lastRatisTransactionIndex,
+          (SupplierWithIOException<Void>) () -> {
+            omMetadataManager.getTransactionInfoTable().putWithBatch(
+                batchOperation, TRANSACTION_INFO_KEY,
+                new TransactionInfo.Builder()
+                    .setTransactionIndex(lastRatisTransactionIndex)
+                    .setCurrentTerm(term).build());
+            return null;
+          });
+
+      ozoneManagerDoubleBufferMetrics.updatePrepareTime(
+          Time.monotonicNow() - startTime);
+
+      synchronized (commitLock) {
+        preparedBatchCount++;
+      }
+      return new PreparedBatch(readyBuffer, readyFutureQueue, batchOperation,
+          cleanupEpochs, flushedEpochs, lastTraceId.get());
+    } catch (IOException | RuntimeException ex) {
+      batchOperation.close();
+      throw ex;
+    }
+  }
 
-          if (LOG.isDebugEnabled()) {
-            LOG.debug("Sync Iteration {} flushed transactions in this " +
-                    "iteration{}", flushIterations.get(),
-                flushedTransactionsSize);
-          }
+  /**
+   * Commits the prepared batch to DB, completes the futures of its
+   * transactions and cleans up the table cache.
+   */
+  private void commitBatch(PreparedBatch batch) throws IOException {
+    try (BatchOperation batchOperation = batch.batchOperation) {
+      long startTime = Time.monotonicNow();
+      flushBatchWithTrace(batch.lastTraceId, batch.entries.size(),
+          (SupplierWithIOException<Void>) () -> {
+            omMetadataManager.getStore().commitBatchOperation(
+                batchOperation);
+            return null;
+          });
+      ozoneManagerDoubleBufferMetrics.updateFlushTime(
+          Time.monotonicNow() - startTime);
+    }
 
-          // When non-HA do the sort step here, as the sorted list is not
-          // required for flush to DB. As in non-HA we want to complete
-          // futures as quick as possible after flush to DB, to release rpc
-          // handler threads.
-          if (!isRatisEnabled) {
-            flushedEpochs =
-                readyBuffer.stream().map(DoubleBufferEntry::getTrxLogIndex)
-                    .sorted().collect(Collectors.toList());
-          }
+    // Complete futures first and then do other things. So, that
+    // handler threads will be released.
+    if (!isRatisEnabled) {
+      // Once all entries are flushed, we can complete their future.
+      batch.futures.iterator().forEachRemaining((entry) -> {
+        entry.complete(null);
+      });
+    }
 
+    int flushedTransactionsSize = batch.entries.size();
+    flushedTransactionCount.addAndGet(flushedTransactionsSize);
+    flushIterations.incrementAndGet();
 
-          // Clean up committed transactions.
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Sync Iteration {} flushed transactions in this " +
+              "iteration{}", flushIterations.get(),
+          flushedTransactionsSize);
+    }
 
-          cleanupCache(cleanupEpochs);
+    // Clean up committed transactions.
+    cleanupCache(batch.cleanupEpochs);
 
-          readyBuffer.clear();
+    // update the last updated index in OzoneManagerStateMachine.
+    ozoneManagerRatisSnapShot.updateLastAppliedIndex(
+        batch.flushedEpochs);
 
-          // update the last updated index in OzoneManagerStateMachine.
-          ozoneManagerRatisSnapShot.updateLastAppliedIndex(
-              flushedEpochs);
+    // set metrics.
+    updateMetrics(flushedTransactionsSize);
 
-          // set metrics.
-          updateMetrics(flushedTransactionsSize);
+    synchronized (commitLock) {
+      committedBatchCount++;
+      commitLock.notifyAll();
+    }
+  }
 
+  private static boolean readsFromDBOnFlush(
+      Queue<DoubleBufferEntry<OMClientResponse>> entries) {
+    for (DoubleBufferEntry<OMClientResponse> entry : entries) {
+      if (entry.getResponse().readsFromDBOnFlush()) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-        }
-      } catch (InterruptedException ex) {
-        Thread.currentThread().interrupt();
-        if (isRunning.get()) {
-          final String message = "OMDoubleBuffer flush thread " +
-              Thread.currentThread().getName() + " encountered Interrupted " +
-              "exception while running";
-          ExitUtils.terminate(1, message, ex, LOG);
-        } else {
-          LOG.info("OMDoubleBuffer flush thread {} is interrupted and will "
-              + "exit. {}", Thread.currentThread().getName(),
-                  Thread.currentThread().getName());
-        }
-      } catch (IOException ex) {
-        terminate(ex);
-      } catch (Throwable t) {
-        final String s = "OMDoubleBuffer flush thread" +
-            Thread.currentThread().getName() + "encountered Throwable error";
-        ExitUtils.terminate(2, s, t, LOG);
+  /**
+   * Wait until all the batches prepared so far are committed to DB.
+   */
+  private void awaitPreparedBatchesCommitted() throws InterruptedException {
+    synchronized (commitLock) {
+      while (committedBatchCount < preparedBatchCount) {
+        commitLock.wait();
       }
     }
   }
 
+  private void handleInterrupt(InterruptedException ex) {
+    Thread.currentThread().interrupt();
+    if (isRunning.get()) {
+      final String message = "OMDoubleBuffer thread " +
+          Thread.currentThread().getName() + " encountered Interrupted " +
+          "exception while running";
+      ExitUtils.terminate(1, message, ex, LOG);
+    } else {
+      LOG.info("OMDoubleBuffer thread {} is interrupted and will exit.",
+          Thread.currentThread().getName());
+    }
+  }
 
   private void addCleanupEntry(DoubleBufferEntry entry, Map<String,
       List<Long>> cleanupEpochs) {
@@ -432,6 +616,22 @@ public void stop() {
         LOG.debug("Interrupted while waiting for daemon to exit.", e);
       }
 
+      if (commitDaemon != null) {
+        commitDaemon.interrupt();
+        try {
+          commitDaemon.join();
+        } catch (InterruptedException e) {
+          LOG.debug("Interrupted while waiting for commit daemon to exit.",
+              e);
+        }
+        // Batches which are not committed are discarded, same as the
+        // transactions which are not yet flushed.
+        PreparedBatch batch;
+        while ((batch = preparedBatches.poll()) != null) {
+          batch.batchOperation.close();
+        }
+      }
+
       // stop metrics.
       ozoneManagerDoubleBufferMetrics.unRegister();
     } else {
@@ -487,33 +687,103 @@ public synchronized CompletableFuture<Void> add(OMClientResponse response,
    * Check can we flush transactions or not. This method wait's until
    * currentBuffer size is greater than zero, once currentBuffer size is
    * greater than zero it gets notify signal, and it returns true
-   * indicating that we are ready to flush.
+   * indicating that we are ready to flush. If max flush wait is configured,
+   * it waits up to that time for more transactions, unless max batch size
+   * transactions are already pending.
    *
    * @return boolean
    */
   private synchronized boolean canFlush() throws InterruptedException {
     // When transactions are added to buffer it notifies, then we check if
     // currentBuffer size once and return from this method.
-    while (currentBuffer.size() == 0) {
+    while (currentBuffer.isEmpty() ||
+        (isAppliedIndexTracked && appliedIndex <= readyIndex)) {
       wait(Long.MAX_VALUE);
     }
+    if (maxFlushWaitMs > 0) {
+      long deadline = Time.monotonicNow() + maxFlushWaitMs;
+      long remaining = maxFlushWaitMs;
+      while (remaining > 0 &&
+          (maxBatchSize <= 0 || currentBuffer.size() < maxBatchSize)) {
+        wait(remaining);
+        remaining = deadline - Time.monotonicNow();
+      }
+    }
     return true;
   }
 
   /**
    * Prepares the readyBuffer which is used by sync thread to flush
-   * transactions to OM DB. This method swaps the currentBuffer and readyBuffer.
+   * transactions to OM DB. This method moves the transactions in
+   * currentBuffer to a new readyBuffer, up to max batch size transactions.
+   * New queues are used for every flush iteration, as the readyBuffer of
+   * previous iteration can still be in use by commit thread.
+   *
+   * @return true if there are transactions to flush in readyBuffer.
+   */
+  private synchronized boolean setReadyBuffer() {
+    if (isAppliedIndexTracked) {
+      return setReadyBufferUpToAppliedIndex();
+    }
+    if (maxBatchSize <= 0 || currentBuffer.size() <= maxBatchSize) {
+      readyBuffer = currentBuffer;
+      currentBuffer = new ConcurrentLinkedQueue<>();
+      if (!isRatisEnabled) {
+        readyFutureQueue = currentFutureQueue;
+        currentFutureQueue = new ConcurrentLinkedQueue<>();
+      }
+    } else {
+      readyBuffer = new ConcurrentLinkedQueue<>();
+      readyFutureQueue = isRatisEnabled ? null : new ConcurrentLinkedQueue<>();
+      // Futures are added along with the entries in add, so they are in the
+      // same order.
+      for (int i = 0; i < maxBatchSize; i++) {
+        readyBuffer.add(currentBuffer.poll());
+        if (!isRatisEnabled) {
+          readyFutureQueue.add(currentFutureQueue.poll());
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves the transactions up to the applied index in currentBuffer to a new
+   * readyBuffer in index order, up to max batch size transactions. Later
+   * transactions stay in currentBuffer until the earlier transactions are
+   * applied.
    */
-  private synchronized void setReadyBuffer() {
-    Queue<DoubleBufferEntry<OMClientResponse>> temp = currentBuffer;
-    currentBuffer = readyBuffer;
-    readyBuffer = temp;
+  private boolean setReadyBufferUpToAppliedIndex() {
+    List<DoubleBufferEntry<OMClientResponse>> applied = new ArrayList<>();
+    Queue<DoubleBufferEntry<OMClientResponse>> remaining =
+        new ConcurrentLinkedQueue<>();
+    for (DoubleBufferEntry<OMClientResponse> entry : currentBuffer) {
+      if (entry.getTrxLogIndex() <= appliedIndex) {
+        applied.add(entry);
+      } else {
+        remaining.add(entry);
+      }
+    }
+    applied.sort(Comparator.comparingLong(DoubleBufferEntry::getTrxLogIndex));
+    if (maxBatchSize > 0 && applied.size() > maxBatchSize) {
+      remaining.addAll(applied.subList(maxBatchSize, applied.size()));
+      applied = applied.subList(0, maxBatchSize);
+    } else {
+      readyIndex = appliedIndex;
+    }
+    readyBuffer = new ConcurrentLinkedQueue<>(applied);
+    currentBuffer = remaining;
+    return !applied.isEmpty();
+  }
 
-    if (!isRatisEnabled) {
-      // Swap future queue.
-      Queue<CompletableFuture<Void>> tempFuture = currentFutureQueue;
-      currentFutureQueue = readyFutureQueue;
-      readyFutureQueue = tempFuture;
+  /**
+   * Updates the index up to which all the transactions are added to the
+   * buffer. Used only when applied index tracking is enabled.
+   */
+  public synchronized void updateAppliedIndex(long index) {
+    if (index > appliedIndex) {
+      appliedIndex = index;
+      notify();
     }
   }
 
@@ -29,7 +29,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
@@ -37,7 +40,6 @@
 import org.apache.hadoop.hdds.security.x509.SecurityConfig;
 import org.apache.hadoop.hdds.security.x509.certificate.client.CertificateClient;
 import org.apache.hadoop.hdds.server.ServerUtils;
-import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.HAUtils;
 import org.apache.hadoop.ipc.ProtobufRpcEngine.Server;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
@@ -50,6 +52,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.util.Time;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
@@ -108,6 +111,15 @@ public final class OzoneManagerRatisServer {
   private final OzoneManager ozoneManager;
   private final OzoneManagerStateMachine omStateMachine;
 
+  private final boolean followerReadEnabled;
+  private final long followerReadTimeoutMs;
+  // Read index requests are sent to the leader one at a time. Reads which
+  // arrive while a request is in flight wait for the next one, as the
+  // commit index returned by the in flight request may miss more of the
+  // writes completed before they arrived.
+  private boolean readIndexInFlight;
+  private CompletableFuture<Long> nextReadIndex;
+
   /**
    * Submit request to Ratis server.
    * @param omRequest
@@ -289,6 +301,13 @@ private OzoneManagerRatisServer(ConfigurationSource conf,
         "Raft Peers: {}", raftGroupIdStr, raftPeersStr.toString().substring(2));
 
     this.omStateMachine = getStateMachine(conf);
+    this.followerReadEnabled = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT);
+    this.followerReadTimeoutMs = conf.getTimeDuration(
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_TIMEOUT,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_TIMEOUT_DEFAULT
+            .toLong(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
 
     Parameters parameters = createServerTlsParameters(secConfig, certClient);
     this.server = RaftServer.newBuilder()
@@ -367,8 +386,7 @@ public RaftServer getServer() {
    */
   private OzoneManagerStateMachine getStateMachine(ConfigurationSource conf)
       throws IOException {
-    return new OzoneManagerStateMachine(this,
-        TracingUtil.isTracingEnabled(conf));
+    return new OzoneManagerStateMachine(this, conf);
   }
 
   @VisibleForTesting
@@ -596,6 +614,103 @@ public RaftServerStatus checkLeaderStatus() {
     return RaftServerStatus.NOT_LEADER;
   }
 
+  /**
+   * @return true if this OM serves read requests as a follower.
+   */
+  public boolean isFollowerReadEnabled() {
+    return followerReadEnabled;
+  }
+
+  /**
+   * Waits until this OM has applied the transactions up to the commit index
+   * of the leader, got with a read-only Ratis query, which Ratis serves
+   * only on an OM that considers itself a ready leader.
+   *
+   * Unlike the ReadIndex approach of Raft, the leader answers from its
+   * local commit index without confirming its leadership with a quorum, as
+   * Ratis 2.0 has no ReadIndex or leader lease API. So staleness is only
+   * bounded: an old leader which has not yet noticed that it was replaced,
+   * for at most the leader election timeout, may return a commit index
+   * which misses writes committed by the new leader, and a read served by
+   * this OM then does not see them. This is why follower reads are off by
+   * default.
+   * @throws ServiceException if the commit index of the leader cannot be
+   * got, or the transactions are not applied, within the follower read
+   * timeout.
+   */
+  public void waitForLeaderCommitIndex() throws ServiceException {
+    try {
+      long deadline = Time.monotonicNow() + followerReadTimeoutMs;
+      long readIndex = getReadIndex().get(followerReadTimeoutMs,
+          TimeUnit.MILLISECONDS);
+      long remaining = deadline - Time.monotonicNow();
+      if (!omStateMachine.waitForAppliedIndex(readIndex, remaining)) {
+        throw new ServiceException("OM " + raftPeerId + " did not apply " +
+            "transactions up to leader commit index " + readIndex +
+            " in " + followerReadTimeoutMs + " ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new ServiceException("OM " + raftPeerId + " failed to get " +
+          "leader commit index", e);
+    }
+  }
+
+  private synchronized CompletableFuture<Long> getReadIndex() {
+    if (readIndexInFlight) {
+      if (nextReadIndex == null) {
+        nextReadIndex = new CompletableFuture<>();
+      }
+      return nextReadIndex;
+    }
+    CompletableFuture<Long> readIndex = new CompletableFuture<>();
+    sendReadIndexRequest(readIndex);
+    return readIndex;
+  }
+
+  private synchronized void sendReadIndexRequest(
+      CompletableFuture<Long> readIndex) {
+    readIndexInFlight = true;
+    CompletableFuture<RaftClientReply> reply;
+    try {
+      reply = server.getDivision(raftGroupId).getRaftClient().async()
+          .sendReadOnly(Message.EMPTY);
+    } catch (IOException e) {
+      reply = new CompletableFuture<>();
+      reply.completeExceptionally(e);
+    }
+    reply.whenComplete((raftClientReply, ex) -> {
+      if (ex != null) {
+        readIndex.completeExceptionally(ex);
+      } else if (!raftClientReply.isSuccess()) {
+        readIndex.completeExceptionally(raftClientReply.getException());
+      } else {
+        readIndex.complete(Long.parseLong(
+            raftClientReply.getMessage().getContent().toStringUtf8()));
+      }
+      onReadIndexReply();
+    });
+  }
+
+  private synchronized void onReadIndexReply() {
+    readIndexInFlight = false;
+    if (nextReadIndex != null) {
+      CompletableFuture<Long> readIndex = nextReadIndex;
+      nextReadIndex = null;
+      sendReadIndexRequest(readIndex);
+    }
+  }
+
+  /**
+   * @return the commit index of the Raft log of this OM.
+   */
+  long getCommitIndex() throws IOException {
+    return server.getDivision(raftGroupId).getRaftLog()
+        .getLastCommittedIndex();
+  }
+
   public int getServerPort() {
     return port;
   }
@@ -19,7 +19,6 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.ServiceException;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -29,20 +28,24 @@
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.ozone.common.ha.ratis.RatisSnapshotInfo;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
     .OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
     .OMResponse;
 import org.apache.hadoop.ozone.protocolPB.OzoneManagerRequestHandler;
 import org.apache.hadoop.ozone.protocolPB.RequestHandler;
+import org.apache.hadoop.util.Time;
 import org.apache.hadoop.util.concurrent.HadoopExecutors;
 import org.apache.ratis.proto.RaftProtos;
 import org.apache.ratis.proto.RaftProtos.StateMachineLogEntryProto;
@@ -83,9 +86,12 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
   private RaftGroupId raftGroupId;
   private OzoneManagerDoubleBuffer ozoneManagerDoubleBuffer;
   private final RatisSnapshotInfo snapshotInfo;
-  private final ExecutorService executorService;
+  private final OzoneManagerApplyExecutor applyExecutor;
   private final ExecutorService installSnapshotExecutor;
   private final boolean isTracingEnabled;
+  private final boolean isPipelinedFlushEnabled;
+  private final int doubleBufferMaxBatchSize;
+  private final long doubleBufferMaxFlushWaitMs;
 
   // Map which contains index and term for the ratis transactions which are
   // stateMachine entries which are received through applyTransaction.
@@ -99,10 +105,29 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
 
 
   public OzoneManagerStateMachine(OzoneManagerRatisServer ratisServer,
-      boolean isTracingEnabled) throws IOException {
+      ConfigurationSource conf) throws IOException {
     this.omRatisServer = ratisServer;
-    this.isTracingEnabled = isTracingEnabled;
+    this.isTracingEnabled = TracingUtil.isTracingEnabled(conf);
+    this.isPipelinedFlushEnabled = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED,
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT);
+    this.doubleBufferMaxBatchSize = conf.getInt(
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE,
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE_DEFAULT);
+    this.doubleBufferMaxFlushWaitMs = conf.getTimeDuration(
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_FLUSH_WAIT,
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_FLUSH_WAIT_DEFAULT,
+        TimeUnit.MILLISECONDS);
     this.ozoneManager = omRatisServer.getOzoneManager();
+    int applyPartitions = conf.getInt(
+        OMConfigKeys.OZONE_OM_RATIS_APPLY_EXECUTOR_PARTITIONS,
+        OMConfigKeys.OZONE_OM_RATIS_APPLY_EXECUTOR_PARTITIONS_DEFAULT);
+    // With a single partition transactions are applied in log order, so
+    // double buffer need not track the applied index.
+    this.applyExecutor = new OzoneManagerApplyExecutor(applyPartitions,
+        applyPartitions > 1 ?
+            index -> ozoneManagerDoubleBuffer.updateAppliedIndex(index) :
+            null);
 
     this.snapshotInfo = ozoneManager.getSnapshotInfo();
     loadSnapshotInfoFromDB();
@@ -112,9 +137,6 @@ public OzoneManagerStateMachine(OzoneManagerRatisServer ratisServer,
     this.handler = new OzoneManagerRequestHandler(ozoneManager,
         ozoneManagerDoubleBuffer);
 
-    ThreadFactory build = new ThreadFactoryBuilder().setDaemon(true)
-        .setNameFormat("OM StateMachine ApplyTransaction Thread - %d").build();
-    this.executorService = HadoopExecutors.newSingleThreadExecutor(build);
     this.installSnapshotExecutor = HadoopExecutors.newSingleThreadExecutor();
   }
 
@@ -204,33 +226,13 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
       OMRequest request = OMRatisHelper.convertByteStringToOMRequest(
           trx.getStateMachineLogEntry().getLogData());
       long trxLogIndex = trx.getLogEntry().getIndex();
-      // In the current approach we have one single global thread executor.
-      // with single thread. Right now this is being done for correctness, as
-      // applyTransaction will be run on multiple OM's we want to execute the
-      // transactions in the same order on all OM's, otherwise there is a
-      // chance that OM replica's can be out of sync.
-      // TODO: In this way we are making all applyTransactions in
-      // OM serial order. Revisit this in future to use multiple executors for
-      // volume/bucket.
-
-      // Reason for not immediately implementing executor per volume is, if
-      // one executor operations are slow, we cannot update the
-      // lastAppliedIndex in OzoneManager StateMachine, even if other
-      // executor has completed the transactions with id more.
-
-      // We have 300 transactions, And for each volume we have transactions
-      // of 150. Volume1 transactions 0 - 149 and Volume2 transactions 150 -
-      // 299.
-      // Example: Executor1 - Volume1 - 100 (current completed transaction)
-      // Example: Executor2 - Volume2 - 299 (current completed transaction)
-
-      // Now we have applied transactions of 0 - 100 and 149 - 299. We
-      // cannot update lastAppliedIndex to 299. We need to update it to 100,
-      // since 101 - 149 are not applied. When OM restarts it will
-      // applyTransactions from lastAppliedIndex.
-      // We can update the lastAppliedIndex to 100, and update it to 299,
-      // only after completing 101 - 149. In initial stage, we are starting
-      // with single global executor. Will revisit this when needed.
+      // Transactions are applied in the same order on all OM's per bucket,
+      // and transactions which are not on a single bucket are applied after
+      // all earlier transactions. So OM replicas stay in sync, even though
+      // transactions on different buckets are applied in parallel. The
+      // double buffer flushes transactions only up to the index up to which
+      // all of them are applied, so lastAppliedIndex never skips a
+      // transaction which is not yet applied.
 
       // Add the term index and transaction log index to applyTransaction map
       // . This map will be used to update lastAppliedIndex.
@@ -238,8 +240,16 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
       CompletableFuture<Message> ratisFuture =
           new CompletableFuture<>();
       applyTransactionMap.put(trxLogIndex, trx.getLogEntry().getTerm());
-      CompletableFuture<OMResponse> future = CompletableFuture.supplyAsync(
-          () -> runCommand(request, trxLogIndex), executorService);
+      String bucketKey = null;
+      if (applyExecutor.isPartitioned()) {
+        // Bucket table is changed only by barrier transactions, so it is
+        // read to find the bucket of the request after they are applied.
+        applyExecutor.awaitBarriers();
+        bucketKey = OzoneManagerRatisUtils.getBucketKeyOfRequest(request,
+            ozoneManager.getMetadataManager());
+      }
+      CompletableFuture<OMResponse> future = applyExecutor.submit(bucketKey,
+          trxLogIndex, () -> runCommand(request, trxLogIndex));
       future.thenApply(omResponse -> {
         if(!omResponse.getSuccess()) {
           // When INTERNAL_ERROR or METADATA_ERROR it is considered as
@@ -293,6 +303,17 @@ private void terminate(OMResponse omResponse,
    */
   @Override
   public CompletableFuture<Message> query(Message request) {
+    if (request.getContent().isEmpty()) {
+      // Read index request of a follower, Ratis queries only the leader.
+      // The leadership is not confirmed, see
+      // OzoneManagerRatisServer#waitForLeaderCommitIndex.
+      try {
+        return CompletableFuture.completedFuture(Message.valueOf(
+            Long.toString(omRatisServer.getCommitIndex())));
+      } catch (IOException e) {
+        return completeExceptionally(e);
+      }
+    }
     try {
       OMRequest omRequest = OMRatisHelper.convertByteStringToOMRequest(
           request.getContent());
@@ -318,6 +339,8 @@ public void unpause(long newLastAppliedSnaphsotIndex,
       long newLastAppliedSnapShotTermIndex) {
     getLifeCycle().startAndTransition(() -> {
       this.ozoneManagerDoubleBuffer = buildDoubleBufferForRatis();
+      ozoneManagerDoubleBuffer.updateAppliedIndex(
+          applyExecutor.getAppliedIndex());
       handler.updateDoubleBuffer(ozoneManagerDoubleBuffer);
       this.setLastAppliedTermIndex(TermIndex.valueOf(
           newLastAppliedSnapShotTermIndex, newLastAppliedSnaphsotIndex));
@@ -331,6 +354,10 @@ public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
         .setIndexToTerm(this::getTermForIndex)
         .enableRatis(true)
         .enableTracing(isTracingEnabled)
+        .enablePipelinedFlush(isPipelinedFlushEnabled)
+        .setMaxBatchSize(doubleBufferMaxBatchSize)
+        .setMaxFlushWaitMs(doubleBufferMaxFlushWaitMs)
+        .enableAppliedIndexTracking(applyExecutor.isPartitioned())
         .build();
   }
 
@@ -503,6 +530,40 @@ private synchronized void computeAndUpdateLastAppliedIndex(
     }
   }
 
+  @Override
+  protected synchronized boolean updateLastAppliedTermIndex(long term,
+      long index) {
+    boolean updated = super.updateLastAppliedTermIndex(term, index);
+    notifyAll();
+    return updated;
+  }
+
+  @Override
+  protected synchronized void setLastAppliedTermIndex(TermIndex termIndex) {
+    super.setLastAppliedTermIndex(termIndex);
+    notifyAll();
+  }
+
+  /**
+   * Waits until the transactions up to the given index are applied and
+   * flushed to OM DB.
+   * @param index log index to wait for.
+   * @param timeoutMs maximum time to wait.
+   * @return true if the transactions are applied, false on timeout.
+   */
+  public synchronized boolean waitForAppliedIndex(long index, long timeoutMs)
+      throws InterruptedException {
+    long deadline = Time.monotonicNow() + timeoutMs;
+    while (getLastAppliedTermIndex().getIndex() < index) {
+      long remaining = deadline - Time.monotonicNow();
+      if (remaining <= 0) {
+        return false;
+      }
+      wait(remaining);
+    }
+    return true;
+  }
+
   public void loadSnapshotInfoFromDB() throws IOException {
     // This is done, as we have a check in Ratis for not throwing
     // LeaderNotReadyException, it checks stateMachineIndex >= raftLog
@@ -550,7 +611,7 @@ public void setRaftGroupId(RaftGroupId raftGroupId) {
 
   public void stop() {
     ozoneManagerDoubleBuffer.stop();
-    HadoopExecutors.shutdown(executorService, LOG, 5, TimeUnit.SECONDS);
+    applyExecutor.stop();
     HadoopExecutors.shutdown(installSnapshotExecutor, LOG, 5, TimeUnit.SECONDS);
   }
 
@@ -54,6 +54,14 @@ public class OzoneManagerDoubleBufferMetrics {
       " rocksdb batch commit time.")
   private MutableRate flushTime;
 
+  @Metric(about = "DoubleBuffer prepareTime. This metrics captures the time " +
+      "taken to add the responses of a flush iteration to rocksdb batch.")
+  private MutableRate prepareTime;
+
+  @Metric(about = "Time a prepared batch waited for the previous batch " +
+      "commit to finish, when pipelined flush is enabled.")
+  private MutableRate commitWaitTime;
+
   @Metric(about = "Average number of transactions flushed in a single " +
       "iteration")
   private MutableGaugeFloat avgFlushTransactionsInOneIteration;
@@ -111,6 +119,24 @@ public MutableRate getFlushTime() {
     return flushTime;
   }
 
+  public void updatePrepareTime(long time) {
+    prepareTime.add(time);
+  }
+
+  @VisibleForTesting
+  public MutableRate getPrepareTime() {
+    return prepareTime;
+  }
+
+  public void updateCommitWaitTime(long time) {
+    commitWaitTime.add(time);
+  }
+
+  @VisibleForTesting
+  public MutableRate getCommitWaitTime() {
+    return commitWaitTime;
+  }
+
   public float getAvgFlushTransactionsInOneIteration() {
     return avgFlushTransactionsInOneIteration.value();
   }
@@ -20,9 +20,13 @@
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.utils.HAUtils;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.ozone.om.request.bucket.OMBucketCreateRequest;
 import org.apache.hadoop.ozone.om.request.bucket.OMBucketDeleteRequest;
@@ -32,15 +36,24 @@
 import org.apache.hadoop.ozone.om.request.bucket.acl.OMBucketRemoveAclRequest;
 import org.apache.hadoop.ozone.om.request.bucket.acl.OMBucketSetAclRequest;
 import org.apache.hadoop.ozone.om.request.file.OMDirectoryCreateRequest;
+import org.apache.hadoop.ozone.om.request.file.OMDirectoryCreateRequestWithPrefixLayout;
 import org.apache.hadoop.ozone.om.request.file.OMFileCreateRequest;
+import org.apache.hadoop.ozone.om.request.file.OMFileCreateRequestWithPrefixLayout;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+import org.apache.hadoop.ozone.om.request.key.OMDirectoriesPurgeRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeysDeleteRequest;
 import org.apache.hadoop.ozone.om.request.key.OMAllocateBlockRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyCommitRequest;
+import org.apache.hadoop.ozone.om.request.key.OMKeyCommitRequestWithPrefixLayout;
 import org.apache.hadoop.ozone.om.request.key.OMKeyCreateRequest;
+import org.apache.hadoop.ozone.om.request.key.OMKeyCreateRequestWithPrefixLayout;
 import org.apache.hadoop.ozone.om.request.key.OMKeyDeleteRequest;
+import org.apache.hadoop.ozone.om.request.key.OMKeyDeleteRequestWithPrefixLayout;
 import org.apache.hadoop.ozone.om.request.key.OMKeyPurgeRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyRenameRequest;
+import org.apache.hadoop.ozone.om.request.key.OMKeyRenameRequestWithPrefixLayout;
 import org.apache.hadoop.ozone.om.request.key.OMKeysRenameRequest;
+import org.apache.hadoop.ozone.om.request.key.OMKeyCopyRequest;
 import org.apache.hadoop.ozone.om.request.key.OMTrashRecoverRequest;
 import org.apache.hadoop.ozone.om.request.key.acl.OMKeyAddAclRequest;
 import org.apache.hadoop.ozone.om.request.key.acl.OMKeyRemoveAclRequest;
@@ -64,6 +77,7 @@
 import org.apache.hadoop.ozone.om.request.volume.acl.OMVolumeRemoveAclRequest;
 import org.apache.hadoop.ozone.om.request.volume.acl.OMVolumeSetAclRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OzoneObj.ObjectType;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
@@ -72,6 +86,8 @@
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
 
 
 /**
@@ -83,12 +99,33 @@ private OzoneManagerRatisUtils() {
   }
   /**
    * Create OMClientRequest which encapsulates the OMRequest.
+   * Requests on the namespace of buckets with the prefix metadata layout are
+   * handled by their own request classes.
    * @param omRequest
+   * @param ozoneManager
    * @return OMClientRequest
-   * @throws IOException
    */
-  public static OMClientRequest createClientRequest(OMRequest omRequest) {
+  public static OMClientRequest createClientRequest(OMRequest omRequest,
+      OzoneManager ozoneManager) {
     Type cmdType = omRequest.getCmdType();
+    if (isPrefixLayoutRequest(omRequest, ozoneManager)) {
+      switch (cmdType) {
+      case CreateKey:
+        return new OMKeyCreateRequestWithPrefixLayout(omRequest);
+      case CommitKey:
+        return new OMKeyCommitRequestWithPrefixLayout(omRequest);
+      case DeleteKey:
+        return new OMKeyDeleteRequestWithPrefixLayout(omRequest);
+      case RenameKey:
+        return new OMKeyRenameRequestWithPrefixLayout(omRequest);
+      case CreateDirectory:
+        return new OMDirectoryCreateRequestWithPrefixLayout(omRequest);
+      case CreateFile:
+        return new OMFileCreateRequestWithPrefixLayout(omRequest);
+      default:
+        break;
+      }
+    }
     switch (cmdType) {
     case CreateVolume:
       return new OMVolumeCreateRequest(omRequest);
@@ -128,12 +165,16 @@ public static OMClientRequest createClientRequest(OMRequest omRequest) {
       return new OMKeyRenameRequest(omRequest);
     case RenameKeys:
       return new OMKeysRenameRequest(omRequest);
+    case CopyKey:
+      return new OMKeyCopyRequest(omRequest);
     case CreateDirectory:
       return new OMDirectoryCreateRequest(omRequest);
     case CreateFile:
       return new OMFileCreateRequest(omRequest);
     case PurgeKeys:
       return new OMKeyPurgeRequest(omRequest);
+    case PurgeDirectories:
+      return new OMDirectoriesPurgeRequest(omRequest);
     case InitiateMultiPartUpload:
       return new S3InitiateMultipartUploadRequest(omRequest);
     case CommitMultiPartUpload:
@@ -162,6 +203,123 @@ public static OMClientRequest createClientRequest(OMRequest omRequest) {
     }
   }
 
+  /**
+   * Whether the request is on the namespace of a bucket with the prefix
+   * metadata layout. Only the bucket table cache is read, so the result is
+   * the same when the request is applied, as it was when it was submitted.
+   */
+  private static boolean isPrefixLayoutRequest(OMRequest omRequest,
+      OzoneManager ozoneManager) {
+    KeyArgs keyArgs;
+    switch (omRequest.getCmdType()) {
+    case CreateKey:
+      keyArgs = omRequest.getCreateKeyRequest().getKeyArgs();
+      break;
+    case CommitKey:
+      keyArgs = omRequest.getCommitKeyRequest().getKeyArgs();
+      break;
+    case DeleteKey:
+      keyArgs = omRequest.getDeleteKeyRequest().getKeyArgs();
+      break;
+    case RenameKey:
+      keyArgs = omRequest.getRenameKeyRequest().getKeyArgs();
+      break;
+    case CreateDirectory:
+      keyArgs = omRequest.getCreateDirectoryRequest().getKeyArgs();
+      break;
+    case CreateFile:
+      keyArgs = omRequest.getCreateFileRequest().getKeyArgs();
+      break;
+    default:
+      return false;
+    }
+    return OMFileRequest.isPrefixLayout(ozoneManager.getMetadataManager(),
+        keyArgs.getVolumeName(), keyArgs.getBucketName());
+  }
+
+  /**
+   * Returns the DB key of the bucket a request is on, for the requests which
+   * change only the namespace of a single bucket. Bucket links are resolved,
+   * so that requests through a link are on the same bucket as the requests
+   * on its source bucket.
+   * @param omRequest
+   * @param omMetadataManager
+   * @return bucket key, or null if the request is not on a single bucket.
+   */
+  public static String getBucketKeyOfRequest(OMRequest omRequest,
+      OMMetadataManager omMetadataManager) {
+    String volumeName;
+    String bucketName;
+    switch (omRequest.getCmdType()) {
+    case DeleteKeys:
+      volumeName = omRequest.getDeleteKeysRequest().getDeleteKeys()
+          .getVolumeName();
+      bucketName = omRequest.getDeleteKeysRequest().getDeleteKeys()
+          .getBucketName();
+      break;
+    case RenameKeys:
+      volumeName = omRequest.getRenameKeysRequest().getRenameKeysArgs()
+          .getVolumeName();
+      bucketName = omRequest.getRenameKeysRequest().getRenameKeysArgs()
+          .getBucketName();
+      break;
+    default:
+      KeyArgs keyArgs = getKeyArgs(omRequest);
+      if (keyArgs == null) {
+        return null;
+      }
+      volumeName = keyArgs.getVolumeName();
+      bucketName = keyArgs.getBucketName();
+      break;
+    }
+
+    String bucketKey = omMetadataManager.getBucketKey(volumeName, bucketName);
+    Set<String> visited = new HashSet<>();
+    String resolvedKey = bucketKey;
+    while (visited.add(resolvedKey)) {
+      CacheValue<OmBucketInfo> cacheValue = omMetadataManager.getBucketTable()
+          .getCacheValue(new CacheKey<>(resolvedKey));
+      OmBucketInfo bucketInfo =
+          cacheValue == null ? null : cacheValue.getCacheValue();
+      if (bucketInfo == null || !bucketInfo.isLink()) {
+        return resolvedKey;
+      }
+      resolvedKey = omMetadataManager.getBucketKey(
+          bucketInfo.getSourceVolume(), bucketInfo.getSourceBucket());
+    }
+    // Request fails on the loop of links, without changing any bucket.
+    return bucketKey;
+  }
+
+  private static KeyArgs getKeyArgs(OMRequest omRequest) {
+    switch (omRequest.getCmdType()) {
+    case CreateKey:
+      return omRequest.getCreateKeyRequest().getKeyArgs();
+    case CommitKey:
+      return omRequest.getCommitKeyRequest().getKeyArgs();
+    case DeleteKey:
+      return omRequest.getDeleteKeyRequest().getKeyArgs();
+    case RenameKey:
+      return omRequest.getRenameKeyRequest().getKeyArgs();
+    case AllocateBlock:
+      return omRequest.getAllocateBlockRequest().getKeyArgs();
+    case CreateDirectory:
+      return omRequest.getCreateDirectoryRequest().getKeyArgs();
+    case CreateFile:
+      return omRequest.getCreateFileRequest().getKeyArgs();
+    case InitiateMultiPartUpload:
+      return omRequest.getInitiateMultiPartUploadRequest().getKeyArgs();
+    case CommitMultiPartUpload:
+      return omRequest.getCommitMultiPartUploadRequest().getKeyArgs();
+    case AbortMultiPartUpload:
+      return omRequest.getAbortMultiPartUploadRequest().getKeyArgs();
+    case CompleteMultiPartUpload:
+      return omRequest.getCompleteMultiPartUploadRequest().getKeyArgs();
+    default:
+      return null;
+    }
+  }
+
   private static OMClientRequest getOMAclRequest(OMRequest omRequest) {
     Type cmdType = omRequest.getCmdType();
     if (Type.AddAcl == cmdType) {
@@ -118,7 +118,7 @@ public OMRequest getOmRequest() {
    * @return User Info.
    */
   public OzoneManagerProtocolProtos.UserInfo getUserInfo() {
-    UserGroupInformation user = ProtobufRpcEngine.Server.getRemoteUser();
+    UserGroupInformation user = OzoneManager.getRpcRemoteUser();
     InetAddress remoteAddress = ProtobufRpcEngine.Server.getRemoteIp();
     OzoneManagerProtocolProtos.UserInfo.Builder userInfo =
         OzoneManagerProtocolProtos.UserInfo.newBuilder();
@@ -38,6 +38,7 @@
 import org.apache.hadoop.crypto.key.KeyProvider;
 import org.apache.hadoop.crypto.key.KeyProviderCryptoExtension;
 import org.apache.hadoop.fs.CommonConfigurationKeys;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.ozone.audit.AuditLogger;
 import org.apache.hadoop.ozone.audit.OMAction;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
@@ -68,6 +69,9 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT_PREFIX;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT_SIMPLE;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_ALREADY_EXISTS;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.VOLUME_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.VOLUME_LOCK;
@@ -128,12 +132,48 @@ public OMRequest preExecute(OzoneManager ozoneManager) throws IOException {
           OMException.ResultCodes.INVALID_REQUEST);
     }
 
+    setMetadataLayout(ozoneManager, bucketInfo, newBucketInfo);
+
     newCreateBucketRequest.setBucketInfo(newBucketInfo.build());
 
     return getOmRequest().toBuilder().setUserInfo(getUserInfo())
        .setCreateBucketRequest(newCreateBucketRequest.build()).build();
   }
 
+  /**
+   * Stores the metadata layout of the bucket in its metadata, so that the
+   * bucket keeps its layout when the layout configured in OM is changed.
+   * Bucket links use the layout of their source bucket.
+   */
+  private static void setMetadataLayout(OzoneManager ozoneManager,
+      BucketInfo bucketInfo, BucketInfo.Builder newBucketInfo)
+      throws OMException {
+    String layout = null;
+    for (HddsProtos.KeyValue keyValue : bucketInfo.getMetadataList()) {
+      if (OZONE_OM_METADATA_LAYOUT.equals(keyValue.getKey())) {
+        layout = keyValue.getValue();
+      }
+    }
+
+    if (layout != null) {
+      if (bucketInfo.hasSourceBucket()) {
+        throw new OMException("Metadata layout cannot be set for bucket "
+            + "links", OMException.ResultCodes.INVALID_REQUEST);
+      }
+      if (!OZONE_OM_METADATA_LAYOUT_SIMPLE.equals(layout)
+          && !OZONE_OM_METADATA_LAYOUT_PREFIX.equals(layout)) {
+        throw new OMException("Invalid metadata layout " + layout,
+            OMException.ResultCodes.INVALID_REQUEST);
+      }
+    } else if (!bucketInfo.hasSourceBucket()
+        && OZONE_OM_METADATA_LAYOUT_PREFIX.equals(
+            ozoneManager.getOMMetadataLayout())) {
+      newBucketInfo.addMetadata(HddsProtos.KeyValue.newBuilder()
+          .setKey(OZONE_OM_METADATA_LAYOUT)
+          .setValue(OZONE_OM_METADATA_LAYOUT_PREFIX));
+    }
+  }
+
   @Override
   public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       long transactionLogIndex,
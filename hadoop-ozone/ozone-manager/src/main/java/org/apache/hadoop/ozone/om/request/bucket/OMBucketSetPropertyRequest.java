@@ -20,6 +20,7 @@
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
@@ -56,6 +57,7 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_METADATA_LAYOUT;
 import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
 
 /**
@@ -125,8 +127,15 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
           .setBucketName(dbBucketInfo.getBucketName())
           .setObjectID(dbBucketInfo.getObjectID())
           .setUpdateID(transactionLogIndex);
-      bucketInfoBuilder.addAllMetadata(KeyValueUtil
-          .getFromProtobuf(bucketArgs.getMetadataList()));
+      Map<String, String> metadata =
+          KeyValueUtil.getFromProtobuf(bucketArgs.getMetadataList());
+      // The metadata layout of a bucket cannot be changed.
+      metadata.remove(OZONE_OM_METADATA_LAYOUT);
+      String layout = dbBucketInfo.getMetadata().get(OZONE_OM_METADATA_LAYOUT);
+      if (layout != null) {
+        metadata.put(OZONE_OM_METADATA_LAYOUT, layout);
+      }
+      bucketInfoBuilder.addAllMetadata(metadata);
 
       //Check StorageType to update
       StorageType storageType = omBucketArgs.getStorageType();
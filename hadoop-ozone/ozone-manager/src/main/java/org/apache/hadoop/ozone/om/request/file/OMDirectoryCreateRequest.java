@@ -85,7 +85,7 @@ public class OMDirectoryCreateRequest extends OMKeyRequest {
   // The maximum number of directories which can be created through a single
   // transaction (recursive directory creations) is 2^8 - 1 as only 8
   // bits are set aside for this in ObjectID.
-  private static final long MAX_NUM_OF_RECURSIVE_DIRS = 255;
+  static final long MAX_NUM_OF_RECURSIVE_DIRS = 255;
 
   /**
    * Stores the result of request execution in
@@ -290,7 +290,7 @@ public static List<OmKeyInfo> getAllParentInfo(OzoneManager ozoneManager,
     return missingParentInfos;
   }
 
-  private void logResult(CreateDirectoryRequest createDirectoryRequest,
+  protected void logResult(CreateDirectoryRequest createDirectoryRequest,
       KeyArgs keyArgs, OMMetrics omMetrics, Result result,
       IOException exception, int numMissingParents) {
 
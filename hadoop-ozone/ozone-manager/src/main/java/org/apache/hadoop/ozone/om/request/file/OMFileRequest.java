@@ -21,19 +21,36 @@
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.google.common.base.Optional;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OzoneFSUtils;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 
+import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.INVALID_KEY_NAME;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.NOT_SUPPORTED_OPERATION;
+
 
 /**
  * Base class for file requests.
@@ -224,4 +241,313 @@ public static void addKeyTableCacheEntries(
           new CacheValue<>(keyInfo, index));
     }
   }
+
+  /**
+   * Whether the bucket, or the source bucket of a bucket link, has the prefix
+   * metadata layout. Only the bucket table cache is read, as it holds all
+   * the buckets.
+   */
+  public static boolean isPrefixLayout(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName) {
+    Set<String> visited = new HashSet<>();
+    String bucketKey = omMetadataManager.getBucketKey(volumeName, bucketName);
+    while (visited.add(bucketKey)) {
+      CacheValue<OmBucketInfo> cacheValue = omMetadataManager.getBucketTable()
+          .getCacheValue(new CacheKey<>(bucketKey));
+      OmBucketInfo bucketInfo =
+          cacheValue == null ? null : cacheValue.getCacheValue();
+      if (bucketInfo == null) {
+        return false;
+      }
+      if (!bucketInfo.isLink()) {
+        return OzoneFSUtils.isPrefixLayout(bucketInfo.getMetadata());
+      }
+      bucketKey = omMetadataManager.getBucketKey(bucketInfo.getSourceVolume(),
+          bucketInfo.getSourceBucket());
+    }
+    return false;
+  }
+
+  /**
+   * Fails with NOT_SUPPORTED_OPERATION if the bucket has the prefix metadata
+   * layout, for the requests which only handle keys of the flat key table.
+   * @param operation name of the operation, for the error message
+   */
+  public static void checkNotPrefixLayout(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName, String operation)
+      throws OMException {
+    if (isPrefixLayout(omMetadataManager, volumeName, bucketName)) {
+      throw new OMException(operation + " is not supported for buckets " +
+          "with the prefix metadata layout", NOT_SUPPORTED_OPERATION);
+    }
+  }
+
+  /**
+   * Splits a key name into the names of its path components.
+   * @throws OMException if the key name has no components, or a relative
+   * path component.
+   */
+  public static List<String> getPathComponents(String keyName)
+      throws OMException {
+    List<String> names = new ArrayList<>();
+    for (String name : keyName.split(OZONE_URI_DELIMITER)) {
+      if (name.equals(".") || name.equals("..")) {
+        throw new OMException("Invalid key name: " + keyName,
+            INVALID_KEY_NAME);
+      }
+      if (!name.isEmpty()) {
+        names.add(name);
+      }
+    }
+    if (names.isEmpty()) {
+      throw new OMException("Invalid key name: " + keyName, INVALID_KEY_NAME);
+    }
+    return names;
+  }
+
+  /**
+   * Resolves the path of a key in a bucket with the prefix metadata layout,
+   * by looking up its parent directories from the bucket down.
+   * @param omMetadataManager
+   * @param bucketInfo bucket of the key
+   * @param keyName
+   * @return path info of the key.
+   * @throws IOException
+   */
+  public static OMPrefixPathInfo resolvePrefixPath(
+      @Nonnull OMMetadataManager omMetadataManager,
+      @Nonnull OmBucketInfo bucketInfo, @Nonnull String keyName)
+      throws IOException {
+    List<String> names = getPathComponents(keyName);
+    Table<String, OmKeyInfo> dirTable = omMetadataManager.getDirectoryTable();
+    Table<String, OmKeyInfo> fileTable = omMetadataManager.getFileTable();
+
+    long parentId = bucketInfo.getObjectID();
+    List<OzoneAcl> inheritAcls = bucketInfo.getAcls();
+    Set<Long> ancestorIds = new HashSet<>();
+    int depth = 0;
+    for (; depth < names.size() - 1; depth++) {
+      String dbKey = omMetadataManager.getOzonePathKey(parentId,
+          names.get(depth));
+      OmKeyInfo dirInfo = dirTable.get(dbKey);
+      if (dirInfo == null) {
+        if (fileTable.isExist(dbKey)) {
+          LOG.trace("File {} found in path of {}", dbKey, keyName);
+          return new OMPrefixPathInfo(names, parentId, depth, true,
+              ancestorIds, inheritAcls, null, null);
+        }
+        break;
+      }
+      parentId = dirInfo.getObjectID();
+      ancestorIds.add(parentId);
+      inheritAcls = dirInfo.getAcls();
+    }
+
+    OmKeyInfo leafDirInfo = null;
+    OmKeyInfo leafFileInfo = null;
+    if (depth == names.size() - 1) {
+      String dbKey = omMetadataManager.getOzonePathKey(parentId,
+          names.get(depth));
+      leafDirInfo = dirTable.get(dbKey);
+      if (leafDirInfo == null) {
+        leafFileInfo = fileTable.get(dbKey);
+      }
+    }
+    return new OMPrefixPathInfo(names, parentId, depth, false, ancestorIds,
+        inheritAcls, leafDirInfo, leafFileInfo);
+  }
+
+  /**
+   * Constructs the directory infos for the missing parent directories of a
+   * key in a bucket with the prefix metadata layout. The object ID derived
+   * from the transaction index is left for the key itself.
+   * @return the directory infos by their key in the directory table, from
+   * the top level down.
+   * @throws IOException
+   */
+  public static Map<String, OmKeyInfo> getMissingParentInfos(
+      OzoneManager ozoneManager, KeyArgs keyArgs,
+      OMPrefixPathInfo pathInfo, long trxnLogIndex) throws IOException {
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    Map<String, OmKeyInfo> missingParentInfos = new LinkedHashMap<>();
+
+    long baseObjId = ozoneManager.getObjectIdFromTxId(trxnLogIndex);
+    long parentId = pathInfo.getLastKnownParentId();
+    long objectCount = 1;
+    for (String name : pathInfo.getMissingParents()) {
+      if (objectCount > OMDirectoryCreateRequest.MAX_NUM_OF_RECURSIVE_DIRS) {
+        throw new OMException("Too many directories in path. Exceeds limit "
+            + "of " + OMDirectoryCreateRequest.MAX_NUM_OF_RECURSIVE_DIRS
+            + ". Unable to create key: " + keyArgs.getKeyName()
+            + " in volume/bucket: " + keyArgs.getVolumeName() + "/"
+            + keyArgs.getBucketName(), INVALID_KEY_NAME);
+      }
+      long objectId = baseObjId + objectCount;
+      OmKeyInfo dirInfo = OMDirectoryCreateRequest
+          .createDirectoryKeyInfoWithACL(name, keyArgs, objectId,
+              pathInfo.getAcls(), trxnLogIndex);
+      dirInfo.setKeyName(name);
+      missingParentInfos.put(
+          omMetadataManager.getOzonePathKey(parentId, name), dirInfo);
+      parentId = objectId;
+      objectCount++;
+    }
+    return missingParentInfos;
+  }
+
+  /**
+   * Add entries to the Directory Table cache.
+   */
+  public static void addDirectoryTableCacheEntries(
+      OMMetadataManager omMetadataManager, Map<String, OmKeyInfo> dirInfos,
+      long index) {
+    for (Map.Entry<String, OmKeyInfo> entry : dirInfos.entrySet()) {
+      omMetadataManager.getDirectoryTable().addCacheEntry(
+          new CacheKey<>(entry.getKey()),
+          new CacheValue<>(Optional.of(entry.getValue()), index));
+    }
+  }
+
+  /**
+   * Whether a directory of a bucket with the prefix metadata layout has any
+   * sub-directories or files, looking up both the table caches and the DB.
+   */
+  public static boolean hasChildren(OMMetadataManager omMetadataManager,
+      long objectId) throws IOException {
+    String prefix = omMetadataManager.getOzonePathKey(objectId, "");
+    return hasKeyWithPrefix(omMetadataManager.getDirectoryTable(), prefix)
+        || hasKeyWithPrefix(omMetadataManager.getFileTable(), prefix);
+  }
+
+  private static boolean hasKeyWithPrefix(Table<String, OmKeyInfo> table,
+      String prefix) throws IOException {
+    Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>> cacheIter =
+        table.cacheIterator(prefix);
+    while (cacheIter.hasNext()) {
+      Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>> entry =
+          cacheIter.next();
+      if (!entry.getKey().getCacheKey().startsWith(prefix)) {
+        break;
+      }
+      if (entry.getValue().getCacheValue() != null) {
+        return true;
+      }
+    }
+
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+        iterator = table.iterator()) {
+      iterator.seek(prefix);
+      while (iterator.hasNext()) {
+        String key = iterator.next().getKey();
+        if (!key.startsWith(prefix)) {
+          return false;
+        }
+        // Skip the keys deleted in the cache, but not flushed to DB yet.
+        CacheValue<OmKeyInfo> cacheValue =
+            table.getCacheValue(new CacheKey<>(key));
+        if (cacheValue == null || cacheValue.getCacheValue() != null) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Class to return the results from resolvePrefixPath.
+   * Includes the object ID of the last existing parent directory, the
+   * missing parent directories, and the directory or file with the key name
+   * if all its parents exist.
+   */
+  public static class OMPrefixPathInfo {
+    private final List<String> names;
+    private final long lastKnownParentId;
+    private final int existingParents;
+    private final boolean fileInPath;
+    private final Set<Long> ancestorIds;
+    private final List<OzoneAcl> acls;
+    private final OmKeyInfo dirInfo;
+    private final OmKeyInfo fileInfo;
+
+    @SuppressWarnings("parameternumber")
+    OMPrefixPathInfo(List<String> names, long lastKnownParentId,
+        int existingParents, boolean fileInPath, Set<Long> ancestorIds,
+        List<OzoneAcl> acls, OmKeyInfo dirInfo, OmKeyInfo fileInfo) {
+      this.names = names;
+      this.lastKnownParentId = lastKnownParentId;
+      this.existingParents = existingParents;
+      this.fileInPath = fileInPath;
+      this.ancestorIds = ancestorIds;
+      this.acls = acls;
+      this.dirInfo = dirInfo;
+      this.fileInfo = fileInfo;
+    }
+
+    /**
+     * Object ID of the deepest existing parent directory, or of the bucket.
+     */
+    public long getLastKnownParentId() {
+      return lastKnownParentId;
+    }
+
+    /**
+     * Object IDs of the existing parent directories.
+     */
+    public Set<Long> getAncestorIds() {
+      return Collections.unmodifiableSet(ancestorIds);
+    }
+
+    /**
+     * Names of the missing parent directories, from the top level down.
+     */
+    public List<String> getMissingParents() {
+      if (fileInPath) {
+        return Collections.emptyList();
+      }
+      return names.subList(existingParents, names.size() - 1);
+    }
+
+    /**
+     * Whether one of the parents in the path is a file.
+     */
+    public boolean isFileInPath() {
+      return fileInPath;
+    }
+
+    public boolean directParentExists() {
+      return !fileInPath && existingParents == names.size() - 1;
+    }
+
+    public String getLeafName() {
+      return names.get(names.size() - 1);
+    }
+
+    /**
+     * Key name normalized to the path components.
+     */
+    public String getNormalizedKeyName() {
+      return String.join(OZONE_URI_DELIMITER, names);
+    }
+
+    /**
+     * ACLs of the deepest existing parent directory, or of the bucket.
+     */
+    public List<OzoneAcl> getAcls() {
+      return acls;
+    }
+
+    /**
+     * Directory with the key name, if it exists.
+     */
+    public OmKeyInfo getDirInfo() {
+      return dirInfo;
+    }
+
+    /**
+     * File with the key name, if it exists.
+     */
+    public OmKeyInfo getFileInfo() {
+      return fileInfo;
+    }
+  }
 }
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Optional;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMDirectoriesPurgeResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeDirectoriesRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeDirectoriesResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgePathRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+
+/**
+ * Handles purging of the contents of deleted directories of buckets with
+ * the prefix metadata layout. The files of a deleted directory are moved to
+ * the deleted table, and its sub-directories are moved to the deleted
+ * directory table, to be purged in turn. Entries which are gone already are
+ * skipped, so that a repeated purge has no effect.
+ */
+public class OMDirectoriesPurgeRequest extends OMKeyRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMDirectoriesPurgeRequest.class);
+
+  public OMDirectoriesPurgeRequest(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long trxnLogIndex, OzoneManagerDoubleBufferHelper omDoubleBufferHelper) {
+    PurgeDirectoriesRequest purgeDirectoriesRequest =
+        getOmRequest().getPurgeDirectoriesRequest();
+
+    OMResponse.Builder omResponse = OmResponseUtil.getOMResponseBuilder(
+        getOmRequest());
+    OMClientResponse omClientResponse = null;
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    boolean isRatisEnabled = ozoneManager.isRatisEnabled();
+
+    Map<String, OmKeyInfo> purgedFiles = new LinkedHashMap<>();
+    Map<String, OmKeyInfo> purgedDirs = new LinkedHashMap<>();
+    List<String> purgedDeletedDirs = new ArrayList<>();
+    Map<String, OmBucketInfo> updatedBuckets = new HashMap<>();
+    try {
+      for (PurgePathRequest path :
+          purgeDirectoriesRequest.getDeletedPathList()) {
+        OmKeyInfo deletedDirInfo = omMetadataManager.getDeletedDirTable()
+            .get(path.getDeletedDir());
+        if (deletedDirInfo == null) {
+          LOG.debug("Deleted directory {} is already purged",
+              path.getDeletedDir());
+          continue;
+        }
+        String volumeName = deletedDirInfo.getVolumeName();
+        String bucketName = deletedDirInfo.getBucketName();
+        String dirPath = deletedDirInfo.getKeyName();
+
+        boolean acquiredLock = omMetadataManager.getLock().acquireWriteLock(
+            BUCKET_LOCK, volumeName, bucketName);
+        try {
+          String bucketKey =
+              omMetadataManager.getBucketKey(volumeName, bucketName);
+          CacheValue<OmBucketInfo> bucketValue = omMetadataManager
+              .getBucketTable().getCacheValue(new CacheKey<>(bucketKey));
+          OmBucketInfo omBucketInfo =
+              bucketValue == null ? null : bucketValue.getCacheValue();
+
+          for (String fileKey : path.getDeletedSubFilesList()) {
+            OmKeyInfo fileInfo =
+                omMetadataManager.getFileTable().get(fileKey);
+            if (fileInfo == null) {
+              continue;
+            }
+            fileInfo = fileInfo.copyObject();
+            fileInfo.setKeyName(
+                dirPath + OZONE_URI_DELIMITER + fileInfo.getKeyName());
+            fileInfo.setUpdateID(trxnLogIndex, isRatisEnabled);
+            omMetadataManager.getFileTable().addCacheEntry(
+                new CacheKey<>(fileKey),
+                new CacheValue<>(Optional.absent(), trxnLogIndex));
+            purgedFiles.put(fileKey, fileInfo);
+
+            if (omBucketInfo != null) {
+              omBucketInfo.incrUsedBytes(-sumBlockLengths(fileInfo));
+              omBucketInfo.incrUsedNamespace(-1L);
+              updatedBuckets.put(bucketKey, omBucketInfo.copyObject());
+            }
+          }
+
+          for (String dirKey : path.getMarkDeletedSubDirsList()) {
+            OmKeyInfo dirInfo =
+                omMetadataManager.getDirectoryTable().get(dirKey);
+            if (dirInfo == null) {
+              continue;
+            }
+            dirInfo = dirInfo.copyObject();
+            dirInfo.setKeyName(
+                dirPath + OZONE_URI_DELIMITER + dirInfo.getKeyName());
+            dirInfo.setUpdateID(trxnLogIndex, isRatisEnabled);
+            omMetadataManager.getDirectoryTable().addCacheEntry(
+                new CacheKey<>(dirKey),
+                new CacheValue<>(Optional.absent(), trxnLogIndex));
+            purgedDirs.put(dirKey, dirInfo);
+          }
+
+          if (path.getPurgeDir()) {
+            omMetadataManager.getDeletedDirTable().addCacheEntry(
+                new CacheKey<>(path.getDeletedDir()),
+                new CacheValue<>(Optional.absent(), trxnLogIndex));
+            purgedDeletedDirs.add(path.getDeletedDir());
+          }
+        } finally {
+          if (acquiredLock) {
+            omMetadataManager.getLock().releaseWriteLock(BUCKET_LOCK,
+                volumeName, bucketName);
+          }
+        }
+      }
+
+      omClientResponse = new OMDirectoriesPurgeResponse(omResponse
+          .setPurgeDirectoriesResponse(PurgeDirectoriesResponse.newBuilder())
+          .build(), purgedFiles, purgedDirs, purgedDeletedDirs,
+          updatedBuckets, isRatisEnabled);
+    } catch (IOException ex) {
+      LOG.error("Failed to purge deleted directories", ex);
+      omClientResponse = new OMDirectoriesPurgeResponse(
+          createErrorOMResponse(omResponse, ex));
+    }
+    addResponseToDoubleBuffer(trxnLogIndex, omClientResponse,
+        omDoubleBufferHelper);
+
+    ozoneManager.getMetrics().decNumKeys(purgedFiles.size()
+        + purgedDirs.size());
+    return omClientResponse;
+  }
+}
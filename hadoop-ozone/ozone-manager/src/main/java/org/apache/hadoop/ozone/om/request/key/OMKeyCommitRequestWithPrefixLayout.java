@@ -0,0 +1,246 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Optional;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.audit.AuditLogger;
+import org.apache.hadoop.ozone.audit.OMAction;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMMetrics;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeyCommitResponseWithPrefixLayout;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyLocation;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.KEY_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.NOT_A_FILE;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+
+/**
+ * Handles CommitKey request for buckets with the prefix metadata layout.
+ * The key is added to the file table under its parent directory, which has
+ * to exist.
+ */
+public class OMKeyCommitRequestWithPrefixLayout extends OMKeyCommitRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMKeyCommitRequestWithPrefixLayout.class);
+
+  public OMKeyCommitRequestWithPrefixLayout(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  @SuppressWarnings("methodlength")
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long trxnLogIndex, OzoneManagerDoubleBufferHelper omDoubleBufferHelper) {
+
+    CommitKeyRequest commitKeyRequest = getOmRequest().getCommitKeyRequest();
+
+    KeyArgs commitKeyArgs = commitKeyRequest.getKeyArgs();
+
+    String volumeName = commitKeyArgs.getVolumeName();
+    String bucketName = commitKeyArgs.getBucketName();
+    String keyName = commitKeyArgs.getKeyName();
+
+    OMMetrics omMetrics = ozoneManager.getMetrics();
+    omMetrics.incNumKeyCommits();
+
+    AuditLogger auditLogger = ozoneManager.getAuditLogger();
+
+    Map<String, String> auditMap = buildKeyArgsAuditMap(commitKeyArgs);
+
+    OMResponse.Builder omResponse = OmResponseUtil.getOMResponseBuilder(
+        getOmRequest());
+
+    IOException exception = null;
+    OmKeyInfo omKeyInfo = null;
+    OmKeyInfo overwrittenKeyInfo = null;
+    OmBucketInfo omBucketInfo = null;
+    OMClientResponse omClientResponse = null;
+    boolean bucketLockAcquired = false;
+    Result result;
+
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+
+    try {
+      commitKeyArgs = resolveBucketLink(ozoneManager, commitKeyArgs, auditMap);
+      volumeName = commitKeyArgs.getVolumeName();
+      bucketName = commitKeyArgs.getBucketName();
+
+      // check Acl
+      checkKeyAclsInOpenKeyTable(ozoneManager, volumeName, bucketName,
+          keyName, IAccessAuthorizer.ACLType.WRITE,
+          commitKeyRequest.getClientID());
+
+      String dbOpenKey = omMetadataManager.getOpenKey(volumeName, bucketName,
+          keyName, commitKeyRequest.getClientID());
+
+      List<OmKeyLocationInfo> locationInfoList = new ArrayList<>();
+      for (KeyLocation keyLocation : commitKeyArgs.getKeyLocationsList()) {
+        locationInfoList.add(OmKeyLocationInfo.getFromProtobuf(keyLocation));
+      }
+
+      bucketLockAcquired =
+          omMetadataManager.getLock().acquireWriteLock(BUCKET_LOCK,
+              volumeName, bucketName);
+
+      validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
+
+      omBucketInfo = getBucketInfo(omMetadataManager, volumeName, bucketName);
+      OMFileRequest.OMPrefixPathInfo pathInfo = OMFileRequest
+          .resolvePrefixPath(omMetadataManager, omBucketInfo, keyName);
+
+      // Check for directory exists with same name, if it exists throw error.
+      if (pathInfo.getDirInfo() != null) {
+        throw new OMException("Can not create file: " + keyName +
+            " as there is already directory in the given path", NOT_A_FILE);
+      }
+      // Ensure the parent exist. The parent may have been renamed or deleted
+      // since the key was opened.
+      if (!pathInfo.directParentExists()) {
+        throw new OMException("Cannot create file : " + keyName
+            + " as parent directory doesn't exist",
+            OMException.ResultCodes.DIRECTORY_NOT_FOUND);
+      }
+
+      omKeyInfo = omMetadataManager.getOpenKeyTable().get(dbOpenKey);
+      if (omKeyInfo == null) {
+        throw new OMException("Failed to commit key, as " + dbOpenKey +
+            "entry is not found in the OpenKey table", KEY_NOT_FOUND);
+      }
+      // The open key is looked up by its full path until it is flushed, so
+      // only the file table entry is named after the leaf.
+      omKeyInfo = omKeyInfo.copyObject();
+      omKeyInfo.setDataSize(commitKeyArgs.getDataSize());
+
+      omKeyInfo.setModificationTime(commitKeyArgs.getModificationTime());
+
+      // Update the block length for each block
+      List<OmKeyLocationInfo> allocatedLocationInfoList =
+          omKeyInfo.getLatestVersionLocations().getLocationList();
+      omKeyInfo.updateLocationInfoList(locationInfoList, false);
+
+      // Set the UpdateID to current transactionLogIndex
+      omKeyInfo.setUpdateID(trxnLogIndex, ozoneManager.isRatisEnabled());
+
+      String leafName = pathInfo.getLeafName();
+      String dbFileKey = omMetadataManager.getOzonePathKey(
+          pathInfo.getLastKnownParentId(), leafName);
+      omKeyInfo.setKeyName(leafName);
+
+      long scmBlockSize = ozoneManager.getScmBlockSize();
+      int factor = omKeyInfo.getFactor().getNumber();
+      // Block was pre-requested and UsedBytes updated when createKey and
+      // AllocatedBlock. The space occupied by the Key shall be based on
+      // the actual Key size, and the total Block size applied before should
+      // be subtracted.
+      long correctedSpace = omKeyInfo.getDataSize() * factor -
+          allocatedLocationInfoList.size() * scmBlockSize * factor;
+      omBucketInfo.incrUsedBytes(correctedSpace);
+
+      // The file being overwritten is deleted, releasing its quota.
+      String overwrittenOzoneKey = null;
+      if (pathInfo.getFileInfo() != null) {
+        overwrittenKeyInfo = pathInfo.getFileInfo().copyObject();
+        overwrittenKeyInfo.setKeyName(pathInfo.getNormalizedKeyName());
+        overwrittenKeyInfo.setUpdateID(trxnLogIndex,
+            ozoneManager.isRatisEnabled());
+        overwrittenOzoneKey = omMetadataManager.getOzoneKey(volumeName,
+            bucketName, pathInfo.getNormalizedKeyName());
+        omBucketInfo.incrUsedBytes(-sumBlockLengths(overwrittenKeyInfo));
+        omBucketInfo.incrUsedNamespace(-1L);
+      }
+
+      // Add to cache of open key table and file table.
+      omMetadataManager.getOpenKeyTable().addCacheEntry(
+          new CacheKey<>(dbOpenKey),
+          new CacheValue<>(Optional.absent(), trxnLogIndex));
+
+      omMetadataManager.getFileTable().addCacheEntry(
+          new CacheKey<>(dbFileKey),
+          new CacheValue<>(Optional.of(omKeyInfo), trxnLogIndex));
+
+      omClientResponse = new OMKeyCommitResponseWithPrefixLayout(
+          omResponse.build(), omKeyInfo, dbFileKey, dbOpenKey,
+          omBucketInfo.copyObject(), overwrittenKeyInfo, overwrittenOzoneKey,
+          ozoneManager.isRatisEnabled());
+
+      result = Result.SUCCESS;
+    } catch (IOException ex) {
+      result = Result.FAILURE;
+      exception = ex;
+      omClientResponse = new OMKeyCommitResponseWithPrefixLayout(
+          createErrorOMResponse(omResponse, exception));
+    } finally {
+      addResponseToDoubleBuffer(trxnLogIndex, omClientResponse,
+          omDoubleBufferHelper);
+
+      if(bucketLockAcquired) {
+        omMetadataManager.getLock().releaseWriteLock(BUCKET_LOCK, volumeName,
+            bucketName);
+      }
+    }
+
+    auditLog(auditLogger, buildAuditMessage(OMAction.COMMIT_KEY, auditMap,
+          exception, getOmRequest().getUserInfo()));
+
+    switch (result) {
+    case SUCCESS:
+      // An overwritten file is replaced, so the number of keys is the same.
+      if (overwrittenKeyInfo == null) {
+        omMetrics.incNumKeys();
+      }
+      LOG.debug("Key committed. Volume:{}, Bucket:{}, Key:{}", volumeName,
+          bucketName, keyName);
+      break;
+    case FAILURE:
+      LOG.error("Key commit failed. Volume:{}, Bucket:{}, Key:{}.",
+          volumeName, bucketName, keyName, exception);
+      omMetrics.incNumKeyCommitFails();
+      break;
+    default:
+      LOG.error("Unrecognized Result for OMKeyCommitRequest: {}",
+          commitKeyRequest);
+    }
+
+    return omClientResponse;
+  }
+}
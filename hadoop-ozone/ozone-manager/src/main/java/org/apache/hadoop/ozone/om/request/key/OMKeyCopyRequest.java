@@ -0,0 +1,387 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.fs.FileEncryptionInfo;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.audit.AuditLogger;
+import org.apache.hadoop.ozone.audit.OMAction;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMMetrics;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.BucketEncryptionKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeyCopyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
+import org.apache.hadoop.ozone.security.acl.OzoneObj;
+import org.apache.hadoop.util.Time;
+import org.apache.hadoop.hdds.utils.UniqueId;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.KEY_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.NOT_SUPPORTED_OPERATION;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.NO_SUCH_MULTIPART_UPLOAD_ERROR;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+
+/**
+ * Handles CopyKey request.
+ *
+ * The destination key, or the destination multipart upload part, refers to
+ * the blocks of the source key, so no data is moved. Each block shared this
+ * way gets an entry in the block reference table, which is checked by the
+ * KeyDeletingService before deleting the blocks of a deleted key.
+ */
+public class OMKeyCopyRequest extends OMKeyRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMKeyCopyRequest.class);
+
+  public OMKeyCopyRequest(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  public OMRequest preExecute(OzoneManager ozoneManager) throws IOException {
+    CopyKeyRequest copyKeyRequest = getOmRequest().getCopyKeyRequest();
+    Preconditions.checkNotNull(copyKeyRequest);
+
+    KeyArgs keyArgs = copyKeyRequest.getKeyArgs();
+    KeyArgs toKeyArgs = copyKeyRequest.getToKeyArgs();
+
+    CopyKeyRequest.Builder newCopyKeyRequest = copyKeyRequest.toBuilder()
+        .setKeyArgs(keyArgs.toBuilder()
+            .setKeyName(validateAndNormalizeKey(
+                ozoneManager.getEnableFileSystemPaths(), keyArgs.getKeyName())))
+        .setToKeyArgs(toKeyArgs.toBuilder()
+            .setModificationTime(Time.now())
+            .setKeyName(validateAndNormalizeKey(
+                ozoneManager.getEnableFileSystemPaths(),
+                toKeyArgs.getKeyName())));
+
+    // Multipart upload parts are identified by a client ID, as if the part
+    // was written through an open key.
+    if (toKeyArgs.getIsMultipartKey()) {
+      newCopyKeyRequest.setClientID(UniqueId.next());
+    }
+
+    return getOmRequest().toBuilder()
+        .setCopyKeyRequest(newCopyKeyRequest)
+        .setUserInfo(getUserInfo()).build();
+  }
+
+  @Override
+  @SuppressWarnings("methodlength")
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long trxnLogIndex, OzoneManagerDoubleBufferHelper omDoubleBufferHelper) {
+
+    CopyKeyRequest copyKeyRequest = getOmRequest().getCopyKeyRequest();
+
+    KeyArgs keyArgs = copyKeyRequest.getKeyArgs();
+    KeyArgs toKeyArgs = copyKeyRequest.getToKeyArgs();
+    boolean isMultipart = toKeyArgs.getIsMultipartKey();
+
+    String volumeName = keyArgs.getVolumeName();
+    String bucketName = keyArgs.getBucketName();
+    String keyName = keyArgs.getKeyName();
+    String toBucketName = toKeyArgs.getBucketName();
+    String toKeyName = toKeyArgs.getKeyName();
+
+    OMMetrics omMetrics = ozoneManager.getMetrics();
+    omMetrics.incNumKeyCopies();
+
+    AuditLogger auditLogger = ozoneManager.getAuditLogger();
+
+    Map<String, String> auditMap = buildKeyArgsAuditMap(keyArgs);
+    auditMap.put(OzoneConsts.TO_KEY_NAME, toKeyName);
+
+    OMResponse.Builder omResponse = OmResponseUtil.getOMResponseBuilder(
+        getOmRequest());
+
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    IOException exception = null;
+    OMClientResponse omClientResponse = null;
+    String firstLockBucket = null;
+    String secondLockBucket = null;
+    boolean acquiredFirstLock = false;
+    boolean acquiredSecondLock = false;
+    String partName = null;
+    Result result;
+    try {
+      keyArgs = resolveBucketLink(ozoneManager, keyArgs, auditMap);
+      toKeyArgs = resolveBucketLink(ozoneManager, toKeyArgs, auditMap);
+      volumeName = keyArgs.getVolumeName();
+      bucketName = keyArgs.getBucketName();
+      toBucketName = toKeyArgs.getBucketName();
+      if (!volumeName.equals(toKeyArgs.getVolumeName())) {
+        throw new OMException("Copying keys across volumes is not supported",
+            NOT_SUPPORTED_OPERATION);
+      }
+
+      // check Acls: read on the source key, and write on the destination.
+      checkKeyAcls(ozoneManager, volumeName, bucketName, keyName,
+          IAccessAuthorizer.ACLType.READ, OzoneObj.ResourceType.KEY);
+      if (isMultipart) {
+        checkKeyAcls(ozoneManager, volumeName, toBucketName, toKeyName,
+            IAccessAuthorizer.ACLType.WRITE, OzoneObj.ResourceType.KEY);
+      } else {
+        checkKeyAcls(ozoneManager, volumeName, toBucketName, toKeyName,
+            IAccessAuthorizer.ACLType.CREATE, OzoneObj.ResourceType.KEY);
+      }
+
+      // Acquire bucket locks in a consistent order to avoid deadlocks with
+      // copies in the opposite direction.
+      if (omMetadataManager.getLock().compareBucketLockOrder(volumeName,
+          bucketName, toBucketName) <= 0) {
+        firstLockBucket = bucketName;
+        secondLockBucket = toBucketName;
+      } else {
+        firstLockBucket = toBucketName;
+        secondLockBucket = bucketName;
+      }
+      acquiredFirstLock = omMetadataManager.getLock().acquireWriteLock(
+          BUCKET_LOCK, volumeName, firstLockBucket);
+      if (!firstLockBucket.equals(secondLockBucket)) {
+        acquiredSecondLock = omMetadataManager.getLock().acquireWriteLock(
+            BUCKET_LOCK, volumeName, secondLockBucket);
+      }
+
+      validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
+      validateBucketAndVolume(omMetadataManager, volumeName, toBucketName);
+      OMFileRequest.checkNotPrefixLayout(omMetadataManager, volumeName,
+          bucketName, "Copying keys");
+      OMFileRequest.checkNotPrefixLayout(omMetadataManager, volumeName,
+          toBucketName, "Copying keys");
+
+      String fromKey = omMetadataManager.getOzoneKey(volumeName, bucketName,
+          keyName);
+      OmKeyInfo fromKeyInfo = omMetadataManager.getKeyTable().get(fromKey);
+      if (fromKeyInfo == null) {
+        throw new OMException("Key not found " + fromKey, KEY_NOT_FOUND);
+      }
+
+      OmBucketInfo omBucketInfo =
+          getBucketInfo(omMetadataManager, volumeName, toBucketName);
+
+      // The data key of an encrypted key is encrypted with the encryption
+      // key of its bucket, so it can only be reused in a bucket with the same
+      // encryption key.
+      FileEncryptionInfo encInfo = fromKeyInfo.getFileEncryptionInfo();
+      BucketEncryptionKeyInfo toEncryptionKey =
+          omBucketInfo.getEncryptionKeyInfo();
+      if (!Objects.equals(encInfo == null ? null : encInfo.getKeyName(),
+          toEncryptionKey == null ? null : toEncryptionKey.getKeyName())) {
+        throw new OMException("Copying keys between buckets with different " +
+            "encryption keys is not supported", NOT_SUPPORTED_OPERATION);
+      }
+
+      List<OmKeyLocationInfo> locations =
+          fromKeyInfo.getLatestVersionLocations().getLocationList();
+      long dataSize = fromKeyInfo.getDataSize();
+      int factor = fromKeyInfo.getFactor().getNumber();
+
+      OmKeyInfo omKeyInfo = createKeyInfo(toKeyArgs, locations,
+          fromKeyInfo.getFactor(), fromKeyInfo.getType(), dataSize, encInfo,
+          ozoneManager.getPrefixManager(), omBucketInfo, trxnLogIndex,
+          ozoneManager.getObjectIdFromTxId(trxnLogIndex));
+      if (toKeyArgs.getMetadataCount() == 0) {
+        omKeyInfo.getMetadata().putAll(fromKeyInfo.getMetadata());
+      }
+
+      if (isMultipart) {
+        String multipartKey = omMetadataManager.getMultipartKey(volumeName,
+            toBucketName, toKeyName, toKeyArgs.getMultipartUploadID());
+        OmMultipartKeyInfo multipartKeyInfo =
+            omMetadataManager.getMultipartInfoTable().get(multipartKey);
+        if (multipartKeyInfo == null) {
+          throw new OMException("No such Multipart upload is with specified " +
+              "uploadId " + toKeyArgs.getMultipartUploadID(),
+              NO_SUCH_MULTIPART_UPLOAD_ERROR);
+        }
+        // Complete multipart upload expects all parts to be written with the
+        // replication of the upload.
+        if (multipartKeyInfo.getReplicationType() != fromKeyInfo.getType() ||
+            multipartKeyInfo.getReplicationFactor() !=
+                fromKeyInfo.getFactor()) {
+          throw new OMException("Copying a key with different replication " +
+              "as a multipart upload part is not supported",
+              NOT_SUPPORTED_OPERATION);
+        }
+        checkBucketQuotaInBytes(omBucketInfo, dataSize * factor);
+
+        int partNumber = toKeyArgs.getMultipartNumber();
+        partName = omMetadataManager.getOzoneKey(volumeName, toBucketName,
+            toKeyName) + copyKeyRequest.getClientID();
+        OzoneManagerProtocolProtos.PartKeyInfo oldPartKeyInfo =
+            multipartKeyInfo.getPartKeyInfo(partNumber);
+        multipartKeyInfo.addPartKeyInfo(partNumber,
+            OzoneManagerProtocolProtos.PartKeyInfo.newBuilder()
+                .setPartName(partName)
+                .setPartNumber(partNumber)
+                .setPartKeyInfo(omKeyInfo.getProtobuf(true,
+                    getOmRequest().getVersion()))
+                .build());
+        multipartKeyInfo.setUpdateID(trxnLogIndex,
+            ozoneManager.isRatisEnabled());
+
+        Map<String, Long> blockReferences = incrementBlockReferences(
+            omMetadataManager, locations, trxnLogIndex);
+        omMetadataManager.getMultipartInfoTable().addCacheEntry(
+            new CacheKey<>(multipartKey),
+            new CacheValue<>(Optional.of(multipartKeyInfo), trxnLogIndex));
+
+        omBucketInfo.incrUsedBytes(dataSize * factor);
+
+        omResponse.setCopyKeyResponse(CopyKeyResponse.newBuilder()
+            .setPartName(partName));
+        omClientResponse = OMKeyCopyResponse.forMultipartPart(
+            omResponse.build(), multipartKey, multipartKeyInfo,
+            oldPartKeyInfo, blockReferences, ozoneManager.isRatisEnabled(),
+            omBucketInfo.copyObject());
+      } else {
+        String toKey = omMetadataManager.getOzoneKey(volumeName, toBucketName,
+            toKeyName);
+        OmKeyInfo overwrittenKeyInfo =
+            omMetadataManager.getKeyTable().get(toKey);
+        long releasedBytes = 0;
+        if (overwrittenKeyInfo != null) {
+          overwrittenKeyInfo.setUpdateID(trxnLogIndex,
+              ozoneManager.isRatisEnabled());
+          releasedBytes = sumBlockLengths(overwrittenKeyInfo);
+        } else {
+          checkBucketQuotaInNamespace(omBucketInfo, 1L);
+        }
+        checkBucketQuotaInBytes(omBucketInfo,
+            dataSize * factor - releasedBytes);
+
+        Map<String, Long> blockReferences = incrementBlockReferences(
+            omMetadataManager, locations, trxnLogIndex);
+        omMetadataManager.getKeyTable().addCacheEntry(
+            new CacheKey<>(toKey),
+            new CacheValue<>(Optional.of(omKeyInfo), trxnLogIndex));
+
+        omBucketInfo.incrUsedBytes(dataSize * factor - releasedBytes);
+        if (overwrittenKeyInfo == null) {
+          omBucketInfo.incrUsedNamespace(1L);
+        }
+
+        omResponse.setCopyKeyResponse(CopyKeyResponse.newBuilder()
+            .setKeyInfo(omKeyInfo.getProtobuf(true,
+                getOmRequest().getVersion())));
+        omClientResponse = OMKeyCopyResponse.forKey(omResponse.build(),
+            toKey, omKeyInfo, overwrittenKeyInfo, blockReferences,
+            ozoneManager.isRatisEnabled(), omBucketInfo.copyObject());
+      }
+
+      result = Result.SUCCESS;
+    } catch (IOException ex) {
+      result = Result.FAILURE;
+      exception = ex;
+      omClientResponse = new OMKeyCopyResponse(createErrorOMResponse(
+          omResponse, exception));
+    } finally {
+      addResponseToDoubleBuffer(trxnLogIndex, omClientResponse,
+          omDoubleBufferHelper);
+      if (acquiredSecondLock) {
+        omMetadataManager.getLock().releaseWriteLock(BUCKET_LOCK, volumeName,
+            secondLockBucket);
+      }
+      if (acquiredFirstLock) {
+        omMetadataManager.getLock().releaseWriteLock(BUCKET_LOCK, volumeName,
+            firstLockBucket);
+      }
+    }
+
+    if (partName != null) {
+      auditMap.put(OzoneConsts.MULTIPART_UPLOAD_PART_NAME, partName);
+    }
+    auditLog(auditLogger, buildAuditMessage(OMAction.COPY_KEY, auditMap,
+        exception, getOmRequest().getUserInfo()));
+
+    switch (result) {
+    case SUCCESS:
+      if (!isMultipart) {
+        omMetrics.incNumKeys();
+      }
+      LOG.debug("Key copied. Volume:{}, Bucket:{}, Key:{} to Bucket:{}, " +
+          "Key:{}", volumeName, bucketName, keyName, toBucketName, toKeyName);
+      break;
+    case FAILURE:
+      omMetrics.incNumKeyCopyFails();
+      LOG.error("Key copy failed. Volume:{}, Bucket:{}, Key:{} to Bucket:{}, " +
+          "Key:{}.", volumeName, bucketName, keyName, toBucketName, toKeyName,
+          exception);
+      break;
+    default:
+      LOG.error("Unrecognized Result for OMKeyCopyRequest: {}",
+          copyKeyRequest);
+    }
+
+    return omClientResponse;
+  }
+
+  /**
+   * Increments the reference count of the given blocks, and adds the new
+   * counts to the block reference table cache.
+   * @return new reference counts by block reference table key.
+   */
+  private Map<String, Long> incrementBlockReferences(
+      OMMetadataManager omMetadataManager, List<OmKeyLocationInfo> locations,
+      long trxnLogIndex) throws IOException {
+    Map<String, Long> blockReferences = new HashMap<>();
+    for (OmKeyLocationInfo location : locations) {
+      String blockKey = omMetadataManager.getBlockReferenceKey(
+          location.getContainerID(), location.getLocalID());
+      Long references = blockReferences.get(blockKey);
+      if (references == null) {
+        references = omMetadataManager.getBlockReferenceTable().get(blockKey);
+      }
+      blockReferences.put(blockKey, references == null ? 1 : references + 1);
+    }
+    blockReferences.forEach((blockKey, references) ->
+        omMetadataManager.getBlockReferenceTable().addCacheEntry(
+            new CacheKey<>(blockKey),
+            new CacheValue<>(Optional.of(references), trxnLogIndex)));
+    return blockReferences;
+  }
+}
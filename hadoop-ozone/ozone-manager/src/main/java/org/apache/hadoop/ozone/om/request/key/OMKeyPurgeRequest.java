@@ -18,8 +18,18 @@
 
 package org.apache.hadoop.ozone.om.request.key;
 
+import java.io.IOException;
 import java.util.ArrayList;
+
+import com.google.common.base.Optional;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ContainerBlockID;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
 import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
@@ -28,10 +38,13 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.SharedKeyBlocks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Handles purging of keys from OM DB.
@@ -64,11 +77,80 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       }
     }
 
-    omClientResponse = new OMKeyPurgeResponse(omResponse.build(),
-          keysToBePurgedList);
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    try {
+      Map<String, Long> blockReferences = releaseBlockReferences(
+          omMetadataManager, purgeKeysRequest.getSharedKeyBlocksList());
+
+      blockReferences.forEach((blockKey, references) ->
+          omMetadataManager.getBlockReferenceTable().addCacheEntry(
+              new CacheKey<>(blockKey),
+              new CacheValue<>(references > 0 ? Optional.of(references) :
+                  Optional.absent(), trxnLogIndex)));
+      // Purged keys are added to the cache, so that a repeated purge of the
+      // same keys does not release the block references again.
+      for (String deletedKey : keysToBePurgedList) {
+        omMetadataManager.getDeletedTable().addCacheEntry(
+            new CacheKey<>(deletedKey),
+            new CacheValue<>(Optional.absent(), trxnLogIndex));
+      }
+
+      omClientResponse = new OMKeyPurgeResponse(omResponse.build(),
+          keysToBePurgedList, blockReferences);
+    } catch (IOException ex) {
+      LOG.error("Failed to purge keys {}", keysToBePurgedList, ex);
+      omClientResponse = new OMKeyPurgeResponse(
+          createErrorOMResponse(omResponse, ex));
+    }
     addResponseToDoubleBuffer(trxnLogIndex, omClientResponse,
         omDoubleBufferHelper);
 
     return omClientResponse;
   }
+
+  /**
+   * Decrements the reference count of the shared blocks of the purged keys.
+   * A block is only released as many times as it occurs in the deletedTable
+   * entry of the key, so a block is never released for a key which was
+   * already purged.
+   * @return new reference counts by block reference table key.
+   */
+  private Map<String, Long> releaseBlockReferences(
+      OMMetadataManager omMetadataManager,
+      List<SharedKeyBlocks> sharedKeyBlocksList) throws IOException {
+    Map<String, Long> blockReferences = new HashMap<>();
+    for (SharedKeyBlocks sharedKeyBlocks : sharedKeyBlocksList) {
+      RepeatedOmKeyInfo repeatedOmKeyInfo = omMetadataManager.getDeletedTable()
+          .get(sharedKeyBlocks.getDeletedKey());
+      if (repeatedOmKeyInfo == null) {
+        continue;
+      }
+      Map<String, Integer> occurrences = new HashMap<>();
+      for (OmKeyInfo omKeyInfo : repeatedOmKeyInfo.getOmKeyInfoList()) {
+        for (OmKeyLocationInfo location :
+            omKeyInfo.getLatestVersionLocations().getLocationList()) {
+          occurrences.merge(omMetadataManager.getBlockReferenceKey(
+              location.getContainerID(), location.getLocalID()), 1,
+              Integer::sum);
+        }
+      }
+      for (ContainerBlockID blockID : sharedKeyBlocks.getBlockIDsList()) {
+        String blockKey = omMetadataManager.getBlockReferenceKey(
+            blockID.getContainerID(), blockID.getLocalID());
+        if (occurrences.getOrDefault(blockKey, 0) == 0) {
+          continue;
+        }
+        occurrences.merge(blockKey, -1, Integer::sum);
+        Long references = blockReferences.get(blockKey);
+        if (references == null) {
+          references = omMetadataManager.getBlockReferenceTable()
+              .get(blockKey);
+        }
+        if (references != null && references > 0) {
+          blockReferences.put(blockKey, references - 1);
+        }
+      }
+    }
+    return blockReferences;
+  }
 }
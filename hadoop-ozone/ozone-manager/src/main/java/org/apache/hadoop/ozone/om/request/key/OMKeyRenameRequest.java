@@ -229,7 +229,7 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
     return omClientResponse;
   }
 
-  private Map<String, String> buildAuditMap(
+  protected Map<String, String> buildAuditMap(
       KeyArgs keyArgs, RenameKeyRequest renameKeyRequest) {
     Map<String, String> auditMap = buildKeyArgsAuditMap(keyArgs);
     auditMap.remove(OzoneConsts.KEY);
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.common.base.Optional;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.audit.AuditLogger;
+import org.apache.hadoop.ozone.audit.OMAction;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMMetrics;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeyRenameResponseWithPrefixLayout;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RenameKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RenameKeyResponse;
+import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
+import org.apache.hadoop.ozone.security.acl.OzoneObj;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.DIRECTORY_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.KEY_ALREADY_EXISTS;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.KEY_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.KEY_RENAME_ERROR;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+
+/**
+ * Handles RenameKey request for buckets with the prefix metadata layout.
+ * Files and directories are renamed by moving their own entry, so renaming
+ * a directory does not touch the entries below it.
+ */
+public class OMKeyRenameRequestWithPrefixLayout extends OMKeyRenameRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMKeyRenameRequestWithPrefixLayout.class);
+
+  public OMKeyRenameRequestWithPrefixLayout(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  @SuppressWarnings("methodlength")
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long trxnLogIndex, OzoneManagerDoubleBufferHelper omDoubleBufferHelper) {
+
+    RenameKeyRequest renameKeyRequest = getOmRequest().getRenameKeyRequest();
+    KeyArgs keyArgs = renameKeyRequest.getKeyArgs();
+    Map<String, String> auditMap = buildAuditMap(keyArgs, renameKeyRequest);
+
+    String volumeName = keyArgs.getVolumeName();
+    String bucketName = keyArgs.getBucketName();
+    String fromKeyName = keyArgs.getKeyName();
+    String toKeyName = renameKeyRequest.getToKeyName();
+
+    OMMetrics omMetrics = ozoneManager.getMetrics();
+    omMetrics.incNumKeyRenames();
+
+    AuditLogger auditLogger = ozoneManager.getAuditLogger();
+
+    OMResponse.Builder omResponse = OmResponseUtil.getOMResponseBuilder(
+        getOmRequest());
+
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    boolean acquiredLock = false;
+    OMClientResponse omClientResponse = null;
+    IOException exception = null;
+    Result result = null;
+    try {
+      if (toKeyName.length() == 0 || fromKeyName.length() == 0) {
+        throw new OMException("Key name is empty",
+            OMException.ResultCodes.INVALID_KEY_NAME);
+      }
+
+      keyArgs = resolveBucketLink(ozoneManager, keyArgs, auditMap);
+      volumeName = keyArgs.getVolumeName();
+      bucketName = keyArgs.getBucketName();
+
+      // check Acls to see if user has access to perform delete operation on
+      // old key and create operation on new key
+      checkKeyAcls(ozoneManager, volumeName, bucketName, fromKeyName,
+          IAccessAuthorizer.ACLType.DELETE, OzoneObj.ResourceType.KEY);
+      checkKeyAcls(ozoneManager, volumeName, bucketName, toKeyName,
+          IAccessAuthorizer.ACLType.CREATE, OzoneObj.ResourceType.KEY);
+
+      acquiredLock = omMetadataManager.getLock().acquireWriteLock(BUCKET_LOCK,
+          volumeName, bucketName);
+
+      // Validate bucket and volume exists or not.
+      validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
+      OmBucketInfo omBucketInfo =
+          getBucketInfo(omMetadataManager, volumeName, bucketName);
+
+      // fromKeyName should exist
+      OMFileRequest.OMPrefixPathInfo fromPathInfo = OMFileRequest
+          .resolvePrefixPath(omMetadataManager, omBucketInfo, fromKeyName);
+      boolean isDirectory = fromPathInfo.getDirInfo() != null;
+      OmKeyInfo fromKeyValue = isDirectory ? fromPathInfo.getDirInfo() :
+          fromPathInfo.getFileInfo();
+      if (fromKeyValue == null) {
+        throw new OMException("Key not found " + fromKeyName, KEY_NOT_FOUND);
+      }
+
+      // toKeyName should not exist, but its parent should.
+      OMFileRequest.OMPrefixPathInfo toPathInfo = OMFileRequest
+          .resolvePrefixPath(omMetadataManager, omBucketInfo, toKeyName);
+      if (toPathInfo.getDirInfo() != null
+          || toPathInfo.getFileInfo() != null) {
+        throw new OMException("Key already exists " + toKeyName,
+            KEY_ALREADY_EXISTS);
+      }
+      if (!toPathInfo.directParentExists()) {
+        throw new OMException("Cannot rename " + fromKeyName + " to "
+            + toKeyName + " as parent directory doesn't exist",
+            DIRECTORY_NOT_FOUND);
+      }
+      if (isDirectory && toPathInfo.getAncestorIds()
+          .contains(fromKeyValue.getObjectID())) {
+        throw new OMException("Cannot rename a directory to its own "
+            + "subdirectory: " + fromKeyName + " to " + toKeyName,
+            KEY_RENAME_ERROR);
+      }
+
+      String fromDbKey = omMetadataManager.getOzonePathKey(
+          fromPathInfo.getLastKnownParentId(), fromPathInfo.getLeafName());
+      String toDbKey = omMetadataManager.getOzonePathKey(
+          toPathInfo.getLastKnownParentId(), toPathInfo.getLeafName());
+
+      fromKeyValue = fromKeyValue.copyObject();
+      fromKeyValue.setUpdateID(trxnLogIndex, ozoneManager.isRatisEnabled());
+      fromKeyValue.setKeyName(toPathInfo.getLeafName());
+
+      //Set modification time
+      fromKeyValue.setModificationTime(keyArgs.getModificationTime());
+
+      // Add to cache.
+      // fromKey should be deleted, toKey should be added with newly updated
+      // omKeyInfo.
+      Table<String, OmKeyInfo> table = isDirectory ?
+          omMetadataManager.getDirectoryTable() :
+          omMetadataManager.getFileTable();
+
+      table.addCacheEntry(new CacheKey<>(fromDbKey),
+          new CacheValue<>(Optional.absent(), trxnLogIndex));
+
+      table.addCacheEntry(new CacheKey<>(toDbKey),
+          new CacheValue<>(Optional.of(fromKeyValue), trxnLogIndex));
+
+      omClientResponse = new OMKeyRenameResponseWithPrefixLayout(omResponse
+          .setRenameKeyResponse(RenameKeyResponse.newBuilder()).build(),
+          fromDbKey, toDbKey, fromKeyValue, isDirectory);
+
+      result = Result.SUCCESS;
+    } catch (IOException ex) {
+      result = Result.FAILURE;
+      exception = ex;
+      omClientResponse = new OMKeyRenameResponseWithPrefixLayout(
+          createErrorOMResponse(omResponse, exception));
+    } finally {
+      addResponseToDoubleBuffer(trxnLogIndex, omClientResponse,
+            omDoubleBufferHelper);
+      if (acquiredLock) {
+        omMetadataManager.getLock().releaseWriteLock(BUCKET_LOCK, volumeName,
+            bucketName);
+      }
+    }
+
+    auditLog(auditLogger, buildAuditMessage(OMAction.RENAME_KEY, auditMap,
+        exception, getOmRequest().getUserInfo()));
+
+    switch (result) {
+    case SUCCESS:
+      LOG.debug("Rename Key is successfully completed for volume:{} bucket:{}" +
+              " fromKey:{} toKey:{}. ", volumeName, bucketName, fromKeyName,
+          toKeyName);
+      break;
+    case FAILURE:
+      ozoneManager.getMetrics().incNumKeyRenameFails();
+      LOG.error("Rename key failed for volume:{} bucket:{} fromKey:{} " +
+              "toKey:{}.", volumeName, bucketName, fromKeyName, toKeyName,
+          exception);
+      break;
+    default:
+      LOG.error("Unrecognized Result for OMKeyRenameRequest: {}",
+          renameKeyRequest);
+    }
+    return omClientResponse;
+  }
+}
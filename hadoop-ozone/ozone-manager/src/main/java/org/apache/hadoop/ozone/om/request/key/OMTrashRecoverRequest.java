@@ -24,6 +24,7 @@
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.ozone.om.ResolvedBucket;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
 import org.apache.hadoop.ozone.om.response.key.OMTrashRecoverResponse;
 import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
 import org.slf4j.Logger;
@@ -103,6 +104,10 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       // Validate.
       validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
       validateBucketAndVolume(omMetadataManager, volumeName, destinationBucket);
+      OMFileRequest.checkNotPrefixLayout(omMetadataManager, volumeName,
+          bucketName, "Recovering trash");
+      OMFileRequest.checkNotPrefixLayout(omMetadataManager, volumeName,
+          destinationBucket, "Recovering trash");
 
 
       /** TODO: HDDS-2425. HDDS-2426.
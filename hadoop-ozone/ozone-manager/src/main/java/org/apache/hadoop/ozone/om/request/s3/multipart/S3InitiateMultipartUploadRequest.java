@@ -28,6 +28,8 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyRequest;
 import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
@@ -138,6 +140,12 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
               volumeName, bucketName);
 
       validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
+      if (OMFileRequest.isPrefixLayout(omMetadataManager, volumeName,
+          bucketName)) {
+        throw new OMException("Multipart upload is not supported for " +
+            "buckets with the prefix metadata layout",
+            OMException.ResultCodes.NOT_SUPPORTED_OPERATION);
+      }
 
       // We are adding uploadId to key, because if multiple users try to
       // perform multipart upload on the same key, each will try to upload, who
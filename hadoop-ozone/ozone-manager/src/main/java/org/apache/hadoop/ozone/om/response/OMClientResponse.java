@@ -74,6 +74,17 @@ public void checkAndUpdateDB(OMMetadataManager omMetadataManager,
   protected abstract void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException;
 
+  /**
+   * Return true if {@link #addToDBBatch} reads from DB, so the response
+   * depends on all previous responses being committed to DB. When double
+   * buffer flush is pipelined, such responses are not added to a batch
+   * while a previous batch is being committed.
+   * @return boolean
+   */
+  public boolean readsFromDBOnFlush() {
+    return false;
+  }
+
   /**
    * Return OMResponse.
    * @return OMResponse
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.file;
+
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.request.file.OMDirectoryCreateRequest.Result;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
+    .OMResponse;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DIRECTORY_TABLE;
+
+/**
+ * Response for create directory request of buckets with the prefix metadata
+ * layout.
+ */
+@CleanupTableInfo(cleanupTables = {DIRECTORY_TABLE})
+public class OMDirectoryCreateResponseWithPrefixLayout
+    extends OMClientResponse {
+
+  public static final Logger LOG =
+      LoggerFactory.getLogger(OMDirectoryCreateResponseWithPrefixLayout.class);
+
+  private String dirKey;
+  private OmKeyInfo dirInfo;
+  private Map<String, OmKeyInfo> parentDirInfos;
+  private Result result;
+
+  public OMDirectoryCreateResponseWithPrefixLayout(
+      @Nonnull OMResponse omResponse, @Nonnull String dirKey,
+      @Nonnull OmKeyInfo dirInfo,
+      @Nonnull Map<String, OmKeyInfo> parentDirInfos,
+      @Nonnull Result result) {
+    super(omResponse);
+    this.dirKey = dirKey;
+    this.dirInfo = dirInfo;
+    this.parentDirInfos = parentDirInfos;
+    this.result = result;
+  }
+
+  /**
+   * For when the request is not successful or the directory already exists.
+   */
+  public OMDirectoryCreateResponseWithPrefixLayout(
+      @Nonnull OMResponse omResponse, @Nonnull Result result) {
+    super(omResponse);
+    this.result = result;
+  }
+
+  @Override
+  protected void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    if (Result.SUCCESS == result) {
+      // Add all parent directories to batch.
+      for (Map.Entry<String, OmKeyInfo> entry : parentDirInfos.entrySet()) {
+        LOG.debug("putWithBatch parent : key {} info : {}", entry.getKey(),
+            entry.getValue());
+        omMetadataManager.getDirectoryTable().putWithBatch(batchOperation,
+            entry.getKey(), entry.getValue());
+      }
+
+      omMetadataManager.getDirectoryTable().putWithBatch(batchOperation,
+          dirKey, dirInfo);
+    } else if (Result.DIRECTORY_ALREADY_EXISTS == result) {
+      LOG.debug("Directory already exists. addToDBBatch is a no-op");
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.file;
+
+import javax.annotation.Nonnull;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
+    .OMResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DIRECTORY_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.OPEN_KEY_TABLE;
+
+/**
+ * Response for create file and create key requests of buckets with the
+ * prefix metadata layout. The missing parent directories are added to the
+ * directory table.
+ */
+@CleanupTableInfo(cleanupTables = {DIRECTORY_TABLE, OPEN_KEY_TABLE})
+public class OMFileCreateResponseWithPrefixLayout extends OMFileCreateResponse {
+
+  private Map<String, OmKeyInfo> parentDirInfos;
+
+  public OMFileCreateResponseWithPrefixLayout(@Nonnull OMResponse omResponse,
+      @Nonnull OmKeyInfo omKeyInfo,
+      @Nonnull Map<String, OmKeyInfo> parentDirInfos, long openKeySessionID,
+      @Nonnull OmBucketInfo omBucketInfo) {
+    super(omResponse, omKeyInfo, Collections.emptyList(), openKeySessionID,
+        omBucketInfo);
+    this.parentDirInfos = parentDirInfos;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructor should be used.
+   */
+  public OMFileCreateResponseWithPrefixLayout(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+  }
+
+  @Override
+  protected void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+    for (Map.Entry<String, OmKeyInfo> entry : parentDirInfos.entrySet()) {
+      omMetadataManager.getDirectoryTable().putWithBatch(batchOperation,
+          entry.getKey(), entry.getValue());
+    }
+    super.addToDBBatch(omMetadataManager, batchOperation);
+  }
+}
@@ -74,6 +74,23 @@ protected void addDeletionToBatch(
       Table<String, ?> fromTable,
       String keyName,
       OmKeyInfo omKeyInfo) throws IOException {
+    addDeletionToBatch(omMetadataManager, batchOperation, fromTable, keyName,
+        keyName, omKeyInfo);
+  }
+
+  /**
+   * Adds the operation of deleting {@code keyName} from {@code fromTable},
+   * and of adding {@code omKeyInfo} to the deleted table with
+   * {@code deletedKeyName}, to the batch operation {@code batchOperation}.
+   * Used for tables which are not keyed by the full path of the key.
+   */
+  protected void addDeletionToBatch(
+      OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation,
+      Table<String, ?> fromTable,
+      String keyName,
+      String deletedKeyName,
+      OmKeyInfo omKeyInfo) throws IOException {
 
     // For OmResponse with failure, this should do nothing. This method is
     // not called in failure scenario in OM code.
@@ -91,15 +108,21 @@ protected void addDeletionToBatch(
       // if it is not null, then we simply add to the list and store this
       // instance in deletedTable.
       RepeatedOmKeyInfo repeatedOmKeyInfo =
-          omMetadataManager.getDeletedTable().get(keyName);
+          omMetadataManager.getDeletedTable().get(deletedKeyName);
       repeatedOmKeyInfo = OmUtils.prepareKeyForDelete(
           omKeyInfo, repeatedOmKeyInfo, omKeyInfo.getUpdateID(),
           isRatisEnabled);
       omMetadataManager.getDeletedTable().putWithBatch(
-          batchOperation, keyName, repeatedOmKeyInfo);
+          batchOperation, deletedKeyName, repeatedOmKeyInfo);
     }
   }
 
+  @Override
+  public boolean readsFromDBOnFlush() {
+    // deletedTable entry is read to append the deleted key info.
+    return true;
+  }
+
   @Override
   public abstract void addToDBBatch(OMMetadataManager omMetadataManager,
         BatchOperation batchOperation) throws IOException;
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_DIR_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DIRECTORY_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.FILE_TABLE;
+
+/**
+ * Response for {@link
+ * org.apache.hadoop.ozone.om.request.key.OMDirectoriesPurgeRequest} request.
+ */
+@CleanupTableInfo(cleanupTables = {FILE_TABLE, DIRECTORY_TABLE, DELETED_TABLE,
+    DELETED_DIR_TABLE})
+public class OMDirectoriesPurgeResponse extends AbstractOMKeyDeleteResponse {
+
+  private Map<String, OmKeyInfo> purgedFiles;
+  private Map<String, OmKeyInfo> purgedDirs;
+  private List<String> purgedDeletedDirs;
+  private Map<String, OmBucketInfo> updatedBuckets;
+
+  /**
+   * @param purgedFiles purged files by their file table key, named by their
+   * full path
+   * @param purgedDirs purged sub-directories by their directory table key,
+   * named by their full path
+   * @param purgedDeletedDirs deleted directory table keys of the directories
+   * which are purged completely
+   * @param updatedBuckets buckets with the quota of the purged files released
+   */
+  public OMDirectoriesPurgeResponse(@Nonnull OMResponse omResponse,
+      @Nonnull Map<String, OmKeyInfo> purgedFiles,
+      @Nonnull Map<String, OmKeyInfo> purgedDirs,
+      @Nonnull List<String> purgedDeletedDirs,
+      @Nonnull Map<String, OmBucketInfo> updatedBuckets,
+      boolean isRatisEnabled) {
+    super(omResponse, isRatisEnabled);
+    this.purgedFiles = purgedFiles;
+    this.purgedDirs = purgedDirs;
+    this.purgedDeletedDirs = purgedDeletedDirs;
+    this.updatedBuckets = updatedBuckets;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructor should be used.
+   */
+  public OMDirectoriesPurgeResponse(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    for (Map.Entry<String, OmKeyInfo> entry : purgedFiles.entrySet()) {
+      OmKeyInfo fileInfo = entry.getValue();
+      String deletedKey = omMetadataManager.getOzoneKey(
+          fileInfo.getVolumeName(), fileInfo.getBucketName(),
+          fileInfo.getKeyName());
+      addDeletionToBatch(omMetadataManager, batchOperation,
+          omMetadataManager.getFileTable(), entry.getKey(), deletedKey,
+          fileInfo);
+    }
+
+    for (Map.Entry<String, OmKeyInfo> entry : purgedDirs.entrySet()) {
+      OmKeyInfo dirInfo = entry.getValue();
+      omMetadataManager.getDirectoryTable().deleteWithBatch(batchOperation,
+          entry.getKey());
+      omMetadataManager.getDeletedDirTable().putWithBatch(batchOperation,
+          omMetadataManager.getOzoneDeletePathKey(dirInfo.getObjectID(),
+              entry.getKey()), dirInfo);
+    }
+
+    for (String deletedDir : purgedDeletedDirs) {
+      omMetadataManager.getDeletedDirTable().deleteWithBatch(batchOperation,
+          deletedDir);
+    }
+
+    for (Map.Entry<String, OmBucketInfo> entry : updatedBuckets.entrySet()) {
+      omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+          entry.getKey(), entry.getValue());
+    }
+  }
+}
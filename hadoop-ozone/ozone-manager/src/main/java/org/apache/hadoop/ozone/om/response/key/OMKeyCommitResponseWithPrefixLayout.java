@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.FILE_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.OPEN_KEY_TABLE;
+
+/**
+ * Response for CommitKey request of buckets with the prefix metadata layout.
+ * The key is added to the file table, and the file it overwrites is moved
+ * to the deleted table.
+ */
+@CleanupTableInfo(cleanupTables = {OPEN_KEY_TABLE, FILE_TABLE, DELETED_TABLE})
+public class OMKeyCommitResponseWithPrefixLayout
+    extends AbstractOMKeyDeleteResponse {
+
+  private OmKeyInfo omKeyInfo;
+  private String fileKeyName;
+  private String openKeyName;
+  private OmBucketInfo omBucketInfo;
+  private OmKeyInfo overwrittenKeyInfo;
+  private String overwrittenOzoneKeyName;
+
+  @SuppressWarnings("parameternumber")
+  public OMKeyCommitResponseWithPrefixLayout(@Nonnull OMResponse omResponse,
+      @Nonnull OmKeyInfo omKeyInfo, @Nonnull String fileKeyName,
+      @Nonnull String openKeyName, @Nonnull OmBucketInfo omBucketInfo,
+      @Nullable OmKeyInfo overwrittenKeyInfo,
+      @Nullable String overwrittenOzoneKeyName, boolean isRatisEnabled) {
+    super(omResponse, isRatisEnabled);
+    this.omKeyInfo = omKeyInfo;
+    this.fileKeyName = fileKeyName;
+    this.openKeyName = openKeyName;
+    this.omBucketInfo = omBucketInfo;
+    this.overwrittenKeyInfo = overwrittenKeyInfo;
+    this.overwrittenOzoneKeyName = overwrittenOzoneKeyName;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructor should be used.
+   */
+  public OMKeyCommitResponseWithPrefixLayout(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    // Delete from OpenKey table
+    omMetadataManager.getOpenKeyTable().deleteWithBatch(batchOperation,
+        openKeyName);
+
+    // The blocks of the overwritten file are deleted by its full path, as
+    // the file table entry is replaced below.
+    if (overwrittenKeyInfo != null) {
+      addDeletionToBatch(omMetadataManager, batchOperation,
+          omMetadataManager.getFileTable(), fileKeyName,
+          overwrittenOzoneKeyName, overwrittenKeyInfo);
+    }
+
+    omMetadataManager.getFileTable().putWithBatch(batchOperation, fileKeyName,
+        omKeyInfo);
+
+    // update bucket usedBytes.
+    omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+        omMetadataManager.getBucketKey(omBucketInfo.getVolumeName(),
+            omBucketInfo.getBucketName()), omBucketInfo);
+  }
+}
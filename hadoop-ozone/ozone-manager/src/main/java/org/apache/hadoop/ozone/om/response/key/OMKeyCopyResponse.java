@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import java.io.IOException;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PartKeyInfo;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.BLOCK_REFERENCE_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.BUCKET_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.KEY_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.MULTIPARTINFO_TABLE;
+
+/**
+ * Response for CopyKey request.
+ */
+@CleanupTableInfo(cleanupTables = {KEY_TABLE, DELETED_TABLE,
+    MULTIPARTINFO_TABLE, BUCKET_TABLE, BLOCK_REFERENCE_TABLE})
+public final class OMKeyCopyResponse extends OMClientResponse {
+
+  private String toKey;
+  private OmKeyInfo omKeyInfo;
+  private OmKeyInfo overwrittenKeyInfo;
+  private String multipartKey;
+  private OmMultipartKeyInfo omMultipartKeyInfo;
+  private PartKeyInfo oldPartKeyInfo;
+  private Map<String, Long> blockReferences;
+  private boolean isRatisEnabled;
+  private OmBucketInfo omBucketInfo;
+
+  private OMKeyCopyResponse(@Nonnull OMResponse omResponse,
+      @Nonnull Map<String, Long> blockReferences, boolean isRatisEnabled,
+      @Nonnull OmBucketInfo omBucketInfo) {
+    super(omResponse);
+    this.blockReferences = blockReferences;
+    this.isRatisEnabled = isRatisEnabled;
+    this.omBucketInfo = omBucketInfo;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, forKey or forMultipartPart should be used.
+   */
+  public OMKeyCopyResponse(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+    checkStatusNotOK();
+  }
+
+  /**
+   * Response of a copy to a key. The overwritten destination key, if any, is
+   * moved to the deleted table.
+   */
+  @SuppressWarnings("parameternumber")
+  public static OMKeyCopyResponse forKey(@Nonnull OMResponse omResponse,
+      @Nonnull String toKey, @Nonnull OmKeyInfo omKeyInfo,
+      @Nullable OmKeyInfo overwrittenKeyInfo,
+      @Nonnull Map<String, Long> blockReferences, boolean isRatisEnabled,
+      @Nonnull OmBucketInfo omBucketInfo) {
+    OMKeyCopyResponse response = new OMKeyCopyResponse(omResponse,
+        blockReferences, isRatisEnabled, omBucketInfo);
+    response.toKey = toKey;
+    response.omKeyInfo = omKeyInfo;
+    response.overwrittenKeyInfo = overwrittenKeyInfo;
+    return response;
+  }
+
+  /**
+   * Response of a copy to a multipart upload part. The replaced part, if
+   * any, is moved to the deleted table.
+   */
+  @SuppressWarnings("parameternumber")
+  public static OMKeyCopyResponse forMultipartPart(
+      @Nonnull OMResponse omResponse, @Nonnull String multipartKey,
+      @Nonnull OmMultipartKeyInfo omMultipartKeyInfo,
+      @Nullable PartKeyInfo oldPartKeyInfo,
+      @Nonnull Map<String, Long> blockReferences, boolean isRatisEnabled,
+      @Nonnull OmBucketInfo omBucketInfo) {
+    OMKeyCopyResponse response = new OMKeyCopyResponse(omResponse,
+        blockReferences, isRatisEnabled, omBucketInfo);
+    response.multipartKey = multipartKey;
+    response.omMultipartKeyInfo = omMultipartKeyInfo;
+    response.oldPartKeyInfo = oldPartKeyInfo;
+    return response;
+  }
+
+  @Override
+  public boolean readsFromDBOnFlush() {
+    // deletedTable entry is read to append the replaced key info.
+    return true;
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    if (multipartKey != null) {
+      if (oldPartKeyInfo != null) {
+        addToDeletedTable(omMetadataManager, batchOperation,
+            oldPartKeyInfo.getPartName(),
+            OmKeyInfo.getFromProtobuf(oldPartKeyInfo.getPartKeyInfo()),
+            omMultipartKeyInfo.getUpdateID());
+      }
+      omMetadataManager.getMultipartInfoTable().putWithBatch(batchOperation,
+          multipartKey, omMultipartKeyInfo);
+    } else {
+      if (overwrittenKeyInfo != null) {
+        addToDeletedTable(omMetadataManager, batchOperation, toKey,
+            overwrittenKeyInfo, overwrittenKeyInfo.getUpdateID());
+      }
+      omMetadataManager.getKeyTable().putWithBatch(batchOperation, toKey,
+          omKeyInfo);
+    }
+
+    for (Map.Entry<String, Long> entry : blockReferences.entrySet()) {
+      omMetadataManager.getBlockReferenceTable().putWithBatch(batchOperation,
+          entry.getKey(), entry.getValue());
+    }
+
+    // update bucket usedBytes.
+    omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+        omMetadataManager.getBucketKey(omBucketInfo.getVolumeName(),
+            omBucketInfo.getBucketName()), omBucketInfo);
+  }
+
+  private void addToDeletedTable(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation, String deletedKey, OmKeyInfo keyInfo,
+      long trxnLogIndex) throws IOException {
+    RepeatedOmKeyInfo repeatedOmKeyInfo =
+        omMetadataManager.getDeletedTable().get(deletedKey);
+    repeatedOmKeyInfo = OmUtils.prepareKeyForDelete(keyInfo,
+        repeatedOmKeyInfo, trxnLogIndex, isRatisEnabled);
+    omMetadataManager.getDeletedTable().putWithBatch(batchOperation,
+        deletedKey, repeatedOmKeyInfo);
+  }
+}
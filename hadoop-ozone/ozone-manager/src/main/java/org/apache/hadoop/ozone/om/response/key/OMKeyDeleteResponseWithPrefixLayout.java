@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_DIR_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DIRECTORY_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.FILE_TABLE;
+
+/**
+ * Response for DeleteKey request of buckets with the prefix metadata layout.
+ * A deleted file is moved to the deleted table, while a deleted directory is
+ * moved to the deleted directory table, from where its contents are purged
+ * in the background.
+ */
+@CleanupTableInfo(cleanupTables = {FILE_TABLE, DIRECTORY_TABLE, DELETED_TABLE,
+    DELETED_DIR_TABLE})
+public class OMKeyDeleteResponseWithPrefixLayout
+    extends AbstractOMKeyDeleteResponse {
+
+  private String dbKey;
+  private String deletedKey;
+  private OmKeyInfo omKeyInfo;
+  private boolean isDirectory;
+  private OmBucketInfo omBucketInfo;
+
+  public OMKeyDeleteResponseWithPrefixLayout(@Nonnull OMResponse omResponse,
+      @Nonnull String dbKey, @Nonnull String deletedKey,
+      @Nonnull OmKeyInfo omKeyInfo, boolean isDirectory,
+      boolean isRatisEnabled, @Nonnull OmBucketInfo omBucketInfo) {
+    super(omResponse, isRatisEnabled);
+    this.dbKey = dbKey;
+    this.deletedKey = deletedKey;
+    this.omKeyInfo = omKeyInfo;
+    this.isDirectory = isDirectory;
+    this.omBucketInfo = omBucketInfo;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructor should be used.
+   */
+  public OMKeyDeleteResponseWithPrefixLayout(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    // For OmResponse with failure, this should do nothing. This method is
+    // not called in failure scenario in OM code.
+    if (isDirectory) {
+      omMetadataManager.getDirectoryTable().deleteWithBatch(batchOperation,
+          dbKey);
+      omMetadataManager.getDeletedDirTable().putWithBatch(batchOperation,
+          deletedKey, omKeyInfo);
+    } else {
+      addDeletionToBatch(omMetadataManager, batchOperation,
+          omMetadataManager.getFileTable(), dbKey, deletedKey, omKeyInfo);
+    }
+
+    // update bucket usedBytes.
+    omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+        omMetadataManager.getBucketKey(omBucketInfo.getVolumeName(),
+            omBucketInfo.getBucketName()), omBucketInfo);
+  }
+}
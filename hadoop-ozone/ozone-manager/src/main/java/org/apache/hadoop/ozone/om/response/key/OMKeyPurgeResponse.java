@@ -26,22 +26,42 @@
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.BLOCK_REFERENCE_TABLE;
 import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
 
 /**
  * Response for {@link OMKeyPurgeRequest} request.
  */
-@CleanupTableInfo(cleanupTables = {DELETED_TABLE})
+@CleanupTableInfo(cleanupTables = {DELETED_TABLE, BLOCK_REFERENCE_TABLE})
 public class OMKeyPurgeResponse extends OMClientResponse {
   private List<String> purgeKeyList;
+  private Map<String, Long> blockReferences;
 
   public OMKeyPurgeResponse(@Nonnull OMResponse omResponse,
       @Nonnull List<String> keyList) {
+    this(omResponse, keyList, Collections.emptyMap());
+  }
+
+  public OMKeyPurgeResponse(@Nonnull OMResponse omResponse,
+      @Nonnull List<String> keyList,
+      @Nonnull Map<String, Long> blockReferences) {
     super(omResponse);
     this.purgeKeyList = keyList;
+    this.blockReferences = blockReferences;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructor should be used.
+   */
+  public OMKeyPurgeResponse(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+    checkStatusNotOK();
   }
 
   @Override
@@ -52,6 +72,17 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
       omMetadataManager.getDeletedTable().deleteWithBatch(batchOperation,
           key);
     }
+
+    // Blocks with no extra references left are owned by a single key again.
+    for (Map.Entry<String, Long> entry : blockReferences.entrySet()) {
+      if (entry.getValue() > 0) {
+        omMetadataManager.getBlockReferenceTable().putWithBatch(
+            batchOperation, entry.getKey(), entry.getValue());
+      } else {
+        omMetadataManager.getBlockReferenceTable().deleteWithBatch(
+            batchOperation, entry.getKey());
+      }
+    }
   }
 
 }
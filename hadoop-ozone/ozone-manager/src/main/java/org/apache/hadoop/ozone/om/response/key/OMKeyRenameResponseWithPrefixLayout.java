@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DIRECTORY_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.FILE_TABLE;
+
+/**
+ * Response for RenameKey request of buckets with the prefix metadata layout.
+ * Only the entry of the renamed file or directory is moved, the entries
+ * below a directory are keyed by its object ID.
+ */
+@CleanupTableInfo(cleanupTables = {DIRECTORY_TABLE, FILE_TABLE})
+public class OMKeyRenameResponseWithPrefixLayout extends OMClientResponse {
+
+  private String fromDbKey;
+  private String toDbKey;
+  private OmKeyInfo renameKeyInfo;
+  private boolean isDirectory;
+
+  public OMKeyRenameResponseWithPrefixLayout(@Nonnull OMResponse omResponse,
+      @Nonnull String fromDbKey, @Nonnull String toDbKey,
+      @Nonnull OmKeyInfo renameKeyInfo, boolean isDirectory) {
+    super(omResponse);
+    this.fromDbKey = fromDbKey;
+    this.toDbKey = toDbKey;
+    this.renameKeyInfo = renameKeyInfo;
+    this.isDirectory = isDirectory;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructor should be used.
+   */
+  public OMKeyRenameResponseWithPrefixLayout(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+    checkStatusNotOK();
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+    Table<String, OmKeyInfo> table = isDirectory ?
+        omMetadataManager.getDirectoryTable() :
+        omMetadataManager.getFileTable();
+    table.deleteWithBatch(batchOperation, fromDbKey);
+    table.putWithBatch(batchOperation, toDbKey, renameKeyInfo);
+  }
+}
@@ -48,6 +48,12 @@ public OMTrashRecoverResponse(@Nullable OmKeyInfo omKeyInfo,
     this.omKeyInfo = omKeyInfo;
   }
 
+  @Override
+  public boolean readsFromDBOnFlush() {
+    // deletedTable entry is read to recover the key info from it.
+    return true;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
@@ -72,6 +72,12 @@ public S3MultipartUploadAbortResponse(@Nonnull OMResponse omResponse) {
     checkStatusNotOK();
   }
 
+  @Override
+  public boolean readsFromDBOnFlush() {
+    // deletedTable entry is read to append the deleted part key info.
+    return true;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
@@ -112,6 +112,12 @@ public void checkAndUpdateDB(OMMetadataManager omMetadataManager,
     }
   }
 
+  @Override
+  public boolean readsFromDBOnFlush() {
+    // deletedTable entry is read to append the deleted part key info.
+    return true;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
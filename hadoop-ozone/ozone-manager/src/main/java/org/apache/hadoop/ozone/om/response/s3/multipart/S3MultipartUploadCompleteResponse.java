@@ -67,6 +67,12 @@ public S3MultipartUploadCompleteResponse(@Nonnull OMResponse omResponse) {
     checkStatusNotOK();
   }
 
+  @Override
+  public boolean readsFromDBOnFlush() {
+    // deletedTable entry is read to append the unused part key info.
+    return true;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
@@ -18,13 +18,17 @@
 
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.server.OzoneProtocolMessageDispatcher;
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.ProtocolMessageMetrics;
 import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.om.protocolPB.OzoneManagerProtocolPB;
@@ -36,6 +40,7 @@
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.security.S3SecurityUtil;
 
 import com.google.protobuf.ProtocolMessageEnum;
 import com.google.protobuf.RpcController;
@@ -91,6 +96,7 @@ public OzoneManagerProtocolServerSideTranslatorPB(
       this.ozoneManagerDoubleBuffer = null;
       handler = new OzoneManagerRequestHandler(impl, null);
     } else {
+      OzoneConfiguration conf = ozoneManager.getConfiguration();
       this.ozoneManagerDoubleBuffer = new OzoneManagerDoubleBuffer.Builder()
           .setOmMetadataManager(ozoneManager.getMetadataManager())
           // Do nothing.
@@ -99,8 +105,18 @@ public OzoneManagerProtocolServerSideTranslatorPB(
           .setOzoneManagerRatisSnapShot((i) -> {
           })
           .enableRatis(isRatisEnabled)
-          .enableTracing(TracingUtil.isTracingEnabled(
-              ozoneManager.getConfiguration()))
+          .enableTracing(TracingUtil.isTracingEnabled(conf))
+          .enablePipelinedFlush(conf.getBoolean(
+              OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED,
+              OMConfigKeys
+                  .OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT))
+          .setMaxBatchSize(conf.getInt(
+              OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE,
+              OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE_DEFAULT))
+          .setMaxFlushWaitMs(conf.getTimeDuration(
+              OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_FLUSH_WAIT,
+              OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_FLUSH_WAIT_DEFAULT,
+              TimeUnit.MILLISECONDS))
           .build();
       handler = new OzoneManagerRequestHandler(impl, ozoneManagerDoubleBuffer);
     }
@@ -119,8 +135,25 @@ public OzoneManagerProtocolServerSideTranslatorPB(
   public OMResponse submitRequest(RpcController controller,
       OMRequest request) throws ServiceException {
 
-    return dispatcher.processRequest(request, this::processRequest,
-        request.getCmdType(), request.getTraceID());
+    if (!request.hasS3Authentication()) {
+      return dispatcher.processRequest(request, this::processRequest,
+          request.getCmdType(), request.getTraceID());
+    }
+
+    // Request of the S3 gateway, made on behalf of an S3 user.
+    try {
+      S3SecurityUtil.validateS3Credential(request.getS3Authentication(),
+          ozoneManager);
+    } catch (OMException ex) {
+      return createErrorResponse(request, ex);
+    }
+    OzoneManager.setS3Auth(request.getS3Authentication());
+    try {
+      return dispatcher.processRequest(request, this::processRequest,
+          request.getCmdType(), request.getTraceID());
+    } finally {
+      OzoneManager.setS3Auth(null);
+    }
   }
 
   private OMResponse processRequest(OMRequest request) throws
@@ -135,7 +168,8 @@ private OMResponse processRequest(OMRequest request) throws
         if (raftServerStatus == LEADER_AND_READY) {
           try {
             OMClientRequest omClientRequest =
-                OzoneManagerRatisUtils.createClientRequest(request);
+                OzoneManagerRatisUtils.createClientRequest(request,
+                    ozoneManager);
             request = omClientRequest.preExecute(ozoneManager);
           } catch (IOException ex) {
             // As some of the preExecute returns error. So handle here.
@@ -188,6 +222,16 @@ private OMResponse submitReadRequestToOM(OMRequest request)
     RaftServerStatus raftServerStatus = omRatisServer.checkLeaderStatus();
     if (raftServerStatus == LEADER_AND_READY) {
       return handler.handleReadRequest(request);
+    } else if (raftServerStatus == NOT_LEADER &&
+        omRatisServer.isFollowerReadEnabled()) {
+      try {
+        omRatisServer.waitForLeaderCommitIndex();
+      } catch (ServiceException e) {
+        LOG.debug("Failed to serve read request as follower", e);
+        // Client retries the request on the leader.
+        throw createNotLeaderException();
+      }
+      return handler.handleReadRequest(request);
     } else {
       throw createLeaderErrorException(raftServerStatus);
     }
@@ -240,7 +284,8 @@ private OMResponse submitRequestDirectlyToOM(OMRequest request) {
         return handler.handleReadRequest(request);
       } else {
         OMClientRequest omClientRequest =
-            OzoneManagerRatisUtils.createClientRequest(request);
+            OzoneManagerRatisUtils.createClientRequest(request,
+                ozoneManager);
         request = omClientRequest.preExecute(ozoneManager);
         index = transactionIndex.incrementAndGet();
         omClientResponse = handler.handleWriteRequest(request, index);
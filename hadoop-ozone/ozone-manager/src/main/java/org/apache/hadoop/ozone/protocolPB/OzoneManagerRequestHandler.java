@@ -222,7 +222,8 @@ public OMResponse handleReadRequest(OMRequest request) {
   public OMClientResponse handleWriteRequest(OMRequest omRequest,
       long transactionLogIndex) {
     OMClientRequest omClientRequest =
-        OzoneManagerRatisUtils.createClientRequest(omRequest);
+        OzoneManagerRatisUtils.createClientRequest(omRequest,
+            getOzoneManager());
     OMClientResponse omClientResponse =
         omClientRequest.validateAndUpdateCache(getOzoneManager(),
             transactionLogIndex, ozoneManagerDoubleBuffer::add);
@@ -361,6 +362,7 @@ private LookupKeyResponse lookupKey(LookupKeyRequest request,
         .setKeyName(keyArgs.getKeyName())
         .setRefreshPipeline(true)
         .setSortDatanodesInPipeline(keyArgs.getSortDatanodes())
+        .setForceUpdateContainerCache(keyArgs.getForceUpdateContainerCache())
         .build();
     OmKeyInfo keyInfo = impl.lookupKey(omKeyArgs);
     resp.setKeyInfo(keyInfo.getProtobuf(false, clientVersion));
@@ -395,6 +397,7 @@ private ListKeysResponse listKeys(ListKeysRequest request, int clientVersion)
         request.getBucketName(),
         request.getStartKey(),
         request.getPrefix(),
+        request.hasDelimiter() ? request.getDelimiter() : null,
         request.getCount());
     for (OmKeyInfo key : keys) {
       resp.addKeyInfo(key.getProtobuf(true, clientVersion));
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.security;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.S3Authentication;
+import org.apache.hadoop.security.token.SecretManager.InvalidToken;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.INVALID_TOKEN;
+import static org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMTokenProto.Type.S3AUTHINFO;
+
+/**
+ * Utility to validate the S3 authentication information sent by the S3
+ * gateway with requests made on behalf of S3 users.
+ */
+public final class S3SecurityUtil {
+
+  private S3SecurityUtil() {
+  }
+
+  /**
+   * Verifies the signature of the request with the S3 secret of the access
+   * id, in the same way as the S3 auth token used to be verified when the S3
+   * gateway connected as the S3 user. Without security, the access id is
+   * trusted the same way as the user of unauthenticated connections.
+   *
+   * @throws OMException if the signature is not valid
+   */
+  public static void validateS3Credential(S3Authentication s3Auth,
+      OzoneManager ozoneManager) throws OMException {
+    if (!ozoneManager.isSecurityEnabled()) {
+      return;
+    }
+    OzoneTokenIdentifier identifier = new OzoneTokenIdentifier();
+    identifier.setTokenType(S3AUTHINFO);
+    identifier.setStrToSign(s3Auth.getStringToSign());
+    identifier.setSignature(s3Auth.getSignature());
+    identifier.setAwsAccessId(s3Auth.getAccessId());
+    identifier.setOwner(new Text(s3Auth.getAccessId()));
+    try {
+      ozoneManager.getDelegationTokenMgr().retrievePassword(identifier);
+    } catch (InvalidToken e) {
+      throw new OMException("Invalid S3 identifier for access id "
+          + s3Auth.getAccessId(), e, INVALID_TOKEN);
+    }
+  }
+}
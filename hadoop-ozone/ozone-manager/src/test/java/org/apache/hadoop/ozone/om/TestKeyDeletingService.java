@@ -27,9 +27,11 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
 import org.apache.hadoop.hdds.server.ServerUtils;
+import org.apache.hadoop.ozone.common.BlockGroup;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
@@ -164,6 +166,45 @@ public void checkDeletionForEmptyKey()
     Assert.assertEquals(keyDeletingService.getDeletedKeyCount().get(), 0);
   }
 
+  @Test(timeout = 30000)
+  public void checkDeletionOfSharedBlocks()
+      throws IOException, TimeoutException, InterruptedException {
+    OzoneConfiguration conf = createConfAndInitValues();
+    OmMetadataManagerImpl metaMgr = new OmMetadataManagerImpl(conf);
+    //failCallsFrequency = 1 , means all calls fail.
+    KeyManager keyManager =
+        new KeyManagerImpl(
+            new ScmBlockLocationTestingClient(null, null, 1),
+            metaMgr, conf, UUID.randomUUID().toString(), null);
+    keyManager.start(conf);
+    final int keyCount = 10;
+    createAndDeleteKeys(keyManager, keyCount, 1);
+    KeyDeletingService keyDeletingService =
+        (KeyDeletingService) keyManager.getDeletingService();
+
+    // Blocks which are still referred by other keys are not sent to SCM, so
+    // the keys are purged even though SCM calls are failing. Each deleted
+    // key holds one reference.
+    for (BlockGroup keyBlocks :
+        keyManager.getPendingDeletionKeys(Integer.MAX_VALUE)) {
+      for (BlockID blockID : keyBlocks.getBlockIDList()) {
+        String blockKey = metaMgr.getBlockReferenceKey(
+            blockID.getContainerID(), blockID.getLocalID());
+        Long references = metaMgr.getBlockReferenceTable().get(blockKey);
+        metaMgr.getBlockReferenceTable().put(blockKey,
+            references == null ? 1L : references + 1);
+      }
+    }
+    GenericTestUtils.waitFor(
+        () -> keyDeletingService.getDeletedKeyCount().get() >= keyCount,
+        100, 10000);
+    Assert.assertEquals(
+        keyManager.getPendingDeletionKeys(Integer.MAX_VALUE).size(), 0);
+    // The remaining references are released.
+    Assert.assertEquals(0,
+        metaMgr.countRowsInTable(metaMgr.getBlockReferenceTable()));
+  }
+
   private void createAndDeleteKeys(KeyManager keyManager, int keyCount,
       int numBlocks) throws IOException {
     for (int x = 0; x < keyCount; x++) {
@@ -33,10 +33,13 @@
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
@@ -538,6 +541,52 @@ public void testListKeysWithFewDeleteEntriesInCache() throws Exception {
 
   }
 
+  @Test
+  public void testListKeysWithDelimiter() throws Exception {
+    String volumeName = "volumeA";
+    String bucketName = "ozoneBucket";
+
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    addBucketsToCache(volumeName, bucketName);
+
+    // Keys are added alternately to the DB and to the cache.
+    String[] keys = {"file1", "dir1/a", "dir1/b", "dir1/sub/c", "dir2/x",
+        "dir3", "a/b"};
+    for (int i = 0; i < keys.length; i++) {
+      addKeysToOM(volumeName, bucketName, keys[i], i);
+    }
+
+    Assert.assertEquals(
+        Arrays.asList("a/", "dir1/", "dir2/", "dir3", "file1"),
+        listKeyNames(volumeName, bucketName, null, null, 100));
+    Assert.assertEquals(Arrays.asList("dir1/a", "dir1/b", "dir1/sub/"),
+        listKeyNames(volumeName, bucketName, null, "dir1/", 100));
+
+    // Common prefix as start key skips the keys below it.
+    Assert.assertEquals(Arrays.asList("a/", "dir1/"),
+        listKeyNames(volumeName, bucketName, null, null, 2));
+    Assert.assertEquals(Arrays.asList("dir2/", "dir3"),
+        listKeyNames(volumeName, bucketName, "dir1/", null, 2));
+    Assert.assertEquals(Collections.singletonList("file1"),
+        listKeyNames(volumeName, bucketName, "dir3", null, 2));
+
+    // Common prefix without keys is not listed.
+    omMetadataManager.getKeyTable().addCacheEntry(
+        new CacheKey<>(omMetadataManager.getOzoneKey(volumeName, bucketName,
+            "dir2/x")),
+        new CacheValue<>(Optional.absent(), 100L));
+    Assert.assertEquals(Arrays.asList("a/", "dir1/", "dir3", "file1"),
+        listKeyNames(volumeName, bucketName, null, null, 100));
+  }
+
+  private List<String> listKeyNames(String volumeName, String bucketName,
+      String startKey, String keyPrefix, int maxKeys) throws Exception {
+    return omMetadataManager.listKeys(volumeName, bucketName, startKey,
+        keyPrefix, "/", maxKeys).stream()
+        .map(OmKeyInfo::getKeyName)
+        .collect(Collectors.toList());
+  }
+
   @Test
   public void testGetExpiredOpenKeys() throws Exception {
     final String bucketName = "bucket";
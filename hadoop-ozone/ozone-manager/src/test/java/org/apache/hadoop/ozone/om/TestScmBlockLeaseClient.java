@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.hdds.client.ContainerBlockID;
+import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationType;
+import org.apache.hadoop.hdds.scm.container.common.helpers.AllocatedBlock;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.apache.hadoop.test.GenericTestUtils.waitFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ScmBlockLeaseClient}.
+ */
+public class TestScmBlockLeaseClient {
+
+  private static final int BATCH_SIZE = 10;
+  private static final long BLOCK_SIZE = 1024;
+  private static final String OWNER = "om1";
+
+  private final AtomicLong localID = new AtomicLong();
+  private ScmBlockLocationProtocol scmBlockClient;
+  private Pipeline pipeline;
+  private ScmBlockLeaseClient leaseClient;
+
+  @Before
+  public void setup() throws Exception {
+    pipeline = Pipeline.newBuilder()
+        .setState(Pipeline.PipelineState.OPEN)
+        .setId(PipelineID.randomId())
+        .setType(ReplicationType.RATIS)
+        .setFactor(ReplicationFactor.ONE)
+        .setNodes(Collections.singletonList(
+            MockDatanodeDetails.randomDatanodeDetails()))
+        .build();
+    scmBlockClient = Mockito.mock(ScmBlockLocationProtocol.class);
+    when(scmBlockClient.allocateBlock(anyLong(), anyInt(), any(), any(),
+        anyString(), any())).thenAnswer(invocation -> {
+          int num = invocation.getArgument(1);
+          List<AllocatedBlock> blocks = new ArrayList<>(num);
+          for (int i = 0; i < num; i++) {
+            blocks.add(new AllocatedBlock.Builder()
+                .setContainerBlockID(
+                    new ContainerBlockID(1, localID.incrementAndGet()))
+                .setPipeline(pipeline)
+                .build());
+          }
+          return blocks;
+        });
+  }
+
+  @After
+  public void teardown() {
+    if (leaseClient != null) {
+      leaseClient.stop();
+    }
+  }
+
+  private List<AllocatedBlock> allocate(int num, ExcludeList excludeList)
+      throws Exception {
+    return leaseClient.allocateBlock(BLOCK_SIZE, num, ReplicationType.RATIS,
+        ReplicationFactor.ONE, OWNER, excludeList);
+  }
+
+  @Test
+  public void testBlocksAreServedFromLeases() throws Exception {
+    leaseClient = new ScmBlockLeaseClient(scmBlockClient, BATCH_SIZE, 60000);
+
+    // First request goes to SCM, and starts allocating a batch.
+    assertEquals(2, allocate(2, new ExcludeList()).size());
+    waitFor(() -> leaseClient.getLeasedBlockCount() == BATCH_SIZE, 10, 10000);
+    assertEquals(0, leaseClient.getLeasedBlocksUsed());
+
+    Set<Long> ids = new HashSet<>();
+    for (int i = 0; i < BATCH_SIZE / 2; i++) {
+      for (AllocatedBlock block : allocate(1, new ExcludeList())) {
+        assertTrue(ids.add(block.getBlockID().getLocalID()));
+      }
+    }
+    assertEquals(BATCH_SIZE / 2, leaseClient.getLeasedBlocksUsed());
+    // SCM is called for the first request and for the batch, the pool has
+    // not dropped below half of the batch size yet.
+    assertEquals(2 + BATCH_SIZE, leaseClient.getScmBlocksAllocated());
+    verify(scmBlockClient, times(2)).allocateBlock(anyLong(), anyInt(),
+        any(), any(), anyString(), any());
+  }
+
+  @Test
+  public void testExpiredLeasesAreDiscarded() throws Exception {
+    leaseClient = new ScmBlockLeaseClient(scmBlockClient, BATCH_SIZE, 1);
+    allocate(1, new ExcludeList());
+    waitFor(() -> leaseClient.getLeasedBlockCount() == BATCH_SIZE, 10, 10000);
+    Thread.sleep(10);
+
+    assertEquals(1, allocate(1, new ExcludeList()).size());
+    assertEquals(0, leaseClient.getLeasedBlocksUsed());
+    assertEquals(BATCH_SIZE, leaseClient.getLeasedBlocksDiscarded());
+  }
+
+  @Test
+  public void testExcludeListDiscardsMatchingLeases() throws Exception {
+    leaseClient = new ScmBlockLeaseClient(scmBlockClient, BATCH_SIZE, 60000);
+    allocate(1, new ExcludeList());
+    waitFor(() -> leaseClient.getLeasedBlockCount() == BATCH_SIZE, 10, 10000);
+
+    ExcludeList excludeList = new ExcludeList();
+    excludeList.addPipeline(pipeline.getId());
+    assertEquals(1, allocate(1, excludeList).size());
+    verify(scmBlockClient).allocateBlock(BLOCK_SIZE, 1, ReplicationType.RATIS,
+        ReplicationFactor.ONE, OWNER, excludeList);
+    assertEquals(0, leaseClient.getLeasedBlockCount());
+    assertEquals(BATCH_SIZE, leaseClient.getLeasedBlocksDiscarded());
+    assertEquals(0, leaseClient.getLeasedBlocksUsed());
+  }
+}
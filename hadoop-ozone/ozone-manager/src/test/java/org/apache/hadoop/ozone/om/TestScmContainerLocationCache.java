@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ContainerWithPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ScmContainerLocationCache}.
+ */
+public class TestScmContainerLocationCache {
+
+  private Pipeline pipeline;
+  private StorageContainerLocationProtocol scmContainerClient;
+  private ScmContainerLocationCache cache;
+
+  @Before
+  public void setup() throws Exception {
+    pipeline = MockPipeline.createPipeline(3);
+    scmContainerClient = Mockito.mock(StorageContainerLocationProtocol.class);
+    when(scmContainerClient.getContainerWithPipelineBatch(anyList()))
+        .thenAnswer(invocation -> {
+          List<Long> containerIDs = invocation.getArgument(0);
+          List<ContainerWithPipeline> containers = new ArrayList<>();
+          for (Long containerID : containerIDs) {
+            containers.add(new ContainerWithPipeline(
+                new ContainerInfo.Builder().setContainerID(containerID)
+                    .build(), pipeline));
+          }
+          return containers;
+        });
+    cache = new ScmContainerLocationCache(scmContainerClient, 60000, 100);
+  }
+
+  @Test
+  public void testOnlyMissingContainersAreFetched() throws Exception {
+    Map<Long, ContainerWithPipeline> containers =
+        cache.getContainerWithPipelines(containerIDs(1L, 2L), false);
+    assertEquals(containerIDs(1L, 2L), containers.keySet());
+    verify(scmContainerClient).getContainerWithPipelineBatch(anyList());
+
+    containers = cache.getContainerWithPipelines(containerIDs(1L, 2L), false);
+    assertEquals(containerIDs(1L, 2L), containers.keySet());
+    assertEquals(pipeline, containers.get(1L).getPipeline());
+    // Callers may reorder the nodes, so they get a copy.
+    assertNotSame(pipeline, containers.get(1L).getPipeline());
+    assertEquals(1, cache.getSavedScmCalls());
+
+    cache.getContainerWithPipelines(containerIDs(2L, 3L), false);
+    verify(scmContainerClient).getContainerWithPipelineBatch(
+        Collections.singletonList(3L));
+    assertEquals(3, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    assertEquals(2, cache.getScmCalls());
+  }
+
+  @Test
+  public void testForceUpdate() throws Exception {
+    cache.getContainerWithPipelines(containerIDs(1L, 2L), false);
+    cache.getContainerWithPipelines(containerIDs(1L), true);
+    verify(scmContainerClient, times(2)).getContainerWithPipelineBatch(
+        anyList());
+    assertEquals(1, cache.getInvalidations());
+    assertEquals(0, cache.getHits());
+
+    // Only the invalidated container is fetched again, and then cached.
+    cache.getContainerWithPipelines(containerIDs(1L, 2L), false);
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getSavedScmCalls());
+  }
+
+  @Test
+  public void testEntriesExpire() throws Exception {
+    cache = new ScmContainerLocationCache(scmContainerClient, 1, 100);
+    cache.getContainerWithPipelines(containerIDs(1L), false);
+    Thread.sleep(10);
+    cache.getContainerWithPipelines(containerIDs(1L), false);
+    verify(scmContainerClient, times(2)).getContainerWithPipelineBatch(
+        anyList());
+  }
+
+  private static Set<Long> containerIDs(Long... ids) {
+    return new HashSet<>(Arrays.asList(ids));
+  }
+}
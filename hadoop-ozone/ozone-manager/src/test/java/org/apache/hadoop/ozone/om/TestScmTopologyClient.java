@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.apache.hadoop.test.GenericTestUtils.waitFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ScmTopologyClient}.
+ */
+public class TestScmTopologyClient {
+
+  private final List<DatanodeDetails> datanodes = new ArrayList<>();
+  private StorageContainerLocationProtocol scmContainerClient;
+  private ScmTopologyClient topologyClient;
+
+  @Before
+  public void setup() throws Exception {
+    datanodes.add(createDatanode("10.0.0.1", "/rack1"));
+    datanodes.add(createDatanode("10.0.0.2", "/rack1"));
+    datanodes.add(createDatanode("10.0.1.1", "/rack2"));
+
+    scmContainerClient = Mockito.mock(StorageContainerLocationProtocol.class);
+    when(scmContainerClient.queryNode(any(), any(), any(), anyString(),
+        anyInt())).thenAnswer(invocation -> {
+          List<HddsProtos.Node> nodes = new ArrayList<>();
+          for (DatanodeDetails datanode : datanodes) {
+            nodes.add(HddsProtos.Node.newBuilder()
+                .setNodeID(datanode.getProtoBufMessage())
+                .addNodeStates(HddsProtos.NodeState.HEALTHY)
+                .build());
+          }
+          return nodes;
+        });
+
+    topologyClient = new ScmTopologyClient(scmContainerClient,
+        new OzoneConfiguration(), 60000, 100);
+  }
+
+  @After
+  public void teardown() {
+    topologyClient.stop();
+  }
+
+  private static DatanodeDetails createDatanode(String ip, String rack) {
+    return MockDatanodeDetails.createDatanodeDetails(
+        UUID.randomUUID().toString(), "host-" + ip, ip, rack);
+  }
+
+  @Test
+  public void testSortByDistanceToClient() throws Exception {
+    // Not loaded yet.
+    assertNull(topologyClient.sortDatanodes(datanodes, "10.0.0.2"));
+    topologyClient.refresh();
+
+    List<DatanodeDetails> pipeline = Arrays.asList(datanodes.get(2),
+        datanodes.get(0), datanodes.get(1));
+    List<DatanodeDetails> sorted =
+        topologyClient.sortDatanodes(pipeline, "10.0.0.2");
+    assertEquals(Arrays.asList(datanodes.get(1), datanodes.get(0),
+        datanodes.get(2)), sorted);
+    assertEquals(1, topologyClient.getLocalSorts());
+
+    // Same client and pipeline is served from the cache.
+    assertEquals(sorted, topologyClient.sortDatanodes(pipeline, "10.0.0.2"));
+    assertEquals(1, topologyClient.getLocalSorts());
+    assertEquals(1, topologyClient.getCachedSorts());
+
+    // Order is kept for clients which are not datanodes.
+    assertEquals(pipeline,
+        topologyClient.sortDatanodes(pipeline, "192.168.0.1"));
+    verify(scmContainerClient, times(1)).queryNode(any(), any(), any(),
+        anyString(), anyInt());
+  }
+
+  @Test
+  public void testUnknownDatanodeIsSortedAfterRefresh() throws Exception {
+    topologyClient.refresh();
+
+    DatanodeDetails newDatanode = createDatanode("10.0.1.2", "/rack2");
+    datanodes.add(newDatanode);
+    List<DatanodeDetails> pipeline =
+        Arrays.asList(datanodes.get(0), newDatanode);
+
+    // Too early after the last refresh.
+    assertNull(topologyClient.sortDatanodes(pipeline, "10.0.1.1"));
+    assertEquals(1, topologyClient.getUnknownNodeSorts());
+    verify(scmContainerClient, times(1)).queryNode(any(), any(), any(),
+        anyString(), anyInt());
+
+    topologyClient.start();
+    waitFor(() -> topologyClient.sortDatanodes(pipeline, "10.0.1.1") != null,
+        10, 10000);
+    assertEquals(Arrays.asList(newDatanode, datanodes.get(0)),
+        topologyClient.sortDatanodes(pipeline, "10.0.1.1"));
+  }
+}
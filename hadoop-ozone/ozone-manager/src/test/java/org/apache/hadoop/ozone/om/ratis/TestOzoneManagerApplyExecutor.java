@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.TransactionInfo;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.response.bucket.OMBucketCreateResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateBucketResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.util.Time;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.apache.hadoop.hdds.HddsConfigKeys.OZONE_METADATA_DIRS;
+import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
+import static org.apache.hadoop.test.GenericTestUtils.waitFor;
+
+/**
+ * Tests OzoneManagerApplyExecutor, and flushing the transactions it applies
+ * out of order.
+ */
+public class TestOzoneManagerApplyExecutor {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private OzoneManagerApplyExecutor applyExecutor;
+  private OzoneManagerDoubleBuffer doubleBuffer;
+  private final List<Long> appliedIndexes =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void stop() {
+    if (applyExecutor != null) {
+      applyExecutor.stop();
+    }
+    if (doubleBuffer != null) {
+      doubleBuffer.stop();
+    }
+  }
+
+  @Test(timeout = 60_000)
+  public void testBucketOrderAndBarriers() throws Exception {
+    applyExecutor = new OzoneManagerApplyExecutor(4, appliedIndexes::add);
+    int bucketCount = 8;
+    List<List<Long>> bucketOrders = new ArrayList<>();
+    for (int i = 0; i < bucketCount; i++) {
+      bucketOrders.add(Collections.synchronizedList(new ArrayList<>()));
+    }
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger applied = new AtomicInteger();
+
+    List<CompletableFuture<Boolean>> barriers = new ArrayList<>();
+    long index = 0;
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 50; i++) {
+        int bucket = i % bucketCount;
+        long trxIndex = ++index;
+        applyExecutor.submit("/vol/bucket" + bucket, trxIndex, () -> {
+          running.incrementAndGet();
+          bucketOrders.get(bucket).add(trxIndex);
+          applied.incrementAndGet();
+          running.decrementAndGet();
+          return true;
+        });
+      }
+      // Barrier sees all the earlier transactions applied, and no other
+      // transaction running.
+      long barrierIndex = ++index;
+      barriers.add(applyExecutor.submit(null, barrierIndex,
+          () -> running.get() == 0 && applied.incrementAndGet() ==
+              barrierIndex));
+    }
+
+    for (CompletableFuture<Boolean> barrier : barriers) {
+      Assert.assertTrue(barrier.get());
+    }
+    for (List<Long> bucketOrder : bucketOrders) {
+      List<Long> sorted = new ArrayList<>(bucketOrder);
+      Collections.sort(sorted);
+      Assert.assertEquals(sorted, bucketOrder);
+    }
+    Assert.assertEquals(index, applyExecutor.getAppliedIndex());
+  }
+
+  @Test(timeout = 60_000)
+  public void testAppliedIndex() throws Exception {
+    applyExecutor = new OzoneManagerApplyExecutor(2, appliedIndexes::add);
+    CountDownLatch latch = new CountDownLatch(1);
+    String slowBucket = "/vol/slow";
+    String fastBucket = findBucketOfOtherPartition(slowBucket);
+
+    applyExecutor.submit(slowBucket, 1, () -> {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return null;
+    });
+    CompletableFuture<Void> fast2 = applyExecutor.submit(fastBucket, 2,
+        () -> null);
+    CompletableFuture<Void> fast3 = applyExecutor.submit(fastBucket, 3,
+        () -> null);
+    fast3.get();
+    fast2.get();
+
+    // Transactions 2 and 3 are applied, but 1 is not.
+    Assert.assertEquals(0, applyExecutor.getAppliedIndex());
+
+    latch.countDown();
+    waitFor(() -> applyExecutor.getAppliedIndex() == 3, 10, 10000);
+    Assert.assertEquals(Arrays.asList(0L, 3L), appliedIndexes);
+  }
+
+  @Test(timeout = 60_000)
+  public void testFlushUpToAppliedIndex() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(OZONE_METADATA_DIRS, folder.newFolder().getAbsolutePath());
+    OMMetadataManager omMetadataManager = new OmMetadataManagerImpl(conf);
+    List<Long> lastAppliedIndexes =
+        Collections.synchronizedList(new ArrayList<>());
+    doubleBuffer = new OzoneManagerDoubleBuffer.Builder()
+        .setOmMetadataManager(omMetadataManager)
+        .setOzoneManagerRatisSnapShot(lastAppliedIndexes::addAll)
+        .enableRatis(true)
+        .setIndexToTerm(index -> 1L)
+        .enableAppliedIndexTracking(true)
+        .build();
+
+    // Transactions are added out of order.
+    doubleBuffer.add(createBucketResponse("bucket3"), 3);
+    doubleBuffer.add(createBucketResponse("bucket1"), 1);
+    doubleBuffer.updateAppliedIndex(1);
+    doubleBuffer.add(createBucketResponse("bucket2"), 2);
+
+    waitFor(() -> doubleBuffer.getFlushedTransactionCount() == 1, 10, 10000);
+    Assert.assertEquals(1, omMetadataManager.getTransactionInfoTable()
+        .get(TRANSACTION_INFO_KEY).getTransactionIndex());
+
+    doubleBuffer.updateAppliedIndex(3);
+    waitFor(() -> doubleBuffer.getFlushedTransactionCount() == 3, 10, 10000);
+    TransactionInfo transactionInfo = omMetadataManager
+        .getTransactionInfoTable().get(TRANSACTION_INFO_KEY);
+    Assert.assertEquals(3, transactionInfo.getTransactionIndex());
+    Assert.assertEquals(3, omMetadataManager.countRowsInTable(
+        omMetadataManager.getBucketTable()));
+    // Transactions are flushed in index order.
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L),
+        lastAppliedIndexes);
+  }
+
+  private String findBucketOfOtherPartition(String bucket) {
+    for (int i = 0; ; i++) {
+      String other = "/vol/bucket" + i;
+      if (Math.floorMod(other.hashCode(), 2) !=
+          Math.floorMod(bucket.hashCode(), 2)) {
+        return other;
+      }
+    }
+  }
+
+  private OMBucketCreateResponse createBucketResponse(String bucketName) {
+    OmBucketInfo omBucketInfo = OmBucketInfo.newBuilder()
+        .setVolumeName("vol")
+        .setBucketName(bucketName)
+        .setCreationTime(Time.now())
+        .build();
+    OMResponse omResponse = OMResponse.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setStatus(Status.OK)
+        .setCreateBucketResponse(CreateBucketResponse.newBuilder().build())
+        .build();
+    return new OMBucketCreateResponse(omResponse, omBucketInfo);
+  }
+}
@@ -0,0 +1,253 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.utils.TransactionInfo;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.metrics.OzoneManagerDoubleBufferMetrics;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
+    .OMResponse;
+import org.apache.hadoop.util.Time;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.apache.hadoop.hdds.HddsConfigKeys.OZONE_METADATA_DIRS;
+import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.BUCKET_TABLE;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
+import static org.apache.hadoop.test.GenericTestUtils.waitFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests OzoneManagerDoubleBuffer with pipelined flush and max
+ * batch size enabled.
+ */
+public class TestOzoneManagerDoubleBufferWithPipelinedFlush {
+
+  private static final int MAX_BATCH_SIZE = 10;
+
+  private OMMetadataManager omMetadataManager;
+  private OzoneManagerDoubleBuffer doubleBuffer;
+  private final AtomicLong trxId = new AtomicLong(0);
+  private volatile long lastAppliedIndex;
+  private long term = 1L;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Before
+  public void setup() throws IOException {
+    OzoneConfiguration configuration = new OzoneConfiguration();
+    configuration.set(OZONE_METADATA_DIRS,
+        folder.newFolder().getAbsolutePath());
+    omMetadataManager =
+        new OmMetadataManagerImpl(configuration);
+  }
+
+  @After
+  public void stop() {
+    if (doubleBuffer != null) {
+      doubleBuffer.stop();
+    }
+  }
+
+  private void createDoubleBuffer(int maxBatchSize) {
+    OzoneManagerRatisSnapshot ozoneManagerRatisSnapshot = index -> {
+      lastAppliedIndex = index.get(index.size() - 1);
+    };
+    doubleBuffer = new OzoneManagerDoubleBuffer.Builder()
+        .setOmMetadataManager(omMetadataManager)
+        .setOzoneManagerRatisSnapShot(ozoneManagerRatisSnapshot)
+        .enableRatis(true)
+        .setIndexToTerm((val) -> term)
+        .enablePipelinedFlush(true)
+        .setMaxBatchSize(maxBatchSize)
+        .build();
+  }
+
+  @Test(timeout = 300_000)
+  public void testPipelinedFlushWithMaxBatchSize() throws Exception {
+    createDoubleBuffer(MAX_BATCH_SIZE);
+    String volumeName = UUID.randomUUID().toString();
+    int bucketCount = 100;
+    OzoneManagerDoubleBufferMetrics metrics =
+        doubleBuffer.getOzoneManagerDoubleBufferMetrics();
+
+    for (int i = 0; i < bucketCount; i++) {
+      doubleBuffer.add(createDummyBucketResponse(volumeName),
+          trxId.incrementAndGet());
+    }
+    waitFor(() -> doubleBuffer.getFlushedTransactionCount() == bucketCount,
+        100, 60000);
+
+    assertEquals(bucketCount, omMetadataManager.countRowsInTable(
+        omMetadataManager.getBucketTable()));
+    assertTrue(doubleBuffer.getFlushIterations() >=
+        bucketCount / MAX_BATCH_SIZE);
+    assertTrue(metrics.getMaxNumberOfTransactionsFlushedInOneIteration() <=
+        MAX_BATCH_SIZE);
+    assertTrue(metrics.getPrepareTime().lastStat().numSamples() > 0);
+    assertTrue(metrics.getFlushTime().lastStat().numSamples() > 0);
+
+    // Batches are committed in order, so last applied index and transaction
+    // info should point to the last transaction.
+    waitFor(() -> lastAppliedIndex == bucketCount, 100, 60000);
+    TransactionInfo transactionInfo =
+        omMetadataManager.getTransactionInfoTable().get(TRANSACTION_INFO_KEY);
+    assertNotNull(transactionInfo);
+    assertEquals(bucketCount, transactionInfo.getTransactionIndex());
+    assertEquals(term, transactionInfo.getTerm());
+  }
+
+  @Test(timeout = 300_000)
+  public void testResponsesReadingFromDBSeeCommittedBatches()
+      throws Exception {
+    String volumeName = UUID.randomUUID().toString();
+    String deletedKey = UUID.randomUUID().toString();
+    int deleteCount = 50;
+    // Flush one transaction per batch, as responses in the same batch do not
+    // see each other's updates.
+    createDoubleBuffer(1);
+
+    // Interleave responses which read from DB with responses which do not.
+    // Each delete response appends to the same deletedTable entry, so if it
+    // is prepared before the previous batch is committed, an append is lost.
+    for (int i = 0; i < deleteCount; i++) {
+      doubleBuffer.add(createDummyBucketResponse(volumeName),
+          trxId.incrementAndGet());
+      doubleBuffer.add(new OMDummyDeleteKeyResponse(deletedKey,
+          TestOMRequestUtils.createOmKeyInfo(volumeName, "bucket",
+              deletedKey + i, HddsProtos.ReplicationType.RATIS,
+              HddsProtos.ReplicationFactor.ONE), createDummyOMResponse()),
+          trxId.incrementAndGet());
+    }
+    waitFor(() -> doubleBuffer.getFlushedTransactionCount() == 2 * deleteCount,
+        100, 60000);
+
+    RepeatedOmKeyInfo repeatedOmKeyInfo =
+        omMetadataManager.getDeletedTable().get(deletedKey);
+    assertNotNull(repeatedOmKeyInfo);
+    assertEquals(deleteCount, repeatedOmKeyInfo.getOmKeyInfoList().size());
+  }
+
+  private OMResponse createDummyOMResponse() {
+    return OMResponse.newBuilder()
+        .setCmdType(OzoneManagerProtocolProtos.Type.CreateBucket)
+        .setStatus(OzoneManagerProtocolProtos.Status.OK)
+        .setCreateBucketResponse(
+            OzoneManagerProtocolProtos.CreateBucketResponse.newBuilder()
+                .build())
+        .build();
+  }
+
+  /**
+   * Create DummyBucketCreate response.
+   */
+  private OMDummyCreateBucketResponse createDummyBucketResponse(
+      String volumeName) {
+    OmBucketInfo omBucketInfo =
+        OmBucketInfo.newBuilder()
+            .setVolumeName(volumeName)
+            .setBucketName(UUID.randomUUID().toString())
+            .setCreationTime(Time.now())
+            .build();
+    return new OMDummyCreateBucketResponse(omBucketInfo,
+        createDummyOMResponse());
+  }
+
+  /**
+   * DummyCreatedBucket Response class used in testing.
+   */
+  @CleanupTableInfo(cleanupTables = {BUCKET_TABLE})
+  private static class OMDummyCreateBucketResponse extends OMClientResponse {
+    private final OmBucketInfo omBucketInfo;
+
+    OMDummyCreateBucketResponse(OmBucketInfo omBucketInfo,
+        OMResponse omResponse) {
+      super(omResponse);
+      this.omBucketInfo = omBucketInfo;
+    }
+
+    @Override
+    public void addToDBBatch(OMMetadataManager omMetadataManager,
+        BatchOperation batchOperation) throws IOException {
+      String dbBucketKey =
+          omMetadataManager.getBucketKey(omBucketInfo.getVolumeName(),
+              omBucketInfo.getBucketName());
+      omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+          dbBucketKey, omBucketInfo);
+    }
+  }
+
+  /**
+   * Dummy response which appends key info to a deletedTable entry, in the
+   * same way as key delete responses.
+   */
+  @CleanupTableInfo(cleanupTables = {DELETED_TABLE})
+  private static class OMDummyDeleteKeyResponse extends OMClientResponse {
+    private final String deletedKey;
+    private final OmKeyInfo omKeyInfo;
+
+    OMDummyDeleteKeyResponse(String deletedKey, OmKeyInfo omKeyInfo,
+        OMResponse omResponse) {
+      super(omResponse);
+      this.deletedKey = deletedKey;
+      this.omKeyInfo = omKeyInfo;
+    }
+
+    @Override
+    public boolean readsFromDBOnFlush() {
+      return true;
+    }
+
+    @Override
+    public void addToDBBatch(OMMetadataManager omMetadataManager,
+        BatchOperation batchOperation) throws IOException {
+      RepeatedOmKeyInfo repeatedOmKeyInfo =
+          omMetadataManager.getDeletedTable().get(deletedKey);
+      if (repeatedOmKeyInfo == null) {
+        repeatedOmKeyInfo = new RepeatedOmKeyInfo(omKeyInfo);
+      } else {
+        repeatedOmKeyInfo.addOmKeyInfo(omKeyInfo);
+      }
+      omMetadataManager.getDeletedTable().putWithBatch(batchOperation,
+          deletedKey, repeatedOmKeyInfo);
+    }
+  }
+}
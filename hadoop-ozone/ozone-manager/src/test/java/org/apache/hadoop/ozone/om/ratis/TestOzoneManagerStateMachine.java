@@ -30,7 +30,10 @@
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.when;
 
@@ -61,7 +64,7 @@ public void setup() throws Exception {
     when(ozoneManager.getSnapshotInfo()).thenReturn(
         Mockito.mock(RatisSnapshotInfo.class));
     ozoneManagerStateMachine =
-        new OzoneManagerStateMachine(ozoneManagerRatisServer, false);
+        new OzoneManagerStateMachine(ozoneManagerRatisServer, conf);
     ozoneManagerStateMachine.notifyTermIndexUpdated(0, 0);
   }
 
@@ -120,6 +123,27 @@ public void testLastAppliedIndex() {
   }
 
 
+  @Test
+  public void testWaitForAppliedIndex() throws Exception {
+    Assert.assertFalse(ozoneManagerStateMachine.waitForAppliedIndex(2, 10));
+
+    CompletableFuture<Boolean> applied = CompletableFuture.supplyAsync(() -> {
+      try {
+        return ozoneManagerStateMachine.waitForAppliedIndex(2, 60_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    });
+    ozoneManagerStateMachine.notifyTermIndexUpdated(0, 1);
+    Assert.assertFalse(applied.isDone());
+
+    ozoneManagerStateMachine.addApplyTransactionTermIndex(0, 2);
+    ozoneManagerStateMachine.updateLastAppliedIndex(
+        Collections.singletonList(2L));
+    Assert.assertTrue(applied.get(60, TimeUnit.SECONDS));
+  }
+
   @Test
   public void testApplyTransactionsUpdateLastAppliedIndexCalledLate() {
     // Now try a scenario where 1,2,3 transactions are in applyTransactionMap
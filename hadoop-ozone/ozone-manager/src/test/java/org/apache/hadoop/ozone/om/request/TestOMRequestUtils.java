@@ -33,6 +33,7 @@
 import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -373,6 +374,53 @@ public static void addBucketToDB(String volumeName, String bucketName,
         new CacheValue<>(Optional.of(omBucketInfo), 1L));
   }
 
+  /**
+   * Add bucket creation entry with the prefix metadata layout to OM DB.
+   * @param volumeName
+   * @param bucketName
+   * @param omMetadataManager
+   * @return the bucket info
+   */
+  public static OmBucketInfo addPrefixLayoutBucketToDB(String volumeName,
+      String bucketName, OMMetadataManager omMetadataManager) {
+
+    OmBucketInfo omBucketInfo =
+        OmBucketInfo.newBuilder().setVolumeName(volumeName)
+            .setBucketName(bucketName).setCreationTime(Time.now())
+            .setObjectID(Time.now())
+            .addMetadata(OMConfigKeys.OZONE_OM_METADATA_LAYOUT,
+                OMConfigKeys.OZONE_OM_METADATA_LAYOUT_PREFIX).build();
+
+    // Add to cache.
+    omMetadataManager.getBucketTable().addCacheEntry(
+        new CacheKey<>(omMetadataManager.getBucketKey(volumeName, bucketName)),
+        new CacheValue<>(Optional.of(omBucketInfo), 1L));
+    return omBucketInfo;
+  }
+
+  /**
+   * Add a directory or file entry of a bucket with the prefix metadata
+   * layout to the directory or file table of OM DB. A file is added with
+   * one block.
+   * @return the entry added
+   */
+  @SuppressWarnings("parameterNumber")
+  public static OmKeyInfo addPrefixLayoutEntryToTable(boolean isDirectory,
+      String volumeName, String bucketName, long parentObjectID, String name,
+      long objectID, OMMetadataManager omMetadataManager) throws Exception {
+    OmKeyInfo omKeyInfo = createOmKeyInfo(volumeName, bucketName, name,
+        HddsProtos.ReplicationType.RATIS, HddsProtos.ReplicationFactor.ONE,
+        objectID);
+    String dbKey = omMetadataManager.getOzonePathKey(parentObjectID, name);
+    if (isDirectory) {
+      omMetadataManager.getDirectoryTable().put(dbKey, omKeyInfo);
+    } else {
+      addKeyLocationInfo(omKeyInfo, 0, omKeyInfo.getDataSize());
+      omMetadataManager.getFileTable().put(dbKey, omKeyInfo);
+    }
+    return omKeyInfo;
+  }
+
   public static OzoneManagerProtocolProtos.OMRequest createBucketRequest(
       String bucketName, String volumeName, boolean isVersionEnabled,
       OzoneManagerProtocolProtos.StorageTypeProto storageTypeProto) {
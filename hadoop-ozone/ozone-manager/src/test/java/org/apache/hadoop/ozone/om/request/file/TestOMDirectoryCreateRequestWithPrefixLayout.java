@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.file;
+
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.audit.AuditLogger;
+import org.apache.hadoop.ozone.audit.AuditMessage;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMMetrics;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.ResolvedBucket;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
+import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateDirectoryRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test OM directory create request of buckets with the prefix metadata
+ * layout.
+ */
+public class TestOMDirectoryCreateRequestWithPrefixLayout {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private OzoneManager ozoneManager;
+  private OMMetrics omMetrics;
+  private OMMetadataManager omMetadataManager;
+  private AuditLogger auditLogger;
+  // Just setting ozoneManagerDoubleBuffer which does nothing.
+  private OzoneManagerDoubleBufferHelper ozoneManagerDoubleBufferHelper =
+      ((response, transactionIndex) -> {
+        return null;
+      });
+
+  private String volumeName = "vol1";
+  private String bucketName = "bucket1";
+
+  @Before
+  public void setup() throws Exception {
+    ozoneManager = Mockito.mock(OzoneManager.class);
+    omMetrics = OMMetrics.create();
+    OzoneConfiguration ozoneConfiguration = new OzoneConfiguration();
+    ozoneConfiguration.set(OMConfigKeys.OZONE_OM_DB_DIRS,
+        folder.newFolder().getAbsolutePath());
+    omMetadataManager = new OmMetadataManagerImpl(ozoneConfiguration);
+    when(ozoneManager.getMetrics()).thenReturn(omMetrics);
+    when(ozoneManager.getMetadataManager()).thenReturn(omMetadataManager);
+    when(ozoneManager.getObjectIdFromTxId(anyLong())).thenAnswer(
+        invocation -> OmUtils.getObjectIdFromTxId(2,
+            invocation.getArgument(0)));
+    auditLogger = Mockito.mock(AuditLogger.class);
+    when(ozoneManager.getAuditLogger()).thenReturn(auditLogger);
+    Mockito.doNothing().when(auditLogger).logWrite(any(AuditMessage.class));
+    Pair<String, String> volumeAndBucket = Pair.of(volumeName, bucketName);
+    when(ozoneManager.resolveBucketLink(any(KeyArgs.class),
+        any(OMClientRequest.class)))
+        .thenReturn(new ResolvedBucket(volumeAndBucket, volumeAndBucket));
+  }
+
+  @After
+  public void stop() {
+    omMetrics.unRegister();
+    Mockito.framework().clearInlineMocks();
+  }
+
+  @Test
+  public void testCreateClientRequest() throws Exception {
+    OMRequest omRequest = createDirectoryRequest("a/b/c");
+
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    Assert.assertEquals(OMDirectoryCreateRequest.class,
+        OzoneManagerRatisUtils.createClientRequest(omRequest, ozoneManager)
+            .getClass());
+
+    TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    Assert.assertEquals(OMDirectoryCreateRequestWithPrefixLayout.class,
+        OzoneManagerRatisUtils.createClientRequest(omRequest, ozoneManager)
+            .getClass());
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    OmBucketInfo bucketInfo = TestOMRequestUtils.addPrefixLayoutBucketToDB(
+        volumeName, bucketName, omMetadataManager);
+
+    OMClientResponse omClientResponse = createDirectory("a/b/c", 100L);
+
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    // Each directory is keyed by the object ID of its parent.
+    long parentId = bucketInfo.getObjectID();
+    for (String name : new String[] {"a", "b", "c"}) {
+      OmKeyInfo dirInfo = omMetadataManager.getDirectoryTable().get(
+          omMetadataManager.getOzonePathKey(parentId, name));
+      Assert.assertNotNull(dirInfo);
+      Assert.assertEquals(name, dirInfo.getKeyName());
+      Assert.assertNotEquals(parentId, dirInfo.getObjectID());
+      parentId = dirInfo.getObjectID();
+    }
+
+    // Nothing is added to the key table.
+    Assert.assertTrue(omMetadataManager.getKeyTable().isEmpty());
+
+    omClientResponse = createDirectory("a/b", 101L);
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.DIRECTORY_ALREADY_EXISTS,
+        omClientResponse.getOMResponse().getStatus());
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithFileInPath() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    OmBucketInfo bucketInfo = TestOMRequestUtils.addPrefixLayoutBucketToDB(
+        volumeName, bucketName, omMetadataManager);
+
+    OmKeyInfo fileInfo = TestOMRequestUtils.createOmKeyInfo(volumeName,
+        bucketName, "a", HddsProtos.ReplicationType.RATIS,
+        HddsProtos.ReplicationFactor.ONE);
+    omMetadataManager.getFileTable().put(omMetadataManager.getOzonePathKey(
+        bucketInfo.getObjectID(), "a"), fileInfo);
+
+    OMClientResponse omClientResponse = createDirectory("a/b", 100L);
+
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.FILE_ALREADY_EXISTS,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertTrue(omMetadataManager.getDirectoryTable().isEmpty());
+  }
+
+  private OMClientResponse createDirectory(String keyName,
+      long trxnLogIndex) throws Exception {
+    OMDirectoryCreateRequestWithPrefixLayout request =
+        new OMDirectoryCreateRequestWithPrefixLayout(
+            createDirectoryRequest(keyName));
+    request = new OMDirectoryCreateRequestWithPrefixLayout(
+        request.preExecute(ozoneManager));
+    return request.validateAndUpdateCache(ozoneManager, trxnLogIndex,
+        ozoneManagerDoubleBufferHelper);
+  }
+
+  /**
+   * Create OMRequest which encapsulates CreateDirectory request.
+   * @param keyName
+   * @return OMRequest
+   */
+  private OMRequest createDirectoryRequest(String keyName) {
+    return OMRequest.newBuilder().setCreateDirectoryRequest(
+        CreateDirectoryRequest.newBuilder().setKeyArgs(
+            KeyArgs.newBuilder().setVolumeName(volumeName)
+                .setBucketName(bucketName).setKeyName(keyName)))
+        .setCmdType(OzoneManagerProtocolProtos.Type.CreateDirectory)
+        .setClientId(UUID.randomUUID().toString()).build();
+  }
+}
@@ -174,6 +174,26 @@ public void testKeySetAclRequest() throws Exception {
     Assert.assertEquals(newAcls.get(0), acl);
   }
 
+  @Test
+  public void testKeyAclRequestWithPrefixLayout() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    OzoneAcl acl = OzoneAcl.parseAcl("user:bilbo:rwdlncxy[ACCESS]");
+
+    OMKeyAddAclRequest omKeyAddAclRequest =
+        new OMKeyAddAclRequest(createAddAclkeyRequest(acl));
+    omKeyAddAclRequest.preExecute(ozoneManager);
+    OMClientResponse omClientResponse = omKeyAddAclRequest
+        .validateAndUpdateCache(ozoneManager, 1,
+            ozoneManagerDoubleBufferHelper);
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.NOT_SUPPORTED_OPERATION,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertNull(omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, keyName)));
+  }
+
   /**
    * Create OMRequest which encapsulates OMKeyAddAclRequest.
    */
@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.UUID;
+
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.request.file.OMFileCreateRequestWithPrefixLayout;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateFileRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyLocation;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests creating and committing files of buckets with the prefix metadata
+ * layout.
+ */
+public class TestOMKeyCommitRequestWithPrefixLayout extends TestOMKeyRequest {
+
+  private OmBucketInfo bucketInfo;
+
+  @Before
+  public void setupPrefixLayout() throws Exception {
+    when(ozoneManager.getObjectIdFromTxId(anyLong())).thenAnswer(
+        invocation -> OmUtils.getObjectIdFromTxId(2,
+            invocation.getArgument(0)));
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    bucketInfo = TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName,
+        bucketName, omMetadataManager);
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    long createClientID = createFile("a/b/file", true, 100L);
+
+    // Missing parents are created in the directory table.
+    OmKeyInfo dirA = omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(bucketInfo.getObjectID(), "a"));
+    Assert.assertNotNull(dirA);
+    OmKeyInfo dirB = omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(dirA.getObjectID(), "b"));
+    Assert.assertNotNull(dirB);
+
+    // Open key is kept by its full path.
+    String openKey = omMetadataManager.getOpenKey(volumeName, bucketName,
+        "a/b/file", createClientID);
+    Assert.assertNotNull(omMetadataManager.getOpenKeyTable().get(openKey));
+
+    OMClientResponse omClientResponse =
+        commitFile("a/b/file", createClientID, 102L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    Assert.assertNull(omMetadataManager.getOpenKeyTable().get(openKey));
+    String fileKey =
+        omMetadataManager.getOzonePathKey(dirB.getObjectID(), "file");
+    OmKeyInfo fileInfo = omMetadataManager.getFileTable().get(fileKey);
+    Assert.assertNotNull(fileInfo);
+    Assert.assertEquals("file", fileInfo.getKeyName());
+    Assert.assertEquals(dataSize, fileInfo.getDataSize());
+    Assert.assertNull(omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, "a/b/file")));
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithOverwrite() throws Exception {
+    long clientID1 = createFile("a/file", true, 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        commitFile("a/file", clientID1, 101L).getOMResponse().getStatus());
+
+    long clientID2 = createFile("a/file", true, 102L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        commitFile("a/file", clientID2, 103L).getOMResponse().getStatus());
+
+    // The committed file is still named by its leaf name.
+    OmKeyInfo dirA = omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(bucketInfo.getObjectID(), "a"));
+    OmKeyInfo fileInfo = omMetadataManager.getFileTable().get(
+        omMetadataManager.getOzonePathKey(dirA.getObjectID(), "file"));
+    Assert.assertEquals("file", fileInfo.getKeyName());
+    Assert.assertEquals(103L, fileInfo.getUpdateID());
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithoutRecursive() throws Exception {
+    OMFileCreateRequestWithPrefixLayout request =
+        new OMFileCreateRequestWithPrefixLayout(
+            createFileRequest("x/file", false));
+    request = new OMFileCreateRequestWithPrefixLayout(
+        request.preExecute(ozoneManager));
+
+    OMClientResponse omClientResponse = request.validateAndUpdateCache(
+        ozoneManager, 100L, ozoneManagerDoubleBufferHelper);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.DIRECTORY_NOT_FOUND,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertNull(omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(bucketInfo.getObjectID(), "x")));
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithDirectoryAtKey()
+      throws Exception {
+    long clientID = createFile("a/b", true, 100L);
+    // Another file under a/b makes it a directory.
+    createFile("a/b/c", true, 101L);
+
+    OMClientResponse omClientResponse = commitFile("a/b", clientID, 102L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.NOT_A_FILE,
+        omClientResponse.getOMResponse().getStatus());
+  }
+
+  /**
+   * Creates a file by CreateFile request.
+   * @return the client ID of the open key.
+   */
+  private long createFile(String fileName, boolean recursive,
+      long trxnLogIndex) throws Exception {
+    OMFileCreateRequestWithPrefixLayout request =
+        new OMFileCreateRequestWithPrefixLayout(
+            createFileRequest(fileName, recursive));
+    OMRequest modifiedOmRequest = request.preExecute(ozoneManager);
+    request = new OMFileCreateRequestWithPrefixLayout(modifiedOmRequest);
+
+    OMClientResponse omClientResponse = request.validateAndUpdateCache(
+        ozoneManager, trxnLogIndex, ozoneManagerDoubleBufferHelper);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    return modifiedOmRequest.getCreateFileRequest().getClientID();
+  }
+
+  private OMClientResponse commitFile(String fileName, long createClientID,
+      long trxnLogIndex) throws Exception {
+    OMKeyCommitRequestWithPrefixLayout request =
+        new OMKeyCommitRequestWithPrefixLayout(
+            createCommitKeyRequest(fileName, createClientID));
+    request = new OMKeyCommitRequestWithPrefixLayout(
+        request.preExecute(ozoneManager));
+    return request.validateAndUpdateCache(ozoneManager, trxnLogIndex,
+        ozoneManagerDoubleBufferHelper);
+  }
+
+  private OMRequest createFileRequest(String fileName, boolean recursive) {
+    KeyArgs.Builder keyArgs = KeyArgs.newBuilder()
+        .setVolumeName(volumeName).setBucketName(bucketName)
+        .setKeyName(fileName).setFactor(replicationFactor)
+        .setType(replicationType).setDataSize(dataSize);
+
+    CreateFileRequest createFileRequest = CreateFileRequest.newBuilder()
+        .setKeyArgs(keyArgs)
+        .setIsOverwrite(true)
+        .setIsRecursive(recursive).build();
+
+    return OMRequest.newBuilder()
+        .setCmdType(OzoneManagerProtocolProtos.Type.CreateFile)
+        .setClientId(UUID.randomUUID().toString())
+        .setCreateFileRequest(createFileRequest).build();
+  }
+
+  private OMRequest createCommitKeyRequest(String fileName,
+      long createClientID) {
+    KeyLocation keyLocation = KeyLocation.newBuilder()
+        .setBlockID(HddsProtos.BlockID.newBuilder()
+            .setContainerBlockID(HddsProtos.ContainerBlockID.newBuilder()
+                .setContainerID(CONTAINER_ID).setLocalID(LOCAL_ID)))
+        .setOffset(0).setLength(dataSize).build();
+
+    KeyArgs keyArgs =
+        KeyArgs.newBuilder().setDataSize(dataSize).setVolumeName(volumeName)
+            .setKeyName(fileName).setBucketName(bucketName)
+            .setType(replicationType).setFactor(replicationFactor)
+            .addKeyLocations(keyLocation).build();
+
+    CommitKeyRequest commitKeyRequest =
+        CommitKeyRequest.newBuilder().setKeyArgs(keyArgs)
+            .setClientID(createClientID).build();
+
+    return OMRequest.newBuilder()
+        .setCmdType(OzoneManagerProtocolProtos.Type.CommitKey)
+        .setCommitKeyRequest(commitKeyRequest)
+        .setClientId(UUID.randomUUID().toString()).build();
+  }
+}
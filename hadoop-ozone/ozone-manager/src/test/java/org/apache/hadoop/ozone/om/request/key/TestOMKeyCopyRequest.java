@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.HashMap;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PartKeyInfo;
+
+/**
+ * Tests CopyKey request.
+ */
+public class TestOMKeyCopyRequest extends TestOMKeyRequest {
+
+  @Test
+  public void testPreExecute() throws Exception {
+    OMRequest modifiedOmRequest = doPreExecute(
+        createCopyKeyRequest(UUID.randomUUID().toString(), null, 0));
+    Assert.assertFalse(modifiedOmRequest.getCopyKeyRequest().hasClientID());
+
+    modifiedOmRequest = doPreExecute(createCopyKeyRequest(
+        UUID.randomUUID().toString(), UUID.randomUUID().toString(), 1));
+    Assert.assertTrue(modifiedOmRequest.getCopyKeyRequest().hasClientID());
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    String toKeyName = UUID.randomUUID().toString();
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    OmKeyInfo fromKeyInfo = addKeyWithBlock();
+
+    OMClientResponse omClientResponse = copy(toKeyName, null, 0, 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    // Source key is still present, and the destination refers to its blocks.
+    Assert.assertNotNull(omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, keyName)));
+    OmKeyInfo toKeyInfo = omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, toKeyName));
+    Assert.assertNotNull(toKeyInfo);
+    Assert.assertEquals(toKeyName, toKeyInfo.getKeyName());
+    Assert.assertEquals(fromKeyInfo.getDataSize(), toKeyInfo.getDataSize());
+    Assert.assertEquals(
+        fromKeyInfo.getLatestVersionLocations().getLocationList().get(0)
+            .getBlockID(),
+        toKeyInfo.getLatestVersionLocations().getLocationList().get(0)
+            .getBlockID());
+    Assert.assertEquals(1L, getBlockReferences(fromKeyInfo));
+
+    // Each copy adds a reference.
+    omClientResponse = copy(UUID.randomUUID().toString(), null, 0, 101L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertEquals(2L, getBlockReferences(fromKeyInfo));
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithKeyNotFound() throws Exception {
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+
+    OMClientResponse omClientResponse =
+        copy(UUID.randomUUID().toString(), null, 0, 100L);
+
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.KEY_NOT_FOUND,
+        omClientResponse.getOMResponse().getStatus());
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithBucketNotFound() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+
+    OMClientResponse omClientResponse =
+        copy(UUID.randomUUID().toString(), null, 0, 100L);
+
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.BUCKET_NOT_FOUND,
+        omClientResponse.getOMResponse().getStatus());
+  }
+
+  @Test
+  public void testCopyToMultipartUploadPart() throws Exception {
+    String toKeyName = UUID.randomUUID().toString();
+    String uploadID = UUID.randomUUID().toString();
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    OmKeyInfo fromKeyInfo = addKeyWithBlock();
+    String multipartKey = addMultipartUpload(toKeyName, uploadID,
+        replicationFactor);
+
+    OMClientResponse omClientResponse = copy(toKeyName, uploadID, 1, 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    PartKeyInfo partKeyInfo = omMetadataManager.getMultipartInfoTable()
+        .get(multipartKey).getPartKeyInfo(1);
+    Assert.assertNotNull(partKeyInfo);
+    Assert.assertEquals(omClientResponse.getOMResponse().getCopyKeyResponse()
+        .getPartName(), partKeyInfo.getPartName());
+    Assert.assertEquals(fromKeyInfo.getDataSize(),
+        partKeyInfo.getPartKeyInfo().getDataSize());
+    Assert.assertEquals(1L, getBlockReferences(fromKeyInfo));
+    // Part copy does not create a key.
+    Assert.assertNull(omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, toKeyName)));
+  }
+
+  @Test
+  public void testCopyToMultipartUploadWithDifferentReplication()
+      throws Exception {
+    String toKeyName = UUID.randomUUID().toString();
+    String uploadID = UUID.randomUUID().toString();
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    OmKeyInfo fromKeyInfo = addKeyWithBlock();
+    addMultipartUpload(toKeyName, uploadID,
+        HddsProtos.ReplicationFactor.THREE);
+
+    OMClientResponse omClientResponse = copy(toKeyName, uploadID, 1, 100L);
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.NOT_SUPPORTED_OPERATION,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertEquals(0L, getBlockReferences(fromKeyInfo));
+  }
+
+  @Test
+  public void testCopyToPrefixLayoutBucket() throws Exception {
+    String toBucketName = UUID.randomUUID().toString();
+    String toKeyName = UUID.randomUUID().toString();
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName, toBucketName,
+        omMetadataManager);
+    OmKeyInfo fromKeyInfo = addKeyWithBlock();
+
+    OMClientResponse omClientResponse =
+        copy(toBucketName, toKeyName, null, 0, 100L);
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.NOT_SUPPORTED_OPERATION,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertNull(omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, toBucketName, toKeyName)));
+    Assert.assertEquals(0L, getBlockReferences(fromKeyInfo));
+  }
+
+  @Test
+  public void testCopyFromPrefixLayoutBucket() throws Exception {
+    String toBucketName = UUID.randomUUID().toString();
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    TestOMRequestUtils.addBucketToDB(volumeName, toBucketName,
+        omMetadataManager);
+
+    OMClientResponse omClientResponse =
+        copy(toBucketName, UUID.randomUUID().toString(), null, 0, 100L);
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.NOT_SUPPORTED_OPERATION,
+        omClientResponse.getOMResponse().getStatus());
+  }
+
+  private OmKeyInfo addKeyWithBlock() throws Exception {
+    OmKeyInfo omKeyInfo = TestOMRequestUtils.createOmKeyInfo(volumeName,
+        bucketName, keyName, replicationType, replicationFactor);
+    TestOMRequestUtils.addKeyLocationInfo(omKeyInfo, 0, dataSize);
+    TestOMRequestUtils.addKeyToTable(false, false, omKeyInfo, clientID, 1L,
+        omMetadataManager);
+    return omKeyInfo;
+  }
+
+  private String addMultipartUpload(String toKeyName, String uploadID,
+      HddsProtos.ReplicationFactor factor) throws Exception {
+    String multipartKey = omMetadataManager.getMultipartKey(volumeName,
+        bucketName, toKeyName, uploadID);
+    omMetadataManager.getMultipartInfoTable().put(multipartKey,
+        new OmMultipartKeyInfo.Builder()
+            .setUploadID(uploadID)
+            .setCreationTime(0)
+            .setReplicationType(replicationType)
+            .setReplicationFactor(factor)
+            .setPartKeyInfoList(new HashMap<>())
+            .build());
+    return multipartKey;
+  }
+
+  private long getBlockReferences(OmKeyInfo omKeyInfo) throws Exception {
+    Long references = omMetadataManager.getBlockReferenceTable().get(
+        omMetadataManager.getBlockReferenceKey(
+            omKeyInfo.getLatestVersionLocations().getLocationList().get(0)
+                .getContainerID(),
+            omKeyInfo.getLatestVersionLocations().getLocationList().get(0)
+                .getLocalID()));
+    return references == null ? 0 : references;
+  }
+
+  private OMClientResponse copy(String toKeyName, String uploadID,
+      int partNumber, long trxnLogIndex) throws Exception {
+    return copy(bucketName, toKeyName, uploadID, partNumber, trxnLogIndex);
+  }
+
+  private OMClientResponse copy(String toBucketName, String toKeyName,
+      String uploadID, int partNumber, long trxnLogIndex) throws Exception {
+    OMRequest modifiedOmRequest = doPreExecute(createCopyKeyRequest(
+        toBucketName, toKeyName, uploadID, partNumber));
+    return new OMKeyCopyRequest(modifiedOmRequest).validateAndUpdateCache(
+        ozoneManager, trxnLogIndex, ozoneManagerDoubleBufferHelper);
+  }
+
+  /**
+   * This method calls preExecute and verify the modified request.
+   * @param originalOmRequest
+   * @return OMRequest - modified request returned from preExecute.
+   * @throws Exception
+   */
+  private OMRequest doPreExecute(OMRequest originalOmRequest) throws Exception {
+    OMKeyCopyRequest omKeyCopyRequest =
+        new OMKeyCopyRequest(originalOmRequest);
+
+    OMRequest modifiedOmRequest = omKeyCopyRequest.preExecute(ozoneManager);
+
+    // Will not be equal, as UserInfo will be set and modification time is
+    // set in KeyArgs.
+    Assert.assertNotEquals(originalOmRequest, modifiedOmRequest);
+
+    Assert.assertTrue(modifiedOmRequest.getCopyKeyRequest()
+        .getToKeyArgs().getModificationTime() > 0);
+
+    return modifiedOmRequest;
+  }
+
+  /**
+   * Create OMRequest which encapsulates CopyKeyRequest.
+   * @return OMRequest
+   */
+  private OMRequest createCopyKeyRequest(String toKeyName, String uploadID,
+      int partNumber) {
+    return createCopyKeyRequest(bucketName, toKeyName, uploadID, partNumber);
+  }
+
+  private OMRequest createCopyKeyRequest(String toBucketName,
+      String toKeyName, String uploadID, int partNumber) {
+    KeyArgs keyArgs = KeyArgs.newBuilder().setKeyName(keyName)
+        .setVolumeName(volumeName).setBucketName(bucketName).build();
+
+    KeyArgs.Builder toKeyArgs = KeyArgs.newBuilder().setKeyName(toKeyName)
+        .setVolumeName(volumeName).setBucketName(toBucketName);
+    if (uploadID != null) {
+      toKeyArgs.setMultipartUploadID(uploadID)
+          .setMultipartNumber(partNumber)
+          .setIsMultipartKey(true);
+    }
+
+    CopyKeyRequest copyKeyRequest = CopyKeyRequest.newBuilder()
+        .setKeyArgs(keyArgs).setToKeyArgs(toKeyArgs).build();
+
+    return OMRequest.newBuilder()
+        .setClientId(UUID.randomUUID().toString())
+        .setCopyKeyRequest(copyKeyRequest)
+        .setCmdType(OzoneManagerProtocolProtos.Type.CopyKey).build();
+  }
+}
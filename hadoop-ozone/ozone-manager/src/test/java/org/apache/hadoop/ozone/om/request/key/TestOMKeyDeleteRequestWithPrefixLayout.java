@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.UUID;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DeleteKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeDirectoriesRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgePathRequest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests DeleteKey request of buckets with the prefix metadata layout, and
+ * the purge of the deleted directories.
+ */
+public class TestOMKeyDeleteRequestWithPrefixLayout extends TestOMKeyRequest {
+
+  private OmBucketInfo bucketInfo;
+  private OmKeyInfo dirA;
+  private OmKeyInfo dirB;
+  private String dirAKey;
+  private String dirBKey;
+  private String fileCKey;
+
+  /**
+   * Adds directories a and a/b, and file a/c.
+   */
+  @Before
+  public void setupPrefixLayout() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    bucketInfo = TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName,
+        bucketName, omMetadataManager);
+    dirA = TestOMRequestUtils.addPrefixLayoutEntryToTable(true, volumeName,
+        bucketName, bucketInfo.getObjectID(), "a", 1L, omMetadataManager);
+    dirB = TestOMRequestUtils.addPrefixLayoutEntryToTable(true, volumeName,
+        bucketName, dirA.getObjectID(), "b", 2L, omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutEntryToTable(false, volumeName,
+        bucketName, dirA.getObjectID(), "c", 3L, omMetadataManager);
+    dirAKey = omMetadataManager.getOzonePathKey(bucketInfo.getObjectID(),
+        "a");
+    dirBKey = omMetadataManager.getOzonePathKey(dirA.getObjectID(), "b");
+    fileCKey = omMetadataManager.getOzonePathKey(dirA.getObjectID(), "c");
+  }
+
+  @Test
+  public void testDeleteFile() throws Exception {
+    OMClientResponse omClientResponse = deleteKey("a/c", false, 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    commit(omClientResponse);
+
+    Assert.assertNull(omMetadataManager.getFileTable().get(fileCKey));
+    Assert.assertNotNull(omMetadataManager.getDeletedTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, "a/c")));
+  }
+
+  @Test
+  public void testDeleteNonEmptyDirectory() throws Exception {
+    OMClientResponse omClientResponse = deleteKey("a", false, 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.DIRECTORY_NOT_EMPTY,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertNotNull(omMetadataManager.getDirectoryTable().get(dirAKey));
+
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.KEY_NOT_FOUND,
+        deleteKey("x", true, 101L).getOMResponse().getStatus());
+  }
+
+  @Test
+  public void testDeleteDirectoryAndPurge() throws Exception {
+    OMClientResponse omClientResponse = deleteKey("a", true, 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    commit(omClientResponse);
+
+    // Only the directory entry is moved to the deleted directory table.
+    Assert.assertNull(omMetadataManager.getDirectoryTable().get(dirAKey));
+    String deletedDirA = omMetadataManager.getOzoneDeletePathKey(
+        dirA.getObjectID(), dirAKey);
+    Assert.assertEquals("a", omMetadataManager.getDeletedDirTable()
+        .get(deletedDirA).getKeyName());
+    Assert.assertNotNull(omMetadataManager.getFileTable().get(fileCKey));
+
+    // Purging the children moves the files to the deleted table, and the
+    // sub-directories to the deleted directory table.
+    omClientResponse = purge(PurgePathRequest.newBuilder()
+        .setDeletedDir(deletedDirA)
+        .addDeletedSubFiles(fileCKey)
+        .addMarkDeletedSubDirs(dirBKey)
+        .setPurgeDir(true).build(), 101L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    commit(omClientResponse);
+
+    Assert.assertNull(omMetadataManager.getFileTable().get(fileCKey));
+    Assert.assertNull(omMetadataManager.getDirectoryTable().get(dirBKey));
+    Assert.assertNull(
+        omMetadataManager.getDeletedDirTable().get(deletedDirA));
+    Assert.assertNotNull(omMetadataManager.getDeletedTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, "a/c")));
+    OmKeyInfo deletedDirB = omMetadataManager.getDeletedDirTable().get(
+        omMetadataManager.getOzoneDeletePathKey(dirB.getObjectID(), dirBKey));
+    Assert.assertEquals("a/b", deletedDirB.getKeyName());
+
+    // A repeated purge has no effect.
+    omClientResponse = purge(PurgePathRequest.newBuilder()
+        .setDeletedDir(deletedDirA)
+        .addDeletedSubFiles(fileCKey)
+        .setPurgeDir(true).build(), 102L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+  }
+
+  private OMClientResponse deleteKey(String deleteKeyName, boolean recursive,
+      long trxnLogIndex) throws Exception {
+    OMKeyDeleteRequestWithPrefixLayout request =
+        new OMKeyDeleteRequestWithPrefixLayout(
+            createDeleteKeyRequest(deleteKeyName, recursive));
+    request = new OMKeyDeleteRequestWithPrefixLayout(
+        request.preExecute(ozoneManager));
+    return request.validateAndUpdateCache(ozoneManager, trxnLogIndex,
+        ozoneManagerDoubleBufferHelper);
+  }
+
+  private OMClientResponse purge(PurgePathRequest purgePath,
+      long trxnLogIndex) {
+    OMRequest omRequest = OMRequest.newBuilder()
+        .setCmdType(OzoneManagerProtocolProtos.Type.PurgeDirectories)
+        .setPurgeDirectoriesRequest(PurgeDirectoriesRequest.newBuilder()
+            .addDeletedPath(purgePath))
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+    return new OMDirectoriesPurgeRequest(omRequest).validateAndUpdateCache(
+        ozoneManager, trxnLogIndex, ozoneManagerDoubleBufferHelper);
+  }
+
+  private void commit(OMClientResponse omClientResponse) throws Exception {
+    try (BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation()) {
+      omClientResponse.checkAndUpdateDB(omMetadataManager, batchOperation);
+      omMetadataManager.getStore().commitBatchOperation(batchOperation);
+    }
+  }
+
+  private OMRequest createDeleteKeyRequest(String deleteKeyName,
+      boolean recursive) {
+    KeyArgs keyArgs = KeyArgs.newBuilder().setBucketName(bucketName)
+        .setVolumeName(volumeName).setKeyName(deleteKeyName)
+        .setRecursive(recursive).build();
+
+    DeleteKeyRequest deleteKeyRequest =
+        DeleteKeyRequest.newBuilder().setKeyArgs(keyArgs).build();
+
+    return OMRequest.newBuilder().setDeleteKeyRequest(deleteKeyRequest)
+        .setCmdType(OzoneManagerProtocolProtos.Type.DeleteKey)
+        .setClientId(UUID.randomUUID().toString()).build();
+  }
+}
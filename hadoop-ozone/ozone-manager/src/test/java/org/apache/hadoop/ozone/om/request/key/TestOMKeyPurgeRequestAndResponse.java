@@ -20,19 +20,24 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
 import org.apache.hadoop.ozone.om.response.key.OMKeyPurgeResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DeletedKeys;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeKeysRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeKeysResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.SharedKeyBlocks;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
@@ -154,4 +159,65 @@ public void testValidateAndUpdateCache() throws Exception {
           deletedKey));
     }
   }
+
+  @Test
+  public void testPurgeReleasesSharedBlocks() throws Exception {
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    OmKeyInfo omKeyInfo = TestOMRequestUtils.createOmKeyInfo(volumeName,
+        bucketName, keyName, replicationType, replicationFactor);
+    TestOMRequestUtils.addKeyLocationInfo(omKeyInfo, 0, dataSize);
+    TestOMRequestUtils.addKeyToTable(false, false, omKeyInfo, clientID, 1L,
+        omMetadataManager);
+    String deletedKey = TestOMRequestUtils.deleteKey(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, keyName),
+        omMetadataManager, 2L);
+
+    // The block is shared with two other keys.
+    OmKeyLocationInfo location =
+        omKeyInfo.getLatestVersionLocations().getLocationList().get(0);
+    String blockKey = omMetadataManager.getBlockReferenceKey(
+        location.getContainerID(), location.getLocalID());
+    omMetadataManager.getBlockReferenceTable().put(blockKey, 2L);
+
+    OMRequest omRequest = createPurgeKeysRequest(
+        Collections.singletonList(deletedKey)).toBuilder()
+        .setPurgeKeysRequest(PurgeKeysRequest.newBuilder()
+            .addDeletedKeys(DeletedKeys.newBuilder()
+                .setVolumeName(volumeName)
+                .setBucketName(bucketName)
+                .addKeys(deletedKey))
+            .addSharedKeyBlocks(SharedKeyBlocks.newBuilder()
+                .setDeletedKey(deletedKey)
+                .addBlockIDs(location.getBlockID().getContainerBlockID()
+                    .getProtobuf())))
+        .build();
+
+    OMClientResponse omClientResponse =
+        new OMKeyPurgeRequest(preExecute(omRequest)).validateAndUpdateCache(
+            ozoneManager, 100L, ozoneManagerDoubleBufferHelper);
+    Assert.assertEquals(Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertEquals(Long.valueOf(1L),
+        omMetadataManager.getBlockReferenceTable().get(blockKey));
+    OMKeyPurgeResponse omKeyPurgeResponse =
+        (OMKeyPurgeResponse) omClientResponse;
+
+    // Repeating the purge of the same key does not release the block again.
+    omClientResponse =
+        new OMKeyPurgeRequest(preExecute(omRequest)).validateAndUpdateCache(
+            ozoneManager, 101L, ozoneManagerDoubleBufferHelper);
+    Assert.assertEquals(Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertEquals(Long.valueOf(1L),
+        omMetadataManager.getBlockReferenceTable().get(blockKey));
+
+    try (BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation()) {
+      omKeyPurgeResponse.addToDBBatch(omMetadataManager, batchOperation);
+      omMetadataManager.getStore().commitBatchOperation(batchOperation);
+    }
+    Assert.assertFalse(omMetadataManager.getDeletedTable().isExist(
+        deletedKey));
+  }
 }
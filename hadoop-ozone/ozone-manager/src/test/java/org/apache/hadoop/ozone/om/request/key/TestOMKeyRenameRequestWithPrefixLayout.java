@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.UUID;
+
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RenameKeyRequest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests RenameKey request of buckets with the prefix metadata layout.
+ */
+public class TestOMKeyRenameRequestWithPrefixLayout extends TestOMKeyRequest {
+
+  private OmBucketInfo bucketInfo;
+  private OmKeyInfo dirA;
+  private OmKeyInfo dirB;
+  private OmKeyInfo fileC;
+
+  /**
+   * Adds directories a, a/b and b, and file a/c.
+   */
+  @Before
+  public void setupPrefixLayout() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    bucketInfo = TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName,
+        bucketName, omMetadataManager);
+    dirA = TestOMRequestUtils.addPrefixLayoutEntryToTable(true, volumeName,
+        bucketName, bucketInfo.getObjectID(), "a", 1L, omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutEntryToTable(true, volumeName,
+        bucketName, dirA.getObjectID(), "b", 2L, omMetadataManager);
+    dirB = TestOMRequestUtils.addPrefixLayoutEntryToTable(true, volumeName,
+        bucketName, bucketInfo.getObjectID(), "b", 3L, omMetadataManager);
+    fileC = TestOMRequestUtils.addPrefixLayoutEntryToTable(false, volumeName,
+        bucketName, dirA.getObjectID(), "c", 4L, omMetadataManager);
+  }
+
+  @Test
+  public void testRenameDirectory() throws Exception {
+    OMClientResponse omClientResponse = renameKey("a", "b/d", 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    Assert.assertNull(omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(bucketInfo.getObjectID(), "a")));
+    OmKeyInfo renamed = omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(dirB.getObjectID(), "d"));
+    Assert.assertNotNull(renamed);
+    Assert.assertEquals("d", renamed.getKeyName());
+    Assert.assertEquals(dirA.getObjectID(), renamed.getObjectID());
+
+    // The children are moved along with the directory, as they are keyed
+    // by its object ID.
+    Assert.assertEquals(fileC.getObjectID(), omMetadataManager.getFileTable()
+        .get(omMetadataManager.getOzonePathKey(renamed.getObjectID(), "c"))
+        .getObjectID());
+  }
+
+  @Test
+  public void testRenameFile() throws Exception {
+    OMClientResponse omClientResponse = renameKey("a/c", "b/c", 100L);
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    Assert.assertNull(omMetadataManager.getFileTable().get(
+        omMetadataManager.getOzonePathKey(dirA.getObjectID(), "c")));
+    Assert.assertNotNull(omMetadataManager.getFileTable().get(
+        omMetadataManager.getOzonePathKey(dirB.getObjectID(), "c")));
+  }
+
+  @Test
+  public void testRenameFailures() throws Exception {
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.KEY_NOT_FOUND,
+        renameKey("x", "y", 100L).getOMResponse().getStatus());
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.KEY_ALREADY_EXISTS,
+        renameKey("a/b", "b", 101L).getOMResponse().getStatus());
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.DIRECTORY_NOT_FOUND,
+        renameKey("a", "x/a", 102L).getOMResponse().getStatus());
+    Assert.assertEquals(OzoneManagerProtocolProtos.Status.KEY_RENAME_ERROR,
+        renameKey("a", "a/b/a", 103L).getOMResponse().getStatus());
+
+    // Nothing is renamed.
+    Assert.assertNotNull(omMetadataManager.getDirectoryTable().get(
+        omMetadataManager.getOzonePathKey(bucketInfo.getObjectID(), "a")));
+  }
+
+  private OMClientResponse renameKey(String fromKeyName, String toKeyName,
+      long trxnLogIndex) throws Exception {
+    OMKeyRenameRequestWithPrefixLayout request =
+        new OMKeyRenameRequestWithPrefixLayout(
+            createRenameKeyRequest(fromKeyName, toKeyName));
+    request = new OMKeyRenameRequestWithPrefixLayout(
+        request.preExecute(ozoneManager));
+    return request.validateAndUpdateCache(ozoneManager, trxnLogIndex,
+        ozoneManagerDoubleBufferHelper);
+  }
+
+  private OMRequest createRenameKeyRequest(String fromKeyName,
+      String toKeyName) {
+    KeyArgs keyArgs = KeyArgs.newBuilder().setKeyName(fromKeyName)
+        .setVolumeName(volumeName).setBucketName(bucketName).build();
+
+    RenameKeyRequest renameKeyRequest = RenameKeyRequest.newBuilder()
+        .setKeyArgs(keyArgs).setToKeyName(toKeyName).build();
+
+    return OMRequest.newBuilder()
+        .setClientId(UUID.randomUUID().toString())
+        .setRenameKeyRequest(renameKeyRequest)
+        .setCmdType(OzoneManagerProtocolProtos.Type.RenameKey).build();
+  }
+}
@@ -119,6 +119,30 @@ public void testKeysDeleteRequestFail() throws Exception {
 
   }
 
+  @Test
+  public void testKeysDeleteRequestWithPrefixLayout() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    omRequest = OMRequest.newBuilder()
+        .setClientId(UUID.randomUUID().toString())
+        .setCmdType(DeleteKeys)
+        .setDeleteKeysRequest(DeleteKeysRequest.newBuilder()
+            .setDeleteKeys(DeleteKeyArgs.newBuilder()
+                .setBucketName(bucketName).setVolumeName(volumeName)
+                .addKeys(keyName))).build();
+
+    OMClientResponse omClientResponse = new OMKeysDeleteRequest(omRequest)
+        .validateAndUpdateCache(ozoneManager, 0L,
+            ozoneManagerDoubleBufferHelper);
+
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.NOT_SUPPORTED_OPERATION,
+        omClientResponse.getOMResponse().getStatus());
+    Assert.assertEquals(1, omClientResponse.getOMResponse()
+        .getDeleteKeysResponse().getUnDeletedKeys().getKeysCount());
+  }
+
   private void createPreRequisites() throws Exception {
 
     deleteKeyList = new ArrayList<>();
@@ -108,6 +108,33 @@ public void testKeysRenameRequestFail() throws Exception {
     Assert.assertEquals("testKey", unRenamedKeys.getFromKeyName());
   }
 
+  @Test
+  public void testKeysRenameRequestWithPrefixLayout() throws Exception {
+    TestOMRequestUtils.addVolumeToDB(volumeName, omMetadataManager);
+    TestOMRequestUtils.addPrefixLayoutBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+    RenameKeysArgs.Builder renameKeyArgs = RenameKeysArgs.newBuilder()
+        .setVolumeName(volumeName)
+        .setBucketName(bucketName)
+        .addRenameKeysMap(RenameKeysMap.newBuilder()
+            .setFromKeyName(keyName).setToKeyName("toKey"));
+    OMRequest omRequest = OMRequest.newBuilder()
+        .setClientId(UUID.randomUUID().toString())
+        .setRenameKeysRequest(RenameKeysRequest.newBuilder()
+            .setRenameKeysArgs(renameKeyArgs))
+        .setCmdType(OzoneManagerProtocolProtos.Type.RenameKeys).build();
+
+    OMClientResponse omKeysRenameResponse =
+        new OMKeysRenameRequest(omRequest).validateAndUpdateCache(
+            ozoneManager, 100L, ozoneManagerDoubleBufferHelper);
+
+    Assert.assertEquals(
+        OzoneManagerProtocolProtos.Status.NOT_SUPPORTED_OPERATION,
+        omKeysRenameResponse.getOMResponse().getStatus());
+    Assert.assertNull(omMetadataManager.getKeyTable().get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, "toKey")));
+  }
+
   /**
    * Create OMRequest which encapsulates RenameKeyRequest.
    *
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.protocolPB;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hadoop.hdds.utils.ProtocolMessageMetrics;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.InfoVolumeRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.S3Authentication;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.protocol.RaftPeerId;
+
+import com.google.protobuf.ServiceException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.VOLUME_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer.RaftServerStatus.LEADER_AND_READY;
+import static org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer.RaftServerStatus.NOT_LEADER;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the S3 authentication handling of
+ * {@link OzoneManagerProtocolServerSideTranslatorPB}.
+ */
+public class TestOzoneManagerProtocolServerSideTranslatorPB {
+
+  private static final S3Authentication S3_AUTH = S3Authentication.newBuilder()
+      .setAccessId("s3user")
+      .setSignature("signature")
+      .setStringToSign("stringToSign")
+      .build();
+
+  private OzoneManager ozoneManager;
+  private OzoneManagerRatisServer ratisServer;
+  private OzoneManagerProtocolServerSideTranslatorPB translator;
+  private final AtomicReference<S3Authentication> s3AuthDuringRequest =
+      new AtomicReference<>();
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    ozoneManager = mock(OzoneManager.class);
+    ratisServer = mock(OzoneManagerRatisServer.class);
+    when(ratisServer.checkLeaderStatus()).thenReturn(LEADER_AND_READY);
+    when(ratisServer.getRaftPeerId()).thenReturn(RaftPeerId.valueOf("om1"));
+    translator = new OzoneManagerProtocolServerSideTranslatorPB(ozoneManager,
+        ratisServer, mock(ProtocolMessageMetrics.class), true, 0);
+  }
+
+  @After
+  public void tearDown() {
+    OzoneManager.setS3Auth(null);
+  }
+
+  @Test
+  public void testS3AuthClearedAfterRequest() throws Exception {
+    OmVolumeArgs volumeArgs = OmVolumeArgs.newBuilder()
+        .setCreationTime(Time.now())
+        .setVolume("vol")
+        .setAdminName("admin")
+        .setOwnerName("s3user")
+        .build();
+    when(ozoneManager.getVolumeInfo(anyString())).thenAnswer(invocation -> {
+      s3AuthDuringRequest.set(OzoneManager.getS3Auth());
+      return volumeArgs;
+    });
+
+    OMResponse response = translator.submitRequest(null, infoVolumeRequest());
+
+    Assert.assertEquals(Status.OK, response.getStatus());
+    Assert.assertEquals(S3_AUTH, s3AuthDuringRequest.get());
+    Assert.assertNull(OzoneManager.getS3Auth());
+  }
+
+  @Test
+  public void testS3AuthClearedAfterFailedRequest() throws Exception {
+    when(ozoneManager.getVolumeInfo(anyString())).thenAnswer(invocation -> {
+      s3AuthDuringRequest.set(OzoneManager.getS3Auth());
+      throw new OMException("Volume not found", VOLUME_NOT_FOUND);
+    });
+
+    OMResponse response = translator.submitRequest(null, infoVolumeRequest());
+
+    Assert.assertEquals(Status.VOLUME_NOT_FOUND, response.getStatus());
+    Assert.assertEquals(S3_AUTH, s3AuthDuringRequest.get());
+    Assert.assertNull(OzoneManager.getS3Auth());
+  }
+
+  @Test
+  public void testS3AuthClearedAfterException() throws Exception {
+    when(ratisServer.checkLeaderStatus()).thenAnswer(invocation -> {
+      s3AuthDuringRequest.set(OzoneManager.getS3Auth());
+      return NOT_LEADER;
+    });
+
+    try {
+      translator.submitRequest(null, infoVolumeRequest());
+      Assert.fail("Request should fail on a follower");
+    } catch (ServiceException e) {
+      // expected
+    }
+
+    Assert.assertEquals(S3_AUTH, s3AuthDuringRequest.get());
+    Assert.assertNull(OzoneManager.getS3Auth());
+  }
+
+  private static OMRequest infoVolumeRequest() {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.InfoVolume)
+        .setClientId("client")
+        .setInfoVolumeRequest(
+            InfoVolumeRequest.newBuilder().setVolumeName("vol"))
+        .setS3Authentication(S3_AUTH)
+        .build();
+  }
+}
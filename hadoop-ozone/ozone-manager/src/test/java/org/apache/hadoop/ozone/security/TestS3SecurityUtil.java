@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.security;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.server.ServerUtils;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.S3SecretManager;
+import org.apache.hadoop.ozone.om.S3SecretManagerImpl;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.S3Authentication;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_RATIS_ENABLE_KEY;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.INVALID_TOKEN;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for {@link S3SecurityUtil}.
+ */
+public class TestS3SecurityUtil {
+
+  private static final String ACCESS_ID = "testuser1";
+  private static final String SIGNATURE = "56ec73ba1974f8feda8365c3caef89c5" +
+      "d4a688d5f9baccf4765f46a14cd745ad";
+  private static final String STRING_TO_SIGN = "AWS4-HMAC-SHA256\n" +
+      "20190221T002037Z\n" +
+      "20190221/us-west-1/s3/aws4_request\n" +
+      "c297c080cce4e0927779823d3fd1f5cae71481a8f7dfc7e18d91851294efc47d";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private OzoneDelegationTokenSecretManager secretManager;
+  private OzoneManager ozoneManager;
+
+  @Before
+  public void setUp() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OZONE_OM_RATIS_ENABLE_KEY, false);
+    ServerUtils.setOzoneMetaDirPath(conf, folder.newFolder().toString());
+    OMMetadataManager metadataManager = new OmMetadataManagerImpl(conf);
+    S3SecretManager s3SecretManager =
+        new S3SecretManagerImpl(conf, metadataManager) {
+          @Override
+          public String getS3UserSecretString(String awsAccessKey) {
+            return ACCESS_ID.equals(awsAccessKey) ? "dbaksbzljandlkandlsd"
+                : null;
+          }
+        };
+    secretManager = new OzoneDelegationTokenSecretManager.Builder()
+        .setConf(conf)
+        .setTokenMaxLifetime(1000 * 20)
+        .setTokenRenewInterval(1000 * 20)
+        .setTokenRemoverScanInterval(1000 * 20)
+        .setService(new Text("localhost"))
+        .setS3SecretManager(s3SecretManager)
+        .setOmServiceId(OzoneConsts.OM_SERVICE_ID_DEFAULT)
+        .build();
+
+    ozoneManager = mock(OzoneManager.class);
+    when(ozoneManager.isSecurityEnabled()).thenReturn(true);
+    when(ozoneManager.getDelegationTokenMgr()).thenReturn(secretManager);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    secretManager.stop();
+  }
+
+  @Test
+  public void testValidSignature() throws Exception {
+    S3SecurityUtil.validateS3Credential(
+        s3Auth(ACCESS_ID, SIGNATURE), ozoneManager);
+  }
+
+  @Test
+  public void testBadSignature() {
+    assertInvalid(s3Auth(ACCESS_ID, SIGNATURE.replace('5', '6')));
+  }
+
+  @Test
+  public void testUnknownAccessId() {
+    assertInvalid(s3Auth("testuser2", SIGNATURE));
+  }
+
+  @Test
+  public void testSecurityDisabled() throws Exception {
+    when(ozoneManager.isSecurityEnabled()).thenReturn(false);
+
+    // the access id is trusted without checking the signature
+    S3SecurityUtil.validateS3Credential(
+        s3Auth("testuser2", "invalid"), ozoneManager);
+    verify(ozoneManager, never()).getDelegationTokenMgr();
+  }
+
+  private void assertInvalid(S3Authentication s3Auth) {
+    try {
+      S3SecurityUtil.validateS3Credential(s3Auth, ozoneManager);
+      Assert.fail("Signature of " + s3Auth.getAccessId() + " is not valid");
+    } catch (OMException ex) {
+      Assert.assertEquals(INVALID_TOKEN, ex.getResult());
+    }
+  }
+
+  private static S3Authentication s3Auth(String accessId, String signature) {
+    return S3Authentication.newBuilder()
+        .setAccessId(accessId)
+        .setSignature(signature)
+        .setStringToSign(STRING_TO_SIGN)
+        .build();
+  }
+}
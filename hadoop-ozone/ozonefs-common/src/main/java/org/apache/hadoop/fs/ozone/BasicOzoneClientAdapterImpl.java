@@ -51,6 +51,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.om.helpers.OzoneFSUtils;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.security.OzoneTokenIdentifier;
 import org.apache.hadoop.security.token.Token;
@@ -169,6 +170,11 @@ public short getDefaultReplication() {
     return (short) replicationFactor.getValue();
   }
 
+  @Override
+  public boolean isPrefixLayout() {
+    return OzoneFSUtils.isPrefixLayout(bucket.getMetadata());
+  }
+
   @Override
   public void close() throws IOException {
     ozoneClient.close();
@@ -273,6 +279,27 @@ public boolean deleteObject(String keyName) {
     }
   }
 
+  /**
+   * Helper method to delete a directory with its contents, of a bucket with
+   * the prefix metadata layout, by a single request.
+   *
+   * @param keyName key name to be deleted
+   * @param recursive whether a non-empty directory is deleted
+   * @return true if the key is deleted, false otherwise
+   */
+  @Override
+  public boolean deleteObject(String keyName, boolean recursive) {
+    LOG.trace("issuing delete for key {}, recursive {}", keyName, recursive);
+    try {
+      incrementCounter(Statistic.OBJECTS_DELETED, 1);
+      bucket.deleteDirectory(keyName, recursive);
+      return true;
+    } catch (IOException ioe) {
+      LOG.error("delete key failed {}", ioe.getMessage());
+      return false;
+    }
+  }
+
   /**
    * Helper method to delete an object specified by key name in bucket.
    *
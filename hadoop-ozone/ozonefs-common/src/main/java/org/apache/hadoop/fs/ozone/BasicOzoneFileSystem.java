@@ -397,6 +397,13 @@ public boolean rename(Path src, Path dst) throws IOException {
         return false;
       }
     }
+    if (adapter.isPrefixLayout()) {
+      // A directory is renamed along with its contents by renaming its own
+      // entry only.
+      LOG.trace("rename from:{} to:{}", srcPath, dstPath);
+      adapter.renameKey(pathToKey(src), pathToKey(dst));
+      return true;
+    }
     RenameIterator iterator = new RenameIterator(src, dst);
     boolean result = iterator.iterate();
     if (result) {
@@ -499,13 +506,19 @@ public boolean delete(Path f, boolean recursive) throws IOException {
     if (status.isDirectory()) {
       LOG.debug("delete: Path is a directory: {}", f);
 
-      result = innerDelete(f, recursive);
+      if (adapter.isPrefixLayout()) {
+        result = deleteDirectory(f, recursive);
+      } else {
+        result = innerDelete(f, recursive);
+      }
     } else {
       LOG.debug("delete: Path is a file: {}", f);
       result = adapter.deleteObject(key);
     }
 
-    if (result) {
+    // Parent directories of the buckets with the prefix metadata layout are
+    // real entries, which are not removed along with their children.
+    if (result && !adapter.isPrefixLayout()) {
       // If this delete operation removes all files/directories from the
       // parent directory, then an empty parent directory must be created.
       createFakeParentDirectory(f);
@@ -514,6 +527,27 @@ public boolean delete(Path f, boolean recursive) throws IOException {
     return result;
   }
 
+  /**
+   * Deletes a directory of a bucket with the prefix metadata layout. Its
+   * contents are deleted by OM along with it, so no listing is needed for a
+   * recursive delete.
+   *
+   * @param f directory path to be deleted
+   * @return true if the directory is deleted, false otherwise
+   * @throws IOException
+   */
+  private boolean deleteDirectory(Path f, boolean recursive)
+      throws IOException {
+    if (!recursive && listStatus(f).length != 0) {
+      throw new PathIsNotEmptyDirectoryException(f.toString());
+    }
+    if (f.isRoot()) {
+      LOG.warn("Cannot delete root directory.");
+      return false;
+    }
+    return adapter.deleteObject(pathToKey(f), recursive);
+  }
+
   /**
    * Create a fake parent directory key if it does not already exist and no
    * other child of this parent directory exists.
@@ -279,6 +279,15 @@ public short getDefaultReplication() {
     return (short) replicationFactor.getValue();
   }
 
+  /**
+   * ofs does not use the single request rename and delete of the buckets
+   * with the prefix metadata layout.
+   */
+  @Override
+  public boolean isPrefixLayout() {
+    return false;
+  }
+
   @Override
   public void close() throws IOException {
     ozoneClient.close();
@@ -459,6 +468,11 @@ public boolean deleteObject(String path) {
     }
   }
 
+  @Override
+  public boolean deleteObject(String path, boolean recursive) {
+    return deleteObject(path);
+  }
+
   /**
    * Helper function to check if the list of key paths are in the same volume
    * and same bucket.
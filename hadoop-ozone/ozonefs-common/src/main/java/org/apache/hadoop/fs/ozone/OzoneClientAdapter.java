@@ -53,6 +53,8 @@ OzoneFSOutputStream createFile(String key, short replication,
 
   boolean deleteObject(String keyName);
 
+  boolean deleteObject(String keyName, boolean recursive);
+
   boolean deleteObjects(List<String> keyName);
 
   Iterator<BasicKeyInfo> listKeys(String pathKey) throws IOException;
@@ -72,6 +74,8 @@ Token<OzoneTokenIdentifier> getDelegationToken(String renewer)
 
   short getDefaultReplication();
 
+  boolean isPrefixLayout();
+
   FileStatusAdapter getFileStatus(String key, URI uri,
       Path qualifiedPath, String userName) throws IOException;
 
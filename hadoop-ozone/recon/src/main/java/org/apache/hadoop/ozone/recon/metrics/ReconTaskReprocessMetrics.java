@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.recon.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.util.Time;
+
+/**
+ * Metrics source to report the progress of the reprocess of a Recon task,
+ * which iterates the OM key table split into key ranges.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Recon Task Reprocess Metrics", context = OzoneConsts.OZONE)
+public final class ReconTaskReprocessMetrics implements MetricsSource {
+
+  private static final String SOURCE_PREFIX =
+      ReconTaskReprocessMetrics.class.getSimpleName();
+
+  private final String source;
+  private final LongAdder keysProcessed = new LongAdder();
+  private final AtomicInteger rangesCompleted = new AtomicInteger();
+  private volatile int rangesTotal;
+  private volatile boolean running;
+  private volatile long startTime;
+  private volatile long lastDuration;
+
+  private ReconTaskReprocessMetrics(String taskName) {
+    this.source = SOURCE_PREFIX + "-" + taskName;
+  }
+
+  /**
+   * Create and register metrics for the given task. Metrics of a previous
+   * instance of the task are replaced.
+   */
+  public static synchronized ReconTaskReprocessMetrics create(
+      String taskName) {
+    ReconTaskReprocessMetrics metrics =
+        new ReconTaskReprocessMetrics(taskName);
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(metrics.source);
+    return ms.register(metrics.source,
+        "Reprocess metrics of Recon task " + taskName, metrics);
+  }
+
+  public void unRegister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(source);
+  }
+
+  public void start(int ranges) {
+    keysProcessed.reset();
+    rangesCompleted.set(0);
+    rangesTotal = ranges;
+    startTime = Time.monotonicNow();
+    running = true;
+  }
+
+  public void finish() {
+    lastDuration = Time.monotonicNow() - startTime;
+    running = false;
+  }
+
+  public void incrKeysProcessed() {
+    keysProcessed.increment();
+  }
+
+  public void incrRangesCompleted() {
+    rangesCompleted.incrementAndGet();
+  }
+
+  public long getKeysProcessed() {
+    return keysProcessed.sum();
+  }
+
+  public int getRangesCompleted() {
+    return rangesCompleted.get();
+  }
+
+  public int getRangesTotal() {
+    return rangesTotal;
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    collector.addRecord(source)
+        .addGauge(Interns.info("ReprocessRunning",
+            "Whether the task is being reprocessed"), running ? 1 : 0)
+        .addGauge(Interns.info("KeysProcessed",
+            "Number of keys processed by the current or last reprocess"),
+            getKeysProcessed())
+        .addGauge(Interns.info("RangesTotal",
+            "Number of key ranges of the current or last reprocess"),
+            rangesTotal)
+        .addGauge(Interns.info("RangesCompleted",
+            "Number of key ranges processed by the current or last "
+                + "reprocess"), getRangesCompleted())
+        .addGauge(Interns.info("LastReprocessDuration",
+            "Duration of the last completed reprocess in milliseconds"),
+            lastDuration);
+  }
+}
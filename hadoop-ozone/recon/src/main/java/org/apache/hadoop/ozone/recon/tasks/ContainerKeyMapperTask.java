@@ -28,10 +28,13 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
@@ -55,11 +58,15 @@ public class ContainerKeyMapperTask implements ReconOmTask {
       LoggerFactory.getLogger(ContainerKeyMapperTask.class);
 
   private ContainerDBServiceProvider containerDBServiceProvider;
+  private final KeyTableScanner keyTableScanner;
 
   @Inject
   public ContainerKeyMapperTask(ContainerDBServiceProvider
-                                    containerDBServiceProvider) {
+                                    containerDBServiceProvider,
+                                OzoneConfiguration configuration) {
     this.containerDBServiceProvider = containerDBServiceProvider;
+    this.keyTableScanner = new KeyTableScanner(getTaskName(),
+        configuration.getObject(ReconTaskConfig.class).getReprocessThreads());
   }
 
   /**
@@ -68,7 +75,6 @@ public ContainerKeyMapperTask(ContainerDBServiceProvider
    */
   @Override
   public Pair<String, Boolean> reprocess(OMMetadataManager omMetadataManager) {
-    long omKeyCount = 0;
     try {
       LOG.info("Starting a 'reprocess' run of ContainerKeyMapperTask.");
       Instant start = Instant.now();
@@ -76,21 +82,30 @@ public Pair<String, Boolean> reprocess(OMMetadataManager omMetadataManager) {
       // initialize new container DB
       containerDBServiceProvider.initNewContainerDB(new HashMap<>());
 
-      Table<String, OmKeyInfo> omKeyInfoTable = omMetadataManager.getKeyTable();
-      try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-               keyIter = omKeyInfoTable.iterator()) {
-        while (keyIter.hasNext()) {
-          Table.KeyValue<String, OmKeyInfo> kv = keyIter.next();
-          OmKeyInfo omKeyInfo = kv.getValue();
-          writeOMKeyToContainerDB(kv.getKey(), omKeyInfo);
-          omKeyCount++;
-        }
+      // Key counts of the containers are summed up once all keys are
+      // written, as the ranges of the key table are written in parallel.
+      List<Map<Long, Long>> rangeKeyCounts = keyTableScanner.scan(
+          omMetadataManager, HashMap::new, this::writeOMKeyToNewContainerDB);
+      Map<Long, Long> containerKeyCounts = new HashMap<>();
+      for (Map<Long, Long> keyCounts : rangeKeyCounts) {
+        keyCounts.forEach((containerId, keyCount) ->
+            containerKeyCounts.merge(containerId, keyCount, Long::sum));
+      }
+      for (Map.Entry<Long, Long> entry : containerKeyCounts.entrySet()) {
+        containerDBServiceProvider.storeContainerKeyCount(entry.getKey(),
+            entry.getValue());
       }
+      if (!containerKeyCounts.isEmpty()) {
+        containerDBServiceProvider
+            .incrementContainerCountBy(containerKeyCounts.size());
+      }
+
       LOG.info("Completed 'reprocess' of ContainerKeyMapperTask.");
       Instant end = Instant.now();
       long duration = Duration.between(start, end).toMillis();
       LOG.info("It took me {} seconds to process {} keys.",
-          (double) duration / 1000.0, omKeyCount);
+          (double) duration / 1000.0,
+          keyTableScanner.getMetrics().getKeysProcessed());
     } catch (IOException ioEx) {
       LOG.error("Unable to populate Container Key Prefix data in Recon DB. ",
           ioEx);
@@ -197,6 +212,37 @@ private void  deleteOMKeyFromContainerDB(String key)
     }
   }
 
+  /**
+   * Write an OM key to the container DB created by reprocess. Each key is
+   * only written once, so the number of keys of its containers is counted
+   * in memory, to be stored when all keys are written.
+   *
+   * @param containerKeyCounts containerID -> no. of keys written so far
+   * @param key key String
+   * @param omKeyInfo omKeyInfo value
+   * @throws IOException if unable to write to recon DB.
+   */
+  private void writeOMKeyToNewContainerDB(Map<Long, Long> containerKeyCounts,
+      String key, OmKeyInfo omKeyInfo) throws IOException {
+    Set<ContainerKeyPrefix> containerKeyPrefixes = new HashSet<>();
+    for (OmKeyLocationInfoGroup omKeyLocationInfoGroup : omKeyInfo
+        .getKeyLocationVersions()) {
+      long keyVersion = omKeyLocationInfoGroup.getVersion();
+      for (OmKeyLocationInfo omKeyLocationInfo : omKeyLocationInfoGroup
+          .getLocationList()) {
+        long containerId = omKeyLocationInfo.getContainerID();
+        ContainerKeyPrefix containerKeyPrefix = new ContainerKeyPrefix(
+            containerId, key, keyVersion);
+        // blocks of a key version in the same container are mapped once
+        if (containerKeyPrefixes.add(containerKeyPrefix)) {
+          containerDBServiceProvider.storeContainerKeyMapping(
+              containerKeyPrefix, 1);
+          containerKeyCounts.merge(containerId, 1L, Long::sum);
+        }
+      }
+    }
+  }
+
   /**
    * Write an OM key to container DB and update containerID -> no. of keys
    * count.
@@ -21,10 +21,9 @@
 import com.google.inject.Inject;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
-import org.apache.hadoop.hdds.utils.db.Table;
-import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.hadoop.ozone.recon.schema.UtilizationSchemaDefinition;
 import org.hadoop.ozone.recon.schema.tables.daos.FileCountBySizeDao;
 import org.hadoop.ozone.recon.schema.tables.pojos.FileCountBySize;
@@ -38,6 +37,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.KEY_TABLE;
@@ -56,13 +56,17 @@ public class FileSizeCountTask implements ReconOmTask {
   private static final long MAX_FILE_SIZE_UPPER_BOUND = 1125899906842624L;
   private FileCountBySizeDao fileCountBySizeDao;
   private DSLContext dslContext;
+  private final KeyTableScanner keyTableScanner;
 
   @Inject
   public FileSizeCountTask(FileCountBySizeDao fileCountBySizeDao,
                            UtilizationSchemaDefinition
-                               utilizationSchemaDefinition) {
+                               utilizationSchemaDefinition,
+                           OzoneConfiguration configuration) {
     this.fileCountBySizeDao = fileCountBySizeDao;
     this.dslContext = utilizationSchemaDefinition.getDSLContext();
+    this.keyTableScanner = new KeyTableScanner(getTaskName(),
+        configuration.getObject(ReconTaskConfig.class).getReprocessThreads());
   }
 
   private static int nextClosestPowerIndexOfTwo(long dataSize) {
@@ -83,13 +87,14 @@ private static int nextClosestPowerIndexOfTwo(long dataSize) {
    */
   @Override
   public Pair<String, Boolean> reprocess(OMMetadataManager omMetadataManager) {
-    Table<String, OmKeyInfo> omKeyInfoTable = omMetadataManager.getKeyTable();
     Map<FileSizeCountKey, Long> fileSizeCountMap = new HashMap<>();
-    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-        keyIter = omKeyInfoTable.iterator()) {
-      while (keyIter.hasNext()) {
-        Table.KeyValue<String, OmKeyInfo> kv = keyIter.next();
-        handlePutKeyEvent(kv.getValue(), fileSizeCountMap);
+    try {
+      List<Map<FileSizeCountKey, Long>> rangeCounts = keyTableScanner.scan(
+          omMetadataManager, HashMap::new,
+          (counts, key, omKeyInfo) -> handlePutKeyEvent(omKeyInfo, counts));
+      for (Map<FileSizeCountKey, Long> counts : rangeCounts) {
+        counts.forEach((key, count) ->
+            fileSizeCountMap.merge(key, count, Long::sum));
       }
     } catch (IOException ioEx) {
       LOG.error("Unable to populate File Size Count in Recon DB. ", ioEx);
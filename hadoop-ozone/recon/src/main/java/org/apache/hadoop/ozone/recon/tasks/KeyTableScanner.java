@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.tasks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.recon.metrics.ReconTaskReprocessMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Iterates the key table of the OM DB for the reprocess of a Recon task,
+ * split into key ranges which are processed in parallel.
+ *
+ * The key table is split at the keys of the buckets, and inside each bucket
+ * at keys sampled by seeking to key names starting with characters spread
+ * over letters and digits, so that a large bucket is also processed by
+ * several threads. Sampling only costs a few seeks per bucket, but the
+ * ranges of a bucket are only balanced if its key names are spread over
+ * these characters. Each range is processed with its own state, created by
+ * the task and returned to it to be merged once all ranges are processed,
+ * so that the handler of the keys needs no synchronization.
+ */
+public class KeyTableScanner {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(KeyTableScanner.class);
+
+  private static final Comparator<byte[]> KEY_COMPARATOR =
+      UnsignedBytes.lexicographicalComparator();
+
+  /**
+   * First characters of the key names at which buckets are split.
+   */
+  private static final String SPLIT_CHARS =
+      "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+  private final String taskName;
+  private final int threads;
+  private final ReconTaskReprocessMetrics metrics;
+
+  /**
+   * Handles a key of the key table, updating the state of its range.
+   *
+   * @param <T> type of the state of a range
+   */
+  @FunctionalInterface
+  public interface KeyHandler<T> {
+    void handle(T state, String key, OmKeyInfo keyInfo) throws IOException;
+  }
+
+  public KeyTableScanner(String taskName, int threads) {
+    Preconditions.checkArgument(threads > 0,
+        "Number of reprocess threads should be positive");
+    this.taskName = taskName;
+    this.threads = threads;
+    this.metrics = ReconTaskReprocessMetrics.create(taskName);
+  }
+
+  public ReconTaskReprocessMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Passes each key of the key table to the handler.
+   *
+   * @param omMetadataManager OM Metadata instance.
+   * @param stateFactory creates the state of a range
+   * @param handler handles the keys of a range
+   * @return states of all ranges, in the order of the ranges
+   * @throws IOException if the key table could not be read, or the handler
+   * failed
+   */
+  public <T> List<T> scan(OMMetadataManager omMetadataManager,
+      Supplier<T> stateFactory, KeyHandler<T> handler) throws IOException {
+    Table<String, OmKeyInfo> keyTable = omMetadataManager.getKeyTable();
+    List<String> splitKeys = threads > 1
+        ? getSplitKeys(omMetadataManager) : new ArrayList<>();
+    int ranges = splitKeys.size() + 1;
+    metrics.start(ranges);
+    try {
+      List<T> states = new ArrayList<>(ranges);
+      if (ranges == 1) {
+        T state = stateFactory.get();
+        scanRange(keyTable, null, null, state, handler);
+        states.add(state);
+      } else {
+        scanParallel(keyTable, splitKeys, stateFactory, handler, states);
+      }
+      LOG.info("Processed {} keys of the key table in {} ranges for {}.",
+          metrics.getKeysProcessed(), ranges, taskName);
+      return states;
+    } finally {
+      metrics.finish();
+    }
+  }
+
+  private <T> void scanParallel(Table<String, OmKeyInfo> keyTable,
+      List<String> splitKeys, Supplier<T> stateFactory,
+      KeyHandler<T> handler, List<T> states) throws IOException {
+    int ranges = splitKeys.size() + 1;
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(threads, ranges), new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat(taskName + "-Reprocess-%d").build());
+    try {
+      List<Future<T>> futures = new ArrayList<>(ranges);
+      for (int i = 0; i < ranges; i++) {
+        String start = i == 0 ? null : splitKeys.get(i - 1);
+        String end = i == ranges - 1 ? null : splitKeys.get(i);
+        futures.add(executor.submit(() -> {
+          T state = stateFactory.get();
+          scanRange(keyTable, start, end, state, handler);
+          return state;
+        }));
+      }
+      for (Future<T> future : futures) {
+        states.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while processing key table of "
+          + taskName, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Unable to process key table of " + taskName,
+          e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Passes the keys from start (inclusive) to end (exclusive) to the
+   * handler. Null bounds stand for the first and the last key of the table.
+   */
+  private <T> void scanRange(Table<String, OmKeyInfo> keyTable, String start,
+      String end, T state, KeyHandler<T> handler) throws IOException {
+    // compared the same way as by RocksDB, not as Java strings
+    byte[] endKey = end == null ? null : end.getBytes(UTF_8);
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+             keyIter = keyTable.iterator()) {
+      if (start != null) {
+        keyIter.seek(start);
+      }
+      while (keyIter.hasNext()) {
+        Table.KeyValue<String, OmKeyInfo> kv = keyIter.next();
+        String key = kv.getKey();
+        if (endKey != null
+            && KEY_COMPARATOR.compare(key.getBytes(UTF_8), endKey) >= 0) {
+          break;
+        }
+        handler.handle(state, key, kv.getValue());
+        metrics.incrKeysProcessed();
+      }
+    }
+    metrics.incrRangesCompleted();
+  }
+
+  /**
+   * @return keys of the buckets and keys sampled inside the buckets, in the
+   * order of the DB.
+   */
+  private List<String> getSplitKeys(OMMetadataManager omMetadataManager)
+      throws IOException {
+    SortedSet<String> splitKeys = new TreeSet<>((a, b) ->
+        KEY_COMPARATOR.compare(a.getBytes(UTF_8), b.getBytes(UTF_8)));
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmBucketInfo>>
+             bucketIter = omMetadataManager.getBucketTable().iterator();
+         TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+             keyIter = omMetadataManager.getKeyTable().iterator()) {
+      while (bucketIter.hasNext()) {
+        String bucketKey = bucketIter.next().getKey();
+        splitKeys.add(bucketKey);
+        String firstKey = seekKey(keyIter, bucketKey);
+        for (int i = 0; i < threads; i++) {
+          char splitChar = SPLIT_CHARS.charAt(
+              i * SPLIT_CHARS.length() / threads);
+          String key = seekKey(keyIter, bucketKey + OM_KEY_PREFIX + splitChar);
+          // the range up to the first key after the bucket key is empty
+          if (key != null && !key.equals(firstKey)) {
+            splitKeys.add(key);
+          }
+        }
+      }
+    }
+    return new ArrayList<>(splitKeys);
+  }
+
+  /**
+   * @return the first key of the table at or after the given key, null if
+   * there is none.
+   */
+  private static String seekKey(
+      TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+          keyIter, String key) throws IOException {
+    Table.KeyValue<String, OmKeyInfo> kv = keyIter.seek(key);
+    return kv == null ? null : kv.getKey();
+  }
+}
@@ -66,4 +66,24 @@ public void setMissingContainerTaskInterval(Duration interval) {
     this.missingContainerTaskInterval = interval.toMillis();
   }
 
+  @Config(key = "reprocess.threads",
+      type = ConfigType.INT,
+      defaultValue = "1",
+      tags = { ConfigTag.RECON, ConfigTag.OZONE, ConfigTag.PERFORMANCE },
+      description = "Number of threads used by each task to iterate the " +
+          "OM key table when it is reprocessed, for example after a full " +
+          "snapshot of the OM DB is installed. The key table is split into " +
+          "ranges at the buckets, and at keys sampled inside each bucket, " +
+          "which are processed in parallel."
+  )
+  private int reprocessThreads = 1;
+
+  public int getReprocessThreads() {
+    return reprocessThreads;
+  }
+
+  public void setReprocessThreads(int reprocessThreads) {
+    this.reprocessThreads = reprocessThreads;
+  }
+
 }
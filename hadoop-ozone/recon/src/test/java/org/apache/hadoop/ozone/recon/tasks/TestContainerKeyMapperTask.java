@@ -30,23 +30,29 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
 import org.apache.hadoop.ozone.recon.ReconTestInjector;
 import org.apache.hadoop.ozone.recon.api.types.ContainerKeyPrefix;
+import org.apache.hadoop.ozone.recon.metrics.ReconTaskReprocessMetrics;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ContainerDBServiceProvider;
 import org.apache.hadoop.ozone.recon.spi.impl.OzoneManagerServiceProviderImpl;
 import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -119,7 +125,8 @@ public void testReprocessOMDB() throws Exception{
         Collections.singletonList(omKeyLocationInfoGroup));
 
     ContainerKeyMapperTask containerKeyMapperTask =
-        new ContainerKeyMapperTask(containerDbServiceProvider);
+        new ContainerKeyMapperTask(containerDbServiceProvider,
+            new OzoneConfiguration());
     containerKeyMapperTask.reprocess(reconOMMetadataManager);
 
     keyPrefixesForContainer =
@@ -149,6 +156,131 @@ public void testReprocessOMDB() throws Exception{
     assertEquals(2, containerDbServiceProvider.getCountForContainers());
   }
 
+  @Test
+  public void testParallelReprocessOMDB() throws Exception {
+    Pipeline pipeline = getRandomPipeline();
+    List<String> buckets = Arrays.asList("bucketOne", "bucketTwo",
+        "bucketThree");
+    for (String bucket : buckets) {
+      OmBucketInfo bucketInfo = OmBucketInfo.newBuilder()
+          .setVolumeName("sampleVol")
+          .setBucketName(bucket)
+          .build();
+      reconOMMetadataManager.getBucketTable().put(
+          reconOMMetadataManager.getBucketKey("sampleVol", bucket),
+          bucketInfo);
+
+      // Each bucket has a key in container 1, and one in its own container.
+      for (int i = 0; i < 2; i++) {
+        long containerID = i == 0 ? 1 : buckets.indexOf(bucket) + 2;
+        OmKeyLocationInfoGroup omKeyLocationInfoGroup =
+            new OmKeyLocationInfoGroup(0, Collections.singletonList(
+                getOmKeyLocationInfo(new BlockID(containerID, i),
+                    pipeline)));
+        writeDataToOm(reconOMMetadataManager, "key_" + i, bucket,
+            "sampleVol", Collections.singletonList(omKeyLocationInfoGroup));
+      }
+    }
+
+    OzoneConfiguration conf = new OzoneConfiguration();
+    ReconTaskConfig taskConfig = conf.getObject(ReconTaskConfig.class);
+    taskConfig.setReprocessThreads(2);
+    conf.setFromObject(taskConfig);
+    ContainerKeyMapperTask containerKeyMapperTask =
+        new ContainerKeyMapperTask(containerDbServiceProvider, conf);
+    containerKeyMapperTask.reprocess(reconOMMetadataManager);
+
+    Map<ContainerKeyPrefix, Integer> keyPrefixesForContainer =
+        containerDbServiceProvider.getKeyPrefixesForContainer(1);
+    assertEquals(3, keyPrefixesForContainer.size());
+    for (String bucket : buckets) {
+      String omKey = omMetadataManager.getOzoneKey("sampleVol", bucket,
+          "key_0");
+      assertEquals(1, keyPrefixesForContainer.get(
+          new ContainerKeyPrefix(1, omKey, 0)).intValue());
+    }
+    assertEquals(3, containerDbServiceProvider.getKeyCountForContainer(1L));
+    for (long containerID = 2; containerID <= 4; containerID++) {
+      assertEquals(1,
+          containerDbServiceProvider.getKeyCountForContainer(containerID));
+    }
+    assertEquals(4, containerDbServiceProvider.getCountForContainers());
+
+    ReconTaskReprocessMetrics metrics = (ReconTaskReprocessMetrics)
+        DefaultMetricsSystem.instance().getSource(
+            "ReconTaskReprocessMetrics-"
+                + containerKeyMapperTask.getTaskName());
+    assertEquals(4, metrics.getRangesTotal());
+    assertEquals(4, metrics.getRangesCompleted());
+    assertEquals(6, metrics.getKeysProcessed());
+  }
+
+  @Test
+  public void testParallelReprocessSplitsBucket() throws Exception {
+    Pipeline pipeline = getRandomPipeline();
+    OmBucketInfo bucketInfo = OmBucketInfo.newBuilder()
+        .setVolumeName("sampleVol")
+        .setBucketName("bucketOne")
+        .build();
+    reconOMMetadataManager.getBucketTable().put(
+        reconOMMetadataManager.getBucketKey("sampleVol", "bucketOne"),
+        bucketInfo);
+    // keys of container 1 in both halves of the bucket, the other keys in
+    // a container of their own
+    List<String> keyNames = Arrays.asList("a_0", "a_1", "a_2", "m_0", "m_1");
+    for (int i = 0; i < keyNames.size(); i++) {
+      long containerID = i % 2 == 0 ? 1 : i + 1;
+      OmKeyLocationInfoGroup omKeyLocationInfoGroup =
+          new OmKeyLocationInfoGroup(0, Collections.singletonList(
+              getOmKeyLocationInfo(new BlockID(containerID, i), pipeline)));
+      writeDataToOm(reconOMMetadataManager, keyNames.get(i), "bucketOne",
+          "sampleVol", Collections.singletonList(omKeyLocationInfoGroup));
+    }
+
+    ContainerKeyMapperTask sequentialTask =
+        new ContainerKeyMapperTask(containerDbServiceProvider,
+            new OzoneConfiguration());
+    sequentialTask.reprocess(reconOMMetadataManager);
+    Map<Long, Long> sequentialCounts = getKeyCountsForContainers(5);
+    Map<ContainerKeyPrefix, Integer> sequentialPrefixes =
+        containerDbServiceProvider.getKeyPrefixesForContainer(1);
+    long sequentialContainers =
+        containerDbServiceProvider.getCountForContainers();
+
+    OzoneConfiguration conf = new OzoneConfiguration();
+    ReconTaskConfig taskConfig = conf.getObject(ReconTaskConfig.class);
+    taskConfig.setReprocessThreads(4);
+    conf.setFromObject(taskConfig);
+    ContainerKeyMapperTask parallelTask =
+        new ContainerKeyMapperTask(containerDbServiceProvider, conf);
+    parallelTask.reprocess(reconOMMetadataManager);
+
+    assertEquals(sequentialCounts, getKeyCountsForContainers(5));
+    assertEquals(sequentialPrefixes,
+        containerDbServiceProvider.getKeyPrefixesForContainer(1));
+    assertEquals(3, sequentialPrefixes.size());
+    assertEquals(sequentialContainers,
+        containerDbServiceProvider.getCountForContainers());
+
+    // the keys before the bucket, and the two halves of the bucket
+    ReconTaskReprocessMetrics metrics = (ReconTaskReprocessMetrics)
+        DefaultMetricsSystem.instance().getSource(
+            "ReconTaskReprocessMetrics-" + parallelTask.getTaskName());
+    assertEquals(3, metrics.getRangesTotal());
+    assertEquals(3, metrics.getRangesCompleted());
+    assertEquals(keyNames.size(), metrics.getKeysProcessed());
+  }
+
+  private Map<Long, Long> getKeyCountsForContainers(long maxContainerID)
+      throws IOException {
+    Map<Long, Long> counts = new HashMap<>();
+    for (long containerID = 1; containerID <= maxContainerID; containerID++) {
+      counts.put(containerID,
+          containerDbServiceProvider.getKeyCountForContainer(containerID));
+    }
+    return counts;
+  }
+
   @Test
   public void testProcessOMEvents() throws IOException {
     Map<ContainerKeyPrefix, Integer> keyPrefixesForContainer =
@@ -224,7 +356,8 @@ public void testProcessOMEvents() throws IOException {
         }});
 
     ContainerKeyMapperTask containerKeyMapperTask =
-        new ContainerKeyMapperTask(containerDbServiceProvider);
+        new ContainerKeyMapperTask(containerDbServiceProvider,
+            new OzoneConfiguration());
     containerKeyMapperTask.reprocess(reconOMMetadataManager);
 
     keyPrefixesForContainer = containerDbServiceProvider
@@ -18,19 +18,25 @@
 package org.apache.hadoop.ozone.s3;
 
 import java.io.IOException;
+import java.net.InetAddress;
 
 import org.apache.hadoop.hdds.StringUtils;
 import org.apache.hadoop.hdds.cli.GenericCli;
 import org.apache.hadoop.hdds.cli.HddsVersionProvider;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.tracing.TracingUtil;
+import org.apache.hadoop.ozone.OzoneSecurityUtil;
 import org.apache.hadoop.ozone.util.OzoneVersionInfo;
 
+import org.apache.hadoop.security.SecurityUtil;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
 
+import static org.apache.hadoop.ozone.s3.S3GatewayConfigKeys.OZONE_S3G_KERBEROS_KEYTAB_FILE_KEY;
+import static org.apache.hadoop.ozone.s3.S3GatewayConfigKeys.OZONE_S3G_KERBEROS_PRINCIPAL_KEY;
+
 /**
  * This class is used to start/stop S3 compatible rest server.
  */
@@ -54,6 +60,7 @@ public Void call() throws Exception {
     TracingUtil.initTracing("S3gateway", ozoneConfiguration);
     OzoneConfigurationHolder.setConfiguration(ozoneConfiguration);
     UserGroupInformation.setConfiguration(ozoneConfiguration);
+    loginS3GUser(ozoneConfiguration);
     httpServer = new S3GatewayHttpServer(ozoneConfiguration, "s3gateway");
     start();
     return null;
@@ -69,6 +76,24 @@ public void start() throws IOException {
     httpServer.start();
   }
 
+  /**
+   * Login the S3 gateway user, the shared OzoneClient connects to OM with
+   * this user when security is enabled.
+   */
+  private static void loginS3GUser(OzoneConfiguration conf)
+      throws IOException {
+    if (OzoneSecurityUtil.isSecurityEnabled(conf)) {
+      LOG.info("Ozone security is enabled. Attempting login for S3G user. "
+              + "Principal: {}, keytab: {}",
+          conf.get(OZONE_S3G_KERBEROS_PRINCIPAL_KEY),
+          conf.get(OZONE_S3G_KERBEROS_KEYTAB_FILE_KEY));
+      SecurityUtil.login(conf, OZONE_S3G_KERBEROS_KEYTAB_FILE_KEY,
+          OZONE_S3G_KERBEROS_PRINCIPAL_KEY,
+          InetAddress.getLocalHost().getCanonicalHostName());
+      LOG.info("S3 Gateway login successful.");
+    }
+  }
+
   public void stop() throws Exception {
     LOG.info("Stopping Ozone S3 gateway");
     httpServer.stop();
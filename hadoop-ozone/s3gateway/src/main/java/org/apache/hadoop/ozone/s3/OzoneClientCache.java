@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.s3;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.IOException;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.client.OzoneClient;
+import org.apache.hadoop.ozone.client.OzoneClientFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the OzoneClient shared by all the requests of the S3 gateway.
+ *
+ * The client is created on first use and connects to OM as the S3 gateway
+ * user. The S3 credentials of each request are sent along with the OM
+ * requests, see {@link OzoneClientProducer}.
+ */
+@ApplicationScoped
+public class OzoneClientCache {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OzoneClientCache.class);
+
+  private OzoneClient client;
+
+  @Inject
+  private OzoneConfiguration ozoneConfiguration;
+
+  @Inject
+  private String omServiceID;
+
+  public synchronized OzoneClient getClient() throws IOException {
+    if (client == null) {
+      LOG.info("Creating shared OzoneClient for the S3 gateway.");
+      if (omServiceID == null) {
+        client = OzoneClientFactory.getRpcClient(ozoneConfiguration);
+      } else {
+        // As in HA case, we need to pass om service ID.
+        client = OzoneClientFactory.getRpcClient(omServiceID,
+            ozoneConfiguration);
+      }
+    }
+    return client;
+  }
+
+  @PreDestroy
+  public synchronized void destroy() throws IOException {
+    if (client != null) {
+      client.close();
+      client = null;
+    }
+  }
+}
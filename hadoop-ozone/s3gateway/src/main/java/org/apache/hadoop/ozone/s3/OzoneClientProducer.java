@@ -24,25 +24,19 @@
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.PrivilegedExceptionAction;
 
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
-import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ozone.OzoneSecurityUtil;
 import org.apache.hadoop.ozone.client.OzoneClient;
-import org.apache.hadoop.ozone.client.OzoneClientFactory;
+import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
+import org.apache.hadoop.ozone.om.protocol.S3Auth;
 import org.apache.hadoop.ozone.s3.exception.OS3Exception;
 import org.apache.hadoop.ozone.s3.signature.SignatureInfo;
 import org.apache.hadoop.ozone.s3.signature.SignatureInfo.Version;
 import org.apache.hadoop.ozone.s3.signature.SignatureProcessor;
 import org.apache.hadoop.ozone.s3.signature.StringToSignProducer;
-import org.apache.hadoop.ozone.security.OzoneTokenIdentifier;
-import org.apache.hadoop.security.UserGroupInformation;
-import org.apache.hadoop.security.token.Token;
 
 import com.google.common.annotations.VisibleForTesting;
-import static org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMTokenProto.Type.S3AUTHINFO;
 import static org.apache.hadoop.ozone.s3.exception.S3ErrorTable.INTERNAL_ERROR;
 import static org.apache.hadoop.ozone.s3.exception.S3ErrorTable.MALFORMED_HEADER;
 import org.jetbrains.annotations.NotNull;
@@ -50,7 +44,10 @@
 import org.slf4j.LoggerFactory;
 
 /**
- * This class creates the OzoneClient for the Rest endpoints.
+ * This class provides the OzoneClient for the Rest endpoints.
+ *
+ * All requests share the same client, the S3 credentials of the request are
+ * attached to the OM requests made by the current thread.
  */
 @RequestScoped
 public class OzoneClientProducer {
@@ -67,10 +64,7 @@ public class OzoneClientProducer {
   private OzoneConfiguration ozoneConfiguration;
 
   @Inject
-  private Text omService;
-
-  @Inject
-  private String omServiceID;
+  private OzoneClientCache clientCache;
 
   @Context
   private ContainerRequestContext context;
@@ -83,7 +77,14 @@ public OzoneClient createClient() throws OS3Exception, IOException {
 
   @PreDestroy
   public void destroy() throws IOException {
-    client.close();
+    // The client is shared, only the credentials of this request are
+    // dropped.
+    if (client != null) {
+      ClientProtocol proxy = client.getObjectStore().getClientProxy();
+      if (proxy != null) {
+        proxy.clearThreadLocalS3Auth();
+      }
+    }
   }
 
   private OzoneClient getClient(OzoneConfiguration config)
@@ -101,35 +102,19 @@ private OzoneClient getClient(OzoneConfiguration config)
       String awsAccessId = signatureInfo.getAwsAccessId();
       validateAccessId(awsAccessId);
 
-      UserGroupInformation remoteUser =
-          UserGroupInformation.createRemoteUser(awsAccessId);
       if (OzoneSecurityUtil.isSecurityEnabled(config)) {
         LOG.debug("Creating s3 auth info for client.");
 
         if (signatureInfo.getVersion() == Version.NONE) {
           throw MALFORMED_HEADER;
         }
-
-        OzoneTokenIdentifier identifier = new OzoneTokenIdentifier();
-        identifier.setTokenType(S3AUTHINFO);
-        identifier.setStrToSign(stringToSign);
-        identifier.setSignature(signatureInfo.getSignature());
-        identifier.setAwsAccessId(awsAccessId);
-        identifier.setOwner(new Text(awsAccessId));
-        if (LOG.isTraceEnabled()) {
-          LOG.trace("Adding token for service:{}", omService);
-        }
-        Token<OzoneTokenIdentifier> token = new Token(identifier.getBytes(),
-            identifier.getSignature().getBytes(StandardCharsets.UTF_8),
-            identifier.getKind(),
-            omService);
-        remoteUser.addToken(token);
-
       }
-      ozoneClient =
-          remoteUser.doAs((PrivilegedExceptionAction<OzoneClient>) () -> {
-            return createOzoneClient();
-          });
+      ozoneClient = createOzoneClient();
+      ClientProtocol proxy = ozoneClient.getObjectStore().getClientProxy();
+      if (proxy != null) {
+        proxy.setThreadLocalS3Auth(new S3Auth(stringToSign,
+            signatureInfo.getSignature(), awsAccessId));
+      }
     } catch (OS3Exception ex) {
       if (LOG.isDebugEnabled()) {
         LOG.debug("Error during Client Creation: ", ex);
@@ -149,13 +134,7 @@ private OzoneClient getClient(OzoneConfiguration config)
   @NotNull
   @VisibleForTesting
   OzoneClient createOzoneClient() throws IOException {
-    if (omServiceID == null) {
-      return OzoneClientFactory.getRpcClient(ozoneConfiguration);
-    } else {
-      // As in HA case, we need to pass om service ID.
-      return OzoneClientFactory.getRpcClient(omServiceID,
-          ozoneConfiguration);
-    }
+    return clientCache.getClient();
   }
 
   // ONLY validate aws access id when needed.
@@ -170,6 +149,16 @@ public void setOzoneConfiguration(OzoneConfiguration config) {
     this.ozoneConfiguration = config;
   }
 
+  @VisibleForTesting
+  void setClientCache(OzoneClientCache cache) {
+    this.clientCache = cache;
+  }
+
+  @VisibleForTesting
+  void setContext(ContainerRequestContext requestContext) {
+    this.context = requestContext;
+  }
+
   @VisibleForTesting
   public void setSignatureParser(SignatureProcessor awsSignatureProcessor) {
     this.signatureProcessor = awsSignatureProcessor;
@@ -53,6 +53,11 @@ public final class S3GatewayConfigKeys {
   public static final String OZONE_S3G_WEB_AUTHENTICATION_KERBEROS_PRINCIPAL =
       OZONE_S3G_HTTP_AUTH_CONFIG_PREFIX + "kerberos.principal";
 
+  public static final String OZONE_S3G_KERBEROS_KEYTAB_FILE_KEY =
+      "ozone.s3g.kerberos.keytab.file";
+  public static final String OZONE_S3G_KERBEROS_PRINCIPAL_KEY =
+      "ozone.s3g.kerberos.principal";
+
   public static final String OZONE_S3G_CLIENT_BUFFER_SIZE_KEY =
       "ozone.s3g.client.buffer.size";
   public static final String OZONE_S3G_CLIENT_BUFFER_SIZE_DEFAULT =
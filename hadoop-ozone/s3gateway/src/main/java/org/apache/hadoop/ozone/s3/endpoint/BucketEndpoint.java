@@ -117,7 +117,12 @@ public Response list(
       startAfter = marker;
     }
     try {
-      if (startAfter != null && continueToken != null) {
+      if (StringUtils.isNotEmpty(delimiter)) {
+        // Keys below a common prefix are grouped by OM, so only one entry is
+        // listed for each common prefix.
+        ozoneKeyIterator = bucket.listKeys(prefix, continueToken != null ?
+            decodedToken.getLastKey() : startAfter, delimiter);
+      } else if (startAfter != null && continueToken != null) {
         // If continuation token and start after both are provided, then we
         // ignore start After
         ozoneKeyIterator = bucket.listKeys(prefix, decodedToken.getLastKey());
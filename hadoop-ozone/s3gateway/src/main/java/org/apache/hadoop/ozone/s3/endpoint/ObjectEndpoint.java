@@ -578,62 +578,75 @@ private Response createMultipartKey(String bucket, String key, long length,
         body = new SignedChunksInputStream(body);
       }
 
-      try {
-        ozoneOutputStream = ozoneBucket.createMultipartKey(
-            key, length, partNumber, uploadID);
-        copyHeader = headers.getHeaderString(COPY_SOURCE_HEADER);
-        if (copyHeader != null) {
-          Pair<String, String> result = parseSourceHeader(copyHeader);
-
-          String sourceBucket = result.getLeft();
-          String sourceKey = result.getRight();
-
-          Long sourceKeyModificationTime = getBucket(sourceBucket).
-              getKey(sourceKey).getModificationTime().toEpochMilli();
-          String copySourceIfModifiedSince =
-              headers.getHeaderString(COPY_SOURCE_IF_MODIFIED_SINCE);
-          String copySourceIfUnmodifiedSince =
-              headers.getHeaderString(COPY_SOURCE_IF_UNMODIFIED_SINCE);
-          if (!checkCopySourceModificationTime(sourceKeyModificationTime,
-              copySourceIfModifiedSince, copySourceIfUnmodifiedSince)) {
-            throw S3ErrorTable.newError(PRECOND_FAILED,
-                sourceBucket + "/" + sourceKey);
-          }
+      copyHeader = headers.getHeaderString(COPY_SOURCE_HEADER);
+      String range = headers.getHeaderString(COPY_SOURCE_HEADER_RANGE);
+      String sourceBucket = null;
+      String sourceKey = null;
+      if (copyHeader != null) {
+        Pair<String, String> result = parseSourceHeader(copyHeader);
+
+        sourceBucket = result.getLeft();
+        sourceKey = result.getRight();
+
+        Long sourceKeyModificationTime = getBucket(sourceBucket).
+            getKey(sourceKey).getModificationTime().toEpochMilli();
+        String copySourceIfModifiedSince =
+            headers.getHeaderString(COPY_SOURCE_IF_MODIFIED_SINCE);
+        String copySourceIfUnmodifiedSince =
+            headers.getHeaderString(COPY_SOURCE_IF_UNMODIFIED_SINCE);
+        if (!checkCopySourceModificationTime(sourceKeyModificationTime,
+            copySourceIfModifiedSince, copySourceIfUnmodifiedSince)) {
+          throw S3ErrorTable.newError(PRECOND_FAILED,
+              sourceBucket + "/" + sourceKey);
+        }
+      }
 
-          try (OzoneInputStream sourceObject =
-                   getBucket(sourceBucket).readKey(sourceKey)) {
-
-            String range =
-                headers.getHeaderString(COPY_SOURCE_HEADER_RANGE);
-            if (range != null) {
-              RangeHeader rangeHeader =
-                  RangeHeaderParserUtil.parseRangeHeader(range, 0);
-              final long skipped =
-                  sourceObject.skip(rangeHeader.getStartOffset());
-              if (skipped != rangeHeader.getStartOffset()) {
-                throw new EOFException(
-                    "Bytes to skip: "
-                        + rangeHeader.getStartOffset() + " actual: " + skipped);
+      OmMultipartCommitUploadPartInfo omMultipartCommitUploadPartInfo = null;
+      if (copyHeader != null && range == null) {
+        // Whole source key is copied, the part can share its blocks.
+        omMultipartCommitUploadPartInfo = copyPartWithoutData(ozoneBucket,
+            sourceBucket, sourceKey, key, partNumber, uploadID);
+      }
+
+      if (omMultipartCommitUploadPartInfo == null) {
+        try {
+          ozoneOutputStream = ozoneBucket.createMultipartKey(
+              key, length, partNumber, uploadID);
+          if (copyHeader != null) {
+            try (OzoneInputStream sourceObject =
+                     getBucket(sourceBucket).readKey(sourceKey)) {
+
+              if (range != null) {
+                RangeHeader rangeHeader =
+                    RangeHeaderParserUtil.parseRangeHeader(range, 0);
+                final long skipped =
+                    sourceObject.skip(rangeHeader.getStartOffset());
+                if (skipped != rangeHeader.getStartOffset()) {
+                  throw new EOFException(
+                      "Bytes to skip: "
+                          + rangeHeader.getStartOffset() + " actual: "
+                          + skipped);
+                }
+                IOUtils.copyLarge(sourceObject, ozoneOutputStream, 0,
+                    rangeHeader.getEndOffset() - rangeHeader.getStartOffset()
+                        + 1);
+              } else {
+                IOUtils.copy(sourceObject, ozoneOutputStream);
               }
-              IOUtils.copyLarge(sourceObject, ozoneOutputStream, 0,
-                  rangeHeader.getEndOffset() - rangeHeader.getStartOffset()
-                      + 1);
-            } else {
-              IOUtils.copy(sourceObject, ozoneOutputStream);
             }
+          } else {
+            IOUtils.copy(body, ozoneOutputStream);
+          }
+        } finally {
+          if (ozoneOutputStream != null) {
+            ozoneOutputStream.close();
           }
-        } else {
-          IOUtils.copy(body, ozoneOutputStream);
-        }
-      } finally {
-        if (ozoneOutputStream != null) {
-          ozoneOutputStream.close();
         }
-      }
 
-      assert ozoneOutputStream != null;
-      OmMultipartCommitUploadPartInfo omMultipartCommitUploadPartInfo =
-          ozoneOutputStream.getCommitUploadPartInfo();
+        assert ozoneOutputStream != null;
+        omMultipartCommitUploadPartInfo =
+            ozoneOutputStream.getCommitUploadPartInfo();
+      }
       String eTag = omMultipartCommitUploadPartInfo.getPartName();
 
       if (copyHeader != null) {
@@ -655,6 +668,27 @@ private Response createMultipartKey(String bucket, String key, long length,
     }
   }
 
+  /**
+   * Copy the source key as the part in OM, sharing the blocks of the source
+   * key.
+   * @return null if the part can not be copied without copying the data.
+   */
+  private OmMultipartCommitUploadPartInfo copyPartWithoutData(
+      OzoneBucket ozoneBucket, String sourceBucket, String sourceKey,
+      String key, int partNumber, String uploadID) throws IOException {
+    try {
+      return ozoneBucket.copyMultipartUploadPart(sourceBucket, sourceKey,
+          key, partNumber, uploadID);
+    } catch (OMException ex) {
+      if (ex.getResult() == ResultCodes.NOT_SUPPORTED_OPERATION) {
+        LOG.debug("Copying data of {}/{}: {}", sourceBucket, sourceKey,
+            ex.getMessage());
+        return null;
+      }
+      throw ex;
+    }
+  }
+
   /**
    * Returns response for the listParts request.
    * See: https://docs.aws.amazon.com/AmazonS3/latest/API/mpUploadListParts.html
@@ -770,17 +804,30 @@ private CopyObjectResponse copyObject(String copyHeader,
       OzoneKeyDetails sourceKeyDetails = sourceOzoneBucket.getKey(sourceKey);
       long sourceKeyLen = sourceKeyDetails.getDataSize();
 
-      sourceInputStream = sourceOzoneBucket.readKey(sourceKey);
+      // The blocks of the source key are shared by the new key if the
+      // replication is not changed, the data is copied otherwise.
+      boolean copied = false;
+      if (storageTypeDefault || (
+          sourceKeyDetails.getReplicationType() == replicationType &&
+          sourceKeyDetails.getReplicationFactor() ==
+              replicationFactor.getValue())) {
+        copied = copyKeyWithoutData(destOzoneBucket, sourceBucket, sourceKey,
+            destkey);
+      }
+
+      if (!copied) {
+        sourceInputStream = sourceOzoneBucket.readKey(sourceKey);
 
-      destOutputStream = destOzoneBucket.createKey(destkey, sourceKeyLen,
-          replicationType, replicationFactor, new HashMap<>());
+        destOutputStream = destOzoneBucket.createKey(destkey, sourceKeyLen,
+            replicationType, replicationFactor, new HashMap<>());
 
-      IOUtils.copy(sourceInputStream, destOutputStream);
+        IOUtils.copy(sourceInputStream, destOutputStream);
 
-      // Closing here, as if we don't call close this key will not commit in
-      // OM, and getKey fails.
-      sourceInputStream.close();
-      destOutputStream.close();
+        // Closing here, as if we don't call close this key will not commit
+        // in OM, and getKey fails.
+        sourceInputStream.close();
+        destOutputStream.close();
+      }
       closed = true;
 
       OzoneKeyDetails destKeyDetails = destOzoneBucket.getKey(destkey);
@@ -811,6 +858,27 @@ private CopyObjectResponse copyObject(String copyHeader,
     }
   }
 
+  /**
+   * Copy the key in OM, sharing the blocks of the source key.
+   * @return false if the key can not be copied without copying the data.
+   */
+  private boolean copyKeyWithoutData(OzoneBucket destOzoneBucket,
+      String sourceBucket, String sourceKey, String destKey)
+      throws IOException {
+    try {
+      destOzoneBucket.copyKey(sourceBucket, sourceKey, destKey,
+          new HashMap<>());
+      return true;
+    } catch (OMException ex) {
+      if (ex.getResult() == ResultCodes.NOT_SUPPORTED_OPERATION) {
+        LOG.debug("Copying data of {}/{}: {}", sourceBucket, sourceKey,
+            ex.getMessage());
+        return false;
+      }
+      throw ex;
+    }
+  }
+
   /**
    * Parse the key and bucket name from copy header.
    */
@@ -40,6 +40,7 @@
 import org.apache.hadoop.ozone.client.OzoneMultipartUploadPartListParts.PartInfo;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.util.Time;
@@ -57,6 +58,8 @@ public class OzoneBucketStub extends OzoneBucket {
 
   private Map<String, Map<Integer, Part>> partList = new HashMap<>();
 
+  private OzoneVolumeStub volume;
+
   /**
    * Constructs OzoneBucket instance.
    *
@@ -80,6 +83,10 @@ public OzoneBucketStub(
         creationTime);
   }
 
+  void setVolume(OzoneVolumeStub volumeStub) {
+    this.volume = volumeStub;
+  }
+
   @Override
   public OzoneOutputStream createKey(String key, long size) throws IOException {
     return createKey(key, size, ReplicationType.STAND_ALONE,
@@ -149,6 +156,32 @@ public Iterator<? extends OzoneKey> listKeys(String keyPrefix,
         .iterator();
   }
 
+  @Override
+  public Iterator<? extends OzoneKey> listKeys(String keyPrefix,
+      String prevKey, String delimiter) {
+    TreeMap<String, OzoneKey> result = new TreeMap<>();
+    for (OzoneKey key : new TreeMap<>(keyDetails).values()) {
+      String name = key.getName();
+      if (!name.startsWith(keyPrefix)
+          || (prevKey != null && name.compareTo(prevKey) <= 0)) {
+        continue;
+      }
+      int index = name.indexOf(delimiter, keyPrefix.length());
+      if (index >= 0) {
+        String commonPrefix = name.substring(0, index + delimiter.length());
+        if (commonPrefix.equals(prevKey)) {
+          continue;
+        }
+        key = new OzoneKey(getVolumeName(), getName(), commonPrefix, 0,
+            key.getCreationTime().toEpochMilli(),
+            key.getModificationTime().toEpochMilli(),
+            key.getReplicationType(), key.getReplicationFactor());
+      }
+      result.putIfAbsent(key.getName(), key);
+    }
+    return result.values().iterator();
+  }
+
   @Override
   public void deleteKey(String key) throws IOException {
     keyDetails.remove(key);
@@ -160,6 +193,43 @@ public void renameKey(String fromKeyName, String toKeyName)
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void copyKey(String fromBucketName, String fromKeyName,
+      String toKeyName, Map<String, String> keyMetadata) throws IOException {
+    OzoneBucketStub fromBucket =
+        (OzoneBucketStub) volume.getBucket(fromBucketName);
+    OzoneKeyDetails fromKey = fromBucket.getKey(fromKeyName);
+    keyContents.put(toKeyName, fromBucket.keyContents.get(fromKeyName));
+    keyDetails.put(toKeyName, new OzoneKeyDetails(
+        getVolumeName(),
+        getName(),
+        toKeyName,
+        fromKey.getDataSize(),
+        System.currentTimeMillis(),
+        System.currentTimeMillis(),
+        new ArrayList<>(), fromKey.getReplicationType(),
+        keyMetadata.isEmpty() ? fromKey.getMetadata() : keyMetadata, null,
+        fromKey.getReplicationFactor()
+    ));
+  }
+
+  @Override
+  public OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      String fromBucketName, String fromKeyName, String key, int partNumber,
+      String uploadID) throws IOException {
+    String multipartUploadID = multipartUploadIdMap.get(key);
+    if (multipartUploadID == null || !multipartUploadID.equals(uploadID)) {
+      throw new OMException(ResultCodes.NO_SUCH_MULTIPART_UPLOAD_ERROR);
+    }
+    OzoneBucketStub fromBucket =
+        (OzoneBucketStub) volume.getBucket(fromBucketName);
+    fromBucket.getKey(fromKeyName);
+    byte[] content = fromBucket.keyContents.get(fromKeyName);
+    Part part = new Part(key + content.length, content);
+    partList.computeIfAbsent(key, k -> new TreeMap<>()).put(partNumber, part);
+    return new OmMultipartCommitUploadPartInfo(part.getPartName());
+  }
+
   @Override
   public OmMultipartInfo initiateMultipartUpload(String keyName,
                                                  ReplicationType type,
@@ -55,12 +55,14 @@ public void createBucket(String bucketName) {
 
   @Override
   public void createBucket(String bucketName, BucketArgs bucketArgs) {
-    buckets.put(bucketName, new OzoneBucketStub(
+    OzoneBucketStub bucket = new OzoneBucketStub(
         getName(),
         bucketName,
         bucketArgs.getStorageType(),
         bucketArgs.getVersioning(),
-        Time.now()));
+        Time.now());
+    bucket.setVolume(this);
+    buckets.put(bucketName, bucket);
   }
 
   @Override
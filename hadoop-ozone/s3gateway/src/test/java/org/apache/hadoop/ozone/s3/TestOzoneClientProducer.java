@@ -21,20 +21,28 @@
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
 import java.net.URI;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
 
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.client.OzoneClient;
+import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.protocol.S3Auth;
 import org.apache.hadoop.ozone.s3.exception.OS3Exception;
 import org.apache.hadoop.ozone.s3.signature.AWSSignatureProcessor;
 
+import static org.apache.hadoop.ozone.s3.exception.S3ErrorTable.INTERNAL_ERROR;
+import static org.apache.hadoop.ozone.s3.exception.S3ErrorTable.MALFORMED_HEADER;
 import static org.apache.hadoop.ozone.s3.signature.SignatureParser.AUTHORIZATION_HEADER;
 import static org.apache.hadoop.ozone.s3.signature.SignatureProcessor.CONTENT_MD5;
 import static org.apache.hadoop.ozone.s3.signature.SignatureProcessor.CONTENT_TYPE;
 import static org.apache.hadoop.ozone.s3.signature.SignatureProcessor.HOST_HEADER;
+import static org.apache.hadoop.ozone.s3.signature.StringToSignProducer.TIME_FORMATTER;
 import static org.apache.hadoop.ozone.s3.signature.StringToSignProducer.X_AMAZ_DATE;
 import static org.apache.hadoop.ozone.s3.signature.StringToSignProducer.X_AMZ_CONTENT_SHA256;
 import static org.junit.Assert.fail;
@@ -43,6 +51,7 @@
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 /**
@@ -60,12 +69,16 @@ public class TestOzoneClientProducer {
   private String amzContentSha256;
   private String date;
   private String contentType;
+  private boolean validHeader;
   private ContainerRequestContext context;
   private UriInfo uriInfo;
+  private OzoneConfiguration config;
+  private OzoneClientCache clientCache;
 
   public TestOzoneClientProducer(
       String authHeader, String contentMd5,
-      String host, String amzContentSha256, String date, String contentType
+      String host, String amzContentSha256, String date, String contentType,
+      boolean validHeader
   )
       throws Exception {
     this.authHeader = authHeader;
@@ -74,20 +87,25 @@ public TestOzoneClientProducer(
     this.amzContentSha256 = amzContentSha256;
     this.date = date;
     this.contentType = contentType;
+    this.validHeader = validHeader;
     producer = new OzoneClientProducer();
     headerMap = new MultivaluedHashMap<>();
     queryMap = new MultivaluedHashMap<>();
     uriInfo = Mockito.mock(UriInfo.class);
     context = Mockito.mock(ContainerRequestContext.class);
-    OzoneConfiguration config = new OzoneConfiguration();
+    clientCache = Mockito.mock(OzoneClientCache.class);
+    config = new OzoneConfiguration();
     config.setBoolean(OzoneConfigKeys.OZONE_SECURITY_ENABLED_KEY, true);
     config.set(OMConfigKeys.OZONE_OM_ADDRESS_KEY, "");
     setupContext();
     producer.setOzoneConfiguration(config);
+    producer.setClientCache(clientCache);
   }
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
+    String now = TIME_FORMATTER.format(Instant.now());
+    String today = now.substring(0, now.indexOf('T'));
     return Arrays.asList(new Object[][] {
         {
             "AWS4-HMAC-SHA256 Credential=testuser1/20190221/us-west-1/s3" +
@@ -101,7 +119,8 @@ public static Collection<Object[]> data() {
             "e2bd43f11c97cde3465e0e8d1aad77af7ec7aa2ed8e213cd0e24" +
                 "1e28375860c6",
             "20190221T002037Z",
-            ""
+            "",
+            false
         },
         {
             "AWS4-HMAC-SHA256 " +
@@ -114,22 +133,73 @@ public static Collection<Object[]> data() {
             "iam.amazonaws.com",
             "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
             "20150830T123600Z",
-            "application/x-www-form-urlencoded; charset=utf-8"
+            "application/x-www-form-urlencoded; charset=utf-8",
+            false
+        },
+        {
+            null, null, null, null, null, null, false
         },
         {
-            null, null, null, null, null, null
+            "AWS4-HMAC-SHA256 Credential=testuser1/" + today +
+                "/us-east-1/s3/aws4_request, SignedHeaders=host;" +
+                "x-amz-content-sha256;x-amz-date, " +
+                "Signature" +
+                "=56ec73ba1974f8feda8365c3caef89c5d4a688d5f9baccf47" +
+                "65f46a14cd745ad",
+            "",
+            "localhost",
+            "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+            now,
+            "",
+            true
         }
     });
   }
 
   @Test
-  public void testGetClientFailure() {
+  public void testGetClientFailure() throws Exception {
+    Mockito.when(clientCache.getClient())
+        .thenThrow(new IOException("Failed to create client"));
     try {
       producer.createClient();
       fail("testGetClientFailure");
-    } catch (Exception ex) {
-      Assert.assertTrue(ex instanceof OS3Exception);
+    } catch (OS3Exception ex) {
+      if (validHeader) {
+        Assert.assertEquals(INTERNAL_ERROR.getCode(), ex.getCode());
+        Mockito.verify(clientCache).getClient();
+      } else {
+        Assert.assertEquals(MALFORMED_HEADER.getCode(), ex.getCode());
+        Mockito.verify(clientCache, Mockito.never()).getClient();
+      }
+    }
+  }
+
+  @Test
+  public void testGetClient() throws Exception {
+    ClientProtocol proxy = Mockito.mock(ClientProtocol.class);
+    OzoneClient sharedClient = new OzoneClient(config, proxy);
+    Mockito.when(clientCache.getClient()).thenReturn(sharedClient);
+    try {
+      Assert.assertSame(sharedClient, producer.createClient());
+      Assert.assertTrue("Request should be rejected", validHeader);
+    } catch (OS3Exception ex) {
+      Assert.assertFalse(validHeader);
+      Assert.assertEquals(MALFORMED_HEADER.getCode(), ex.getCode());
+      Mockito.verify(proxy, Mockito.never()).setThreadLocalS3Auth(
+          Mockito.any());
+      return;
     }
+
+    ArgumentCaptor<S3Auth> s3Auth = ArgumentCaptor.forClass(S3Auth.class);
+    Mockito.verify(proxy).setThreadLocalS3Auth(s3Auth.capture());
+    Assert.assertTrue(authHeader.contains(
+        "Credential=" + s3Auth.getValue().getAccessId() + "/"));
+    Assert.assertTrue(authHeader.endsWith(s3Auth.getValue().getSignature()));
+
+    // the shared client is kept, only the credentials are cleared
+    producer.destroy();
+    Mockito.verify(proxy).clearThreadLocalS3Auth();
+    Mockito.verify(proxy, Mockito.never()).close();
   }
 
   private void setupContext() throws Exception {
@@ -154,6 +224,7 @@ private void setupContext() throws Exception {
     awsSignatureProcessor.setContext(context);
 
     producer.setSignatureParser(awsSignatureProcessor);
+    producer.setContext(context);
   }
 
 }
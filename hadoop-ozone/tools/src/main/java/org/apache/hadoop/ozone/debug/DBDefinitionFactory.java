@@ -24,6 +24,8 @@
 
 import org.apache.hadoop.hdds.scm.metadata.SCMDBDefinition;
 import org.apache.hadoop.hdds.utils.db.DBDefinition;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.container.metadata.DatanodeSchemaThreeDBDefinition;
 import org.apache.hadoop.ozone.container.metadata.DatanodeSchemaTwoDBDefinition;
 import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
 import org.apache.hadoop.ozone.recon.scm.ReconSCMDBDefinition;
@@ -69,6 +71,10 @@ public static DBDefinition getDefinition(Path dbPath) {
           "Path is required to identify the used db scheme");
     }
     String dbName = fileName.toString();
+    if (dbName.equals(OzoneConsts.DN_VOLUME_CONTAINER_DB)) {
+      return new DatanodeSchemaThreeDBDefinition(
+          dbPath.toAbsolutePath().toString());
+    }
     if (dbName.endsWith("-container.db")) {
       return new DatanodeSchemaTwoDBDefinition(
           dbPath.toAbsolutePath().toString());